@@ -0,0 +1,162 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+Tests of DLKerasTrainingCallbacks.DLKerasPeriodicValidation. Run by DLKerasPeriodicValidationTest.java.
+
+@author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+'''
+
+from DLKerasTrainingCallbacks import DLKerasPeriodicValidation
+
+
+class _Model(object):
+    metrics_names = ['loss', 'acc']
+
+    def __init__(self):
+        self.stop_training = False
+
+    def test_on_batch(self, x, y):
+        return [x, y]
+
+
+class _ValidationDataSupplier(object):
+    """
+    Serves the sample batches followed by the batches of the complete validation data. Batch i yields loss i and
+    accuracy 0 if it belongs to the sample, accuracy 1 if it belongs to the complete data.
+    """
+
+    def __init__(self, num_sample_batches, num_complete_batches):
+        self.num_sample_batches = num_sample_batches
+        self.steps = num_sample_batches + num_complete_batches
+
+    def get_generator(self, start, count):
+        def generator():
+            while True:
+                for i in range(start, start + count):
+                    yield float(i), 0.0 if i < self.num_sample_batches else 1.0
+
+        return generator()
+
+
+def _fit(validation, epochs, steps, num_sample_batches, num_complete_batches, stop_after=None):
+    """
+    Mimics the callback protocol of Keras' fit_generator. Returns the reported validations as tuples of (kind, number of
+    training batches seen, loss) and the logs of each epoch.
+    """
+    model = _Model()
+    validations = []
+    epoch_logs = []
+    batches_seen = [0]
+
+    def send_to_java(message_type, payload):
+        assert message_type == 'validation_end'
+        acc, loss = (float(v) for v in payload.split(';'))
+        validations.append(('complete' if acc == 1.0 else 'sample', batches_seen[0], loss))
+
+    validation.send_to_java = send_to_java
+    validation.set_params({'epochs': epochs, 'steps': steps})
+    validation.set_model(model)
+    validation.set_validation_data(_ValidationDataSupplier(num_sample_batches, num_complete_batches))
+    validation.on_train_begin({})
+    for epoch in range(epochs):
+        validation.on_epoch_begin(epoch, {})
+        for batch in range(steps):
+            validation.on_batch_begin(batch, {})
+            batches_seen[0] += 1
+            if stop_after is not None and batches_seen[0] == stop_after:
+                model.stop_training = True
+            validation.on_batch_end(batch, {'loss': 0.0, 'acc': 0.0})
+            if model.stop_training:
+                break
+        logs = {}
+        validation.on_epoch_end(epoch, logs)
+        epoch_logs.append(logs)
+        if model.stop_training:
+            break
+    validation.on_train_end({})
+    return validations, epoch_logs
+
+
+def _kinds_and_positions(validations):
+    return [(kind, position) for kind, position, _ in validations]
+
+
+def test_batch_interval_validation_due_at_epoch_end():
+    # Validations that are due after the last batch of an epoch take place once, at the end of the epoch.
+    validations, epoch_logs = _fit(DLKerasPeriodicValidation(batch_interval=2, num_sample_batches=1), epochs=2,
+                                   steps=4, num_sample_batches=1, num_complete_batches=3)
+    assert _kinds_and_positions(validations) == [('sample', 2), ('sample', 4), ('sample', 6), ('complete', 8)], \
+        validations
+    assert all('val_loss' in logs for logs in epoch_logs), epoch_logs
+
+
+def test_batch_interval_not_aligned_with_epochs():
+    # Epochs without a validation at their end report the last validation within the epoch.
+    validations, epoch_logs = _fit(DLKerasPeriodicValidation(batch_interval=3, num_sample_batches=1), epochs=2,
+                                   steps=4, num_sample_batches=1, num_complete_batches=3)
+    assert _kinds_and_positions(validations) == [('sample', 3), ('sample', 6), ('complete', 8)], validations
+    assert epoch_logs[0]['val_loss'] == validations[0][2], epoch_logs
+
+
+def test_complete_validation_in_last_epoch():
+    validations, epoch_logs = _fit(DLKerasPeriodicValidation(epoch_interval=2, num_sample_batches=2), epochs=5,
+                                   steps=3, num_sample_batches=2, num_complete_batches=3)
+    assert _kinds_and_positions(validations) == [('sample', 6), ('sample', 12), ('complete', 15)], validations
+    # mean of the losses of the sample batches (0, 1) and of the complete batches (2, 3, 4)
+    assert [loss for _, _, loss in validations] == [0.5, 0.5, 3.0], validations
+    assert ['val_loss' in logs for logs in epoch_logs] == [False, True, False, True, True], epoch_logs
+
+
+def test_complete_validation_at_end_of_stopped_training():
+    validations, _ = _fit(DLKerasPeriodicValidation(num_sample_batches=1), epochs=5, steps=3, num_sample_batches=1,
+                          num_complete_batches=2, stop_after=5)
+    assert _kinds_and_positions(validations) == [('sample', 3), ('sample', 5), ('complete', 5)], validations
+
+
+def test_no_additional_validation_at_end_of_training_without_sample():
+    validations, _ = _fit(DLKerasPeriodicValidation(), epochs=5, steps=3, num_sample_batches=0, num_complete_batches=2,
+                          stop_after=5)
+    assert _kinds_and_positions(validations) == [('complete', 3), ('complete', 5)], validations
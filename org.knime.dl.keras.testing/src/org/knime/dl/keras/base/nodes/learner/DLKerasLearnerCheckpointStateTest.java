@@ -0,0 +1,213 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.NodeSettings;
+import org.knime.dl.core.DLRowIterator;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewDataCollection;
+import org.knime.dl.keras.base.nodes.learner.view.jfreechart.DLJFreeChartLinePlotViewSpec;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.testing.DLKerasTestUtil;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLKerasLearnerCheckpointStateTest {
+
+    @Rule
+    public TemporaryFolder m_folder = new TemporaryFolder();
+
+    @Test
+    public void testReadReturnsNullIfThereIsNoState() throws IOException {
+        assertNull(DLKerasLearnerCheckpointState.read(m_folder.getRoot()));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final DLKerasNetworkSpec networkSpec = DLKerasTestUtil.randomNetworkSpec(new Random(42));
+        final File networkFile = m_folder.newFile("checkpoint_3.h5");
+        createState(networkSpec, createTrainingSettings("adam"), networkFile).write(m_folder.getRoot());
+
+        final DLKerasLearnerCheckpointState read = DLKerasLearnerCheckpointState.read(m_folder.getRoot());
+        assertEquals(1234L, read.getShuffleSeed());
+        assertEquals(3, read.getNumCompletedEpochs());
+        assertEquals(networkFile, read.getNetworkFile());
+        assertEquals(3 * 3 * 4, read.getNumConsumedRows());
+        assertArrayEquals(new DLJFreeChartLinePlotViewSpec[0], read.getViewSpecs());
+        assertArrayEquals(new DLLinePlotViewDataCollection[0], read.getViewData());
+        assertTrue(read.isCompatible(networkSpec, createTrainingSettings("adam"), 10, 4, true, false, 5));
+    }
+
+    @Test
+    public void testIsIncompatibleIfTrainingChanged() throws IOException {
+        final DLKerasNetworkSpec networkSpec = DLKerasTestUtil.randomNetworkSpec(new Random(42));
+        final DLKerasLearnerCheckpointState state = createState(networkSpec, createTrainingSettings("adam"),
+            m_folder.newFile("checkpoint_3.h5"));
+        final NodeSettings trainingSettings = createTrainingSettings("adam");
+        assertTrue(state.isCompatible(networkSpec, trainingSettings, 10, 4, true, false, 5));
+        assertFalse(state.isCompatible(networkSpec, createTrainingSettings("sgd"), 10, 4, true, false, 5));
+        assertFalse(state.isCompatible(DLKerasTestUtil.randomNetworkSpec(new Random(43)), trainingSettings, 10, 4,
+            true, false, 5));
+        assertFalse(state.isCompatible(networkSpec, trainingSettings, 11, 4, true, false, 5));
+        assertFalse(state.isCompatible(networkSpec, trainingSettings, 10, 5, true, false, 5));
+        assertFalse(state.isCompatible(networkSpec, trainingSettings, 10, 4, false, false, 5));
+        assertFalse(state.isCompatible(networkSpec, trainingSettings, 10, 4, true, true, 5));
+        // all epochs were already completed
+        assertFalse(state.isCompatible(networkSpec, trainingSettings, 10, 4, true, false, 3));
+    }
+
+    @Test
+    public void testIsIncompatibleIfNetworkFileIsMissing() throws IOException {
+        final DLKerasNetworkSpec networkSpec = DLKerasTestUtil.randomNetworkSpec(new Random(42));
+        final DLKerasLearnerCheckpointState state = createState(networkSpec, createTrainingSettings("adam"),
+            new File(m_folder.getRoot(), "checkpoint_3.h5"));
+        assertFalse(state.isCompatible(networkSpec, createTrainingSettings("adam"), 10, 4, true, false, 5));
+    }
+
+    @Test
+    public void testSkipRowsResumesAfterLastCompletedEpoch() throws CanceledExecutionException {
+        // 10 rows, batch size 4: each epoch consumes 12 rows as the last batch is filled up from the beginning
+        final DLKerasLearnerCheckpointState state =
+            new DLKerasLearnerCheckpointState(DLKerasTestUtil.randomNetworkSpec(new Random(42)),
+                createTrainingSettings("adam"), 10, 4, false, 0, false, 2, null, null, null);
+        assertEquals(24, state.getNumConsumedRows());
+
+        final RangeRowIterator rowIterator = new RangeRowIterator(10);
+        DLKerasLearnerNodeModel.skipRows(rowIterator, state.getNumConsumedRows(), new ExecutionMonitor());
+        assertEquals(2, rowIterator.m_numResets);
+        assertEquals("Row4", rowIterator.next().getKey().getString());
+    }
+
+    private static DLKerasLearnerCheckpointState createState(final DLKerasNetworkSpec networkSpec,
+        final NodeSettings trainingSettings, final File networkFile) {
+        return new DLKerasLearnerCheckpointState(networkSpec, trainingSettings, 10, 4, true, 1234L, false, 3,
+            networkFile, null, null);
+    }
+
+    private static NodeSettings createTrainingSettings(final String optimizer) {
+        final NodeSettings settings = new NodeSettings("training_settings");
+        settings.addNodeSettings(DLKerasLearnerGeneralConfig.CFG_KEY_ROOT)
+            .addString(DLKerasLearnerGeneralConfig.CFG_KEY_OPTIMIZER, optimizer);
+        return settings;
+    }
+
+    private static final class RangeRowIterator implements DLRowIterator {
+
+        private final long m_size;
+
+        private long m_next;
+
+        private int m_numResets;
+
+        private RangeRowIterator(final long size) {
+            m_size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return m_next < m_size;
+        }
+
+        @Override
+        public long size() {
+            return m_size;
+        }
+
+        @Override
+        public DataRow peek() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return new DefaultRow("Row" + m_next);
+        }
+
+        @Override
+        public DataRow next() {
+            final DataRow row = peek();
+            m_next++;
+            return row;
+        }
+
+        @Override
+        public Map<DLTensorId, List<DataValue>> groupByTensor(final DataRow row) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void reset() {
+            m_next = 0;
+            m_numResets++;
+        }
+
+        @Override
+        public void close() {
+            // no op
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.dl.keras.core.training.DLKerasOptimizer;
+import org.knime.dl.keras.core.training.DLKerasOptimizer.DLKerasAdam;
+import org.knime.dl.keras.core.training.DLKerasOptimizer.DLKerasStochasticGradientDescent;
+import org.knime.dl.keras.core.training.DLKerasTrainingVariant;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLKerasLearnerConfigurationReaderTest {
+
+    private static final DLKerasOptimizer DEFAULT_OPTIMIZER = new DLKerasStochasticGradientDescent();
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final DLKerasOptimizer ADAM = new DLKerasAdam();
+
+    private static final DataTableSpec ALL_COLUMNS_SPEC = new DataTableSpec( //
+        new DataColumnSpecCreator(DLKerasLearnerNodeModel.CONFIGURATION_COLUMN_OPTIMIZER, StringCell.TYPE)
+            .createSpec(),
+        new DataColumnSpecCreator(DLKerasLearnerNodeModel.CONFIGURATION_COLUMN_LEARNING_RATE, DoubleCell.TYPE)
+            .createSpec(),
+        new DataColumnSpecCreator(DLKerasLearnerNodeModel.CONFIGURATION_COLUMN_BATCH_SIZE, IntCell.TYPE)
+            .createSpec());
+
+    @Test
+    public void testReadAllColumns() throws InvalidSettingsException {
+        final DLKerasLearnerConfigurationReader reader = createReader(ALL_COLUMNS_SPEC);
+        final DefaultRow row = new DefaultRow("config", new StringCell("Adam"), new DoubleCell(0.01), new IntCell(32));
+        final DLKerasTrainingVariant variant = reader.readVariant(row);
+        assertEquals("config", variant.getName());
+        assertSame(ADAM, variant.getOptimizer());
+        assertEquals(0.01, variant.getLearningRate().getAsDouble(), 0d);
+        assertEquals(32, reader.readBatchSize(row));
+    }
+
+    @Test
+    public void testMissingValuesFallBackToSettings() throws InvalidSettingsException {
+        final DLKerasLearnerConfigurationReader reader = createReader(ALL_COLUMNS_SPEC);
+        final DataCell missing = DataType.getMissingCell();
+        final DefaultRow row = new DefaultRow("config", missing, missing, missing);
+        final DLKerasTrainingVariant variant = reader.readVariant(row);
+        assertSame(DEFAULT_OPTIMIZER, variant.getOptimizer());
+        assertFalse(variant.getLearningRate().isPresent());
+        assertEquals(DEFAULT_BATCH_SIZE, reader.readBatchSize(row));
+    }
+
+    @Test
+    public void testMissingColumnsFallBackToSettings() throws InvalidSettingsException {
+        // the columns are looked up by name, not by position
+        final DLKerasLearnerConfigurationReader reader = createReader(new DataTableSpec( //
+            new DataColumnSpecCreator("Comment", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(DLKerasLearnerNodeModel.CONFIGURATION_COLUMN_LEARNING_RATE, DoubleCell.TYPE)
+                .createSpec()));
+        final DefaultRow row = new DefaultRow("config", new StringCell("Adam"), new DoubleCell(0.5));
+        final DLKerasTrainingVariant variant = reader.readVariant(row);
+        assertSame(DEFAULT_OPTIMIZER, variant.getOptimizer());
+        assertEquals(0.5, variant.getLearningRate().getAsDouble(), 0d);
+        assertEquals(DEFAULT_BATCH_SIZE, reader.readBatchSize(row));
+    }
+
+    @Test(expected = InvalidSettingsException.class)
+    public void testUnavailableOptimizerFails() throws InvalidSettingsException {
+        createReader(ALL_COLUMNS_SPEC).readVariant(
+            new DefaultRow("config", new StringCell("Nonexistent"), new DoubleCell(0.01), new IntCell(32)));
+    }
+
+    @Test(expected = InvalidSettingsException.class)
+    public void testNonPositiveLearningRateFails() throws InvalidSettingsException {
+        createReader(ALL_COLUMNS_SPEC)
+            .readVariant(new DefaultRow("config", new StringCell("Adam"), new DoubleCell(0d), new IntCell(32)));
+    }
+
+    @Test(expected = InvalidSettingsException.class)
+    public void testNonPositiveBatchSizeFails() throws InvalidSettingsException {
+        createReader(ALL_COLUMNS_SPEC)
+            .readBatchSize(new DefaultRow("config", new StringCell("Adam"), new DoubleCell(0.01), new IntCell(0)));
+    }
+
+    private static DLKerasLearnerConfigurationReader createReader(final DataTableSpec spec) {
+        return new DLKerasLearnerConfigurationReader(spec, DEFAULT_OPTIMIZER, DEFAULT_BATCH_SIZE,
+            (optimizerName, configurationName) -> {
+                if (optimizerName.equals("Adam")) {
+                    return ADAM;
+                }
+                throw new InvalidSettingsException("Optimizer '" + optimizerName + "' of configuration '"
+                    + configurationName + "' is not available.");
+            });
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLKerasLearnerValidationSamplerTest {
+
+    @Test
+    public void testSelectsExactlySampleSize() {
+        for (long seed = 0; seed < 100; seed++) {
+            final boolean[] selected = sample(1000, 37, seed);
+            int numSelected = 0;
+            for (final boolean s : selected) {
+                numSelected += s ? 1 : 0;
+            }
+            assertEquals(37, numSelected);
+        }
+    }
+
+    @Test
+    public void testSelectsAllRowsIfSampleSizeExceedsNumRows() {
+        final boolean[] selected = sample(10, 20, 42);
+        for (final boolean s : selected) {
+            assertTrue(s);
+        }
+    }
+
+    @Test
+    public void testSelectsNoRowsIfSampleSizeIsZero() {
+        final DLKerasLearnerValidationSampler sampler = new DLKerasLearnerValidationSampler(10, 0, 42);
+        assertTrue(sampler.isDone());
+    }
+
+    @Test
+    public void testIsDeterministicForSeed() {
+        assertTrue(Arrays.equals(sample(500, 50, 7), sample(500, 50, 7)));
+        assertFalse(Arrays.equals(sample(500, 50, 7), sample(500, 50, 8)));
+    }
+
+    @Test
+    public void testSelectsEachRowWithEqualProbability() {
+        final int numRows = 20;
+        final int sampleSize = 5;
+        final int numTrials = 20000;
+        final int[] numSelections = new int[numRows];
+        // Consecutive seeds, as typically chosen by users, must not bias the selection.
+        for (int trial = 0; trial < numTrials; trial++) {
+            final boolean[] selected = sample(numRows, sampleSize, trial);
+            for (int i = 0; i < numRows; i++) {
+                numSelections[i] += selected[i] ? 1 : 0;
+            }
+        }
+        // Expected frequency: 0.25, standard deviation: ~0.003.
+        for (int i = 0; i < numRows; i++) {
+            assertEquals(sampleSize / (double)numRows, numSelections[i] / (double)numTrials, 0.02);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailsIfAllRowsWereVisited() {
+        final DLKerasLearnerValidationSampler sampler = new DLKerasLearnerValidationSampler(2, 2, 42);
+        sampler.selectNext();
+        sampler.selectNext();
+        sampler.selectNext();
+    }
+
+    /**
+     * Visits rows until the sample is complete, like the learner does. The remaining rows are not selected.
+     */
+    private static boolean[] sample(final int numRows, final int sampleSize, final long seed) {
+        final DLKerasLearnerValidationSampler sampler = new DLKerasLearnerValidationSampler(numRows, sampleSize, seed);
+        final boolean[] selected = new boolean[numRows];
+        for (int i = 0; i < numRows && !sampler.isDone(); i++) {
+            selected[i] = sampler.selectNext();
+        }
+        assertTrue(sampler.isDone());
+        return selected;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewData.DLLinePlotViewDataEntry;
+import org.knime.dl.keras.base.nodes.learner.view.jfreechart.DLDefaultJFreeChartLinePlotViewSpec;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLLinePlotViewDataStoreTest {
+
+    @Rule
+    public final TemporaryFolder m_tmp = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final Random random = new Random(42);
+        final DLLinePlotViewSpec spec = new DLDefaultJFreeChartLinePlotViewSpec("loss", "Loss", "Loss", "Batches",
+            new String[]{"Training data", "Validation data"});
+        final DLDenseLinePlotViewData dense = new DLDenseLinePlotViewData(10);
+        final DLSparseLinePlotViewData sparse = new DLSparseLinePlotViewData(10);
+        for (int i = 0; i < 100000; i++) {
+            dense.getDataY().add(random.nextFloat());
+            if (i % 1000 == 999) {
+                sparse.getDataX().add(i);
+                sparse.getDataY().add(random.nextFloat());
+            }
+        }
+        dense.getDataY().add(Float.NaN);
+        final DLLinePlotViewDataCollection[] original =
+            new DLLinePlotViewDataCollection[]{new DLDefaultLinePlotViewDataCollection<>(spec, dense, sparse)};
+
+        final File dataFile = m_tmp.newFile();
+        final DLLinePlotViewDataCollection[] loaded = roundTrip(spec, original, dataFile);
+        final DLSummarizedLinePlotViewData loadedDense = (DLSummarizedLinePlotViewData)loaded[0].get(0);
+        assertFalse(loadedDense.isFullResolutionLoaded());
+        assertTrue(loadedDense.getSummaryX().length <= 2 * DLLinePlotViewDataStore.SUMMARY_NUM_BUCKETS + 1);
+        assertEquals(dense.getDataY().size() - 1, loadedDense.getSummaryX()[loadedDense.getSummaryX().length - 1]);
+        assertTrue(loadedDense.isSummarySufficient(0, 100000, 500));
+        assertFalse(loadedDense.isSummarySufficient(0, 1000, 500));
+        assertEqualData(dense, loadedDense);
+        assertTrue(loadedDense.isFullResolutionLoaded());
+        assertEqualData(sparse, loaded[0].get(1));
+
+        // Not yet loaded data is copied, loaded data is re-encoded.
+        final DLLinePlotViewDataCollection[] reloaded = roundTrip(spec, loaded, m_tmp.newFile());
+        assertEqualData(dense, reloaded[0].get(0));
+        assertEqualData(sparse, reloaded[0].get(1));
+
+        // Overwriting the file the data was loaded from.
+        final DLLinePlotViewDataCollection[] loadedAgain = roundTrip(spec, original, dataFile);
+        final DLLinePlotViewDataCollection[] overwritten = roundTrip(spec, loadedAgain, dataFile);
+        assertEqualData(dense, overwritten[0].get(0));
+        assertEqualData(sparse, overwritten[0].get(1));
+    }
+
+    @Test
+    public void testEmptyLines() throws IOException {
+        final DLLinePlotViewSpec spec = new DLDefaultJFreeChartLinePlotViewSpec("accuracy", "Accuracy", "Accuracy",
+            "Batches", new String[]{"Training data", "Validation data"});
+        final DLLinePlotViewDataCollection[] original = new DLLinePlotViewDataCollection[]{
+            new DLDefaultLinePlotViewDataCollection<>(spec, new DLDenseLinePlotViewData(0),
+                new DLSparseLinePlotViewData(0))};
+        final DLLinePlotViewDataCollection[] loaded = roundTrip(spec, original, m_tmp.newFile());
+        assertFalse(loaded[0].get(0).iterator().hasNext());
+        assertFalse(loaded[0].get(1).iterator().hasNext());
+    }
+
+    @Test
+    public void testDeletedDataFileFallsBackToSummary() throws IOException {
+        final DLLinePlotViewSpec spec = new DLDefaultJFreeChartLinePlotViewSpec("loss", "Loss", "Loss", "Batches",
+            new String[]{"Training data"});
+        final DLDenseLinePlotViewData dense = new DLDenseLinePlotViewData(10);
+        for (int i = 0; i < 10000; i++) {
+            dense.getDataY().add(i);
+        }
+        final File dataFile = m_tmp.newFile();
+        final DLLinePlotViewDataCollection[] loaded = roundTrip(spec,
+            new DLLinePlotViewDataCollection[]{new DLDefaultLinePlotViewDataCollection<>(spec, dense)}, dataFile);
+        assertTrue(dataFile.delete());
+        final DLSummarizedLinePlotViewData loadedDense = (DLSummarizedLinePlotViewData)loaded[0].get(0);
+        try {
+            loadedDense.getFullResolution();
+            fail();
+        } catch (final IOException e) {
+            // expected
+        }
+        assertFalse(loadedDense.isFullResolutionLoaded());
+        int numPoints = 0;
+        for (final Iterator<DLLinePlotViewDataEntry> it = loadedDense.iterator(); it.hasNext(); it.next()) {
+            numPoints++;
+        }
+        assertEquals(loadedDense.getSummaryX().length, numPoints);
+    }
+
+    @Test
+    public void testExternalizeSummarizedData() throws IOException, ClassNotFoundException {
+        final DLLinePlotViewSpec spec = new DLDefaultJFreeChartLinePlotViewSpec("loss", "Loss", "Loss", "Batches",
+            new String[]{"Validation data"});
+        final DLSparseLinePlotViewData sparse = new DLSparseLinePlotViewData(10);
+        for (int i = 0; i < 5000; i++) {
+            sparse.getDataX().add(3 * i);
+            sparse.getDataY().add(i / 7f);
+        }
+        final DLLinePlotViewDataCollection[] loaded = roundTrip(spec,
+            new DLLinePlotViewDataCollection[]{new DLDefaultLinePlotViewDataCollection<>(spec, sparse)},
+            m_tmp.newFile());
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objOut = new ObjectOutputStream(bytes)) {
+            loaded[0].get(0).writeExternal(objOut);
+        }
+        final File targetDataFile = m_tmp.newFile();
+        final DLLinePlotViewDataCollection[] target = roundTrip(spec, loaded, targetDataFile);
+        // Reading must not depend on the data file.
+        assertTrue(targetDataFile.delete());
+        final DLSummarizedLinePlotViewData read = (DLSummarizedLinePlotViewData)target[0].get(0);
+        try (ObjectInputStream objIn = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read.readExternal(objIn);
+        }
+        assertTrue(read.isFullResolutionLoaded());
+        assertEqualData(sparse, read);
+    }
+
+    private static DLLinePlotViewDataCollection[] roundTrip(final DLLinePlotViewSpec spec,
+        final DLLinePlotViewDataCollection[] viewData, final File dataFile) throws IOException {
+        final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        try (ObjectOutputStream objOut = new ObjectOutputStream(index)) {
+            DLLinePlotViewDataStore.write(viewData, objOut, dataFile);
+        }
+        try (ObjectInputStream objIn = new ObjectInputStream(new ByteArrayInputStream(index.toByteArray()))) {
+            return DLLinePlotViewDataStore.read(new DLLinePlotViewSpec[]{spec}, objIn, dataFile);
+        }
+    }
+
+    private static void assertEqualData(final DLLinePlotViewData expected, final DLLinePlotViewData actual) {
+        final Iterator<DLLinePlotViewDataEntry> expectedIt = expected.iterator();
+        final Iterator<DLLinePlotViewDataEntry> actualIt = actual.iterator();
+        while (expectedIt.hasNext()) {
+            assertTrue(actualIt.hasNext());
+            final DLLinePlotViewDataEntry expectedEntry = expectedIt.next();
+            final DLLinePlotViewDataEntry actualEntry = actualIt.next();
+            assertEquals(expectedEntry.getX(), actualEntry.getX());
+            assertEquals(Float.floatToRawIntBits(expectedEntry.getY()), Float.floatToRawIntBits(actualEntry.getY()));
+        }
+        assertFalse(actualIt.hasNext());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.keras.cntk.core.DLKerasCNTKNetworkSpec;
+import org.knime.dl.keras.testing.DLKerasTestUtil;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasNetworkSpecSerializerTest {
+
+    @Test
+    public void testRoundTripRandomSpecs() throws IOException, ClassNotFoundException {
+        final Random random = new Random(543653);
+        for (int i = 0; i < 20; i++) {
+            final DLKerasNetworkSpec spec = DLKerasTestUtil.randomNetworkSpec(random);
+            assertRoundTrip(spec);
+        }
+    }
+
+    @Test
+    public void testRoundTripSpecWithoutVersions() throws IOException, ClassNotFoundException {
+        final DLKerasNetworkSpec template = DLKerasTestUtil.randomNetworkSpec(new Random(7));
+        assertRoundTrip(new DLKerasCNTKNetworkSpec(template.getInputSpecs(), template.getHiddenOutputSpecs(),
+            template.getOutputSpecs()));
+        assertRoundTrip(new DLKerasGenericNetworkSpec(template.getKerasVersion(), template.getInputSpecs(),
+            template.getHiddenOutputSpecs(), template.getOutputSpecs()));
+    }
+
+    @Test
+    public void testRoundTripSpecWithFrozenLayers() throws IOException, ClassNotFoundException {
+        final DLKerasNetworkSpec spec = DLKerasTestUtil.randomNetworkSpec(new Random(11));
+        final DLKerasNetworkSpec frozen = spec.withFrozenLayers(new String[]{"dense_1", "dense_2"});
+        assertFalse(spec.getFrozenLayers().isPresent());
+        assertNotEquals(spec, frozen);
+        assertRoundTrip(frozen);
+    }
+
+    private static void assertRoundTrip(final DLKerasNetworkSpec spec) throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objOut = new ObjectOutputStream(bytes)) {
+            DLKerasNetworkSpecSerializer.writeSpec(spec, objOut);
+        }
+        final DLKerasNetworkSpec deserialized;
+        try (ObjectInputStream objIn = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = DLKerasNetworkSpecSerializer.readSpec(objIn);
+        }
+        assertEquals(spec.getClass(), deserialized.getClass());
+        assertEquals(spec, deserialized);
+        assertEquals(spec.getPythonVersion(), deserialized.getPythonVersion());
+        assertEquals(spec.getKerasVersion(), deserialized.getKerasVersion());
+        assertEquals(spec.getBundleVersion(), deserialized.getBundleVersion());
+        assertArrayEquals(spec.getFrozenLayers().orElse(null), deserialized.getFrozenLayers().orElse(null));
+        final DLTensorSpec[] inputSpecs = spec.getInputSpecs();
+        for (int i = 0; i < inputSpecs.length; i++) {
+            final DLTensorSpec deserializedInput = deserialized.getInputSpecs()[i];
+            assertEquals(inputSpecs[i].getBatchSize(), deserializedInput.getBatchSize());
+            assertEquals(inputSpecs[i].getShape(), deserializedInput.getShape());
+            assertEquals(inputSpecs[i].getElementType(), deserializedInput.getElementType());
+            assertEquals(inputSpecs[i].getDimensionOrder(), deserializedInput.getDimensionOrder());
+        }
+    }
+}
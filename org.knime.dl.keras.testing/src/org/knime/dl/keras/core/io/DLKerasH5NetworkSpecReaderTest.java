@@ -0,0 +1,137 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.junit.Test;
+import org.knime.core.util.Version;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.keras.core.io.DLKerasH5NetworkSpecReader.DLKerasH5NetworkSpecs;
+import org.knime.dl.keras.core.layers.DLKerasDataFormat;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasH5NetworkSpecReaderTest {
+
+    private static final String BUNDLE_ID = "org.knime.dl.keras.testing";
+
+    @Test
+    public void testReadMultiInputMultiOutputModel() throws IOException {
+        final DLKerasH5NetworkSpecs specs = read("data/multi_in_out.h5").get();
+        assertEquals(new Version(2, 0, 5), specs.getKerasVersion());
+        assertSpecs(specs.getInputSpecs(), new String[]{"input_1_0:0", "input_2_0:0"}, new long[][]{{10}, {5}});
+        assertSpecs(specs.getHiddenOutputSpecs(), new String[]{"input_1_0:0", "input_2_0:0", "concatenate_1_0:0"},
+            new long[][]{{10}, {5}, {15}});
+        assertSpecs(specs.getOutputSpecs(), new String[]{"dense_1_0:0", "dense_2_0:0"}, new long[][]{{1}, {5}});
+    }
+
+    @Test
+    public void testReadThreeInputThreeOutputModel() throws IOException {
+        final DLKerasH5NetworkSpecs specs = read("data/3in_3out.h5").get();
+        assertSpecs(specs.getInputSpecs(), new String[]{"input_1_0:0", "input_2_0:0", "input_3_0:0"},
+            new long[][]{{5}, {5}, {5}});
+        assertSpecs(specs.getHiddenOutputSpecs(),
+            new String[]{"input_1_0:0", "input_2_0:0", "add_2_0:0", "input_3_0:0", "add_3_0:0"},
+            new long[][]{{5}, {5}, {5}, {5}, {5}});
+        assertSpecs(specs.getOutputSpecs(), new String[]{"dense_4_0:0", "dense_5_0:0", "dense_6_0:0"},
+            new long[][]{{5}, {5}, {5}});
+    }
+
+    @Test
+    public void testConfiguredDataFormatIsUsedIfLayersDoNotSpecifyOne() throws IOException {
+        final DLKerasH5NetworkSpecs specs = read("data/multi_in_out.h5", DLKerasDataFormat.CHANNEL_FIRST).get();
+        for (final DLTensorSpec spec : specs.getInputSpecs()) {
+            assertEquals(DLDimensionOrder.TCDHW, spec.getDimensionOrder());
+        }
+        for (final DLTensorSpec spec : specs.getOutputSpecs()) {
+            assertEquals(DLDimensionOrder.TCDHW, spec.getDimensionOrder());
+        }
+    }
+
+    @Test
+    public void testSequentialModelIsReadViaPython() throws IOException {
+        // The specs of sequential models depend on the installed Keras version and must therefore be read via Python.
+        assertFalse(read("data/simple_test_model.h5").isPresent());
+    }
+
+    @Test
+    public void testWeightsOnlyFileIsNotSupported() throws IOException {
+        assertFalse(read("data/simple_test_model_weights.h5").isPresent());
+    }
+
+    private static Optional<DLKerasH5NetworkSpecs> read(final String path) throws IOException {
+        return read(path, DLKerasDataFormat.CHANNEL_LAST);
+    }
+
+    private static Optional<DLKerasH5NetworkSpecs> read(final String path, final DLKerasDataFormat dataFormat)
+        throws IOException {
+        return DLKerasH5NetworkSpecReader.read(DLUtils.Files.getFileFromBundle(BUNDLE_ID, path).toPath(),
+            dataFormat);
+    }
+
+    private static void assertSpecs(final DLTensorSpec[] specs, final String[] expectedIds,
+        final long[][] expectedShapes) {
+        assertEquals(expectedIds.length, specs.length);
+        for (int i = 0; i < specs.length; i++) {
+            assertEquals(expectedIds[i], specs[i].getIdentifier().getIdentifierString());
+            assertArrayEquals(expectedShapes[i], DLUtils.Shapes.getFixedShape(specs[i].getShape()).get());
+            assertFalse(specs[i].getBatchSize().isPresent());
+            assertEquals(float.class, specs[i].getElementType());
+            assertEquals(DLDimensionOrder.TDHWC, specs[i].getDimensionOrder());
+            assertEquals(expectedIds[i], specs[i].getName());
+        }
+    }
+}
@@ -46,6 +46,10 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createMultiInputModelTestSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createMultiInputMultiOutputForkJoinModelTestSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createMultiInputMultiOutputModelTestSetup;
@@ -55,9 +59,12 @@
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -65,7 +72,10 @@
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.dl.keras.core.layers.DLKerasNetworkGraphSerializer.SerializedGraph;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -73,6 +83,9 @@
  */
 public final class DLKerasNetworkGraphSerializerTest {
 
+    @Rule
+    public TemporaryFolder m_folder = new TemporaryFolder();
+
     private ObjectOutputStream m_outStream;
 
     private ByteArrayOutputStream m_outStreamBase;
@@ -133,6 +146,86 @@ public void testSerializeMultiInputMultiOutputForkJoinModel() throws IOException
         testSerialize(createMultiInputMultiOutputForkJoinModelTestSetup());
     }
 
+    @Test
+    public void testRecordStoresOnlyHoldAddedLayers() throws IOException {
+        final DLKerasInnerLayer out0 = (DLKerasInnerLayer)createSequentialModelTestSetup().get(0);
+        final DLKerasInnerLayer hidden2 = (DLKerasInnerLayer)out0.getParent(0);
+        final DLKerasLayerRecordStore hidden2Store = DLKerasLayerRecordStore.write(m_folder.newFile(),
+            Arrays.asList(hidden2), Collections.emptyList());
+        final DLKerasLayerRecordStore out0Store = DLKerasLayerRecordStore.write(m_folder.newFile(),
+            Arrays.asList(out0), Arrays.asList(hidden2Store));
+        assertEquals(4, hidden2Store.getNumRecords());
+        assertEquals(1, out0Store.getNumRecords());
+    }
+
+    @Test
+    public void testGraphsShareLayersOfRecordStores() throws IOException, ClassNotFoundException {
+        final DLKerasInnerLayer out0 = (DLKerasInnerLayer)createSequentialModelTestSetup().get(0);
+        final DLKerasInnerLayer hidden2 = (DLKerasInnerLayer)out0.getParent(0);
+        final File hidden2File = m_folder.newFile();
+        final File out0File = m_folder.newFile();
+        final DLKerasLayerRecordStore hidden2Store =
+            DLKerasLayerRecordStore.write(hidden2File, Arrays.asList(hidden2), Collections.emptyList());
+        final DLKerasLayerRecordStore out0Store =
+            DLKerasLayerRecordStore.write(out0File, Arrays.asList(out0), Arrays.asList(hidden2Store));
+        final byte[] out0Graph = writeGraph(Arrays.asList(out0), Arrays.asList(out0Store, hidden2Store));
+        final byte[] hidden2Graph = writeGraph(Arrays.asList(hidden2), Arrays.asList(hidden2Store));
+        assertTrue(out0Graph.length < writeGraph(Arrays.asList(out0), Collections.emptyList()).length);
+
+        final List<DLKerasLayerRecordStore> out0Stores =
+            Arrays.asList(DLKerasLayerRecordStore.open(out0File), DLKerasLayerRecordStore.open(hidden2File));
+        final List<DLKerasLayer> deserializedOut0 = readSerializedGraph(out0Graph).resolve(out0Stores,
+            Collections.emptyList());
+        final List<DLKerasLayer> deserializedHidden2 = readSerializedGraph(hidden2Graph)
+            .resolve(Arrays.asList(DLKerasLayerRecordStore.open(hidden2File)), Collections.emptyList());
+        assertGraphEquals(Arrays.asList(out0), deserializedOut0);
+        assertGraphEquals(Arrays.asList(hidden2), deserializedHidden2);
+        assertNotSame(hidden2, deserializedHidden2.get(0));
+        assertSame(deserializedHidden2.get(0), ((DLKerasInnerLayer)deserializedOut0.get(0)).getParent(0));
+    }
+
+    @Test
+    public void testSelfContainedGraphsDoNotShareLayers() throws IOException, ClassNotFoundException {
+        final List<DLKerasLayer> outputLayers = createSequentialModelTestSetup();
+        final byte[] graph = writeGraph(outputLayers, Collections.emptyList());
+        final List<DLKerasLayer> deserialized0;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(graph))) {
+            deserialized0 = DLKerasNetworkGraphSerializer.readGraphFrom(in, null);
+        }
+        final List<DLKerasLayer> deserialized1;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(graph))) {
+            deserialized1 = DLKerasNetworkGraphSerializer.readGraphFrom(in, null);
+        }
+        assertGraphEquals(deserialized0, deserialized1);
+        assertNotSame(((DLKerasInnerLayer)deserialized0.get(0)).getParent(0),
+            ((DLKerasInnerLayer)deserialized1.get(0)).getParent(0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testResolveGraphWithoutItsRecordStoresFails() throws IOException, ClassNotFoundException {
+        final DLKerasInnerLayer out0 = (DLKerasInnerLayer)createSequentialModelTestSetup().get(0);
+        final DLKerasLayerRecordStore hidden2Store = DLKerasLayerRecordStore.write(m_folder.newFile(),
+            Arrays.asList((DLKerasLayer)out0.getParent(0)), Collections.emptyList());
+        final byte[] out0Graph = writeGraph(Arrays.asList(out0), Arrays.asList(hidden2Store));
+        readSerializedGraph(out0Graph).resolve(Collections.emptyList(), Collections.emptyList());
+    }
+
+    private static byte[] writeGraph(final List<DLKerasLayer> outputLayers,
+        final List<DLKerasLayerRecordStore> recordStores) throws IOException {
+        final ByteArrayOutputStream graph = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(graph)) {
+            DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, out, recordStores);
+        }
+        return graph.toByteArray();
+    }
+
+    private static SerializedGraph readSerializedGraph(final byte[] graph)
+        throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(graph))) {
+            return DLKerasNetworkGraphSerializer.readSerializedGraphFrom(in);
+        }
+    }
+
     private void testSerialize(final List<DLKerasLayer> outputLayers) throws IOException, ClassNotFoundException {
         DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, m_outStream);
         m_inStream = outStreamToInStream();
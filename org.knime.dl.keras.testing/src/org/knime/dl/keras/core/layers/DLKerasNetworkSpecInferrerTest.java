@@ -46,6 +46,9 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createSequentialModelTestSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputModelSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputMultiOutputForkJoinModelSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputMultiOutputModelAppendedBinaryLayerSetup;
@@ -66,6 +69,7 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
 
 /**
@@ -134,6 +138,24 @@ public void testAppendBinaryLayerToTwoMultiInputMultiOutputModels()
         testOnTwoMultiInputMultiOutputModelsAppendedBinaryLayerSetup(this::inferSpecs, Function.identity());
     }
 
+    @Test
+    public void testOutputSpecsAreMemoizedUntilLayerChanges() throws DLInvalidTensorSpecException {
+        final DLKerasInnerLayer out0 = (DLKerasInnerLayer)createSequentialModelTestSetup().get(0);
+        final DLKerasInnerLayer hidden2 = (DLKerasInnerLayer)out0.getParent(0);
+        final List<DLTensorSpec> outputSpecs = out0.getOutputSpecs();
+        final List<DLTensorSpec> hiddenOutputSpecs = hidden2.getOutputSpecs();
+        assertSame(outputSpecs, out0.getOutputSpecs());
+        assertSame(hiddenOutputSpecs, hidden2.getOutputSpecs());
+
+        hidden2.resetOutputSpecs();
+        assertNotSame(hiddenOutputSpecs, hidden2.getOutputSpecs());
+        // The re-inferred parent specs are equal to the previous ones, so there is nothing to re-infer for the child.
+        assertSame(outputSpecs, out0.getOutputSpecs());
+
+        out0.setParent(0, hidden2.getParent(0));
+        assertNotSame(outputSpecs, out0.getOutputSpecs());
+    }
+
     private DLKerasNetworkSpec inferSpecs(final List<DLKerasLayer> outputLayers) {
         return new DLKerasNetworkSpecInferrer(outputLayers).inferNetworkSpec();
     }
@@ -0,0 +1,117 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.training;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.python.core.DLPythonDefaultContext;
+import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Runs the tests of the Python callback that implements {@link DLKerasValidationSchedule}, see
+ * <code>py/DLKerasPeriodicValidationTest.py</code>. Python errors, including failed assertions, are reported as
+ * exceptions.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLKerasPeriodicValidationTest {
+
+    private static final String BUNDLE_ID = "org.knime.dl.keras.testing";
+
+    private DLPythonDefaultContext m_context;
+
+    @Before
+    public void setUp() throws Exception {
+        final File testModuleDir = DLUtils.Files.getFileFromBundle(BUNDLE_ID, "py");
+        m_context = new DLPythonDefaultContext();
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import sys") //
+            .n("sys.path.append(").asr(testModuleDir.getAbsolutePath()).a(")") //
+            .n("import DLKerasPeriodicValidationTest");
+        m_context.executeInKernel(b.toString(), DLNotCancelable.INSTANCE);
+    }
+
+    @After
+    public void tearDown() {
+        m_context.close();
+    }
+
+    @Test
+    public void testBatchIntervalValidationDueAtEpochEnd() throws Exception {
+        runPythonTest("test_batch_interval_validation_due_at_epoch_end");
+    }
+
+    @Test
+    public void testBatchIntervalNotAlignedWithEpochs() throws Exception {
+        runPythonTest("test_batch_interval_not_aligned_with_epochs");
+    }
+
+    @Test
+    public void testCompleteValidationInLastEpoch() throws Exception {
+        runPythonTest("test_complete_validation_in_last_epoch");
+    }
+
+    @Test
+    public void testCompleteValidationAtEndOfStoppedTraining() throws Exception {
+        runPythonTest("test_complete_validation_at_end_of_stopped_training");
+    }
+
+    @Test
+    public void testNoAdditionalValidationAtEndOfTrainingWithoutSample() throws Exception {
+        runPythonTest("test_no_additional_validation_at_end_of_training_without_sample");
+    }
+
+    private void runPythonTest(final String testFunction) throws Exception {
+        m_context.executeInKernel("DLKerasPeriodicValidationTest." + testFunction + "()", DLNotCancelable.INSTANCE);
+    }
+}
@@ -48,15 +48,20 @@
  */
 package org.knime.dl.keras.tensorflow.testing;
 
+import static org.junit.Assert.assertEquals;
+
 import java.net.URL;
 
 import org.junit.Test;
 import org.knime.core.util.FileUtil;
 import org.knime.dl.core.DLNetworkReferenceLocation;
 import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
 import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetwork;
 import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetworkLoader;
 import org.knime.dl.python.core.DLPythonDefaultNetworkReader;
+import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 import org.knime.dl.util.DLUtils;
 
 /**
@@ -76,4 +81,36 @@ public void test() throws Exception {
         reader.read(new DLNetworkReferenceLocation(source.toURI()), true, DLNotCancelable.INSTANCE);
 		// TODO: test against known specs
 	}
+
+    @Test
+    public void testReadWithoutPythonEqualsReadViaPython() throws Exception {
+        final URL source = FileUtil
+            .toURL(DLUtils.Files.getFileFromBundle(BUNDLE_ID, "data/multi_in_out.h5").getAbsolutePath());
+        final DLNetworkReferenceLocation location = new DLNetworkReferenceLocation(source.toURI());
+        final DLKerasTensorFlowNetworkLoader loader = new DLKerasTensorFlowNetworkLoader();
+        // Reading without Python requires the Python version determined by the installation test.
+        loader.checkAvailability(false, DLPythonNetworkLoaderRegistry.getInstance().getInstallationTestTimeout(),
+            DLNotCancelable.INSTANCE);
+        final DLKerasNetworkSpec viaPython =
+            new DLPythonDefaultNetworkReader<>(loader).read(location, false, DLNotCancelable.INSTANCE).getSpec();
+        final DLKerasNetworkSpec withoutPython = loader.readWithoutPython(location).get().getSpec();
+        assertEquals(viaPython.getPythonVersion(), withoutPython.getPythonVersion());
+        assertEquals(viaPython.getKerasVersion(), withoutPython.getKerasVersion());
+        assertEquals(viaPython.getTrainingConfig().isPresent(), withoutPython.getTrainingConfig().isPresent());
+        assertTensorSpecsEqual(viaPython.getInputSpecs(), withoutPython.getInputSpecs());
+        assertTensorSpecsEqual(viaPython.getHiddenOutputSpecs(), withoutPython.getHiddenOutputSpecs());
+        assertTensorSpecsEqual(viaPython.getOutputSpecs(), withoutPython.getOutputSpecs());
+        // Tensor names are the only difference, see DLKerasNetworkLoader#readWithoutPython(..).
+        assertEquals(viaPython, withoutPython);
+    }
+
+    private static void assertTensorSpecsEqual(final DLTensorSpec[] expected, final DLTensorSpec[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].getIdentifier(), actual[i].getIdentifier());
+            assertEquals(expected[i].getShape(), actual[i].getShape());
+            assertEquals(expected[i].getElementType(), actual[i].getElementType());
+            assertEquals(expected[i].getDimensionOrder(), actual[i].getDimensionOrder());
+        }
+    }
 }
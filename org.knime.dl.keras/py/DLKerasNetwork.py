@@ -51,6 +51,7 @@
 
 import abc
 import re
+import sys
 from distutils.version import LooseVersion
 
 import keras
@@ -62,9 +63,13 @@ from keras.models import load_model
 from keras.models import model_from_json
 from keras.models import model_from_yaml
 from keras.layers import Lambda
+from keras.callbacks import EarlyStopping
+from keras.callbacks import ReduceLROnPlateau
 
 import DLPythonKernelGateway
+from DLKerasTrainingCallbacks import DLKerasTrainingCheckpoint
 from DLKerasTrainingCallbacks import DLKerasTrainingMonitor
+from DLKerasTrainingVariants import train_variants
 from DLPythonDataBuffers import DLPythonDoubleBuffer
 from DLPythonDataBuffers import DLPythonFloatBuffer
 from DLPythonDataBuffers import DLPythonBitBuffer
@@ -139,6 +144,9 @@ class DLKerasNetwork(DLPythonNetwork):
     def __init__(self, model, compatibility_mode=False):
         super().__init__(DLKerasNetwork._convert_sequential_to_model(model, compatibility_mode))
         self._training_monitor = None
+        # Models that compute the requested outputs, keyed by the tuple of requested output identifiers. They share
+        # their layers (and thus their weights) with the network's model and can be reused by subsequent executions.
+        self._intermediate_models = {}
 
     @abc.abstractmethod
     def _extract_model_spec(self):
@@ -150,30 +158,37 @@ class DLKerasNetwork(DLPythonNetwork):
             self._spec = self._extract_model_spec()
         return self._spec
 
-    def execute(self, in_data, batch_size, output_identifiers):
-        model = self._model
+    def execute(self, in_data, batch_size, output_identifiers, prediction_batch_size=None):
         X = self._format_input(in_data, batch_size)
-
-        # Get the requested output tensors
-        outputs = []
-        for id in output_identifiers:
-            matcher = re.match(r'^(.*)_(\d+):(\d+)$', id)
-            layer_name = matcher.group(1)
-            node_idx = int(matcher.group(2))
-            tensor_idx = int(matcher.group(3))
-            output_tensors = model.get_layer(layer_name).get_output_at(node_idx)
-            if not isinstance(output_tensors, list):
-                output_tensors = [output_tensors]
-            if output_tensors[tensor_idx] in model.inputs:
-                output_tensors[tensor_idx] = Lambda(lambda x: x)(output_tensors[tensor_idx])
-            outputs.append(output_tensors[tensor_idx])
-
-        # Build the model with the requested outputs
-        intermediate_model = Model(inputs=model.inputs, outputs=outputs)
-        Y = intermediate_model.predict(X, batch_size=batch_size, verbose=0)
+        intermediate_model = self._get_intermediate_model(output_identifiers)
+        # The input may consist of several batches that Keras splits internally.
+        Y = intermediate_model.predict(X, batch_size=prediction_batch_size or batch_size, verbose=0)
         return self._format_output(Y, output_identifiers)
 
-    def train(self, training_data_supplier, validation_data_supplier=None, send_to_java=None):
+    def _get_intermediate_model(self, output_identifiers):
+        key = tuple(output_identifiers)
+        intermediate_model = self._intermediate_models.get(key)
+        if intermediate_model is None:
+            model = self._model
+            # Get the requested output tensors
+            outputs = []
+            for id in output_identifiers:
+                matcher = re.match(r'^(.*)_(\d+):(\d+)$', id)
+                layer_name = matcher.group(1)
+                node_idx = int(matcher.group(2))
+                tensor_idx = int(matcher.group(3))
+                output_tensors = model.get_layer(layer_name).get_output_at(node_idx)
+                if not isinstance(output_tensors, list):
+                    output_tensors = [output_tensors]
+                if output_tensors[tensor_idx] in model.inputs:
+                    output_tensors[tensor_idx] = Lambda(lambda x: x)(output_tensors[tensor_idx])
+                outputs.append(output_tensors[tensor_idx])
+            # Build the model with the requested outputs
+            intermediate_model = Model(inputs=model.inputs, outputs=outputs)
+            self._intermediate_models[key] = intermediate_model
+        return intermediate_model
+
+    def train(self, training_data_supplier, validation_data_supplier=None, send_to_java=None, progress_interval=0.0):
         assert training_data_supplier is not None
         config = self._spec.training_config
         if not config:
@@ -191,17 +206,47 @@ class DLKerasNetwork(DLPythonNetwork):
         if not any(m == 'acc' or m == 'accuracy' for m in metrics):
             metrics.append('acc')
 
+        if config.variants:
+            # Trains copies of the network instead of the network itself, see DLKerasTrainingVariants.
+            return train_variants(self, config.variants, loss, metrics, config.epochs, training_data_supplier,
+                                  validation_data_supplier=validation_data_supplier, send_to_java=send_to_java,
+                                  progress_interval=progress_interval)
+
         self._model.compile(loss=loss, optimizer=config.optimizer, metrics=metrics)
 
+        if config.resume_from is not None:
+            self._restore_checkpoint(config.resume_from)
+
         if not any(isinstance(c, DLKerasTrainingMonitor) for c in config.callbacks):
             training_monitor = DLKerasTrainingMonitor(self)
             config.callbacks.append(training_monitor)
             self._training_monitor = training_monitor
 
-        for c in config.callbacks:
+        validation = config.validation if validation_data_supplier is not None else None
+        if validation is not None and validation not in config.callbacks:
+            # The periodic validation replaces Keras' validation at the end of each epoch. Callbacks that monitor
+            # validation quantities are driven by the periodic validation. It must follow the training monitor such that
+            # Java has seen all preceding batches once it receives the validation results.
+            validation.set_validation_data(validation_data_supplier)
+            validation.training_monitor = next((c for c in config.callbacks if isinstance(c, DLKerasTrainingMonitor)),
+                                               None)
+            validation.monitoring_callbacks = [c for c in config.callbacks
+                                               if isinstance(c, (EarlyStopping, ReduceLROnPlateau))]
+            config.callbacks = [c for c in config.callbacks if c not in validation.monitoring_callbacks] + [validation]
+
+        # The checkpoint must be the last callback such that it sees the final state of an epoch, e.g. whether training
+        # was stopped.
+        if config.checkpoint is not None and config.checkpoint not in config.callbacks:
+            config.callbacks.append(config.checkpoint)
+
+        callbacks = config.callbacks + (validation.monitoring_callbacks if validation is not None else [])
+        for c in callbacks:
             c.send_to_java = send_to_java
+            if isinstance(c, DLKerasTrainingMonitor):
+                c.progress_interval = progress_interval
+                c.report_validation = validation is None
 
-        if validation_data_supplier is not None:
+        if validation_data_supplier is not None and validation is None:
             validation_data_generator = validation_data_supplier.get_generator()
             validation_steps = validation_data_supplier.steps
         else:
@@ -213,6 +258,7 @@ class DLKerasNetwork(DLPythonNetwork):
                                             training_data_supplier.steps,
                                             epochs=config.epochs,
                                             verbose=1,
+                                            initial_epoch=config.initial_epoch,
                                             callbacks=config.callbacks,
                                             validation_data=validation_data_generator,
                                             validation_steps=validation_steps,
@@ -236,6 +282,28 @@ class DLKerasNetwork(DLPythonNetwork):
 
     # "Protected" helper methods:
 
+    def _restore_checkpoint(self, path):
+        """
+        Restores the weights and the optimizer state of the compiled model from a checkpoint file that was written by
+        DLKerasTrainingCheckpoint. This mirrors what keras.models.load_model does but keeps the current compilation
+        (loss, metrics, custom objects) intact.
+        """
+        import h5py
+        self._model.load_weights(path)
+        with h5py.File(path, mode='r') as f:
+            if 'optimizer_weights' not in f:
+                return
+            optimizer_weights_group = f['optimizer_weights']
+            optimizer_weight_names = [n.decode('utf8') if hasattr(n, 'decode') else n
+                                      for n in optimizer_weights_group.attrs['weight_names']]
+            optimizer_weight_values = [optimizer_weights_group[n] for n in optimizer_weight_names]
+            self._model._make_train_function()
+            try:
+                self._model.optimizer.set_weights(optimizer_weight_values)
+            except ValueError:
+                print('Warning: Could not restore the state of the optimizer from the training checkpoint. '
+                      'Training resumes with a freshly initialized optimizer.', file=sys.stderr)
+
     def _format_input(self, in_data, batch_size):
         return self._format_tensor(in_data, self.spec.input_specs, batch_size)
 
@@ -312,3 +380,13 @@ class DLKerasTrainingConfig(DLPythonTrainingConfig):
         self.loss = {}
         self.metrics = ['acc']
         self.callbacks = []
+        # DLKerasTrainingCheckpoint that periodically saves the model during training, may be None
+        self.checkpoint = None
+        # DLKerasPeriodicValidation that replaces the validation at the end of each epoch, may be None
+        self.validation = None
+        # number of epochs that are already completed when training starts, greater than zero when resuming
+        self.initial_epoch = 0
+        # path of the checkpoint file from which training is resumed, may be None
+        self.resume_from = None
+        # DLKerasTrainingVariants.DLKerasTrainingVariant instances, the network itself is trained if empty
+        self.variants = []
@@ -0,0 +1,248 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+Exports Keras (TensorFlow) networks to self-contained TensorFlow graphs that are optimized for inference.
+
+@author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+'''
+
+import os
+import shutil
+import sys
+import tempfile
+
+import keras
+import numpy as np
+import tensorflow as tf
+from keras import backend as K
+from tensorflow.python.framework import graph_util
+from tensorflow.python.framework import tensor_util
+
+FROZEN_GRAPH = 'frozen_graph'
+SAVED_MODEL = 'saved_model'
+
+FLOAT16 = 'float16'
+INT8 = 'int8'
+
+# size used for dimensions of the network inputs that are not known in advance when creating the sample batch
+_UNKNOWN_DIMENSION_SIZE = 32
+
+# weights with fewer elements are not worth quantizing (the same default as TensorFlow's quantize_weights transform)
+_MINIMUM_QUANTIZATION_SIZE = 1024
+
+
+def export_inference_network(model, path, export_format=FROZEN_GRAPH, quantization=None, tolerance=1e-4,
+                             sample_batch_size=8):
+    """
+    Exports the given Keras model to the given path in a form that is optimized for inference.
+
+    The model is rebuilt in inference mode, which removes dropout and noise layers, and its variables are folded into
+    constants. Constant expressions are evaluated and batch normalizations are fused into the weights of the preceding
+    convolution or dense layers. The weights can optionally be quantized to float16 or to eight bit.
+    The outputs of the exported graph are compared to the ones of the original model on a random sample batch. An error
+    is raised if they deviate by more than the given tolerance, relative to the magnitude of the outputs.
+
+    export_format is either 'frozen_graph', which writes a binary GraphDef, or 'saved_model', which writes a zip archive
+    of a TensorFlow SavedModel directory that can be used for serving.
+    """
+    if export_format not in (FROZEN_GRAPH, SAVED_MODEL):
+        raise ValueError("Unknown export format '" + str(export_format) + "'.")
+    if quantization not in (None, FLOAT16, INT8):
+        raise ValueError("Unknown weight quantization '" + str(quantization) + "'.")
+    sample = _create_sample_batch(model, sample_batch_size)
+    expected = _as_list(model.predict(sample, batch_size=sample_batch_size))
+
+    graph_def, input_names, output_names = _freeze_for_inference(model)
+    graph_def = _transform_graph(graph_def, input_names, output_names, quantization)
+    if quantization == FLOAT16:
+        graph_def = _convert_weights_to_float16(graph_def)
+
+    input_tensor_names = [name + ':0' for name in input_names]
+    output_tensor_names = [name + ':0' for name in output_names]
+    actual = _run_graph(graph_def, input_tensor_names, output_tensor_names, sample)
+    _check_outputs(output_names, expected, actual, tolerance)
+
+    if os.path.exists(path):
+        os.remove(path)
+    if export_format == FROZEN_GRAPH:
+        with open(path, 'wb') as f:
+            f.write(graph_def.SerializeToString())
+    else:
+        _write_saved_model(graph_def, input_tensor_names, output_tensor_names, path)
+
+
+def _freeze_for_inference(model):
+    # Rebuild the model in a graph of its own with the learning phase fixed to inference. This makes Keras omit
+    # training-only operations such as dropout or noise entirely instead of guarding them by a switch.
+    model_json = model.to_json()
+    weights = model.get_weights()
+    previous_session = K.get_session()
+    graph = tf.Graph()
+    try:
+        with graph.as_default():
+            session = tf.Session(graph=graph)
+            K.set_session(session)
+            K.set_learning_phase(0)
+            inference_model = keras.models.model_from_json(model_json)
+            inference_model.set_weights(weights)
+            input_names = [t.op.name for t in inference_model.inputs]
+            output_names = [t.op.name for t in inference_model.outputs]
+            graph_def = graph_util.convert_variables_to_constants(session, graph.as_graph_def(), output_names)
+            session.close()
+    finally:
+        K.set_session(previous_session)
+    return graph_def, input_names, output_names
+
+
+def _transform_graph(graph_def, input_names, output_names, quantization):
+    try:
+        from tensorflow.tools.graph_transforms import TransformGraph
+    except ImportError:
+        if quantization == INT8:
+            raise RuntimeError('Eight bit weight quantization requires the graph transform tool of TensorFlow, which '
+                               'is not available in the configured Python environment.')
+        sys.stderr.write('The graph transform tool of TensorFlow is not available in the configured Python '
+                         'environment. Constants are not folded and batch normalizations are not fused.\n')
+        return graph_def
+    transforms = ['remove_nodes(op=Identity, op=CheckNumerics)',
+                  'fold_constants(ignore_errors=true)',
+                  'fold_batch_norms',
+                  'fold_old_batch_norms']
+    if quantization == INT8:
+        transforms.append('quantize_weights(minimum_size=' + str(_MINIMUM_QUANTIZATION_SIZE) + ')')
+    transforms.append('sort_by_execution_order')
+    return TransformGraph(graph_def, input_names, output_names, transforms)
+
+
+def _convert_weights_to_float16(graph_def):
+    # Store large float constants as float16 and cast them back when the graph is run. This halves the size of the
+    # weights while the computations themselves remain in float32.
+    float32 = tf.float32.as_datatype_enum
+    float16 = tf.float16.as_datatype_enum
+    converted = tf.GraphDef()
+    converted.versions.CopyFrom(graph_def.versions)
+    converted.library.CopyFrom(graph_def.library)
+    for node in graph_def.node:
+        if node.op == 'Const' and node.attr['dtype'].type == float32:
+            value = tensor_util.MakeNdarray(node.attr['value'].tensor)
+            if value.size >= _MINIMUM_QUANTIZATION_SIZE:
+                half = converted.node.add()
+                half.op = 'Const'
+                half.name = node.name + '_float16'
+                half.device = node.device
+                half.attr['dtype'].type = float16
+                half.attr['value'].tensor.CopyFrom(
+                    tensor_util.make_tensor_proto(value.astype(np.float16), dtype=tf.float16))
+                cast = converted.node.add()
+                cast.op = 'Cast'
+                cast.name = node.name
+                cast.device = node.device
+                cast.input.append(half.name)
+                cast.attr['SrcT'].type = float16
+                cast.attr['DstT'].type = float32
+                continue
+        converted.node.add().CopyFrom(node)
+    return converted
+
+
+def _create_sample_batch(model, batch_size):
+    random = np.random.RandomState(0)
+    sample = []
+    for tensor in model.inputs:
+        shape = [batch_size] + [d if d is not None else _UNKNOWN_DIMENSION_SIZE for d in K.int_shape(tensor)[1:]]
+        sample.append(random.random_sample(shape).astype(K.dtype(tensor)))
+    return sample
+
+
+def _run_graph(graph_def, input_tensor_names, output_tensor_names, sample):
+    graph = tf.Graph()
+    with graph.as_default():
+        tf.import_graph_def(graph_def, name='')
+    with tf.Session(graph=graph) as session:
+        feed_dict = {graph.get_tensor_by_name(name): value for name, value in zip(input_tensor_names, sample)}
+        fetches = [graph.get_tensor_by_name(name) for name in output_tensor_names]
+        return session.run(fetches, feed_dict=feed_dict)
+
+
+def _check_outputs(output_names, expected, actual, tolerance):
+    for name, e, a in zip(output_names, expected, actual):
+        e = np.asarray(e, dtype=np.float64)
+        a = np.asarray(a, dtype=np.float64)
+        if e.shape != a.shape:
+            raise ValueError("The output '" + name + "' of the exported network has shape " + str(a.shape) +
+                             " instead of " + str(e.shape) + ".")
+        if e.size == 0:
+            continue
+        deviation = np.max(np.abs(e - a)) / max(1.0, np.max(np.abs(e)))
+        if not deviation <= tolerance:
+            raise ValueError("The output '" + name + "' of the exported network deviates from the one of the original "
+                             "network by " + str(deviation) + " on a sample batch, which exceeds the tolerance of " +
+                             str(tolerance) + ".")
+
+
+def _write_saved_model(graph_def, input_tensor_names, output_tensor_names, path):
+    directory = tempfile.mkdtemp()
+    try:
+        export_dir = os.path.join(directory, 'saved_model')
+        graph = tf.Graph()
+        with graph.as_default():
+            tf.import_graph_def(graph_def, name='')
+        with tf.Session(graph=graph) as session:
+            inputs = {name[:-2]: graph.get_tensor_by_name(name) for name in input_tensor_names}
+            outputs = {name[:-2]: graph.get_tensor_by_name(name) for name in output_tensor_names}
+            signature = tf.saved_model.signature_def_utils.predict_signature_def(inputs=inputs, outputs=outputs)
+            builder = tf.saved_model.builder.SavedModelBuilder(export_dir)
+            builder.add_meta_graph_and_variables(session, [tf.saved_model.tag_constants.SERVING], signature_def_map={
+                tf.saved_model.signature_constants.DEFAULT_SERVING_SIGNATURE_DEF_KEY: signature})
+            builder.save()
+        archive = shutil.make_archive(os.path.join(directory, 'saved_model'), 'zip', export_dir)
+        shutil.move(archive, path)
+    finally:
+        shutil.rmtree(directory, ignore_errors=True)
+
+
+def _as_list(value):
+    return value if isinstance(value, list) else [value]
@@ -55,7 +55,8 @@ from messaging.Task import Task
 
 
 class DLKerasTrainTask(Task):
-    def __init__(self, reply_to, network, training_data_supplier, validation_data_supplier=None):
+    def __init__(self, reply_to, network, training_data_supplier, validation_data_supplier=None,
+                 progress_interval=0.0):
         self._kernel = DLPythonKernelGateway.global_workspace()['workspace']
         self._commands = self._kernel._commands
         self._messaging = self._commands._messaging
@@ -70,6 +71,7 @@ class DLKerasTrainTask(Task):
         if validation_data_supplier is not None:
             validation_data_supplier.request_from_java = self.request_from_java
         self._validation_data_supplier = validation_data_supplier
+        self._progress_interval = progress_interval
 
     def send_to_java(self, message_category, payload=None):
         message = self._create_message(message_category, payload)
@@ -81,14 +83,17 @@ class DLKerasTrainTask(Task):
         return
 
     def _create_message(self, message_category, payload=None):
-        payload = PayloadEncoder().put_string(str(payload)).payload if payload is not None else None
+        # Binary payloads are passed through as they are, everything else is sent as string.
+        if payload is not None and not isinstance(payload, bytes):
+            payload = PayloadEncoder().put_string(str(payload)).payload
         return Message(self._message_id_supplier(), self._reply_to, payload,
                        {AbstractTaskHandler.FIELD_KEY_MESSAGE_TYPE: message_category})
 
     def _run_internal(self):
         history = self._network.train(self._training_data_supplier,
                                       validation_data_supplier=self._validation_data_supplier,
-                                      send_to_java=self.send_to_java)
+                                      send_to_java=self.send_to_java,
+                                      progress_interval=self._progress_interval)
         self._set_result(history)
 
     class _RequestTaskHandler(AbstractTaskHandler):
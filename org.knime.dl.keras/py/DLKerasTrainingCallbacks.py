@@ -49,7 +49,10 @@
 '''
 
 import abc
+import os
+import struct
 import sys
+import time
 
 from keras.callbacks import Callback
 from keras.callbacks import EarlyStopping
@@ -106,11 +109,166 @@ class DLKerasTerminateOnNaN(TerminateOnNaN, DLKerasAbstractTrainingCallback):
             self.send_to_java('terminate_on_nan', batch)
 
 
+class DLKerasTrainingCheckpoint(Callback, DLKerasAbstractTrainingCallback):
+    """
+    Saves the model including its optimizer state at the end of every n-th epoch and at the end of the last epoch.
+    Only completed epochs are saved, an epoch that was interrupted by a stop request does not produce a checkpoint.
+    Each checkpoint is first written to a temporary file and then moved to its final location such that Java never
+    observes a partially written checkpoint.
+    """
+
+    def __init__(self, path_pattern, interval=1):
+        super().__init__()
+        # path_pattern contains a single '{}' that is replaced by the number of completed epochs
+        self.path_pattern = path_pattern
+        self.interval = interval
+        self._batches_seen = 0
+
+    def on_epoch_begin(self, epoch, logs=None):
+        self._batches_seen = 0
+
+    def on_batch_end(self, batch, logs=None):
+        self._batches_seen += 1
+
+    def on_epoch_end(self, epoch, logs=None):
+        steps = self.params.get('steps')
+        if steps is not None and self._batches_seen < steps:
+            return  # incomplete epoch
+        num_epochs_done = epoch + 1
+        if (num_epochs_done % self.interval == 0
+                or num_epochs_done == self.params.get('epochs')
+                or self.model.stop_training):
+            path = self.path_pattern.format(num_epochs_done)
+            tmp_path = path + '.tmp'
+            self.model.save(tmp_path)
+            os.replace(tmp_path, path)
+            self.send_to_java('checkpoint', num_epochs_done)
+
+
+class DLKerasPeriodicValidation(Callback, DLKerasAbstractTrainingCallback):
+    """
+    Validates the model at the end of every n-th epoch or, if a batch interval is given, after every n-th training
+    batch. Intermediate validations use the first num_sample_batches validation batches if that number is greater than
+    zero, the validation at the end of the last epoch always uses all validation batches. If training ends without such
+    a validation (e.g. because it was stopped early), a validation on all batches is performed at the end of training.
+
+    Validation results are reported to Java and added to the logs of the epochs in which a validation took place.
+    Callbacks that monitor validation quantities (see monitoring_callbacks) are driven by this callback and only see the
+    ends of those epochs. Their patience is therefore counted in validations rather than in epochs. Callbacks that
+    precede this callback do not see the validation results.
+    """
+
+    def __init__(self, epoch_interval=1, batch_interval=0, num_sample_batches=0):
+        super().__init__()
+        self.epoch_interval = epoch_interval
+        self.batch_interval = batch_interval
+        self.num_sample_batches = num_sample_batches
+        self.monitoring_callbacks = []
+        # DLKerasTrainingMonitor whose pending batch metrics are reported before each validation, may be None
+        self.training_monitor = None
+        self._sample_data = None
+        self._complete_data = None
+        self._batches_seen = 0
+        self._epoch_validation_logs = None
+        self._last_validation_complete = True
+
+    def set_validation_data(self, validation_data_supplier):
+        steps = validation_data_supplier.steps
+        self._complete_data = (validation_data_supplier.get_generator(self.num_sample_batches,
+                                                                      steps - self.num_sample_batches),
+                               steps - self.num_sample_batches)
+        if self.num_sample_batches > 0:
+            self._sample_data = (validation_data_supplier.get_generator(0, self.num_sample_batches),
+                                 self.num_sample_batches)
+        else:
+            self._sample_data = self._complete_data
+
+    def set_params(self, params):
+        super().set_params(params)
+        for c in self.monitoring_callbacks:
+            c.set_params(params)
+
+    def set_model(self, model):
+        super().set_model(model)
+        for c in self.monitoring_callbacks:
+            c.set_model(model)
+
+    def on_train_begin(self, logs=None):
+        self._batches_seen = 0
+        self._last_validation_complete = True
+        for c in self.monitoring_callbacks:
+            c.on_train_begin(logs)
+
+    def on_train_end(self, logs=None):
+        if not self._last_validation_complete:
+            self._validate(complete=True)
+        for c in self.monitoring_callbacks:
+            c.on_train_end(logs)
+
+    def on_epoch_begin(self, epoch, logs=None):
+        self._epoch_validation_logs = None
+        for c in self.monitoring_callbacks:
+            c.on_epoch_begin(epoch, logs)
+
+    def on_batch_begin(self, batch, logs=None):
+        for c in self.monitoring_callbacks:
+            c.on_batch_begin(batch, logs)
+
+    def on_batch_end(self, batch, logs=None):
+        for c in self.monitoring_callbacks:
+            c.on_batch_end(batch, logs)
+        self._batches_seen += 1
+        # A validation that is due after the last batch of an epoch is performed at the end of the epoch.
+        if (self.batch_interval > 0 and self._batches_seen % self.batch_interval == 0
+                and batch != self.params.get('steps', 0) - 1 and not self.model.stop_training):
+            self._epoch_validation_logs = self._validate(complete=False)
+
+    def on_epoch_end(self, epoch, logs=None):
+        is_last_epoch = epoch + 1 == self.params.get('epochs')
+        if self.batch_interval > 0:
+            is_due = self._batches_seen % self.batch_interval == 0
+        else:
+            is_due = (epoch + 1) % self.epoch_interval == 0
+        if is_last_epoch or is_due:
+            self._epoch_validation_logs = self._validate(complete=is_last_epoch)
+        if self._epoch_validation_logs is not None:
+            if logs is not None:
+                logs.update(self._epoch_validation_logs)
+            for c in self.monitoring_callbacks:
+                c.on_epoch_end(epoch, logs)
+
+    def _validate(self, complete):
+        if self.training_monitor is not None:
+            self.training_monitor._report_batch_metrics()
+        generator, steps = self._complete_data if complete else self._sample_data
+        totals = None
+        for _ in range(steps):
+            x, y = next(generator)
+            outs = self.model.test_on_batch(x, y)
+            if not isinstance(outs, list):
+                outs = [outs]
+            totals = outs if totals is None else [t + o for t, o in zip(totals, outs)]
+        validation_logs = {'val_' + n: float(t) / steps for n, t in zip(self.model.metrics_names, totals)}
+        self._last_validation_complete = complete or self._sample_data is self._complete_data
+        acc, loss = _validation_accuracy_and_loss(validation_logs)
+        self.send_to_java('validation_end', _format_metric(acc) + ';' + _format_metric(loss))
+        return validation_logs
+
+
 class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
-    def __init__(self, network):
+    # The order in which batch metrics appear in the binary progress messages. Announced to Java at training start.
+    BATCH_METRICS_INDEX = ('accuracy', 'loss')
+
+    def __init__(self, network, progress_interval=0.0):
         super().__init__()
         self._network = network
         self._stop_training = False
+        # Time window in seconds over which the metrics of consecutive batches are coalesced into a single message.
+        self.progress_interval = progress_interval
+        self._pending_batch_metrics = []
+        self._last_report = 0.0
+        # False if validation results are reported by a DLKerasPeriodicValidation callback instead
+        self.report_validation = True
 
     def stop_early(self):
         self._stop_training = True
@@ -120,8 +278,12 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
         # metrics_names = self.params['metrics']
         # self._metrics = pd.DataFrame(index=[0], columns=metrics_names)
         self._stop_training = False
+        self._pending_batch_metrics = []
+        self._last_report = time.monotonic()
+        self.send_to_java('batch_metrics_index', ';'.join(DLKerasTrainingMonitor.BATCH_METRICS_INDEX))
 
     def on_train_end(self, logs=None):
+        self._report_batch_metrics()
         if self._stop_training:
             # flush pending Keras logs before printing our own status message
             sys.stdout.flush()
@@ -131,24 +293,17 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
         self.send_to_java('epoch_begin')
 
     def on_epoch_end(self, epoch, logs=None):
+        self._report_batch_metrics()
         if logs:
-            loss = logs.get('val_loss')
-            acc = logs.get('val_acc')
-            if acc is None:
-                # Multi-output networks only have an accuracy metric per output. Average over them and use the result as
-                # accuracy for the entire network. TODO: Note that this is a temporary workaround. Per-output metric
-                # reporting is pending.
-                accs = [v for k, v in logs.items() if k.startswith('val_') and k.endswith('_acc')]
-                len_accs = len(accs)
-                if len_accs > 0:
-                    acc = sum(accs) / len_accs
-
-            self.send_to_java('epoch_end', str(acc) + ';' + str(loss))
-
-    def on_batch_begin(self, batch, logs=None):
-        self.send_to_java('batch_begin')
+            if self.report_validation:
+                acc, loss = _validation_accuracy_and_loss(logs)
+            else:
+                acc, loss = float('nan'), float('nan')
+            self.send_to_java('epoch_end', _format_metric(acc) + ';' + _format_metric(loss))
 
     def on_batch_end(self, batch, logs=None):
+        acc = None
+        loss = None
         if logs:
             loss = logs.get('loss')
             acc = logs.get('acc')
@@ -158,5 +313,45 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
                 # reporting is pending.
                 accs = [v for k, v in logs.items() if k.endswith('_acc')]
                 acc = sum(accs) / len(accs)
+        # Missing values are encoded as NaN.
+        self._pending_batch_metrics.append(float('nan') if acc is None else float(acc))
+        self._pending_batch_metrics.append(float('nan') if loss is None else float(loss))
+        # Always report the last batch of an epoch immediately as Java starts the validation phase afterwards.
+        if (time.monotonic() - self._last_report >= self.progress_interval
+                or batch == self.params.get('steps', 0) - 1
+                or self._network.model.stop_training):
+            self._report_batch_metrics()
+
+    def _report_batch_metrics(self):
+        """
+        Sends the metrics of all batches that ended since the last report to Java in a single binary message: the
+        number of batches and the number of metrics (int32) followed by the metric values (float32), batch-major.
+        """
+        self._last_report = time.monotonic()
+        pending = self._pending_batch_metrics
+        if not pending:
+            return
+        self._pending_batch_metrics = []
+        num_metrics = len(DLKerasTrainingMonitor.BATCH_METRICS_INDEX)
+        num_batches = len(pending) // num_metrics
+        payload = struct.pack('>ii%df' % len(pending), num_batches, num_metrics, *pending)
+        self.send_to_java('batches_end', payload)
+
+
+def _validation_accuracy_and_loss(logs):
+    loss = logs.get('val_loss')
+    acc = logs.get('val_acc')
+    if acc is None:
+        # Multi-output networks only have an accuracy metric per output. Average over them and use the result as
+        # accuracy for the entire network. TODO: Note that this is a temporary workaround. Per-output metric reporting
+        # is pending.
+        accs = [v for k, v in logs.items() if k.startswith('val_') and k.endswith('_acc')]
+        len_accs = len(accs)
+        if len_accs > 0:
+            acc = sum(accs) / len_accs
+    return acc, loss
+
 
-            self.send_to_java('batch_end', str(acc) + ';' + str(loss))
+def _format_metric(value):
+    # Java parses 'NaN' but neither 'nan' nor 'None'.
+    return 'NaN' if value is None or value != value else str(value)
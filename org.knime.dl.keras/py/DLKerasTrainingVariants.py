@@ -0,0 +1,168 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+@author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+'''
+
+import keras
+from keras import backend as K
+
+import DLPythonNetwork
+from DLKerasTrainingCallbacks import DLKerasTrainingMonitor, _format_metric
+
+
+class DLKerasTrainingVariant(object):
+    """
+    A variation of the training configuration of a network: the optimizer to use and, optionally, a learning rate that
+    replaces the one of the optimizer. The copy of the network that is trained using the variant is registered under the
+    given network identifier.
+    """
+
+    def __init__(self, network_identifier, optimizer, learning_rate=None):
+        self.network_identifier = network_identifier
+        self.optimizer = optimizer
+        self.learning_rate = learning_rate
+
+
+def train_variants(network, variants, loss, metrics, epochs, training_data_supplier, validation_data_supplier=None,
+                   send_to_java=None, progress_interval=0.0):
+    """
+    Trains a copy of the network's model per variant. All copies start from the weights of the model and are trained
+    on the same batches: each training and validation batch is requested from Java once and is then fed to every copy.
+    The metrics that are reported to Java while training are the means over all copies. Once training is complete or
+    was stopped, the final metrics of each variant are sent to Java and the trained copies are registered as networks.
+    The model itself remains untrained. Callbacks, checkpoints and validation schedules of the training configuration
+    do not apply, validation takes place at the end of each epoch.
+    """
+    weights = network.model.get_weights()
+    models = []
+    for variant in variants:
+        model = keras.models.clone_model(network.model)
+        model.set_weights(weights)
+        if variant.learning_rate is not None:
+            K.set_value(variant.optimizer.lr, variant.learning_rate)
+        model.compile(loss=loss, optimizer=variant.optimizer, metrics=metrics)
+        models.append(model)
+
+    steps = training_data_supplier.steps
+    # Reports the progress to Java and processes stop requests, see DLKerasNetwork.stop_early.
+    monitor = DLKerasTrainingMonitor(network, progress_interval)
+    monitor.send_to_java = send_to_java
+    monitor.report_validation = validation_data_supplier is not None
+    monitor.set_params({'epochs': epochs, 'steps': steps})
+    network._training_monitor = monitor
+    network.model.stop_training = False
+
+    training_data = training_data_supplier.get_generator()
+    validation_data = validation_data_supplier.get_generator() if validation_data_supplier is not None else None
+    training_logs = [{} for _ in models]
+    validation_logs = [{} for _ in models]
+    monitor.on_train_begin()
+    for epoch in range(epochs):
+        monitor.on_epoch_begin(epoch)
+        totals = [None] * len(models)
+        num_batches = 0
+        for batch in range(steps):
+            x, y = next(training_data)
+            batch_logs = [_train_on_batch(m, x, y) for m in models]
+            totals = [_add(t, l) for t, l in zip(totals, batch_logs)]
+            num_batches += 1
+            monitor.on_batch_end(batch, _mean(batch_logs))
+            if network.model.stop_training:
+                break
+        training_logs = [{n: v / num_batches for n, v in t.items()} for t in totals]
+        epoch_logs = dict(_mean(training_logs))
+        if validation_data is not None:
+            validation_logs = _validate(models, validation_data, validation_data_supplier.steps)
+            epoch_logs.update({'val_' + n: v for n, v in _mean(validation_logs).items()})
+        monitor.on_epoch_end(epoch, epoch_logs)
+        if network.model.stop_training:
+            break
+    monitor.on_train_end()
+
+    for i, (variant, model) in enumerate(zip(variants, models)):
+        DLPythonNetwork.remove_network(variant.network_identifier)
+        DLPythonNetwork.add_network(type(network)(model), variant.network_identifier)
+        acc, loss_value = _accuracy_and_loss(training_logs[i])
+        val_acc, val_loss = _accuracy_and_loss(validation_logs[i])
+        send_to_java('variant_end', ';'.join([str(i)] + [_format_metric(v) for v in (loss_value, acc, val_loss,
+                                                                                     val_acc)]))
+    return {}
+
+
+def _train_on_batch(model, x, y):
+    return _to_logs(model, model.train_on_batch(x, y))
+
+
+def _validate(models, validation_data, steps):
+    totals = [None] * len(models)
+    for _ in range(steps):
+        x, y = next(validation_data)
+        totals = [_add(t, _to_logs(m, m.test_on_batch(x, y))) for t, m in zip(totals, models)]
+    return [{n: v / steps for n, v in t.items()} for t in totals]
+
+
+def _to_logs(model, outs):
+    if not isinstance(outs, list):
+        outs = [outs]
+    return {n: float(o) for n, o in zip(model.metrics_names, outs)}
+
+
+def _add(totals, logs):
+    return dict(logs) if totals is None else {n: totals[n] + v for n, v in logs.items()}
+
+
+def _mean(logs):
+    return {n: sum(l[n] for l in logs) / len(logs) for n in logs[0]}
+
+
+def _accuracy_and_loss(logs):
+    acc = logs.get('acc')
+    if acc is None:
+        # Multi-output networks only have an accuracy metric per output, see DLKerasTrainingMonitor.
+        accs = [v for k, v in logs.items() if k.endswith('_acc')]
+        acc = sum(accs) / len(accs) if accs else None
+    return acc, logs.get('loss')
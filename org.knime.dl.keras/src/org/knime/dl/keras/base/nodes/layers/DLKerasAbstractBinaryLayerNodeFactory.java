@@ -50,7 +50,6 @@
 import java.io.IOException;
 import java.util.Arrays;
 
-import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
@@ -62,13 +61,11 @@
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
-import org.knime.dl.base.portobjects.DLNetworkPortObject;
 import org.knime.dl.keras.base.nodes.layers.DLKerasAbstractBinaryLayerNodeFactory.DLKerasBinaryLayerNodeModel;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectBase;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectSpecBase;
 import org.knime.dl.keras.base.portobjects.DLKerasUnmaterializedNetworkPortObject;
 import org.knime.dl.keras.base.portobjects.DLKerasUnmaterializedNetworkPortObjectSpec;
-import org.knime.dl.keras.core.DLKerasNetworkLoader;
 import org.knime.dl.keras.core.layers.DLKerasBinaryLayer;
 import org.knime.dl.keras.core.struct.param.ValidityException;
 
@@ -142,9 +139,8 @@ protected PortObjectSpec[] configure(PortObjectSpec[] inSpecs) throws InvalidSet
         protected PortObject[] execute(PortObject[] inObjects, ExecutionContext exec) throws Exception {
             amendBaseNetworkSource(m_layer, 0, (DLKerasNetworkPortObjectBase)inObjects[0]);
             amendBaseNetworkSource(m_layer, 1, (DLKerasNetworkPortObjectBase)inObjects[1]);
-            final FileStore fileStore =
-                DLNetworkPortObject.createFileStoreForSaving(DLKerasNetworkLoader.SAVE_MODEL_URL_EXTENSION, exec);
-            return new PortObject[]{new DLKerasUnmaterializedNetworkPortObject(Arrays.asList(m_layer), fileStore)};
+            return new PortObject[]{
+                DLKerasUnmaterializedNetworkPortObject.create(Arrays.asList(m_layer), inObjects, exec)};
         }
 
         @Override
@@ -192,6 +192,7 @@ private static void appendToExistingNetwork(final int parentIndex,
     @Override
     protected void loadValidatedSettingsFrom(NodeSettingsRO settings) throws InvalidSettingsException {
         Structs.shallowCopyUnsafe(StructInstances.createReadInstance(settings, m_settingsRO), m_instance);
+        m_layer.resetOutputSpecs();
     }
 
     @Override
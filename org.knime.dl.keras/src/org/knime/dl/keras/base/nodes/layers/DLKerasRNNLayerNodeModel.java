@@ -48,18 +48,15 @@
 
 import java.util.Arrays;
 
-import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
-import org.knime.dl.base.portobjects.DLNetworkPortObject;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectBase;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectSpecBase;
 import org.knime.dl.keras.base.portobjects.DLKerasUnmaterializedNetworkPortObject;
 import org.knime.dl.keras.base.portobjects.DLKerasUnmaterializedNetworkPortObjectSpec;
-import org.knime.dl.keras.core.DLKerasNetworkLoader;
 import org.knime.dl.keras.core.layers.DLKerasRNNLayer;
 
 /**
@@ -113,9 +110,8 @@ protected PortObject[] execute(PortObject[] inObjects, ExecutionContext exec) th
                 amendBaseNetworkSource(m_layer, i, inObject);
             }
         }
-        final FileStore fileStore =
-            DLNetworkPortObject.createFileStoreForSaving(DLKerasNetworkLoader.SAVE_MODEL_URL_EXTENSION, exec);
-        return new PortObject[]{new DLKerasUnmaterializedNetworkPortObject(Arrays.asList(m_layer), fileStore)};
+        return new PortObject[]{
+            DLKerasUnmaterializedNetworkPortObject.create(Arrays.asList(m_layer), inObjects, exec)};
     }
 
 }
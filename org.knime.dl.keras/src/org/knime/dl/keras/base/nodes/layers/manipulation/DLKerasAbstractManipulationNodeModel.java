@@ -56,6 +56,7 @@
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortType;
+import org.knime.dl.base.portobjects.DLNetworkFileStoreDeduplicator;
 import org.knime.dl.base.portobjects.DLNetworkPortObject;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -114,13 +115,8 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         final DLCancelable cancelable = new DLExecutionMonitorCancelable(exec);
 
         try (final DLPythonContext pythonContext = new DLPythonDefaultContext()) {
-            // Load the input network
-            final DLPythonNetworkHandle inputNetworkHandle =
-                DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader(inputNetwork.getClass())
-                    .orElseThrow(() -> new DLMissingExtensionException(
-                        "Python back end '" + inputNetwork.getClass().getCanonicalName()
-                            + "' could not be found. Are you missing a KNIME Deep Learning extension?"))
-                    .load(inputNetwork.getSource().getURI(), pythonContext, false, cancelable);
+            // Load the input network (this also applies modifications that are only recorded in its spec)
+            final DLPythonNetworkHandle inputNetworkHandle = loadInputNetwork(inputNetwork, pythonContext, cancelable);
 
             // Get the network in a variable
             final String getModelSourceCode = createGetModelSourceCode(inputNetworkHandle);
@@ -136,6 +132,19 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private static <N extends DLKerasNetwork> DLPythonNetworkHandle loadInputNetwork(final N inputNetwork,
+        final DLPythonContext pythonContext, final DLCancelable cancelable)
+        throws DLMissingExtensionException, DLInvalidSourceException, DLInvalidEnvironmentException, IOException,
+        DLCanceledExecutionException {
+        final DLPythonNetworkLoader<N> loader =
+            DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)inputNetwork.getClass())
+                .orElseThrow(() -> new DLMissingExtensionException(
+                    "Python back end '" + inputNetwork.getClass().getCanonicalName()
+                        + "' could not be found. Are you missing a KNIME Deep Learning extension?"));
+        return loader.load(inputNetwork, pythonContext, false, cancelable);
+    }
+
     private static String createGetModelSourceCode(final DLPythonNetworkHandle inputNetworkHandle) {
         return DLPythonUtils.createSourceCodeBuilder() //
             .a("import DLPythonNetwork") //
@@ -177,6 +186,7 @@ private static <N extends DLPythonNetwork> DLPythonNetworkPortObject<?> saveOutp
             throw new IllegalStateException(
                 "Failed to save output deep learning network '" + OUTPUT_NETWORK_VAR + "'.");
         }
+        DLNetworkFileStoreDeduplicator.deduplicate(fileStore);
         return loader.createPortObject(
             loader.fetch(handle, new DLNetworkFileStoreLocation(fileStore), pythonContext, cancelable), fileStore);
     }
@@ -53,7 +53,6 @@
 import org.knime.core.node.NotConfigurableException;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.util.filter.StringFilterPanel;
-import org.knime.dl.keras.base.nodes.layers.manipulation.DLKerasAbstractManipulationNodeModel;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectSpecBase;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
 
@@ -83,7 +82,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
     protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec[] specs)
         throws NotConfigurableException {
         final DLKerasNetworkPortObjectSpecBase spec =
-            (DLKerasNetworkPortObjectSpecBase)specs[DLKerasAbstractManipulationNodeModel.IN_NETWORK_PORT_IDX];
+            (DLKerasNetworkPortObjectSpecBase)specs[DLKerasFreezeLayersNodeModel.IN_NETWORK_PORT_IDX];
         if (spec == null) {
             throw new NotConfigurableException(
                 "Can't configure the node without specification of the input network. Please configure or execute the predecessor.");
@@ -54,21 +54,34 @@
 import java.util.function.Consumer;
 
 import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
 import org.knime.dl.core.DLTensorSpec;
-import org.knime.dl.keras.base.nodes.layers.manipulation.DLKerasAbstractManipulationNodeModel;
+import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObject;
+import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectBase;
+import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectSpec;
+import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
 import org.knime.dl.keras.util.DLKerasUtils;
-import org.knime.dl.python.util.DLPythonUtils;
 
 /**
+ * Freezes layers of a Keras network. Only the {@link DLKerasNetworkSpec#getFrozenLayers() network spec} is changed,
+ * the network file is shared with the input network. The frozen layers are applied when the network is loaded on
+ * Python side.
+ *
  * @author Benjamin Wilhelm, KNIME GmbH, Konstanz, Germany
  */
-public class DLKerasFreezeLayersNodeModel extends DLKerasAbstractManipulationNodeModel {
+public class DLKerasFreezeLayersNodeModel extends NodeModel {
+
+    /** Index of the input port for the network */
+    static final int IN_NETWORK_PORT_IDX = 0;
 
     static StringFilterConfiguration createLayerFilterConfig() {
         return new StringFilterConfiguration("frozen_layers");
@@ -86,7 +99,7 @@ static String[] getLayerNames(final DLKerasNetworkSpec spec) {
     private final StringFilterConfiguration m_frozenLayers = createLayerFilterConfig();
 
     DLKerasFreezeLayersNodeModel() {
-        super();
+        super(new PortType[]{DLKerasNetworkPortObjectBase.TYPE}, new PortType[]{DLKerasNetworkPortObjectBase.TYPE});
     }
 
     @Override
@@ -95,23 +108,27 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
         // - If enforce inclusion is activated: All configured included layers must be available
         // - If enforce exclusion is activated: All configured excluded layers must be available
         // This is currently not implemented in the NameFilterConfiguraion used. (The column filter doesn't do the check either)
-
-        // TODO Save the frozen layers in the network spec
-        // This node doesn't change the specs
+        final PortObjectSpec inSpec = inSpecs[IN_NETWORK_PORT_IDX];
+        if (inSpec instanceof DLKerasNetworkPortObjectSpec) {
+            final DLKerasNetworkPortObjectSpec networkPortObjectSpec = (DLKerasNetworkPortObjectSpec)inSpec;
+            return new PortObjectSpec[]{new DLKerasNetworkPortObjectSpec(
+                freeze(networkPortObjectSpec.getNetworkSpec()), networkPortObjectSpec.getNetworkType())};
+        }
+        // The network is materialized during execution, the frozen layers are only known afterwards.
         return inSpecs;
     }
 
     @Override
-    protected String createManipulationSourceCode(final DLKerasNetworkSpec networkSpec) {
-        // Get the configured layers
-        final String[] layers = getLayerNames(networkSpec);
-        final String[] frozen = m_frozenLayers.applyTo(layers).getIncludes();
-
-        // Freeze the configured layers
-        return DLPythonUtils.createSourceCodeBuilder() //
-            .n("for l in ").a(OUTPUT_NETWORK_VAR).a(".layers:") //
-            .n().t().a("l.trainable = not l.name in ").as(frozen) //
-            .toString();
+    protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
+        final DLKerasNetwork inputNetwork =
+            ((DLKerasNetworkPortObjectBase)inObjects[IN_NETWORK_PORT_IDX]).getNetwork();
+        final DLKerasNetwork outputNetwork = freeze(inputNetwork.getSpec()).create(inputNetwork.getSource(), false);
+        return new PortObject[]{new DLKerasNetworkPortObject(outputNetwork)};
+    }
+
+    private DLKerasNetworkSpec freeze(final DLKerasNetworkSpec networkSpec) {
+        final String[] frozen = m_frozenLayers.applyTo(getLayerNames(networkSpec)).getIncludes();
+        return networkSpec.withFrozenLayers(frozen);
     }
 
     @Override
@@ -0,0 +1,236 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.knime.core.node.NodeSettings;
+import org.knime.dl.keras.base.nodes.learner.view.DLDefaultLinePlotViewDataCollection;
+import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewDataCollection;
+import org.knime.dl.keras.base.nodes.learner.view.jfreechart.DLDefaultJFreeChartLinePlotViewSpec;
+import org.knime.dl.keras.base.nodes.learner.view.jfreechart.DLJFreeChartLinePlotViewSpec;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.DLKerasNetworkSpecSerializer;
+
+/**
+ * Everything the Keras Network Learner needs to resume an interrupted training run from the most recent checkpoint,
+ * apart from the checkpointed network itself. Written next to the checkpoint files whenever a checkpoint has been
+ * completed.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLKerasLearnerCheckpointState {
+
+	static final String FILENAME = "checkpoint.state";
+
+	private static final int VERSION = 2;
+
+	/**
+	 * @param directory the checkpoint directory
+	 * @return the state stored in the given directory, <code>null</code> if there is none
+	 * @throws IOException if reading the state failed
+	 */
+	static DLKerasLearnerCheckpointState read(final File directory) throws IOException {
+		final File file = new File(directory, FILENAME);
+		if (!file.isFile()) {
+			return null;
+		}
+		try (final ObjectInputStream objIn = new ObjectInputStream(new FileInputStream(file))) {
+			final int version = objIn.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported checkpoint state version: " + version + ".");
+			}
+			final DLKerasNetworkSpec networkSpec = DLKerasNetworkSpecSerializer.readSpec(objIn);
+			final NodeSettings trainingSettings = NodeSettings
+					.loadFromXML(new ByteArrayInputStream((byte[]) objIn.readObject()));
+			final long numRows = objIn.readLong();
+			final long batchSize = objIn.readLong();
+			final boolean doShuffle = objIn.readBoolean();
+			final long shuffleSeed = objIn.readLong();
+			final boolean doValidation = objIn.readBoolean();
+			final int numCompletedEpochs = objIn.readInt();
+			final File networkFile = new File(directory, objIn.readUTF());
+			final int numViewTabs = objIn.readInt();
+			final DLJFreeChartLinePlotViewSpec[] viewSpecs = new DLJFreeChartLinePlotViewSpec[numViewTabs];
+			final DLLinePlotViewDataCollection[] viewData = new DLLinePlotViewDataCollection[numViewTabs];
+			for (int i = 0; i < numViewTabs; i++) {
+				viewSpecs[i] = new DLDefaultJFreeChartLinePlotViewSpec();
+				viewSpecs[i].readExternal(objIn);
+				viewData[i] = new DLDefaultLinePlotViewDataCollection<>(viewSpecs[i]);
+				viewData[i].readExternal(objIn);
+			}
+			return new DLKerasLearnerCheckpointState(networkSpec, trainingSettings, numRows, batchSize, doShuffle, shuffleSeed,
+					doValidation, numCompletedEpochs, networkFile, viewSpecs, viewData);
+		} catch (final ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private final DLKerasNetworkSpec m_networkSpec;
+
+	private final NodeSettings m_trainingSettings;
+
+	private final long m_numRows;
+
+	private final long m_batchSize;
+
+	private final boolean m_doShuffle;
+
+	private final long m_shuffleSeed;
+
+	private final boolean m_doValidation;
+
+	private final int m_numCompletedEpochs;
+
+	private final File m_networkFile;
+
+	private final DLJFreeChartLinePlotViewSpec[] m_viewSpecs;
+
+	private final DLLinePlotViewDataCollection[] m_viewData;
+
+	/**
+	 * @param trainingSettings all node settings that affect the outcome of the training, e.g. the optimizer, the loss
+	 *            functions and the input and target columns
+	 */
+	DLKerasLearnerCheckpointState(final DLKerasNetworkSpec networkSpec, final NodeSettings trainingSettings,
+			final long numRows, final long batchSize, final boolean doShuffle, final long shuffleSeed,
+			final boolean doValidation, final int numCompletedEpochs, final File networkFile,
+			final DLJFreeChartLinePlotViewSpec[] viewSpecs, final DLLinePlotViewDataCollection[] viewData) {
+		m_networkSpec = networkSpec;
+		m_trainingSettings = trainingSettings;
+		m_numRows = numRows;
+		m_batchSize = batchSize;
+		m_doShuffle = doShuffle;
+		m_shuffleSeed = shuffleSeed;
+		m_doValidation = doValidation;
+		m_numCompletedEpochs = numCompletedEpochs;
+		m_networkFile = networkFile;
+		m_viewSpecs = viewSpecs;
+		m_viewData = viewData;
+	}
+
+	/**
+	 * @return the number of rows that were consumed from the training data until the checkpoint was written
+	 */
+	long getNumConsumedRows() {
+		// incomplete batches are filled up from the beginning of the table, see DLKnimeNetworkTrainingInputPreparer
+		return m_numCompletedEpochs * (long) Math.ceil(m_numRows / (double) m_batchSize) * m_batchSize;
+	}
+
+	/**
+	 * @return <code>true</code> if training of a network with the given properties can be resumed from this state
+	 */
+	boolean isCompatible(final DLKerasNetworkSpec networkSpec, final NodeSettings trainingSettings,
+			final long numRows, final long batchSize, final boolean doShuffle, final boolean doValidation,
+			final int numEpochs) {
+		return m_networkSpec.equals(networkSpec) && m_trainingSettings.equals(trainingSettings)
+				&& m_numRows == numRows && m_batchSize == batchSize && m_doShuffle == doShuffle
+				&& m_doValidation == doValidation && m_numCompletedEpochs < numEpochs && m_networkFile.isFile();
+	}
+
+	long getShuffleSeed() {
+		return m_shuffleSeed;
+	}
+
+	int getNumCompletedEpochs() {
+		return m_numCompletedEpochs;
+	}
+
+	File getNetworkFile() {
+		return m_networkFile;
+	}
+
+	DLJFreeChartLinePlotViewSpec[] getViewSpecs() {
+		return m_viewSpecs;
+	}
+
+	DLLinePlotViewDataCollection[] getViewData() {
+		return m_viewData;
+	}
+
+	/**
+	 * Writes this state to the given directory. The state file is replaced atomically such that a crash while writing
+	 * leaves the previous state intact.
+	 *
+	 * @param directory the checkpoint directory, must contain the state's network file
+	 * @throws IOException if writing the state failed
+	 */
+	void write(final File directory) throws IOException {
+		final File tmpFile = new File(directory, FILENAME + ".tmp");
+		try (final ObjectOutputStream objOut = new ObjectOutputStream(new FileOutputStream(tmpFile))) {
+			objOut.writeInt(VERSION);
+			DLKerasNetworkSpecSerializer.writeSpec(m_networkSpec, objOut);
+			final ByteArrayOutputStream trainingSettings = new ByteArrayOutputStream();
+			m_trainingSettings.saveToXML(trainingSettings);
+			objOut.writeObject(trainingSettings.toByteArray());
+			objOut.writeLong(m_numRows);
+			objOut.writeLong(m_batchSize);
+			objOut.writeBoolean(m_doShuffle);
+			objOut.writeLong(m_shuffleSeed);
+			objOut.writeBoolean(m_doValidation);
+			objOut.writeInt(m_numCompletedEpochs);
+			objOut.writeUTF(m_networkFile.getName());
+			final int numViewTabs = m_viewSpecs != null ? m_viewSpecs.length : 0;
+			objOut.writeInt(numViewTabs);
+			for (int i = 0; i < numViewTabs; i++) {
+				m_viewSpecs[i].writeExternal(objOut);
+				m_viewData[i].writeExternal(objOut);
+			}
+		}
+		Files.move(tmpFile.toPath(), new File(directory, FILENAME).toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+}
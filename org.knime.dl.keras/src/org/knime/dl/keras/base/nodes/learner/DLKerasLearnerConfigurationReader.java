@@ -0,0 +1,166 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner;
+
+import static org.knime.dl.keras.base.nodes.learner.DLKerasLearnerNodeModel.CONFIGURATION_COLUMN_BATCH_SIZE;
+import static org.knime.dl.keras.base.nodes.learner.DLKerasLearnerNodeModel.CONFIGURATION_COLUMN_LEARNING_RATE;
+import static org.knime.dl.keras.base.nodes.learner.DLKerasLearnerNodeModel.CONFIGURATION_COLUMN_OPTIMIZER;
+
+import java.util.OptionalDouble;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.dl.keras.core.training.DLKerasOptimizer;
+import org.knime.dl.keras.core.training.DLKerasTrainingVariant;
+
+/**
+ * Reads the training variants and their batch sizes from the rows of a configurations table (see
+ * {@link DLKerasLearnerNodeModel#CONFIGURATION_COLUMN_OPTIMIZER},
+ * {@link DLKerasLearnerNodeModel#CONFIGURATION_COLUMN_LEARNING_RATE} and
+ * {@link DLKerasLearnerNodeModel#CONFIGURATION_COLUMN_BATCH_SIZE}). Missing columns or values fall back to the
+ * node's settings.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLKerasLearnerConfigurationReader {
+
+	/**
+	 * Resolves the optimizer name of a configuration.
+	 */
+	@FunctionalInterface
+	interface OptimizerResolver {
+
+		/**
+		 * @param optimizerName the optimizer name (or Keras identifier) as it appears in the configurations table
+		 * @param configurationName the name of the configuration
+		 * @return the optimizer
+		 * @throws InvalidSettingsException if no optimizer of the given name is available
+		 */
+		DLKerasOptimizer resolve(String optimizerName, String configurationName) throws InvalidSettingsException;
+	}
+
+	private final int m_optimizerIdx;
+
+	private final int m_learningRateIdx;
+
+	private final int m_batchSizeIdx;
+
+	private final DLKerasOptimizer m_defaultOptimizer;
+
+	private final int m_defaultBatchSize;
+
+	private final OptimizerResolver m_optimizerResolver;
+
+	/**
+	 * @param spec the spec of the configurations table
+	 * @param defaultOptimizer the optimizer of configurations without optimizer
+	 * @param defaultBatchSize the batch size of configurations without batch size
+	 * @param optimizerResolver resolves the optimizer names of the table
+	 */
+	DLKerasLearnerConfigurationReader(final DataTableSpec spec, final DLKerasOptimizer defaultOptimizer,
+			final int defaultBatchSize, final OptimizerResolver optimizerResolver) {
+		m_optimizerIdx = spec.findColumnIndex(CONFIGURATION_COLUMN_OPTIMIZER);
+		m_learningRateIdx = spec.findColumnIndex(CONFIGURATION_COLUMN_LEARNING_RATE);
+		m_batchSizeIdx = spec.findColumnIndex(CONFIGURATION_COLUMN_BATCH_SIZE);
+		m_defaultOptimizer = defaultOptimizer;
+		m_defaultBatchSize = defaultBatchSize;
+		m_optimizerResolver = optimizerResolver;
+	}
+
+	/**
+	 * @param row the row of the configurations table, its key is the name of the variant
+	 * @return the training variant of the row
+	 * @throws InvalidSettingsException if the optimizer is not available or the learning rate is not positive
+	 */
+	DLKerasTrainingVariant readVariant(final DataRow row) throws InvalidSettingsException {
+		final String name = row.getKey().getString();
+		final DataCell optimizerCell = getCell(row, m_optimizerIdx);
+		final DLKerasOptimizer optimizer = optimizerCell != null
+				? m_optimizerResolver.resolve(((StringValue) optimizerCell).getStringValue(), name)
+				: m_defaultOptimizer;
+		final DataCell learningRateCell = getCell(row, m_learningRateIdx);
+		final OptionalDouble learningRate = learningRateCell != null
+				? OptionalDouble.of(((DoubleValue) learningRateCell).getDoubleValue())
+				: OptionalDouble.empty();
+		try {
+			return new DLKerasTrainingVariant(name, optimizer, learningRate);
+		} catch (final IllegalArgumentException e) {
+			throw new InvalidSettingsException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @param row the row of the configurations table
+	 * @return the training batch size of the row
+	 * @throws InvalidSettingsException if the batch size is not positive
+	 */
+	int readBatchSize(final DataRow row) throws InvalidSettingsException {
+		final DataCell batchSizeCell = getCell(row, m_batchSizeIdx);
+		final int batchSize = batchSizeCell != null ? ((IntValue) batchSizeCell).getIntValue() : m_defaultBatchSize;
+		if (batchSize <= 0) {
+			throw new InvalidSettingsException(
+					"Batch size of configuration '" + row.getKey().getString() + "' must be greater than zero.");
+		}
+		return batchSize;
+	}
+
+	/**
+	 * @return the cell at the given index or <code>null</code> if the column does not exist or the value is missing
+	 */
+	private static DataCell getCell(final DataRow row, final int idx) {
+		if (idx == -1) {
+			return null;
+		}
+		final DataCell cell = row.getCell(idx);
+		return cell.isMissing() ? null : cell;
+	}
+}
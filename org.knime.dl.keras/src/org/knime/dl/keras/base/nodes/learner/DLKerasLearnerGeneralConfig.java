@@ -59,6 +59,7 @@
 import org.knime.dl.base.settings.ConfigEntry;
 import org.knime.dl.base.settings.DLGeneralConfig;
 import org.knime.dl.base.settings.DefaultConfigEntry;
+import org.knime.dl.core.DLExecutionProfile;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.training.DLTrainingContextRegistry;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasEarlyStopping;
@@ -103,6 +104,20 @@ final class DLKerasLearnerGeneralConfig extends AbstractConfig implements DLGene
 
 	static final String CFG_KEY_RANDOM_SEED = "random_seed";
 
+	static final String CFG_KEY_CHECKPOINT_INTERVAL = "checkpoint_interval";
+
+	static final String CFG_KEY_RESUME_FROM_CHECKPOINT = "resume_from_checkpoint";
+
+	static final String CFG_KEY_VALIDATION_EPOCH_INTERVAL = "validation_epoch_interval";
+
+	static final String CFG_KEY_VALIDATION_BATCH_INTERVAL = "validation_batch_interval";
+
+	static final String CFG_KEY_VALIDATION_SAMPLE_SIZE = "validation_sample_size";
+
+	static final String CFG_KEY_VALIDATION_SAMPLE_SEED = "validation_sample_seed";
+
+	static final String CFG_KEY_EXECUTION_PROFILE = "execution_profile";
+
 	static Collection<DLKerasTrainingContext<?>> getAvailableTrainingContexts(
 			final Class<? extends DLNetwork> networkType) {
 		return DLTrainingContextRegistry.getInstance().getTrainingContextsForNetworkType((networkType)) //
@@ -216,6 +231,82 @@ protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings,
 			}
 		};
 		put(randomSeed);
+
+		// checkpoint options
+		final DefaultConfigEntry<Integer> checkpointInterval = new DefaultConfigEntry<Integer>(
+				CFG_KEY_CHECKPOINT_INTERVAL, Integer.class, 1, false) {
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): no checkpoints were saved before
+				m_value = 1;
+				m_enabled = false;
+				return true;
+			}
+		};
+		put(checkpointInterval);
+		final DefaultConfigEntry<Boolean> resumeFromCheckpoint = new DefaultConfigEntry<Boolean>(
+				CFG_KEY_RESUME_FROM_CHECKPOINT, Boolean.class, false) {
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): there are no checkpoints to resume from
+				m_value = false;
+				return true;
+			}
+		};
+		put(resumeFromCheckpoint);
+
+		// validation frequency and sampling options
+		final DefaultConfigEntry<Integer> validationEpochInterval = new DefaultConfigEntry<Integer>(
+				CFG_KEY_VALIDATION_EPOCH_INTERVAL, Integer.class, 1) {
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): validation was performed after each epoch
+				m_value = 1;
+				return true;
+			}
+		};
+		put(validationEpochInterval);
+		final DefaultConfigEntry<Integer> validationBatchInterval = new DefaultConfigEntry<Integer>(
+				CFG_KEY_VALIDATION_BATCH_INTERVAL, Integer.class, 1000, false) {
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): validation was performed after each epoch
+				m_value = 1000;
+				m_enabled = false;
+				return true;
+			}
+		};
+		put(validationBatchInterval);
+		final DefaultConfigEntry<Integer> validationSampleSize = new DefaultConfigEntry<Integer>(
+				CFG_KEY_VALIDATION_SAMPLE_SIZE, Integer.class, 1000, false) {
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): validation was performed on the complete validation data
+				m_value = 1000;
+				m_enabled = false;
+				return true;
+			}
+		};
+		put(validationSampleSize);
+		final DefaultConfigEntry<Long> validationSampleSeed = new DefaultConfigEntry<Long>(
+				CFG_KEY_VALIDATION_SAMPLE_SEED, Long.class, System.currentTimeMillis()) {
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): set to current system time (sampling is turned off anyway if this
+				// method is called)
+				m_value = System.currentTimeMillis();
+				return true;
+			}
+		};
+		put(validationSampleSeed);
+		put(new DefaultConfigEntry<String>(CFG_KEY_EXECUTION_PROFILE, String.class, "") {
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): use the global execution profile
+				m_value = "";
+				return true;
+			}
+		});
 	}
 
 	@Override
@@ -276,6 +367,38 @@ ConfigEntry<Long> getRandomSeed() {
 		return get(CFG_KEY_RANDOM_SEED, Long.class);
 	}
 
+	ConfigEntry<Integer> getCheckpointIntervalEntry() {
+		return get(CFG_KEY_CHECKPOINT_INTERVAL, Integer.class);
+	}
+
+	ConfigEntry<Boolean> getResumeFromCheckpointEntry() {
+		return get(CFG_KEY_RESUME_FROM_CHECKPOINT, Boolean.class);
+	}
+
+	ConfigEntry<Integer> getValidationEpochIntervalEntry() {
+		return get(CFG_KEY_VALIDATION_EPOCH_INTERVAL, Integer.class);
+	}
+
+	ConfigEntry<Integer> getValidationBatchIntervalEntry() {
+		return get(CFG_KEY_VALIDATION_BATCH_INTERVAL, Integer.class);
+	}
+
+	ConfigEntry<Integer> getValidationSampleSizeEntry() {
+		return get(CFG_KEY_VALIDATION_SAMPLE_SIZE, Integer.class);
+	}
+
+	ConfigEntry<Long> getValidationSampleSeedEntry() {
+		return get(CFG_KEY_VALIDATION_SAMPLE_SEED, Long.class);
+	}
+
+	/**
+	 * The execution profile that limits the CPU resources of the back end, see {@link DLExecutionProfile}. Empty to
+	 * use the global profile.
+	 */
+	ConfigEntry<String> getExecutionProfileEntry() {
+		return get(CFG_KEY_EXECUTION_PROFILE, String.class);
+	}
+
 	void copyClipSettingsToOptimizer() {
 		final DLKerasOptimizer optimizer = getOptimizerEntry().getValue();
 		if (optimizer != null) {
@@ -102,7 +102,25 @@ class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 		addNumberSpinnerRowComponent(
 				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getValidationBatchSizeEntry(), 1, Integer.MAX_VALUE),
 				"Validation batch size", 1);
-		
+
+		final ConfigEntry<Integer> validationEpochInterval = m_cfg.getValidationEpochIntervalEntry();
+		final ConfigEntry<Integer> validationBatchInterval = m_cfg.getValidationBatchIntervalEntry();
+		validationBatchInterval.addLoadListener(e -> validationEpochInterval.setEnabled(!e.getEnabled()));
+		validationBatchInterval.addEnableChangeListener(e -> validationEpochInterval.setEnabled(!e.getEnabled()));
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(validationEpochInterval, 1, Integer.MAX_VALUE),
+				"Validate every n epochs", 1);
+		addToggleNumberEditRowComponent(validationBatchInterval, "Validate every n training batches",
+				ConfigUtil.toSettingsModelIntegerBounded(validationBatchInterval, 1, Integer.MAX_VALUE));
+
+		final ConfigEntry<Integer> validationSampleSize = m_cfg.getValidationSampleSizeEntry();
+		final ConfigEntry<Long> validationSampleSeed = m_cfg.getValidationSampleSeedEntry();
+		validationSampleSize.addLoadListener(e -> validationSampleSeed.setEnabled(e.getEnabled()));
+		validationSampleSize.addEnableChangeListener(e -> validationSampleSeed.setEnabled(e.getEnabled()));
+		addToggleNumberEditRowComponent(validationSampleSize, "Validate on a random sample of n rows",
+				ConfigUtil.toSettingsModelIntegerBounded(validationSampleSize, 1, Integer.MAX_VALUE));
+		addNumberEditRowComponent(ConfigUtil.toSettingsModelLong(validationSampleSeed), "Validation sample seed");
+
 		ConfigEntry<Boolean> shuffleEntry = m_cfg.getShuffleTrainingData();
 		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(shuffleEntry),
 				"Shuffle training data before each epoch", true);
@@ -119,6 +137,9 @@ class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 			randomSeedConfig.setEnabled(!v);
 			toggleCheckBox.setEnabled(!v);
 		});
+
+		addStringEditRowComponent(ConfigUtil.toSettingsModelString(m_cfg.getExecutionProfileEntry()),
+				"Execution profile");
 	}
 	
 	private JCheckBox getLastCheckBox() {
@@ -48,12 +48,17 @@
  */
 package org.knime.dl.keras.base.nodes.learner;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -64,9 +69,29 @@
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.BooleanCell.BooleanCellFactory;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.internal.ReferencedFile;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -74,6 +99,7 @@
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettings;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.port.PortObject;
@@ -81,6 +107,7 @@
 import org.knime.core.node.port.PortType;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
 import org.knime.core.node.workflow.NodeContext;
+import org.knime.core.util.FileUtil;
 import org.knime.dl.base.nodes.DLConfigurationUtility;
 import org.knime.dl.base.nodes.DLTensorRole;
 import org.knime.dl.base.portobjects.DLNetworkPortObject;
@@ -91,10 +118,12 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLDataTableRowIterator;
 import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLExecutionProfile;
 import org.knime.dl.core.DLExecutionSpecCreator;
 import org.knime.dl.core.DLInstallationTestTimeoutException;
 import org.knime.dl.core.DLMissingDependencyException;
 import org.knime.dl.core.DLNetwork;
+import org.knime.dl.core.DLNetworkFixedSizeInputPreparer;
 import org.knime.dl.core.DLNetworkSpec;
 import org.knime.dl.core.DLNotCancelable;
 import org.knime.dl.core.DLRowIterator;
@@ -102,15 +131,18 @@
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.core.training.DLKnimeNetworkSampledValidationInputPreparer;
 import org.knime.dl.core.training.DLKnimeNetworkTrainingInputPreparer;
 import org.knime.dl.core.training.DLKnimeNetworkValidationInputPreparer;
 import org.knime.dl.core.training.DLKnimeTrainingMonitor;
+import org.knime.dl.core.training.DLReportedMetric;
 import org.knime.dl.core.training.DLTrainingContext;
 import org.knime.dl.core.training.DLTrainingStatus.Status;
 import org.knime.dl.keras.base.nodes.learner.view.DLDefaultLinePlotViewDataCollection;
 import org.knime.dl.keras.base.nodes.learner.view.DLDenseLinePlotViewData;
 import org.knime.dl.keras.base.nodes.learner.view.DLInteractiveLearnerNodeModel;
 import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewDataCollection;
+import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewDataStore;
 import org.knime.dl.keras.base.nodes.learner.view.DLProgressMonitor;
 import org.knime.dl.keras.base.nodes.learner.view.DLSparseLinePlotViewData;
 import org.knime.dl.keras.base.nodes.learner.view.jfreechart.DLDefaultJFreeChartLinePlotViewSpec;
@@ -126,8 +158,12 @@
 import org.knime.dl.keras.core.training.DLKerasNetworkTrainingSession;
 import org.knime.dl.keras.core.training.DLKerasOptimizer;
 import org.knime.dl.keras.core.training.DLKerasTrainingConfig;
+import org.knime.dl.keras.core.training.DLKerasTrainingCheckpoint;
 import org.knime.dl.keras.core.training.DLKerasTrainingContext;
 import org.knime.dl.keras.core.training.DLKerasTrainingStatus;
+import org.knime.dl.keras.core.training.DLKerasTrainingVariant;
+import org.knime.dl.keras.core.training.DLKerasTrainingVariantResult;
+import org.knime.dl.keras.core.training.DLKerasValidationSchedule;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 import org.knime.dl.util.DLUtils;
 
@@ -147,14 +183,55 @@ final class DLKerasLearnerNodeModel extends NodeModel implements DLInteractiveLe
 
 	static final int IN_VALIDATION_DATA_PORT_IDX = 2;
 
+	/**
+	 * Only present if the node trains several configurations, see {@link DLKerasMultiConfigurationLearnerNodeFactory}.
+	 */
+	static final int IN_CONFIGURATIONS_PORT_IDX = 3;
+
 	static final int OUT_NETWORK_PORT_IDX = 0;
 
+	/**
+	 * Only present if the node trains several configurations, see {@link DLKerasMultiConfigurationLearnerNodeFactory}.
+	 */
+	static final int OUT_METRICS_PORT_IDX = 1;
+
+	static final String CONFIGURATION_COLUMN_OPTIMIZER = "Optimizer";
+
+	static final String CONFIGURATION_COLUMN_LEARNING_RATE = "Learning rate";
+
+	static final String CONFIGURATION_COLUMN_BATCH_SIZE = "Batch size";
+
 	static final String CFG_KEY_INPUT = "training";
 
 	static final String CFG_KEY_TARGET = "target";
 
 	static final String INTERNAL_FILENAME = "view.data";
 
+	static final String INTERNAL_LINES_FILENAME = "view.lines";
+
+	/**
+	 * Written in place of the number of view tabs to mark the compact format of the view data, see
+	 * {@link DLLinePlotViewDataStore}. The view data of older versions is stored inline and is read eagerly.
+	 */
+	private static final int INTERNAL_FORMAT_COMPACT = -1;
+
+	/**
+	 * Upper bound of the initial capacity of the view data. The data grows as needed, this only avoids allocating
+	 * memory for all batches of long training runs up front.
+	 */
+	private static final int MAX_INITIAL_VIEW_DATA_CAPACITY = 1 << 16;
+
+	static final String CHECKPOINT_DIRNAME = "dl_checkpoint";
+
+	/**
+	 * General settings that do not affect the outcome of a training run and may therefore change between a checkpoint
+	 * and its resumption. The number of epochs is checked separately.
+	 */
+	private static final Set<String> CHECKPOINT_INDEPENDENT_SETTINGS = Sets.newHashSet(
+			DLKerasLearnerGeneralConfig.CFG_KEY_EPOCHS, DLKerasLearnerGeneralConfig.CFG_KEY_CHECKPOINT_INTERVAL,
+			DLKerasLearnerGeneralConfig.CFG_KEY_RESUME_FROM_CHECKPOINT,
+			DLKerasLearnerGeneralConfig.CFG_KEY_EXECUTION_PROFILE);
+
 	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasLearnerNodeModel.class);
 
 	static DLKerasLearnerGeneralConfig createGeneralModelConfig() {
@@ -171,6 +248,8 @@ static DLKerasLearnerTargetConfig createOutputTensorModelConfig(final DLTensorId
         return new DLKerasLearnerTargetConfig(targetTensorId, targetTensorName, generalCfg);
     }
 
+	private final boolean m_trainConfigurations;
+
 	private final DLKerasLearnerGeneralConfig m_generalCfg;
 
     private final HashMap<DLTensorId, DLKerasLearnerInputConfig> m_inputCfgs;
@@ -204,14 +283,44 @@ static DLKerasLearnerTargetConfig createOutputTensorModelConfig(final DLTensorId
 	 */
 	private DLLinePlotViewDataCollection[] m_viewData;
 
+	/**
+	 * <code>null</code> by default, only populated when loading an executed node. Copy of the data file of the loaded
+	 * view data that is owned by this model, as the node's internals directory may be moved or deleted after loading.
+	 */
+	private File m_viewDataFile;
+
     /**
      * <code>null</code> by default, only populated during execution of the node
      */
     private DLKerasNetworkTrainingSession m_session;
 
+	/**
+	 * <code>null</code> by default, only populated if checkpoints are saved while the workflow has no directory yet
+	 */
+	private File m_tmpCheckpointDir;
+
+	/**
+	 * Set if the user stopped the training, prevents the training of the remaining configurations.
+	 */
+	private volatile boolean m_stopRequested;
+
 	DLKerasLearnerNodeModel() {
-		super(new PortType[] { DLKerasNetworkPortObjectBase.TYPE, BufferedDataTable.TYPE, BufferedDataTable.TYPE_OPTIONAL },
-				new PortType[] { DLKerasNetworkPortObjectBase.TYPE });
+		this(false);
+	}
+
+	/**
+	 * @param trainConfigurations <code>true</code> if the node trains a copy of the input network per row of a
+	 *            configurations table instead of the input network itself
+	 */
+	DLKerasLearnerNodeModel(final boolean trainConfigurations) {
+		super(trainConfigurations
+				? new PortType[] { DLKerasNetworkPortObjectBase.TYPE, BufferedDataTable.TYPE,
+						BufferedDataTable.TYPE_OPTIONAL, BufferedDataTable.TYPE }
+				: new PortType[] { DLKerasNetworkPortObjectBase.TYPE, BufferedDataTable.TYPE,
+						BufferedDataTable.TYPE_OPTIONAL },
+				trainConfigurations ? new PortType[] { DLKerasNetworkPortObjectBase.TYPE, BufferedDataTable.TYPE }
+						: new PortType[] { DLKerasNetworkPortObjectBase.TYPE });
+		m_trainConfigurations = trainConfigurations;
 		m_generalCfg = createGeneralModelConfig();
 		m_inputCfgs = new HashMap<>();
 		m_targetCfgs = new HashMap<>();
@@ -224,6 +333,7 @@ public DLProgressMonitor getProgressMonitor() {
 
     @Override
     public void stopLearning() {
+        m_stopRequested = true;
         if (m_session != null) {
             try {
                 m_session.stopEarly();
@@ -283,6 +393,14 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 		}
 
 		final DLNetworkPortObjectSpec outDataSpec = createOutputSpec(inPortObjectSpec);
+		if (m_trainConfigurations) {
+			final DataTableSpec inConfigurationsTableSpec = (DataTableSpec) inSpecs[IN_CONFIGURATIONS_PORT_IDX];
+			if (inConfigurationsTableSpec == null) {
+				throw new InvalidSettingsException("Input configurations table is missing.");
+			}
+			checkConfigurationsTableSpec(inConfigurationsTableSpec);
+			return new PortObjectSpec[] { outDataSpec, createMetricsTableSpec() };
+		}
 		return new PortObjectSpec[] { outDataSpec };
 	}
 
@@ -292,6 +410,12 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
 		final BufferedDataTable inTable = (BufferedDataTable) inObjects[IN_DATA_PORT_IDX];
 		final BufferedDataTable inValidationTable = (BufferedDataTable) inObjects[IN_VALIDATION_DATA_PORT_IDX];
 
+		m_stopRequested = false;
+		if (m_trainConfigurations) {
+			return executeConfigurations(inPortObject, inTable, inValidationTable,
+					(BufferedDataTable) inObjects[IN_CONFIGURATIONS_PORT_IDX], exec);
+		}
+
 		final PortObject outPortObject = executeInternal(inPortObject, inTable, inValidationTable, exec);
 
 		return new PortObject[] { outPortObject };
@@ -301,17 +425,34 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
 	protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec)
 			throws IOException, CanceledExecutionException {
 		final File f = new File(nodeInternDir, INTERNAL_FILENAME);
-		try (final ObjectInputStream objIn = new ObjectInputStream(new FileInputStream(f))) {
-			m_status = new DLKerasDefaultTrainingStatus();
+		try (final ObjectInputStream objIn = new ObjectInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+			setStatus(new DLKerasDefaultTrainingStatus());
 			m_status.readExternal(objIn);
-			final int numViewTabs = objIn.readInt();
-			m_viewSpecs = new DLJFreeChartLinePlotViewSpec[numViewTabs];
-			m_viewData = new DLLinePlotViewDataCollection[numViewTabs];
-			for (int i = 0; i < numViewTabs; i++) {
-				m_viewSpecs[i] = new DLDefaultJFreeChartLinePlotViewSpec();
-				m_viewSpecs[i].readExternal(objIn);
-				m_viewData[i] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[i]);
-				m_viewData[i].readExternal(objIn);
+			final int format = objIn.readInt();
+			if (format == INTERNAL_FORMAT_COMPACT) {
+				final int numViewTabs = objIn.readInt();
+				m_viewSpecs = new DLJFreeChartLinePlotViewSpec[numViewTabs];
+				for (int i = 0; i < numViewTabs; i++) {
+					m_viewSpecs[i] = new DLDefaultJFreeChartLinePlotViewSpec();
+					m_viewSpecs[i].readExternal(objIn);
+				}
+				// only reads the summaries, the full-resolution data is loaded once requested by the view
+				deleteViewDataFile();
+				m_viewDataFile = FileUtil.createTempFile("knime_dl_learner_view", ".lines");
+				Files.copy(new File(nodeInternDir, INTERNAL_LINES_FILENAME).toPath(), m_viewDataFile.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+				m_viewData = DLLinePlotViewDataStore.read(m_viewSpecs, objIn, m_viewDataFile);
+			} else {
+				// backward compatibility: view data stored inline
+				final int numViewTabs = format;
+				m_viewSpecs = new DLJFreeChartLinePlotViewSpec[numViewTabs];
+				m_viewData = new DLLinePlotViewDataCollection[numViewTabs];
+				for (int i = 0; i < numViewTabs; i++) {
+					m_viewSpecs[i] = new DLDefaultJFreeChartLinePlotViewSpec();
+					m_viewSpecs[i].readExternal(objIn);
+					m_viewData[i] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[i]);
+					m_viewData[i].readExternal(objIn);
+				}
 			}
 			m_status.setViewSpecs(m_viewSpecs);
 			m_status.setViewData(m_viewData);
@@ -329,14 +470,18 @@ protected void saveInternals(final File nodeInternDir, final ExecutionMonitor ex
 					"Training status may not be null after node execution. This is an implementation error.");
 		}
 		final File f = new File(nodeInternDir, INTERNAL_FILENAME);
-		try (ObjectOutputStream objOut = new ObjectOutputStream(new FileOutputStream(f))) {
+		try (ObjectOutputStream objOut =
+				new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(f)))) {
 			m_status.writeExternal(objOut);
+			objOut.writeInt(INTERNAL_FORMAT_COMPACT);
 			final int numViewTabs = m_viewSpecs != null ? m_viewSpecs.length : 0;
 			objOut.writeInt(numViewTabs);
 			for (int i = 0; i < numViewTabs; i++) {
 				m_viewSpecs[i].writeExternal(objOut);
-				m_viewData[i].writeExternal(objOut);
 			}
+			DLLinePlotViewDataStore.write(
+					m_viewData != null ? m_viewData : new DLLinePlotViewDataCollection[0], objOut,
+					new File(nodeInternDir, INTERNAL_LINES_FILENAME));
 		}
 	}
 
@@ -404,6 +549,7 @@ protected void reset() {
 		if (m_status != null) {
 			m_status.setViewSpecs(null);
 			m_status.setViewData(null);
+			m_status.dispose();
 		}
 		if (m_viewSpecs != null) {
 			for (int i = 0; i < m_viewSpecs.length; i++) {
@@ -415,10 +561,41 @@ protected void reset() {
 				m_viewData[i] = null;
 			}
 		}
+		deleteViewDataFile();
+		deleteCheckpointDirectories();
 		// reset views
 		notifyViews(null);
 	}
 
+	@Override
+	protected void onDispose() {
+		super.onDispose();
+		deleteViewDataFile();
+		deleteCheckpointDirectories();
+		if (m_status != null) {
+			m_status.dispose();
+		}
+	}
+
+	/**
+	 * Replaces the current training status, if any, and releases the resources of its logs.
+	 */
+	private void setStatus(final DLKerasDefaultTrainingStatus status) {
+		if (m_status != null) {
+			m_status.dispose();
+		}
+		m_status = status;
+	}
+
+	private void deleteViewDataFile() {
+		if (m_viewDataFile != null) {
+			if (!m_viewDataFile.delete() && m_viewDataFile.exists()) {
+				LOGGER.debug("Failed to delete temporary learner monitor data file '" + m_viewDataFile + "'.");
+			}
+			m_viewDataFile = null;
+		}
+	}
+
     private boolean areNetworkSpecsCompatible(final DLNetworkSpec newSpec, final DLNetworkSpec oldSpec) {
         // Network types must be the same.
         if (!newSpec.getClass().equals(oldSpec.getClass())) {
@@ -440,6 +617,19 @@ private boolean areNetworkSpecsCompatible(final DLNetworkSpec newSpec, final DLN
 	private void configureGeneral(final Class<? extends DLNetwork> inNetworkType) throws Exception {
 		final DLKerasTrainingContext<?> backend = configureBackend(inNetworkType);
 		configureOptimizer(backend);
+		createExecutionProfile();
+	}
+
+	/**
+	 * @return the execution profile of this node, completed by the global one
+	 */
+	private DLExecutionProfile createExecutionProfile() throws InvalidSettingsException {
+		try {
+			return DLExecutionProfile.parse(m_generalCfg.getExecutionProfileEntry().getValue())
+					.withDefaults(DLExecutionProfile.getGlobalProfile());
+		} catch (final IllegalArgumentException e) {
+			throw new InvalidSettingsException("Invalid execution profile. " + e.getMessage(), e);
+		}
 	}
 
     private void configureOptimizer(final DLKerasTrainingContext<?> backend) throws DLMissingDependencyException {
@@ -624,14 +814,7 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
 
 		final DLKerasTrainingContext<N> ctx = (DLKerasTrainingContext<N>) m_generalCfg.getContextEntry()
 				.getValue();
-        try {
-            ctx.checkAvailability(false, DLPythonNetworkLoaderRegistry.getInstance().getInstallationTestTimeout(),
-                DLNotCancelable.INSTANCE);
-        } catch (final DLMissingDependencyException | DLInstallationTestTimeoutException
-                | DLCanceledExecutionException e) {
-            throw new InvalidSettingsException("Selected Keras back end '" + ctx.getName()
-                + "' is not available anymore. " + "Please check your local installation.\nDetails: " + e.getMessage());
-        }
+		checkAvailability(ctx);
 
 		// training configuration
 		final DLKerasTrainingConfig trainingConfig = createTrainingConfig(inNetworkSpec);
@@ -642,27 +825,52 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
 				columnsForTensorId.size());
 		fillInputAndTargetSpecificMaps(inTableSpec, columnsForTensorId, converterForTensorId);
 
-		// TODO: only valid if we don't crop the last batch. This has to be considered if we want to add 'crop' as an
-		// alternative strategy for handling incomplete batches.
-		final int numTrainingBatchesPerEpoch = (int) Math.ceil(inTable.size() / (double) trainingConfig.getBatchSize());
+		final int numTrainingBatchesPerEpoch = getNumTrainingBatchesPerEpoch(inTable, trainingConfig);
 		final int totalNumTrainingBatches = trainingConfig.getEpochs() * numTrainingBatchesPerEpoch;
-		final int numBatchesPerValidation = doValidation
-				? (int) Math.ceil(inValidationTable.size() / (double) trainingConfig.getValidationBatchSize())
-				: 0;
-		final int totalNumValidationBatches = trainingConfig.getEpochs() * numBatchesPerValidation;
+		final int totalNumValidationBatches = getTotalNumValidationBatches(doValidation, inValidationTable,
+				trainingConfig);
 
-		prepareView(doValidation, totalNumTrainingBatches, totalNumValidationBatches);
+		final boolean doShuffle = m_generalCfg.getShuffleTrainingData().getValue();
+		final boolean doCheckpoint = m_generalCfg.getCheckpointIntervalEntry().getEnabled();
+		final File checkpointDir = getCheckpointDirectory();
+		final NodeSettings trainingSettings = doCheckpoint ? createCheckpointTrainingSettings() : null;
+		final DLKerasLearnerCheckpointState resumeState;
+		if (doCheckpoint && m_generalCfg.getResumeFromCheckpointEntry().getValue()) {
+			resumeState = readCheckpointState(checkpointDir, inNetworkSpec, trainingSettings, inTable.size(),
+					trainingConfig, doShuffle, doValidation);
+		} else {
+			resumeState = null;
+			FileUtil.deleteRecursively(checkpointDir);
+		}
 
-		final Random random = createRandom();
+		final long shuffleSeed;
+		final DLKerasTrainingCheckpoint checkpoint;
+		if (resumeState != null) {
+			m_viewSpecs = resumeState.getViewSpecs();
+			m_viewData = resumeState.getViewData();
+			shuffleSeed = resumeState.getShuffleSeed();
+			checkpoint = new DLKerasTrainingCheckpoint(checkpointDir,
+					m_generalCfg.getCheckpointIntervalEntry().getValue(), resumeState.getNumCompletedEpochs(),
+					resumeState.getNetworkFile());
+		} else {
+			prepareView(doValidation, totalNumTrainingBatches, totalNumValidationBatches);
+			shuffleSeed = createRandom().nextLong();
+			checkpoint = doCheckpoint
+					? new DLKerasTrainingCheckpoint(mkdirs(checkpointDir),
+							m_generalCfg.getCheckpointIntervalEntry().getValue())
+					: null;
+		}
 
-		m_status = new DLKerasDefaultTrainingStatus(trainingConfig.getEpochs(), numTrainingBatchesPerEpoch);
-		try (final DLRowIterator rowIterator = createRowIterator(inTable, columnsForTensorId, random, exec);
+		setStatus(new DLKerasDefaultTrainingStatus(trainingConfig.getEpochs(), numTrainingBatchesPerEpoch));
+		if (resumeState != null) {
+			m_status.setInitialEpoch(resumeState.getNumCompletedEpochs());
+		}
+		try (final DLRowIterator rowIterator = createRowIterator(inTable, columnsForTensorId, shuffleSeed, exec);
 				final DLKnimeNetworkTrainingInputPreparer inputPreparer = new DLKnimeNetworkTrainingInputPreparer(
 						rowIterator, (int)trainingConfig.getBatchSize(), converterForTensorId);
-				final DLKnimeNetworkValidationInputPreparer validationPreparer = doValidation
-						? new DLKnimeNetworkValidationInputPreparer(
-								new DLDataTableRowIterator(inValidationTable, columnsForTensorId), (int)trainingConfig.getValidationBatchSize(),
-								converterForTensorId)
+				final DLNetworkFixedSizeInputPreparer validationPreparer = doValidation
+						? createValidationPreparer(inValidationTable, columnsForTensorId,
+								(int)trainingConfig.getValidationBatchSize(), converterForTensorId, exec)
 						: null;
                 DLKerasNetworkTrainingSession session = ctx.createTrainingSession(inNetwork, trainingConfig,
 						DLExecutionSpecCreator.createExecutionSpecs(rowIterator.peek(), ctx.getTensorFactory(),
@@ -670,11 +878,36 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
 						inputPreparer, validationPreparer);) {
             m_session = session; // Needed for early stopping.
 			final DLKnimeTrainingMonitor<DLKerasTrainingStatus> monitor = new DLKnimeTrainingMonitor<>(exec, m_status);
-			setupTrainingStatus(doValidation, trainingConfig, numTrainingBatchesPerEpoch, totalNumTrainingBatches,
+			setupTrainingStatus(doValidation, trainingConfig, numTrainingBatchesPerEpoch, totalNumTrainingBatches, 0,
                 monitor);
+			if (checkpoint != null) {
+				m_status.checkpointSaved().addListener((src, numCompletedEpochs) -> saveCheckpointState(checkpoint,
+						new DLKerasLearnerCheckpointState(inNetworkSpec, trainingSettings, inTable.size(),
+								trainingConfig.getBatchSize(), doShuffle, shuffleSeed, doValidation, numCompletedEpochs,
+								checkpoint.getNetworkFile(numCompletedEpochs), m_viewSpecs, m_viewData)));
+				session.setCheckpoint(checkpoint);
+			}
+			if (validationPreparer != null) {
+				session.setValidationSchedule(createValidationSchedule(validationPreparer));
+			}
+			final DLExecutionProfile executionProfile = createExecutionProfile();
+			session.setExecutionProfile(executionProfile);
+			if (resumeState != null) {
+				exec.setMessage("Resuming training after epoch " + resumeState.getNumCompletedEpochs() + "...");
+				skipRows(rowIterator, resumeState.getNumConsumedRows(), exec);
+			}
             session.run(monitor);
+			if (m_status.getStartDateTime() != null && m_status.getEndDateTime() != null) {
+				LOGGER.debug("Trained network in "
+						+ Duration.between(m_status.getStartDateTime(), m_status.getEndDateTime()).toMillis()
+						+ " ms (execution profile: '"
+						+ (executionProfile.isDefault() ? "back end defaults" : executionProfile) + "').");
+			}
 			exec.setMessage("Saving trained Keras deep learning network...");
-            return session.getTrainedNetwork(exec);
+            final DLKerasNetworkPortObjectBase trainedNetwork = session.getTrainedNetwork(exec);
+			// training completed, there is nothing left to resume
+			FileUtil.deleteRecursively(checkpointDir);
+			return trainedNetwork;
 		} catch (final CanceledExecutionException | DLCanceledExecutionException e) {
 			m_status.setStatus(Status.USER_INTERRUPTED);
 			throw e;
@@ -685,6 +918,269 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private <N extends DLKerasNetwork> PortObject[] executeConfigurations(final PortObject inPortObject,
+			final BufferedDataTable inTable, final BufferedDataTable inValidationTable,
+			final BufferedDataTable inConfigurationsTable, final ExecutionContext exec) throws Exception {
+		final N inNetwork = (N) ((DLNetworkPortObject) inPortObject).getNetwork();
+		final DLKerasNetworkSpec inNetworkSpec = inNetwork.getSpec();
+		final DataTableSpec inTableSpec = inTable.getDataTableSpec();
+		final BufferedDataContainer metrics = exec.createDataContainer(createMetricsTableSpec());
+
+		if (inTableSpec.getNumColumns() == 0 || inTable.size() == 0) {
+			setWarningMessage("Training data table is empty. Output network equals input network.");
+			metrics.close();
+			return new PortObject[] { inPortObject, metrics.getTable() };
+		}
+
+		final DLKerasTrainingContext<N> ctx = (DLKerasTrainingContext<N>) m_generalCfg.getContextEntry()
+				.getValue();
+		checkAvailability(ctx);
+
+		final List<Integer> batchSizes = new ArrayList<>();
+		final List<DLKerasTrainingVariant> variants = readConfigurations(inConfigurationsTable, ctx, batchSizes);
+		if (variants.isEmpty()) {
+			throw new InvalidSettingsException("Input configurations table is empty.");
+		}
+		if (m_generalCfg.getCheckpointIntervalEntry().getEnabled() || !createCallbackList().isEmpty()
+				|| m_generalCfg.getValidationBatchIntervalEntry().getEnabled()
+				|| m_generalCfg.getValidationEpochIntervalEntry().getValue() != 1
+				|| m_generalCfg.getValidationSampleSizeEntry().getEnabled()) {
+			setWarningMessage("Checkpoints, callbacks and validation schedules are not supported when training several "
+					+ "configurations and were ignored.");
+		}
+		// Configurations that share a batch size are trained together on a single pass over the converted data.
+		final LinkedHashMap<Integer, List<Integer>> variantsForBatchSize = new LinkedHashMap<>();
+		for (int i = 0; i < variants.size(); i++) {
+			variantsForBatchSize.computeIfAbsent(batchSizes.get(i), b -> new ArrayList<>()).add(i);
+		}
+
+		final boolean doValidation = doValidation(inValidationTable);
+		final Map<DLTensorId, int[]> columnsForTensorId = new HashMap<>(
+				inNetworkSpec.getInputSpecs().length + inNetworkSpec.getOutputSpecs().length);
+		final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converterForTensorId =
+				new LinkedHashMap<>(columnsForTensorId.size());
+		fillInputAndTargetSpecificMaps(inTableSpec, columnsForTensorId, converterForTensorId);
+		// all configurations see the training data in the same order
+		final long shuffleSeed = createRandom().nextLong();
+		// The view shows the batch size groups one after another, each group continues where the previous one ended.
+		int totalNumTrainingBatchesOfAllGroups = 0;
+		int totalNumValidationBatchesOfAllGroups = 0;
+		for (final Integer batchSize : variantsForBatchSize.keySet()) {
+			final DLKerasTrainingConfig trainingConfig = createTrainingConfig(inNetworkSpec, batchSize);
+			totalNumTrainingBatchesOfAllGroups += trainingConfig.getEpochs()
+					* getNumTrainingBatchesPerEpoch(inTable, trainingConfig);
+			totalNumValidationBatchesOfAllGroups += getTotalNumValidationBatches(doValidation, inValidationTable,
+					trainingConfig);
+		}
+		prepareView(doValidation, totalNumTrainingBatchesOfAllGroups, totalNumValidationBatchesOfAllGroups);
+
+		final DLKerasTrainingVariantResult[] results = new DLKerasTrainingVariantResult[variants.size()];
+		DLKerasNetworkPortObjectBase bestNetwork = null;
+		int bestIdx = -1;
+		for (final Entry<Integer, List<Integer>> group : variantsForBatchSize.entrySet()) {
+			if (m_stopRequested) {
+				setWarningMessage("Training was stopped. Configurations that were not trained have no metrics.");
+				break;
+			}
+			final List<Integer> variantIndices = group.getValue();
+			final ExecutionContext groupExec = exec
+					.createSubExecutionContext(variantIndices.size() / (double) variants.size());
+			final DLKerasTrainingConfig trainingConfig = createTrainingConfig(inNetworkSpec, group.getKey());
+			final int numTrainingBatchesPerEpoch = getNumTrainingBatchesPerEpoch(inTable, trainingConfig);
+			final int totalNumTrainingBatches = trainingConfig.getEpochs() * numTrainingBatchesPerEpoch;
+			// batches of previous groups, training may have been stopped early
+			final int viewBatchOffset = ((DLDenseLinePlotViewData) m_viewData[0].get(0)).getDataY().size();
+			setStatus(new DLKerasDefaultTrainingStatus(trainingConfig.getEpochs(), numTrainingBatchesPerEpoch));
+			try (final DLRowIterator rowIterator = createRowIterator(inTable, columnsForTensorId, shuffleSeed,
+					groupExec);
+					final DLKnimeNetworkTrainingInputPreparer inputPreparer = new DLKnimeNetworkTrainingInputPreparer(
+							rowIterator, (int) trainingConfig.getBatchSize(), converterForTensorId);
+					// validation samples are not supported, all configurations are validated on the complete data
+					final DLNetworkFixedSizeInputPreparer validationPreparer = doValidation
+							? new DLKnimeNetworkValidationInputPreparer(
+									new DLDataTableRowIterator(inValidationTable, columnsForTensorId),
+									(int) trainingConfig.getValidationBatchSize(), converterForTensorId)
+							: null;
+					DLKerasNetworkTrainingSession session = ctx.createTrainingSession(inNetwork, trainingConfig,
+							DLExecutionSpecCreator.createExecutionSpecs(rowIterator.peek(), ctx.getTensorFactory(),
+									trainingConfig.getBatchSize(), columnsForTensorId, m_converters),
+							inputPreparer, validationPreparer);) {
+				m_session = session; // Needed for early stopping.
+				final DLKnimeTrainingMonitor<DLKerasTrainingStatus> monitor = new DLKnimeTrainingMonitor<>(groupExec,
+						m_status);
+				setupTrainingStatus(doValidation, trainingConfig, numTrainingBatchesPerEpoch,
+						totalNumTrainingBatches, viewBatchOffset, monitor);
+				m_status.variantTrained().addListener(
+						(src, result) -> results[variantIndices.get(result.getVariantIndex())] = result);
+				session.setTrainingVariants(variantIndices.stream().map(variants::get).collect(Collectors.toList()));
+				session.setExecutionProfile(createExecutionProfile());
+				groupExec.setMessage("Training " + variantIndices.size() + " configuration(s) with batch size "
+						+ group.getKey() + "...");
+				session.run(monitor);
+				// only the best network is output, there is no need to save the others
+				int groupBestIdx = variantIndices.get(0);
+				for (final int i : variantIndices) {
+					if (isBetter(results[i], results[groupBestIdx])) {
+						groupBestIdx = i;
+					}
+				}
+				if (bestIdx == -1 || isBetter(results[groupBestIdx], results[bestIdx])) {
+					groupExec.setMessage("Saving trained Keras deep learning network...");
+					bestNetwork = session.getTrainedNetwork(variantIndices.indexOf(groupBestIdx), groupExec);
+					bestIdx = groupBestIdx;
+				}
+			} catch (final CanceledExecutionException | DLCanceledExecutionException e) {
+				m_status.setStatus(Status.USER_INTERRUPTED);
+				throw e;
+			} catch (final Exception e) {
+				throw handleGeneralException(e);
+			} finally {
+				m_session = null;
+			}
+		}
+
+		for (int i = 0; i < variants.size(); i++) {
+			final DLKerasTrainingVariant variant = variants.get(i);
+			final DLKerasTrainingVariantResult result = results[i];
+			metrics.addRowToTable(new DefaultRow(variant.getName(), //
+					new StringCell(variant.getOptimizer().getName()), //
+					variant.getLearningRate().isPresent() ? new DoubleCell(variant.getLearningRate().getAsDouble())
+							: DataType.getMissingCell(), //
+					new IntCell(batchSizes.get(i)), //
+					toMetricCell(result != null ? result.getLoss() : Float.NaN), //
+					toMetricCell(result != null ? result.getAccuracy() : Float.NaN), //
+					toMetricCell(result != null ? result.getValidationLoss() : Float.NaN), //
+					toMetricCell(result != null ? result.getValidationAccuracy() : Float.NaN), //
+					BooleanCellFactory.create(i == bestIdx)));
+		}
+		metrics.close();
+		return new PortObject[] { bestNetwork, metrics.getTable() };
+	}
+
+	/**
+	 * The network of a configuration is better than the one of another configuration if its final validation loss
+	 * or, if there was no validation, its final training loss is lower. Missing results are worse than any other.
+	 */
+	private static boolean isBetter(final DLKerasTrainingVariantResult result,
+			final DLKerasTrainingVariantResult other) {
+		final float loss = getSelectionLoss(result);
+		final float otherLoss = getSelectionLoss(other);
+		return !Float.isNaN(loss) && (Float.isNaN(otherLoss) || loss < otherLoss);
+	}
+
+	private static float getSelectionLoss(final DLKerasTrainingVariantResult result) {
+		if (result == null) {
+			return Float.NaN;
+		}
+		return Float.isNaN(result.getValidationLoss()) ? result.getLoss() : result.getValidationLoss();
+	}
+
+	private static DataCell toMetricCell(final float value) {
+		return Float.isNaN(value) ? DataType.getMissingCell() : new DoubleCell(value);
+	}
+
+	private static DataTableSpec createMetricsTableSpec() {
+		return new DataTableSpec( //
+				new DataColumnSpecCreator(CONFIGURATION_COLUMN_OPTIMIZER, StringCell.TYPE).createSpec(),
+				new DataColumnSpecCreator(CONFIGURATION_COLUMN_LEARNING_RATE, DoubleCell.TYPE).createSpec(),
+				new DataColumnSpecCreator(CONFIGURATION_COLUMN_BATCH_SIZE, IntCell.TYPE).createSpec(),
+				new DataColumnSpecCreator("Training loss", DoubleCell.TYPE).createSpec(),
+				new DataColumnSpecCreator("Training accuracy", DoubleCell.TYPE).createSpec(),
+				new DataColumnSpecCreator("Validation loss", DoubleCell.TYPE).createSpec(),
+				new DataColumnSpecCreator("Validation accuracy", DoubleCell.TYPE).createSpec(),
+				new DataColumnSpecCreator("Output network", BooleanCell.TYPE).createSpec());
+	}
+
+	private static void checkConfigurationsTableSpec(final DataTableSpec inConfigurationsTableSpec)
+			throws InvalidSettingsException {
+		final boolean hasOptimizer = checkConfigurationColumn(inConfigurationsTableSpec,
+				CONFIGURATION_COLUMN_OPTIMIZER, StringValue.class);
+		final boolean hasLearningRate = checkConfigurationColumn(inConfigurationsTableSpec,
+				CONFIGURATION_COLUMN_LEARNING_RATE, DoubleValue.class);
+		final boolean hasBatchSize = checkConfigurationColumn(inConfigurationsTableSpec,
+				CONFIGURATION_COLUMN_BATCH_SIZE, IntValue.class);
+		if (!hasOptimizer && !hasLearningRate && !hasBatchSize) {
+			throw new InvalidSettingsException("Input configurations table must contain at least one of the columns '"
+					+ CONFIGURATION_COLUMN_OPTIMIZER + "', '" + CONFIGURATION_COLUMN_LEARNING_RATE + "' and '"
+					+ CONFIGURATION_COLUMN_BATCH_SIZE + "'.");
+		}
+	}
+
+	private static boolean checkConfigurationColumn(final DataTableSpec inConfigurationsTableSpec,
+			final String columnName, final Class<? extends DataValue> valueClass) throws InvalidSettingsException {
+		final DataColumnSpec columnSpec = inConfigurationsTableSpec.getColumnSpec(columnName);
+		if (columnSpec == null) {
+			return false;
+		}
+		if (!columnSpec.getType().isCompatible(valueClass)) {
+			throw new InvalidSettingsException("Column '" + columnName + "' of the input configurations table has "
+					+ "incompatible type '" + columnSpec.getType() + "'.");
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the training variants from the given configurations table, one per row (see
+	 * {@link DLKerasLearnerConfigurationReader}).
+	 *
+	 * @param batchSizes populated with the training batch sizes of the variants
+	 */
+	private List<DLKerasTrainingVariant> readConfigurations(final BufferedDataTable inConfigurationsTable,
+			final DLKerasTrainingContext<?> ctx, final List<Integer> batchSizes) throws InvalidSettingsException {
+		final DLKerasLearnerConfigurationReader reader = new DLKerasLearnerConfigurationReader(
+				inConfigurationsTable.getDataTableSpec(), m_generalCfg.getOptimizerEntry().getValue(),
+				m_generalCfg.getBatchSizeEntry().getValue(),
+				(optimizerName, configurationName) -> getOptimizer(optimizerName, configurationName, ctx));
+		final List<DLKerasTrainingVariant> variants = new ArrayList<>();
+		try (final CloseableRowIterator it = inConfigurationsTable.iterator()) {
+			while (it.hasNext()) {
+				final DataRow row = it.next();
+				variants.add(reader.readVariant(row));
+				batchSizes.add(reader.readBatchSize(row));
+			}
+		}
+		return variants;
+	}
+
+	/**
+	 * Returns the optimizer of the given name (or Keras identifier). This is the optimizer configured in the node if
+	 * it has that name, otherwise an optimizer with default parameters. Gradient clipping is applied to both.
+	 */
+	private DLKerasOptimizer getOptimizer(final String optimizerName, final String configurationName,
+			final DLKerasTrainingContext<?> ctx) throws InvalidSettingsException {
+		final String name = optimizerName.trim();
+		final DLKerasOptimizer configuredOptimizer = m_generalCfg.getOptimizerEntry().getValue();
+		if (matchesOptimizer(configuredOptimizer, name)) {
+			return configuredOptimizer;
+		}
+		final DLKerasOptimizer optimizer = ctx.createOptimizers().stream() //
+				.filter(o -> matchesOptimizer(o, name)) //
+				.findFirst() //
+				.orElseThrow(() -> new InvalidSettingsException("Optimizer '" + optimizerName
+						+ "' of configuration '" + configurationName + "' is not available."));
+		optimizer.setClipNorm(m_generalCfg.getClipNormEntry());
+		optimizer.setClipValue(m_generalCfg.getClipValueEntry());
+		return optimizer;
+	}
+
+	private static boolean matchesOptimizer(final DLKerasOptimizer optimizer, final String name) {
+		final String identifier = optimizer.getKerasIdentifier();
+		return optimizer.getName().equalsIgnoreCase(name)
+				|| identifier.substring(identifier.lastIndexOf('.') + 1).equalsIgnoreCase(name);
+	}
+
+	private static void checkAvailability(final DLKerasTrainingContext<?> ctx) throws InvalidSettingsException {
+        try {
+            ctx.checkAvailability(false, DLPythonNetworkLoaderRegistry.getInstance().getInstallationTestTimeout(),
+                DLNotCancelable.INSTANCE);
+        } catch (final DLMissingDependencyException | DLInstallationTestTimeoutException
+                | DLCanceledExecutionException e) {
+            throw new InvalidSettingsException("Selected Keras back end '" + ctx.getName()
+                + "' is not available anymore. " + "Please check your local installation.\nDetails: " + e.getMessage());
+        }
+	}
+
     private RuntimeException handleGeneralException(final Exception e) throws CanceledExecutionException {
         final Throwable cause = e.getCause();
         if (cause != null) {
@@ -706,8 +1202,11 @@ private RuntimeException handleGeneralException(final Exception e) throws Cancel
         return new RuntimeException(message, e);
     }
 
+    /**
+     * @param viewBatchOffset the number of batches that precede the current training run in the view
+     */
     private void setupTrainingStatus(final boolean doValidation, final DLKerasTrainingConfig trainingConfig,
-        final int numTrainingBatchesPerEpoch, final int totalNumTrainingBatches,
+        final int numTrainingBatchesPerEpoch, final int totalNumTrainingBatches, final int viewBatchOffset,
         final DLKnimeTrainingMonitor<DLKerasTrainingStatus> monitor) {
         final NodeContext nodeContext = NodeContext.getContext();
         m_status.setViewSpecs(m_viewSpecs);
@@ -728,9 +1227,10 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         				+ "The actual learning process remains unaffected.", e);
         	}
         });
-        m_status.epochEnded().addListener((src, metrics) -> {
-        	if (doValidation) {
-        		final int currentBatch = m_status.getCurrentEpoch() * numTrainingBatchesPerEpoch
+        final BiConsumer<Object, Map<String, DLReportedMetric>> validationListener = (src, metrics) -> {
+            // Epochs without validation (see DLKerasValidationSchedule) report missing validation metrics.
+            if (doValidation && !Float.isNaN(metrics.get("val_loss").getValue())) {
+        		final int currentBatch = viewBatchOffset + m_status.getCurrentEpoch() * numTrainingBatchesPerEpoch
         				+ m_status.getCurrentBatchInEpoch();
         		// update view
         		final DLSparseLinePlotViewData accuracyPlot = (DLSparseLinePlotViewData) m_viewData[0].get(1);
@@ -746,26 +1246,20 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         					+ "The actual learning process remains unaffected.", e);
         		}
         	}
-        });
-        m_status.batchStarted().addListener((src, v) -> {
-        	// update progress
-        	final int currentBatch = m_status.getCurrentBatchInEpoch() + 1;
-        	final int currentEpoch = m_status.getCurrentEpoch() + 1;
-        	final double progress = ((currentEpoch - 1) * numTrainingBatchesPerEpoch + currentBatch)
-        			/ (double) totalNumTrainingBatches;
-        	monitor.setProgress(progress, "Processing batch " + currentBatch + " of " + numTrainingBatchesPerEpoch
-        			+ " in epoch " + currentEpoch + " of " + trainingConfig.getEpochs() + "...");
-        });
-        m_status.batchEnded().addListener((src, metrics) -> {
-        	// update view
-        	((DLDenseLinePlotViewData) m_viewData[0].get(0)).getDataY().add(metrics.get("accuracy").getValue());
-        	((DLDenseLinePlotViewData) m_viewData[1].get(0)).getDataY().add(metrics.get("loss").getValue());
+        };
+        m_status.epochEnded().addListener(validationListener);
+        m_status.valdationEnded().addListener(validationListener);
+        m_status.batchesEnded().addListener((src, metrics) -> {
+            // update progress and view once per coalesced update instead of once per batch
+            updateTrainingProgress(trainingConfig, numTrainingBatchesPerEpoch, totalNumTrainingBatches, monitor);
+            ((DLDenseLinePlotViewData)m_viewData[0].get(0)).getDataY().add(metrics.get("accuracy"));
+            ((DLDenseLinePlotViewData)m_viewData[1].get(0)).getDataY().add(metrics.get("loss"));
             try {
                 notifyViewsWithNodeContext(nodeContext, m_status);
             } catch (final Exception e) {
-        		LOGGER.warn("An error occurred while updating the learner's view. "
-        				+ "The actual learning process remains unaffected.", e);
-        	}
+                LOGGER.warn("An error occurred while updating the learner's view. "
+                    + "The actual learning process remains unaffected.", e);
+            }
         });
         m_status.validationStarted().addListener((src, v) -> monitor.setMessage(
         		"Validating model in epoch " + (m_status.getCurrentEpoch() + 1) + " of " + trainingConfig.getEpochs() + "..."));
@@ -783,6 +1277,31 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         }
     }
     
+    private void updateTrainingProgress(final DLKerasTrainingConfig trainingConfig,
+        final int numTrainingBatchesPerEpoch, final int totalNumTrainingBatches,
+        final DLKnimeTrainingMonitor<DLKerasTrainingStatus> monitor) {
+        final int currentBatch = m_status.getCurrentBatchInEpoch() + 1;
+        final int currentEpoch = m_status.getCurrentEpoch() + 1;
+        final double progress =
+            ((currentEpoch - 1) * numTrainingBatchesPerEpoch + currentBatch) / (double)totalNumTrainingBatches;
+        monitor.setProgress(progress, "Processing batch " + currentBatch + " of " + numTrainingBatchesPerEpoch
+            + " in epoch " + currentEpoch + " of " + trainingConfig.getEpochs() + "...");
+    }
+
+    // TODO: only valid if we don't crop the last batch. This has to be considered if we want to add 'crop' as an
+    // alternative strategy for handling incomplete batches.
+    private static int getNumTrainingBatchesPerEpoch(final BufferedDataTable inTable,
+        final DLKerasTrainingConfig trainingConfig) {
+        return (int)Math.ceil(inTable.size() / (double)trainingConfig.getBatchSize());
+    }
+
+    // TODO: see getNumTrainingBatchesPerEpoch
+    private static int getTotalNumValidationBatches(final boolean doValidation,
+        final BufferedDataTable inValidationTable, final DLKerasTrainingConfig trainingConfig) {
+        return doValidation ? trainingConfig.getEpochs()
+            * (int)Math.ceil(inValidationTable.size() / (double)trainingConfig.getValidationBatchSize()) : 0;
+    }
+
     private void notifyViewsWithNodeContext(final NodeContext nodeContext, final Object arg) {
         if (nodeContext != null) {
             NodeContext.pushContext(nodeContext);
@@ -798,6 +1317,8 @@ private void notifyViewsWithNodeContext(final NodeContext nodeContext, final Obj
 
     private void prepareView(final boolean doValidation, final int totalNumTrainingBatches,
         final int totalNumValidationBatches) {
+        final int trainingCapacity = Math.min(totalNumTrainingBatches, MAX_INITIAL_VIEW_DATA_CAPACITY);
+        final int validationCapacity = Math.min(totalNumValidationBatches, MAX_INITIAL_VIEW_DATA_CAPACITY);
         m_viewSpecs = new DLDefaultJFreeChartLinePlotViewSpec[2];
 		m_viewData = new DLLinePlotViewDataCollection[2];
 		if (doValidation) {
@@ -806,20 +1327,20 @@ private void prepareView(final boolean doValidation, final int totalNumTrainingB
 			m_viewSpecs[1] = new DLDefaultJFreeChartLinePlotViewSpec("loss", "Loss", "Loss", "Batches",
 					new String[] { "Training data", "Validation data" });
 			m_viewData[0] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[0],
-					new DLDenseLinePlotViewData(totalNumTrainingBatches),
-					new DLSparseLinePlotViewData(totalNumValidationBatches));
+					new DLDenseLinePlotViewData(trainingCapacity),
+					new DLSparseLinePlotViewData(validationCapacity));
 			m_viewData[1] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[1],
-					new DLDenseLinePlotViewData(totalNumTrainingBatches),
-					new DLSparseLinePlotViewData(totalNumValidationBatches));
+					new DLDenseLinePlotViewData(trainingCapacity),
+					new DLSparseLinePlotViewData(validationCapacity));
 		} else {
 			m_viewSpecs[0] = new DLDefaultJFreeChartLinePlotViewSpec("accuracy", "Accuracy", "Accuracy", "Batches",
 					new String[] { "Training data" });
 			m_viewSpecs[1] = new DLDefaultJFreeChartLinePlotViewSpec("loss", "Loss", "Loss", "Batches",
 					new String[] { "Training data" });
 			m_viewData[0] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[0],
-					new DLDenseLinePlotViewData(totalNumTrainingBatches));
+					new DLDenseLinePlotViewData(trainingCapacity));
 			m_viewData[1] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[1],
-					new DLDenseLinePlotViewData(totalNumTrainingBatches));
+					new DLDenseLinePlotViewData(trainingCapacity));
 		}
     }
 
@@ -850,7 +1371,11 @@ private void fillInputAndTargetSpecificMaps(final DataTableSpec inTableSpec, fin
     }
 
     private DLKerasTrainingConfig createTrainingConfig(final DLKerasNetworkSpec inNetworkSpec) {
-        final int trainingBatchSize = m_generalCfg.getBatchSizeEntry().getValue();
+        return createTrainingConfig(inNetworkSpec, m_generalCfg.getBatchSizeEntry().getValue());
+    }
+
+    private DLKerasTrainingConfig createTrainingConfig(final DLKerasNetworkSpec inNetworkSpec,
+        final int trainingBatchSize) {
 		final int numEpochs = m_generalCfg.getEpochsEntry().getValue();
 		final int validationBatchSize = m_generalCfg.getValidationBatchSizeEntry().getValue();
 		final DLKerasOptimizer optimizer = m_generalCfg.getOptimizerEntry().getValue();
@@ -905,16 +1430,207 @@ private boolean doValidation(final BufferedDataTable inValidationTable) {
         return doValidation;
     }
 
+	/**
+	 * Checkpoints are stored in the node's directory such that they survive a crash of the application. If the
+	 * workflow has not been saved yet, they are stored in a temporary directory that lives as long as this node model.
+	 */
+	private File getCheckpointDirectory() throws IOException {
+		final NodeContext nodeContext = NodeContext.getContext();
+		final ReferencedFile nodeDir = nodeContext != null ? nodeContext.getNodeContainer().getNodeContainerDirectory()
+				: null;
+		if (nodeDir != null) {
+			return new File(nodeDir.getFile(), CHECKPOINT_DIRNAME);
+		}
+		if (m_tmpCheckpointDir == null) {
+			m_tmpCheckpointDir = new File(FileUtil.createTempDir("knime_dl_checkpoint"), CHECKPOINT_DIRNAME);
+		}
+		return m_tmpCheckpointDir;
+	}
+
+	/**
+	 * @return the node's settings except the ones in {@link #CHECKPOINT_INDEPENDENT_SETTINGS}, a checkpoint can only be
+	 *         resumed if these are unchanged
+	 */
+	private NodeSettings createCheckpointTrainingSettings() throws InvalidSettingsException {
+		final NodeSettings settings = new NodeSettings("training_settings");
+		m_generalCfg.copyClipSettingsToOptimizer();
+		final NodeSettingsWO generalSettings = settings.addNodeSettings(m_generalCfg.getConfigKey());
+		for (final ConfigEntry<?> entry : m_generalCfg.values()) {
+			if (!CHECKPOINT_INDEPENDENT_SETTINGS.contains(entry.getEntryKey())) {
+				entry.saveSettingsTo(generalSettings);
+			}
+		}
+		final NodeSettingsWO inputSettings = settings.addNodeSettings(CFG_KEY_INPUT);
+		for (final DLKerasLearnerInputConfig inputCfg : m_inputCfgs.values()) {
+			inputCfg.saveToSettings(inputSettings);
+		}
+		final NodeSettingsWO targetSettings = settings.addNodeSettings(CFG_KEY_TARGET);
+		for (final DLKerasLearnerTargetConfig targetCfg : m_targetCfgs.values()) {
+			targetCfg.saveToSettings(targetSettings);
+		}
+		return settings;
+	}
+
+	/**
+	 * Deletes the temporary checkpoint directory and, unless the next execution may resume from it, the checkpoint
+	 * directory in the node's directory such that it is neither kept nor copied along with the workflow.
+	 */
+	private void deleteCheckpointDirectories() {
+		if (m_tmpCheckpointDir != null) {
+			FileUtil.deleteRecursively(m_tmpCheckpointDir.getParentFile());
+			m_tmpCheckpointDir = null;
+		}
+		if (!m_generalCfg.getCheckpointIntervalEntry().getEnabled()
+				|| !m_generalCfg.getResumeFromCheckpointEntry().getValue()) {
+			final NodeContext nodeContext = NodeContext.getContext();
+			final ReferencedFile nodeDir = nodeContext != null
+					? nodeContext.getNodeContainer().getNodeContainerDirectory()
+					: null;
+			if (nodeDir != null) {
+				FileUtil.deleteRecursively(new File(nodeDir.getFile(), CHECKPOINT_DIRNAME));
+			}
+		}
+	}
+
+	private static File mkdirs(final File dir) throws IOException {
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Failed to create checkpoint directory '" + dir.getPath() + "'.");
+		}
+		return dir;
+	}
+
+	private DLKerasLearnerCheckpointState readCheckpointState(final File checkpointDir,
+			final DLKerasNetworkSpec inNetworkSpec, final NodeSettings trainingSettings, final long numRows,
+			final DLKerasTrainingConfig trainingConfig, final boolean doShuffle, final boolean doValidation) {
+		DLKerasLearnerCheckpointState state;
+		try {
+			state = DLKerasLearnerCheckpointState.read(checkpointDir);
+		} catch (final IOException e) {
+			LOGGER.debug("Failed to read training checkpoint.", e);
+			state = null;
+		}
+		if (state == null) {
+			LOGGER.info("No training checkpoint available. Training starts from scratch.");
+		} else if (!state.isCompatible(inNetworkSpec, trainingSettings, numRows, trainingConfig.getBatchSize(),
+				doShuffle, doValidation, trainingConfig.getEpochs())) {
+			setWarningMessage("The last training checkpoint does not match the current input network, training data "
+					+ "or configuration. Training started from scratch.");
+			state = null;
+		}
+		if (state == null) {
+			FileUtil.deleteRecursively(checkpointDir);
+		}
+		return state;
+	}
+
+	private static void saveCheckpointState(final DLKerasTrainingCheckpoint checkpoint,
+			final DLKerasLearnerCheckpointState state) {
+		try {
+			state.write(checkpoint.getDirectory());
+			// only the latest checkpoint is needed to resume
+			final File[] checkpointFiles = checkpoint.getDirectory().listFiles();
+			if (checkpointFiles != null) {
+				for (final File file : checkpointFiles) {
+					if (checkpoint.isNetworkFile(file) && !file.equals(state.getNetworkFile())) {
+						Files.deleteIfExists(file.toPath());
+					}
+				}
+			}
+		} catch (final IOException e) {
+			LOGGER.warn("Failed to save training checkpoint. The actual learning process remains unaffected.", e);
+		}
+	}
+
+	/**
+	 * Fast-forwards the training data iterator to where the interrupted training run left off. The iterator wraps
+	 * around exactly as in {@link DLKnimeNetworkTrainingInputPreparer} such that shuffled epochs are reproduced.
+	 */
+	static void skipRows(final DLRowIterator rowIterator, final long numRows, final ExecutionMonitor exec)
+			throws CanceledExecutionException {
+		for (long i = 0; i < numRows; i++) {
+			if (!rowIterator.hasNext()) {
+				rowIterator.reset();
+			}
+			rowIterator.next();
+			if (i % 1000 == 0) {
+				exec.checkCanceled();
+			}
+		}
+	}
+
+	private DLNetworkFixedSizeInputPreparer createValidationPreparer(final BufferedDataTable inValidationTable,
+			final Map<DLTensorId, int[]> columnsForTensorId, final int validationBatchSize,
+			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converterForTensorId,
+			final ExecutionContext exec) throws CanceledExecutionException {
+		final ConfigEntry<Integer> sampleSizeCfg = m_generalCfg.getValidationSampleSizeEntry();
+		final BufferedDataTable sample;
+		if (sampleSizeCfg.getEnabled() && sampleSizeCfg.getValue() < inValidationTable.size()) {
+			exec.setMessage("Sampling validation data...");
+			sample = sampleTable(inValidationTable, sampleSizeCfg.getValue(),
+					m_generalCfg.getValidationSampleSeedEntry().getValue(), exec);
+		} else {
+			sample = null;
+		}
+		final DLKnimeNetworkValidationInputPreparer complete = new DLKnimeNetworkValidationInputPreparer(
+				new DLDataTableRowIterator(inValidationTable, columnsForTensorId), validationBatchSize,
+				converterForTensorId);
+		if (sample == null) {
+			return complete;
+		}
+		return new DLKnimeNetworkSampledValidationInputPreparer(new DLKnimeNetworkValidationInputPreparer(
+				new DLDataTableRowIterator(sample, columnsForTensorId), validationBatchSize, converterForTensorId),
+				complete);
+	}
+
+	private DLKerasValidationSchedule createValidationSchedule(
+			final DLNetworkFixedSizeInputPreparer validationPreparer) {
+		final int epochInterval = m_generalCfg.getValidationEpochIntervalEntry().getValue();
+		final ConfigEntry<Integer> batchIntervalCfg = m_generalCfg.getValidationBatchIntervalEntry();
+		final int batchInterval = batchIntervalCfg.getEnabled() ? batchIntervalCfg.getValue() : 0;
+		final long numSampleBatches = validationPreparer instanceof DLKnimeNetworkSampledValidationInputPreparer
+				? ((DLKnimeNetworkSampledValidationInputPreparer) validationPreparer).getNumSampleBatches()
+				: 0;
+		if (epochInterval == 1 && batchInterval == 0 && numSampleBatches == 0) {
+			// Keras' default: validate on the complete validation data after each epoch
+			return null;
+		}
+		return new DLKerasValidationSchedule(epochInterval, batchInterval, numSampleBatches);
+	}
+
+	/**
+	 * Draws a simple random sample of the given size from the given table. The rows keep their original order.
+	 */
+	private static BufferedDataTable sampleTable(final BufferedDataTable table, final int sampleSize, final long seed,
+			final ExecutionContext exec) throws CanceledExecutionException {
+		final DLKerasLearnerValidationSampler sampler = new DLKerasLearnerValidationSampler(table.size(), sampleSize,
+				seed);
+		final BufferedDataContainer container = exec.createDataContainer(table.getDataTableSpec());
+		try (final CloseableRowIterator it = table.iterator()) {
+			while (!sampler.isDone() && it.hasNext()) {
+				final DataRow row = it.next();
+				if (sampler.selectNext()) {
+					container.addRowToTable(row);
+				}
+				if (sampler.getNumVisited() % 1000 == 0) {
+					exec.checkCanceled();
+				}
+			}
+		} finally {
+			container.close();
+		}
+		return container.getTable();
+	}
+
 	private Random createRandom() {
 		final ConfigEntry<Long> seedCfg = m_generalCfg.getRandomSeed();
 		return seedCfg.getEnabled() ? new Random(seedCfg.getValue()) : new Random();
 	}
 
 	private DLRowIterator createRowIterator(final BufferedDataTable inTable,
-			final Map<DLTensorId, int[]> columnsForTensorId, final Random random, final ExecutionContext exec) {
+			final Map<DLTensorId, int[]> columnsForTensorId, final long shuffleSeed, final ExecutionContext exec) {
 		final boolean doShuffle = m_generalCfg.getShuffleTrainingData().getValue();
 		if (doShuffle) {
-			return new DLShuffleDataTableRowIterator(inTable, columnsForTensorId, random.nextLong(),
+			return new DLShuffleDataTableRowIterator(inTable, columnsForTensorId, shuffleSeed,
 					exec.createSubExecutionContext(0));
 		}
 		return new DLDataTableRowIterator(inTable, columnsForTensorId);
@@ -0,0 +1,119 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Decides for each of a known number of rows, in order, whether it belongs to a simple random sample of a fixed size.
+ * Implements selection sampling (Knuth, TAOCP Vol. 2, Algorithm S): each row is selected with probability (number of
+ * rows still needed) / (number of rows left). Selected rows therefore keep their original order and the rows need only
+ * be visited once.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLKerasLearnerValidationSampler {
+
+	private final long m_numRows;
+
+	private final long m_sampleSize;
+
+	private final Random m_random;
+
+	private long m_numVisited;
+
+	private long m_numSelected;
+
+	/**
+	 * @param numRows the total number of rows
+	 * @param sampleSize the number of rows to select, all rows are selected if it exceeds the total number of rows
+	 * @param seed the seed of the random selection
+	 */
+	DLKerasLearnerValidationSampler(final long numRows, final long sampleSize, final long seed) {
+		checkArgument(numRows >= 0, "Number of rows must not be negative.");
+		checkArgument(sampleSize >= 0, "Sample size must not be negative.");
+		m_numRows = numRows;
+		m_sampleSize = Math.min(sampleSize, numRows);
+		// The first random numbers of Random instances with similar seeds are highly correlated, which would bias the
+		// selection of the first rows for typical (small) user-specified seeds. Mixing the seed avoids that.
+		m_random = new Random(new SplittableRandom(seed).nextLong());
+	}
+
+	/**
+	 * @return <code>true</code> if the sample is complete, i.e. none of the remaining rows will be selected
+	 */
+	boolean isDone() {
+		return m_numSelected == m_sampleSize;
+	}
+
+	/**
+	 * Decides whether the next row is selected.
+	 *
+	 * @return <code>true</code> if the next row belongs to the sample
+	 * @throws IllegalStateException if all rows have already been visited
+	 */
+	boolean selectNext() {
+		checkState(m_numVisited < m_numRows, "All rows have already been visited.");
+		final boolean selected = (m_numRows - m_numVisited) * m_random.nextDouble() < m_sampleSize - m_numSelected;
+		m_numVisited++;
+		if (selected) {
+			m_numSelected++;
+		}
+		return selected;
+	}
+
+	/**
+	 * @return the number of rows visited so far
+	 */
+	long getNumVisited() {
+		return m_numVisited;
+	}
+}
@@ -53,6 +53,7 @@
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.dl.base.nodes.AbstractGridBagDialogComponentGroup;
 import org.knime.dl.base.settings.ConfigEntry;
+import org.knime.dl.base.settings.ConfigUtil;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasEarlyStopping;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasReduceLROnPlateau;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTerminateOnNaN;
@@ -89,6 +90,16 @@ public class DLKerasLearningBehaviorPanel extends AbstractGridBagDialogComponent
 		reduceLROnPlateau.addEnableChangeListener(e -> e.getValue().setAllEnabled(e.getEnabled()));
 		addToggleComponentGroup(reduceLROnPlateau, reduceLROnPlateau.getValue().getName(),
 				reduceLROnPlateau.getValue().getParameterDialogGroup());
+
+		addHorizontalSeparator();
+
+		final ConfigEntry<Integer> checkpointInterval = m_cfg.getCheckpointIntervalEntry();
+		final ConfigEntry<Boolean> resumeFromCheckpoint = m_cfg.getResumeFromCheckpointEntry();
+		checkpointInterval.addLoadListener(e -> resumeFromCheckpoint.setEnabled(e.getEnabled()));
+		checkpointInterval.addEnableChangeListener(e -> resumeFromCheckpoint.setEnabled(e.getEnabled()));
+		addToggleNumberEditRowComponent(checkpointInterval, "Save checkpoint every n epochs",
+				ConfigUtil.toSettingsModelIntegerBounded(checkpointInterval, 1, Integer.MAX_VALUE));
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(resumeFromCheckpoint), "Resume from last checkpoint", true);
 	}
 
 	@Override
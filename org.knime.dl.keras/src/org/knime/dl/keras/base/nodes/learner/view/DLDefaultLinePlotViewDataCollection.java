@@ -70,8 +70,8 @@
 
     /**
      * @param spec
-     * @param viewData current limitation: array can only contain elements of types {@link DLDenseLinePlotViewData} and
-     *            {@link DLSparseLinePlotViewData}
+     * @param viewData current limitation: array can only contain elements of types {@link DLDenseLinePlotViewData},
+     *            {@link DLSparseLinePlotViewData} and {@link DLSummarizedLinePlotViewData}
      */
     public DLDefaultLinePlotViewDataCollection(final S spec, final DLLinePlotViewData... viewData) {
         checkArgument(checkNotNull(spec).numPlots() == checkNotNull(viewData).length);
@@ -107,8 +107,10 @@ public Iterator<DLLinePlotViewData> iterator() {
     public void writeExternal(final ObjectOutput objOut) throws IOException {
         objOut.writeInt(m_viewData.length);
         for (int i = 0; i < m_viewData.length; i++) {
-            objOut.writeBoolean(m_viewData[i].getClass() == DLDenseLinePlotViewData.class);
-            m_viewData[i].writeExternal(objOut);
+            final DLLinePlotViewData viewData = m_viewData[i] instanceof DLSummarizedLinePlotViewData
+                ? ((DLSummarizedLinePlotViewData)m_viewData[i]).getFullResolution() : m_viewData[i];
+            objOut.writeBoolean(viewData.getClass() == DLDenseLinePlotViewData.class);
+            viewData.writeExternal(objOut);
         }
     }
 
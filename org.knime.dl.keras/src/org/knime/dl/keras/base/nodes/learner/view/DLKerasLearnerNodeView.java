@@ -71,6 +71,7 @@
 import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
 import javax.swing.SwingConstants;
+import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultCaret;
 
 import org.knime.core.node.NodeModel;
@@ -80,6 +81,8 @@
 import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewData.DLLinePlotViewDataEntry;
 import org.knime.dl.keras.base.nodes.learner.view.jfreechart.DLJFreeChartLinePlotViewSpec;
 import org.knime.dl.keras.base.nodes.learner.view.jfreechart.DLJFreeChartLinePlotWithHistoryView;
+import org.knime.dl.python.core.training.DLPythonTrainingLog;
+import org.knime.dl.python.core.training.DLPythonTrainingLog.Increment;
 
 /**
  * @author David Kolb, KNIME GmbH, Konstanz, Germany
@@ -224,6 +227,14 @@ private static String formatElapsedTime(final Duration elapsedTime) {
 
         private int m_lastEpoch = 0;
 
+        private DLPythonTrainingLog m_stdOutLog;
+
+        private Increment m_stdOutLogIncrement;
+
+        private DLPythonTrainingLog m_stdErrLog;
+
+        private Increment m_stdErrLogIncrement;
+
         public DLKerasLearnerNodeViewContentPanel(final DLViewSpec[] viewSpecs) {
             m_viewSpecs = viewSpecs;
             m_views = new HashMap<>(viewSpecs.length);
@@ -358,9 +369,19 @@ public void update(final DLProgressMonitor monitor) {
                 for (final DLViewDataCollection vdc : viewData) {
                     final List<Iterator<DLLinePlotViewDataEntry>> dataIterators =
                         StreamSupport.stream(((DLLinePlotViewDataCollection)vdc).spliterator(), false) //
-                            .map(vd -> vd.iterator()) //
+                            .map(vd -> vd instanceof DLSummarizedLinePlotViewData
+                                ? ((DLSummarizedLinePlotViewData)vd).summaryIterator() : vd.iterator()) //
                             .collect(Collectors.toList());
                     m_dataIterators.put(vdc.getSpec().id(), dataIterators);
+                    // Loaded data is displayed as a summary, the view loads the full resolution once zoomed in.
+                    final DLJFreeChartLinePlotWithHistoryView view = m_views.get(vdc.getSpec().id());
+                    final DLJFreeChartLinePlotViewSpec spec = (DLJFreeChartLinePlotViewSpec)vdc.getSpec();
+                    for (int i = 0; i < spec.numPlots(); i++) {
+                        final DLLinePlotViewData vd = ((DLLinePlotViewDataCollection)vdc).get(i);
+                        if (vd instanceof DLSummarizedLinePlotViewData) {
+                            view.setFullResolutionSource(spec.getLineLabel(i), (DLSummarizedLinePlotViewData)vd);
+                        }
+                    }
                 }
             }
 
@@ -422,9 +443,52 @@ public void update(final DLProgressMonitor monitor) {
                 }
             }
 
-            // Update log output
-            m_pythonStdOutOutputArea.setText(monitor.getStdOutOutput());
-            m_pythonStdErrOutputArea.setText(monitor.getStdErrOutput());
+            // Update log output, only pull lines that were appended since the last update
+            final DLPythonTrainingLog stdOutLog = monitor.getStdOutLog();
+            if (stdOutLog != m_stdOutLog) {
+                m_stdOutLog = stdOutLog;
+                m_stdOutLogIncrement = null;
+                m_pythonStdOutOutputArea.setText("");
+            }
+            m_stdOutLogIncrement = appendLogLines(m_pythonStdOutOutputArea, stdOutLog, m_stdOutLogIncrement);
+            final DLPythonTrainingLog stdErrLog = monitor.getStdErrLog();
+            if (stdErrLog != m_stdErrLog) {
+                m_stdErrLog = stdErrLog;
+                m_stdErrLogIncrement = null;
+                m_pythonStdErrOutputArea.setText("");
+            }
+            m_stdErrLogIncrement = appendLogLines(m_pythonStdErrOutputArea, stdErrLog, m_stdErrLogIncrement);
+        }
+
+        /**
+         * Appends the lines of the given log that were appended since the given previous read to the given text area
+         * and keeps the text area bounded by the capacity of the log.
+         *
+         * @return the read lines, to be passed to the next invocation
+         */
+        private static Increment appendLogLines(final JTextArea area, final DLPythonTrainingLog log,
+            final Increment previous) {
+            final Increment increment = log.readSince(previous);
+            if (increment.isDiscontinuous()) {
+                area.setText("");
+            }
+            if (!increment.getLines().isEmpty()) {
+                final StringBuilder text = new StringBuilder();
+                for (final String line : increment.getLines()) {
+                    text.append(line).append('\n');
+                }
+                area.append(text.toString());
+                // The text area always contains an empty trailing line.
+                final int numExcessLines = area.getLineCount() - 1 - log.getCapacity();
+                if (numExcessLines > 0) {
+                    try {
+                        area.replaceRange("", 0, area.getLineStartOffset(numExcessLines));
+                    } catch (final BadLocationException e) {
+                        // ignore - the text area is only trimmed for performance reasons
+                    }
+                }
+            }
+            return increment;
         }
 
         public void reset() {
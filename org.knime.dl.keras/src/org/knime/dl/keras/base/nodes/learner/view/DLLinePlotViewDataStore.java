@@ -0,0 +1,378 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner.view;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Iterator;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import gnu.trove.TFloatArrayList;
+import gnu.trove.TIntArrayList;
+
+/**
+ * Compact persistence of the learner monitor's line plot data.
+ * <P>
+ * The data points of each line are stored column by column in a separate data file. Each column is byte-shuffled
+ * (all most significant bytes first, then all second bytes, etc.), which exposes the redundancy of consecutive metric
+ * values to the subsequent deflate compression. The index, written to the caller's stream, holds the location of each
+ * line in the data file along with a min/max-downsampled summary of the line. Loading only reads the index, the
+ * summaries are available for immediate display while the full-resolution data is read on demand (see
+ * {@link DLSummarizedLinePlotViewData}).
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLLinePlotViewDataStore {
+
+    /**
+     * The number of buckets of a line's summary. Each bucket contributes its minimum and maximum.
+     */
+    static final int SUMMARY_NUM_BUCKETS = 1024;
+
+    private DLLinePlotViewDataStore() {
+    }
+
+    /**
+     * Writes the given view data. If the data was previously loaded from the given data file and has not been fully
+     * loaded since, its compressed representation is copied without decoding it.
+     *
+     * @param viewData the view data to write
+     * @param indexOut the stream to which the index is written
+     * @param dataFile the file to which the data points are written, is overwritten
+     * @throws IOException if writing failed
+     */
+    public static void write(final DLLinePlotViewDataCollection[] viewData, final ObjectOutput indexOut,
+        final File dataFile) throws IOException {
+        // All blocks are gathered before the data file is opened as they may have to be read from that very file.
+        final int numPlots = numPlots(viewData);
+        final byte[][] blocks = new byte[numPlots][];
+        final DLSummarizedLinePlotViewData[] summarized = new DLSummarizedLinePlotViewData[numPlots];
+        int p = 0;
+        for (final DLLinePlotViewDataCollection collection : viewData) {
+            for (final DLLinePlotViewData data : collection) {
+                if (data instanceof DLSummarizedLinePlotViewData
+                    && !((DLSummarizedLinePlotViewData)data).isFullResolutionLoaded()) {
+                    summarized[p] = (DLSummarizedLinePlotViewData)data;
+                    blocks[p] = summarized[p].readBlock();
+                } else {
+                    final DLLinePlotViewData fullResolution = data instanceof DLSummarizedLinePlotViewData
+                        ? ((DLSummarizedLinePlotViewData)data).getFullResolution() : data;
+                    summarized[p] = summarize(fullResolution);
+                    blocks[p] = encode(fullResolution);
+                }
+                p++;
+            }
+        }
+        try (final OutputStream dataOut = new FileOutputStream(dataFile)) {
+            long offset = 0;
+            p = 0;
+            for (final DLLinePlotViewDataCollection collection : viewData) {
+                final int numCollectionPlots = numPlots(collection);
+                indexOut.writeInt(numCollectionPlots);
+                for (int i = 0; i < numCollectionPlots; i++, p++) {
+                    final DLSummarizedLinePlotViewData s = summarized[p];
+                    indexOut.writeBoolean(s.isDense());
+                    indexOut.writeInt(s.getNumPoints());
+                    indexOut.writeLong(offset);
+                    indexOut.writeInt(blocks[p].length);
+                    final int[] summaryX = s.getSummaryX();
+                    final float[] summaryY = s.getSummaryY();
+                    indexOut.writeInt(summaryX.length);
+                    for (int j = 0; j < summaryX.length; j++) {
+                        indexOut.writeInt(summaryX[j]);
+                        indexOut.writeFloat(summaryY[j]);
+                    }
+                    dataOut.write(blocks[p]);
+                    offset += blocks[p].length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the index written by {@link #write(DLLinePlotViewDataCollection[], ObjectOutput, File)}.
+     *
+     * @param specs the specs of the view data collections, in the order in which the collections were written
+     * @param indexIn the stream from which the index is read
+     * @param dataFile the data file, it is only accessed once the full-resolution data of a line is requested
+     * @return the view data collections, backed by summarized, lazily loaded line data
+     * @throws IOException if reading the index failed
+     */
+    public static DLLinePlotViewDataCollection[] read(final DLLinePlotViewSpec[] specs, final ObjectInput indexIn,
+        final File dataFile) throws IOException {
+        final DLLinePlotViewDataCollection[] viewData = new DLLinePlotViewDataCollection[specs.length];
+        for (int c = 0; c < specs.length; c++) {
+            final DLLinePlotViewData[] lines = new DLLinePlotViewData[indexIn.readInt()];
+            for (int i = 0; i < lines.length; i++) {
+                final boolean isDense = indexIn.readBoolean();
+                final int numPoints = indexIn.readInt();
+                final long offset = indexIn.readLong();
+                final int length = indexIn.readInt();
+                final int summarySize = indexIn.readInt();
+                final int[] summaryX = new int[summarySize];
+                final float[] summaryY = new float[summarySize];
+                for (int j = 0; j < summarySize; j++) {
+                    summaryX[j] = indexIn.readInt();
+                    summaryY[j] = indexIn.readFloat();
+                }
+                lines[i] = new DLSummarizedLinePlotViewData(isDense, numPoints, summaryX, summaryY, dataFile, offset,
+                    length);
+            }
+            viewData[c] = new DLDefaultLinePlotViewDataCollection<>(specs[c], lines);
+        }
+        return viewData;
+    }
+
+    /**
+     * Reads and decodes a single line from the data file.
+     */
+    static DLLinePlotViewData readLine(final File dataFile, final long offset, final int length, final boolean isDense,
+        final int numPoints) throws IOException {
+        final byte[] block = readBlock(dataFile, offset, length);
+        final byte[] payload = new byte[(isDense ? 1 : 2) * Integer.BYTES * numPoints];
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block);
+            int n = 0;
+            while (n < payload.length && !inflater.finished()) {
+                final int inflated = inflater.inflate(payload, n, payload.length - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += inflated;
+            }
+            if (n != payload.length) {
+                throw new IOException("Learner monitor data file '" + dataFile.getPath() + "' is corrupt.");
+            }
+        } catch (final DataFormatException e) {
+            throw new IOException("Learner monitor data file '" + dataFile.getPath() + "' is corrupt.", e);
+        } finally {
+            inflater.end();
+        }
+        final int[] values = unshuffle(payload, numPoints);
+        if (isDense) {
+            final DLDenseLinePlotViewData data = new DLDenseLinePlotViewData(numPoints);
+            final TFloatArrayList y = data.getDataY();
+            for (int i = 0; i < numPoints; i++) {
+                y.add(Float.intBitsToFloat(values[i]));
+            }
+            return data;
+        } else {
+            final DLSparseLinePlotViewData data = new DLSparseLinePlotViewData(numPoints);
+            final TIntArrayList x = data.getDataX();
+            final TFloatArrayList y = data.getDataY();
+            int lastX = 0;
+            for (int i = 0; i < numPoints; i++) {
+                lastX += values[i]; // delta-encoded
+                x.add(lastX);
+                y.add(Float.intBitsToFloat(values[numPoints + i]));
+            }
+            return data;
+        }
+    }
+
+    static byte[] readBlock(final File dataFile, final long offset, final int length) throws IOException {
+        if (!dataFile.exists()) {
+            throw new IOException("Learner monitor data file '" + dataFile.getPath() + "' does not exist anymore.");
+        }
+        final byte[] block = new byte[length];
+        try (final RandomAccessFile in = new RandomAccessFile(dataFile, "r")) {
+            in.seek(offset);
+            in.readFully(block);
+        }
+        return block;
+    }
+
+    private static int numPlots(final DLLinePlotViewDataCollection[] viewData) {
+        int numPlots = 0;
+        for (final DLLinePlotViewDataCollection collection : viewData) {
+            numPlots += numPlots(collection);
+        }
+        return numPlots;
+    }
+
+    private static int numPlots(final DLLinePlotViewDataCollection collection) {
+        int numPlots = 0;
+        for (final Iterator<DLLinePlotViewData> it = collection.iterator(); it.hasNext(); it.next()) {
+            numPlots++;
+        }
+        return numPlots;
+    }
+
+    private static byte[] encode(final DLLinePlotViewData data) throws IOException {
+        final int[] values;
+        if (data instanceof DLDenseLinePlotViewData) {
+            final TFloatArrayList y = ((DLDenseLinePlotViewData)data).getDataY();
+            values = new int[y.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = Float.floatToRawIntBits(y.get(i));
+            }
+        } else {
+            final TIntArrayList x = ((DLSparseLinePlotViewData)data).getDataX();
+            final TFloatArrayList y = ((DLSparseLinePlotViewData)data).getDataY();
+            final int numPoints = x.size();
+            values = new int[2 * numPoints];
+            int lastX = 0;
+            for (int i = 0; i < numPoints; i++) {
+                values[i] = x.get(i) - lastX; // x-values are ascending, deltas are small
+                lastX = x.get(i);
+                values[numPoints + i] = Float.floatToRawIntBits(y.get(i));
+            }
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater();
+        try (final DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            out.write(shuffle(values, data instanceof DLDenseLinePlotViewData ? values.length : values.length / 2));
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Splits each column of the given values (a column holds <code>columnLength</code> values) into byte planes.
+     */
+    private static byte[] shuffle(final int[] values, final int columnLength) {
+        final byte[] shuffled = new byte[values.length * Integer.BYTES];
+        if (columnLength == 0) {
+            return shuffled;
+        }
+        for (int c = 0; c * columnLength < values.length; c++) {
+            final int columnStart = c * columnLength;
+            for (int b = 0; b < Integer.BYTES; b++) {
+                final int planeStart = Integer.BYTES * columnStart + b * columnLength;
+                final int shift = 8 * (Integer.BYTES - 1 - b);
+                for (int i = 0; i < columnLength; i++) {
+                    shuffled[planeStart + i] = (byte)(values[columnStart + i] >>> shift);
+                }
+            }
+        }
+        return shuffled;
+    }
+
+    private static int[] unshuffle(final byte[] shuffled, final int columnLength) {
+        final int[] values = new int[shuffled.length / Integer.BYTES];
+        if (columnLength == 0) {
+            return values;
+        }
+        for (int c = 0; c * columnLength < values.length; c++) {
+            final int columnStart = c * columnLength;
+            for (int b = 0; b < Integer.BYTES; b++) {
+                final int planeStart = Integer.BYTES * columnStart + b * columnLength;
+                final int shift = 8 * (Integer.BYTES - 1 - b);
+                for (int i = 0; i < columnLength; i++) {
+                    values[columnStart + i] |= (shuffled[planeStart + i] & 0xFF) << shift;
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Creates a summary of the given line by keeping the minimum and the maximum of each of
+     * {@link #SUMMARY_NUM_BUCKETS} buckets as well as the last point.
+     */
+    private static DLSummarizedLinePlotViewData summarize(final DLLinePlotViewData data) {
+        final boolean isDense = data instanceof DLDenseLinePlotViewData;
+        final TFloatArrayList y =
+            isDense ? ((DLDenseLinePlotViewData)data).getDataY() : ((DLSparseLinePlotViewData)data).getDataY();
+        final TIntArrayList x = isDense ? null : ((DLSparseLinePlotViewData)data).getDataX();
+        final int numPoints = y.size();
+        final TIntArrayList summaryX = new TIntArrayList();
+        final TFloatArrayList summaryY = new TFloatArrayList();
+        if (numPoints <= 2 * SUMMARY_NUM_BUCKETS) {
+            for (int i = 0; i < numPoints; i++) {
+                summaryX.add(isDense ? i : x.get(i));
+                summaryY.add(y.get(i));
+            }
+        } else {
+            final double bucketSize = numPoints / (double)SUMMARY_NUM_BUCKETS;
+            for (int b = 0; b < SUMMARY_NUM_BUCKETS; b++) {
+                final int from = (int)(b * bucketSize);
+                final int to = Math.min(numPoints, (int)((b + 1) * bucketSize));
+                if (from >= to) {
+                    continue;
+                }
+                int minIdx = from;
+                int maxIdx = from;
+                for (int i = from + 1; i < to; i++) {
+                    if (y.get(i) < y.get(minIdx)) {
+                        minIdx = i;
+                    }
+                    if (y.get(i) > y.get(maxIdx)) {
+                        maxIdx = i;
+                    }
+                }
+                // keep the chronological order of the extrema
+                final int first = Math.min(minIdx, maxIdx);
+                final int second = Math.max(minIdx, maxIdx);
+                summaryX.add(isDense ? first : x.get(first));
+                summaryY.add(y.get(first));
+                if (second != first) {
+                    summaryX.add(isDense ? second : x.get(second));
+                    summaryY.add(y.get(second));
+                }
+            }
+            final int lastX = isDense ? numPoints - 1 : x.get(numPoints - 1);
+            if (summaryX.get(summaryX.size() - 1) != lastX) {
+                summaryX.add(lastX);
+                summaryY.add(y.get(numPoints - 1));
+            }
+        }
+        return new DLSummarizedLinePlotViewData(isDense, numPoints, summaryX.toNativeArray(),
+            summaryY.toNativeArray(), null, -1, -1);
+    }
+}
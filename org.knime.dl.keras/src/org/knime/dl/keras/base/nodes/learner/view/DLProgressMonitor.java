@@ -49,6 +49,8 @@
 import java.io.Externalizable;
 import java.time.LocalDateTime;
 
+import org.knime.dl.python.core.training.DLPythonTrainingLog;
+
 /**
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -86,4 +88,8 @@ public interface DLProgressMonitor extends Externalizable {
 	String getStdOutOutput();
 
 	String getStdErrOutput();
+
+	DLPythonTrainingLog getStdOutLog();
+
+	DLPythonTrainingLog getStdErrLog();
 }
@@ -0,0 +1,237 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner.view;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Line plot data that was loaded from a {@link DLLinePlotViewDataStore}. Only a min/max-downsampled summary of the
+ * line is held in memory initially, the full-resolution data is read from the store's data file on first request.
+ * The data file must therefore be owned by the caller of {@link DLLinePlotViewDataStore#read(DLLinePlotViewSpec[],
+ * ObjectInput, File)} until the full-resolution data is no longer needed. If it is deleted nonetheless, only the
+ * summary remains available.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLSummarizedLinePlotViewData implements DLLinePlotViewData {
+
+    private final boolean m_isDense;
+
+    private final int m_numPoints;
+
+    private final int[] m_summaryX;
+
+    private final float[] m_summaryY;
+
+    private final File m_dataFile;
+
+    private final long m_offset;
+
+    private final int m_length;
+
+    private volatile DLLinePlotViewData m_fullResolution;
+
+    DLSummarizedLinePlotViewData(final boolean isDense, final int numPoints, final int[] summaryX,
+        final float[] summaryY, final File dataFile, final long offset, final int length) {
+        m_isDense = isDense;
+        m_numPoints = numPoints;
+        m_summaryX = summaryX;
+        m_summaryY = summaryY;
+        m_dataFile = dataFile;
+        m_offset = offset;
+        m_length = length;
+    }
+
+    /**
+     * @return <code>true</code> if the full-resolution data has already been loaded
+     */
+    public boolean isFullResolutionLoaded() {
+        return m_fullResolution != null;
+    }
+
+    /**
+     * @param lowerX the lower bound of the visible x-range
+     * @param upperX the upper bound of the visible x-range
+     * @param numPixels the number of pixels that are available to display the visible x-range
+     * @return <code>true</code> if the summary resolves the given x-range as well as the full-resolution data would
+     */
+    public boolean isSummarySufficient(final double lowerX, final double upperX, final int numPixels) {
+        if (isFullResolutionLoaded() || m_summaryX.length == m_numPoints) {
+            return true;
+        }
+        final int from = lowerBound(lowerX);
+        final int to = lowerBound(upperX);
+        // Full-resolution data that is downsampled for display yields up to two points (min/max) per pixel.
+        return to - from >= 2 * numPixels;
+    }
+
+    /**
+     * @return an iterator over the summary of this line
+     */
+    public Iterator<DLLinePlotViewDataEntry> summaryIterator() {
+        return new DLSummaryIterator(m_summaryX, m_summaryY);
+    }
+
+    /**
+     * Loads the full-resolution data if not already done.
+     *
+     * @return the full-resolution data
+     * @throws IOException if loading the data failed, e.g. because the store's data file does not exist anymore
+     */
+    public DLLinePlotViewData getFullResolution() throws IOException {
+        DLLinePlotViewData fullResolution = m_fullResolution;
+        if (fullResolution == null) {
+            synchronized (this) {
+                fullResolution = m_fullResolution;
+                if (fullResolution == null) {
+                    fullResolution =
+                        DLLinePlotViewDataStore.readLine(m_dataFile, m_offset, m_length, m_isDense, m_numPoints);
+                    m_fullResolution = fullResolution;
+                }
+            }
+        }
+        return fullResolution;
+    }
+
+    /**
+     * Iterates over the full-resolution data, falls back to the summary if the data cannot be loaded.
+     */
+    @Override
+    public Iterator<DLLinePlotViewDataEntry> iterator() {
+        try {
+            return getFullResolution().iterator();
+        } catch (final IOException e) {
+            NodeLogger.getLogger(DLSummarizedLinePlotViewData.class)
+                .warn("Failed to load learner monitor data. Displaying a summary of the data instead.", e);
+            return summaryIterator();
+        }
+    }
+
+    @Override
+    public void writeExternal(final ObjectOutput objOut) throws IOException {
+        getFullResolution().writeExternal(objOut);
+    }
+
+    /**
+     * Reads the full-resolution data as written by {@link #writeExternal(ObjectOutput)}. The store's data file is not
+     * accessed afterwards.
+     */
+    @Override
+    public void readExternal(final ObjectInput objIn) throws IOException, ClassNotFoundException {
+        final DLLinePlotViewData fullResolution =
+            m_isDense ? new DLDenseLinePlotViewData() : new DLSparseLinePlotViewData();
+        fullResolution.readExternal(objIn);
+        synchronized (this) {
+            m_fullResolution = fullResolution;
+        }
+    }
+
+    boolean isDense() {
+        return m_isDense;
+    }
+
+    int getNumPoints() {
+        return m_numPoints;
+    }
+
+    int[] getSummaryX() {
+        return m_summaryX;
+    }
+
+    float[] getSummaryY() {
+        return m_summaryY;
+    }
+
+    byte[] readBlock() throws IOException {
+        return DLLinePlotViewDataStore.readBlock(m_dataFile, m_offset, m_length);
+    }
+
+    private int lowerBound(final double x) {
+        final int idx = Arrays.binarySearch(m_summaryX, (int)Math.ceil(x));
+        return idx >= 0 ? idx : -idx - 1;
+    }
+
+    private static final class DLSummaryIterator implements Iterator<DLLinePlotViewDataEntry> {
+
+        private final int[] m_x;
+
+        private final float[] m_y;
+
+        private final DLMutableLinePlotViewDataEntry m_proxy = new DLMutableLinePlotViewDataEntry();
+
+        private int m_idx = -1;
+
+        private DLSummaryIterator(final int[] x, final float[] y) {
+            m_x = x;
+            m_y = y;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return m_idx < m_x.length - 1;
+        }
+
+        @Override
+        public DLLinePlotViewDataEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            m_idx++;
+            m_proxy.setX(m_x[m_idx]);
+            m_proxy.setY(m_y[m_idx]);
+            return m_proxy;
+        }
+    }
+}
@@ -63,7 +63,10 @@
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.Icon;
@@ -74,18 +77,21 @@
 import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
 import javax.swing.JTabbedPane;
-import javax.swing.JTextArea;
+import javax.swing.JList;
 import javax.swing.JTextField;
 import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingWorker;
 import javax.swing.Timer;
 import javax.swing.event.DocumentListener;
-import javax.swing.text.DefaultCaret;
 
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.data.Range;
+import org.knime.core.node.NodeLogger;
 import org.knime.core.node.util.SharedIcons;
 import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotView;
+import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewData;
 import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewData.DLLinePlotViewDataEntry;
+import org.knime.dl.keras.base.nodes.learner.view.DLSummarizedLinePlotViewData;
 import org.knime.dl.keras.base.nodes.learner.view.rangeslider.RangeSlider;
 
 import gnu.trove.TObjectFloatHashMap;
@@ -105,7 +111,14 @@ public class DLJFreeChartLinePlotWithHistoryView implements DLLinePlotView<DLJFr
 
     private final JFreeChartLinePlotPanel m_linePlot;
 
-    private final Map<String, JTextArea> m_historyAreas = new HashMap<>();
+    /**
+     * Delay between two coalesced updates of the plot and the history lists.
+     */
+    private static final int RENDER_DELAY_MS = 200;
+
+    private final Map<String, JList<String>> m_historyLists = new HashMap<>();
+
+    private final Map<String, HistoryListModel> m_historyModels = new HashMap<>();
 
     private final Map<String, JLabel> m_currentValueLabels = new HashMap<>();
 
@@ -117,8 +130,22 @@ public class DLJFreeChartLinePlotWithHistoryView implements DLLinePlotView<DLJFr
 
     private final Timer m_currentValueUpdateTimer = new Timer(1000, (e) -> updateCurrentValueLabels());
 
+    private final Timer m_renderTimer = new Timer(RENDER_DELAY_MS, (e) -> render());
+
+    /**
+     * Set if data was added since the last {@link #render()}.
+     */
+    private final AtomicBoolean m_dataChanged = new AtomicBoolean();
+
     private final SliderPlotSync m_sliderPlotSync;
 
+    /**
+     * Lines that are displayed as a summary and whose full-resolution data is loaded once the user zooms in.
+     */
+    private final Map<String, DLSummarizedLinePlotViewData> m_fullResolutionSources = new HashMap<>();
+
+    private boolean m_isLoadingFullResolution = false;
+
     private NumberTextField m_absoluteLeftRange;
 
     private NumberTextField m_absoluteRightRange;
@@ -140,15 +167,19 @@ public DLJFreeChartLinePlotWithHistoryView(final DLJFreeChartLinePlotViewSpec pl
         final JTabbedPane historyTabsPane = new JTabbedPane();
         GridBagConstraints gbc;
 
+        m_linePlot = new JFreeChartLinePlotPanel(plotViewSpec);
+
         for (int i = 0; i < plotViewSpec.numPlots(); i++) {
-            final JTextArea historyArea = new JTextArea();
-            final DefaultCaret caret = (DefaultCaret)historyArea.getCaret();
-            // Enable automatic to bottom scrolling
-            caret.setUpdatePolicy(DefaultCaret.ALWAYS_UPDATE);
-            historyArea.setEditable(false);
-            m_historyAreas.put(plotViewSpec.getLineLabel(i), historyArea);
-
-            final JScrollPane historyScroller = new JScrollPane(historyArea);
+            final String lineLabel = plotViewSpec.getLineLabel(i);
+            // The history list is virtualized: it only renders the visible rows of the raw data of the line.
+            final HistoryListModel historyModel = new HistoryListModel(m_linePlot.getLineData(lineLabel));
+            final JList<String> historyList = new JList<>(historyModel);
+            // A fixed cell size avoids measuring all rows.
+            historyList.setPrototypeCellValue("-0.000000000E-00");
+            m_historyModels.put(lineLabel, historyModel);
+            m_historyLists.put(lineLabel, historyList);
+
+            final JScrollPane historyScroller = new JScrollPane(historyList);
             final JPanel historyWrapper = new JPanel(new GridBagLayout());
             gbc = new GridBagConstraints();
             gbc.gridx = 0;
@@ -181,7 +212,6 @@ public DLJFreeChartLinePlotWithHistoryView(final DLJFreeChartLinePlotViewSpec pl
         gbc.weighty = 1;
         gbc.insets = new Insets(0, 0, 0, 5);
         gbc.fill = GridBagConstraints.BOTH;
-        m_linePlot = new JFreeChartLinePlotPanel(plotViewSpec);
         m_component.add(createPlotWithControlsPanel(m_linePlot), gbc);
 
         historyTabsPane.setPreferredSize(new Dimension(180, 500));
@@ -389,21 +419,52 @@ public void setCurrentValueTimerUpdateDelay(final int milliseconds) {
     }
 
     /**
-     * Start the timed update of the current value filed in the history view.
+     * Start the timed update of the current value filed in the history view as well as the timed, coalesced rendering
+     * of newly added data.
      */
     public void startCurrentValueUpdate() {
         if (!m_currentValueUpdateTimer.isRunning()) {
             m_currentValueUpdateTimer.start();
         }
+        if (!m_renderTimer.isRunning()) {
+            m_renderTimer.start();
+        }
     }
 
     /**
-     * Stop the timed update of the current value filed in the history view.
+     * Stop the timed update of the current value filed in the history view and the timed rendering of new data.
      */
     public void stopCurrentValueUpdate() {
         if (m_currentValueUpdateTimer.isRunning()) {
             m_currentValueUpdateTimer.stop();
         }
+        if (m_renderTimer.isRunning()) {
+            m_renderTimer.stop();
+        }
+    }
+
+    /**
+     * Pushes the data that was added since the last call to the plot and the history lists. Called in the EDT.
+     */
+    private void render() {
+        loadFullResolutionIfZoomedIn();
+        if (!m_dataChanged.getAndSet(false)) {
+            // The plot may still need to be re-rendered because it was resized.
+            m_linePlot.render();
+            return;
+        }
+        for (final Map.Entry<String, HistoryListModel> entry : m_historyModels.entrySet()) {
+            final JList<String> historyList = m_historyLists.get(entry.getKey());
+            final HistoryListModel model = entry.getValue();
+            // Automatically scroll to the bottom unless the user scrolled up.
+            final boolean scrollToEnd =
+                model.getSize() == 0 || historyList.getLastVisibleIndex() >= model.getSize() - 1;
+            if (model.publishNewRows() && scrollToEnd) {
+                historyList.ensureIndexIsVisible(model.getSize() - 1);
+            }
+        }
+        m_sliderPlotSync.updateOnData();
+        m_linePlot.render();
     }
 
     @Override
@@ -413,19 +474,87 @@ public Component getComponent() {
 
     @Override
     public void update(final String lineLabel, final Iterator<DLLinePlotViewDataEntry> iterator) {
+        // Only collect the data here, the plot and the history are updated by the render timer.
+        boolean dataAdded = false;
         while (iterator.hasNext()) {
             final DLLinePlotViewDataEntry dataEntry = iterator.next();
 
             m_linePlot.plotNext(lineLabel, dataEntry.getX() + 1, dataEntry.getY()); // x-values are 0-based
-            m_historyAreas.get(lineLabel).append(dataEntry.getY() + "\n");
             m_currentValues.put(lineLabel, dataEntry.getY());
 
             m_sliderPlotSync.updateMaxXValue(dataEntry.getX() + 1);
             m_sliderPlotSync.updateYBounds(dataEntry.getY());
-            m_sliderPlotSync.updateOnData();
+            dataAdded = true;
+        }
+        if (dataAdded) {
+            m_dataChanged.set(true);
         }
     }
 
+    /**
+     * Registers the full-resolution data of a line that is currently displayed as a summary. The data is loaded in
+     * the background and replaces the summary as soon as the summary does not suffice to display the visible range.
+     *
+     * @param lineLabel the label of the line
+     * @param source the summarized data of the line
+     */
+    public void setFullResolutionSource(final String lineLabel, final DLSummarizedLinePlotViewData source) {
+        m_fullResolutionSources.put(lineLabel, source);
+    }
+
+    /**
+     * Called in the EDT.
+     */
+    private void loadFullResolutionIfZoomedIn() {
+        if (m_fullResolutionSources.isEmpty() || m_isLoadingFullResolution) {
+            return;
+        }
+        final NumberAxis domainAxis = m_linePlot.getHorizontalAxis();
+        // x-values are 1-based in the plot
+        final double lowerX = domainAxis.getLowerBound() - 1;
+        final double upperX = domainAxis.getUpperBound() - 1;
+        final int width = Math.max(1, m_linePlot.getChartPanel().getWidth());
+        if (m_fullResolutionSources.values().stream()
+            .allMatch(source -> source.isSummarySufficient(lowerX, upperX, width))) {
+            return;
+        }
+        m_isLoadingFullResolution = true;
+        final Map<String, DLSummarizedLinePlotViewData> sources = new HashMap<>(m_fullResolutionSources);
+        new SwingWorker<Map<String, DLLinePlotViewData>, Void>() {
+
+            @Override
+            protected Map<String, DLLinePlotViewData> doInBackground() throws Exception {
+                final Map<String, DLLinePlotViewData> fullResolution = new HashMap<>(sources.size());
+                for (final Map.Entry<String, DLSummarizedLinePlotViewData> entry : sources.entrySet()) {
+                    fullResolution.put(entry.getKey(), entry.getValue().getFullResolution());
+                }
+                return fullResolution;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    for (final Map.Entry<String, DLLinePlotViewData> entry : get().entrySet()) {
+                        replaceLine(entry.getKey(), entry.getValue().iterator());
+                    }
+                } catch (final InterruptedException | ExecutionException e) {
+                    NodeLogger.getLogger(DLJFreeChartLinePlotWithHistoryView.class).warn(
+                        "Failed to load the full-resolution learner monitor data. Only a summary is displayed.", e);
+                } finally {
+                    // either loaded or not loadable, do not try again
+                    m_fullResolutionSources.clear();
+                    m_isLoadingFullResolution = false;
+                }
+            }
+        }.execute();
+    }
+
+    private void replaceLine(final String lineLabel, final Iterator<DLLinePlotViewDataEntry> iterator) {
+        m_linePlot.clearLine(lineLabel);
+        m_historyModels.get(lineLabel).clear();
+        update(lineLabel, iterator);
+    }
+
     /**
      * Get the isRunning flag.
      *
@@ -444,6 +573,55 @@ public void setIsRunning(final boolean isRunning) {
         m_isRunning = isRunning;
     }
 
+    /**
+     * List model of the history of a line. Backed by the raw data of the line, so only the rows that are actually
+     * displayed are ever converted to text. New rows are published in batches via {@link #publishNewRows()}.
+     */
+    private static final class HistoryListModel extends AbstractListModel<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient DLLinePlotLevelOfDetailData m_data;
+
+        private int m_size = 0;
+
+        private HistoryListModel(final DLLinePlotLevelOfDetailData data) {
+            m_data = data;
+        }
+
+        @Override
+        public int getSize() {
+            return m_size;
+        }
+
+        @Override
+        public String getElementAt(final int index) {
+            return Float.toString(m_data.getY(index));
+        }
+
+        private void clear() {
+            if (m_size > 0) {
+                final int oldSize = m_size;
+                m_size = 0;
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+        }
+
+        /**
+         * @return <code>true</code> if new rows were published
+         */
+        private boolean publishNewRows() {
+            final int newSize = m_data.size();
+            if (newSize > m_size) {
+                final int oldSize = m_size;
+                m_size = newSize;
+                fireIntervalAdded(this, oldSize, newSize - 1);
+                return true;
+            }
+            return false;
+        }
+    }
+
     /**
      * A JTextField that turns red if no double number is entered.
      */
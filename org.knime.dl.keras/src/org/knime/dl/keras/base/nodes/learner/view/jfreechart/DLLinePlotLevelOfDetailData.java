@@ -0,0 +1,202 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner.view.jfreechart;
+
+import org.jfree.data.xy.XYSeries;
+
+import gnu.trove.TDoubleArrayList;
+import gnu.trove.TFloatArrayList;
+import gnu.trove.TIntArrayList;
+
+/**
+ * Level-of-detail store of a single line. Keeps all raw data points but only hands out a min/max-downsampled version
+ * of them that is sized to the available pixel width. Downsampling keeps the first and last point as well as the
+ * minimum and maximum of each bucket, so spikes remain visible at any zoom level.
+ * <P>
+ * Points can be added from any thread, downsampling is expected to happen on the EDT.
+ *
+ * @author David Kolb, KNIME GmbH, Konstanz, Germany
+ */
+final class DLLinePlotLevelOfDetailData {
+
+    private final TIntArrayList m_x = new TIntArrayList();
+
+    private final TFloatArrayList m_y = new TFloatArrayList();
+
+    /**
+     * Exponentially smoothed y-values, computed lazily up to the current number of raw values.
+     */
+    private final TDoubleArrayList m_smoothedY = new TDoubleArrayList();
+
+    private double m_smoothingAlpha = Double.NaN;
+
+    synchronized void add(final int x, final float y) {
+        m_x.add(x);
+        m_y.add(y);
+    }
+
+    synchronized void clear() {
+        m_x.clear();
+        m_y.clear();
+        m_smoothedY.clear();
+    }
+
+    synchronized int size() {
+        return m_x.size();
+    }
+
+    synchronized float getY(final int index) {
+        return m_y.get(index);
+    }
+
+    /**
+     * Replaces the content of the given series by the downsampled raw data within the given x-range.
+     *
+     * @param target the series to fill, change events are fired only once
+     * @param lowerX the lower bound of the x-range, {@link Double#NEGATIVE_INFINITY} for all data
+     * @param upperX the upper bound of the x-range, {@link Double#POSITIVE_INFINITY} for all data
+     * @param numBuckets the number of buckets, typically the pixel width of the plot
+     */
+    synchronized void downsampleTo(final XYSeries target, final double lowerX, final double upperX,
+        final int numBuckets) {
+        downsampleTo(target, lowerX, upperX, numBuckets, null);
+    }
+
+    /**
+     * Like {@link #downsampleTo(XYSeries, double, double, int)} but for the exponentially smoothed data.
+     *
+     * @param smoothingAlpha the smoothing factor in range [0,1]
+     */
+    synchronized void downsampleSmoothedTo(final XYSeries target, final double lowerX, final double upperX,
+        final int numBuckets, final double smoothingAlpha) {
+        if (smoothingAlpha < 0.0 || smoothingAlpha > 1.0) {
+            throw new IllegalArgumentException("Alpha must be in range [0,1]");
+        }
+        if (smoothingAlpha != m_smoothingAlpha) {
+            m_smoothingAlpha = smoothingAlpha;
+            m_smoothedY.clear();
+        }
+        for (int i = m_smoothedY.size(); i < m_y.size(); i++) {
+            m_smoothedY.add(
+                i == 0 ? m_y.get(0) : smoothingAlpha * m_y.get(i) + (1 - smoothingAlpha) * m_smoothedY.get(i - 1));
+        }
+        downsampleTo(target, lowerX, upperX, numBuckets, m_smoothedY);
+    }
+
+    private void downsampleTo(final XYSeries target, final double lowerX, final double upperX, final int numBuckets,
+        final TDoubleArrayList smoothedY) {
+        target.setNotify(false);
+        target.clear();
+        final int size = m_x.size();
+        if (size > 0) {
+            // Include one point outside of the range on each side so the line runs to the plot border.
+            final int from = Math.max(0, lowerBound(lowerX) - 1);
+            final int to = Math.min(size, lowerBound(upperX) + 1);
+            final int count = to - from;
+            if (count <= 2 * Math.max(1, numBuckets)) {
+                for (int i = from; i < to; i++) {
+                    target.add(m_x.get(i), y(i, smoothedY), false);
+                }
+            } else {
+                final double bucketSize = count / (double)numBuckets;
+                for (int b = 0; b < numBuckets; b++) {
+                    final int bucketFrom = from + (int)(b * bucketSize);
+                    final int bucketTo = Math.min(to, from + (int)((b + 1) * bucketSize));
+                    if (bucketFrom >= bucketTo) {
+                        continue;
+                    }
+                    int minIdx = bucketFrom;
+                    int maxIdx = bucketFrom;
+                    for (int i = bucketFrom + 1; i < bucketTo; i++) {
+                        final double y = y(i, smoothedY);
+                        if (y < y(minIdx, smoothedY)) {
+                            minIdx = i;
+                        }
+                        if (y > y(maxIdx, smoothedY)) {
+                            maxIdx = i;
+                        }
+                    }
+                    // Keep the chronological order of the extrema.
+                    final int first = Math.min(minIdx, maxIdx);
+                    final int second = Math.max(minIdx, maxIdx);
+                    target.add(m_x.get(first), y(first, smoothedY), false);
+                    if (second != first) {
+                        target.add(m_x.get(second), y(second, smoothedY), false);
+                    }
+                }
+                // The last raw point must always be visible.
+                final int numItems = target.getItemCount();
+                if (numItems == 0 || target.getX(numItems - 1).intValue() != m_x.get(to - 1)) {
+                    target.add(m_x.get(to - 1), y(to - 1, smoothedY), false);
+                }
+            }
+        }
+        target.setNotify(true);
+    }
+
+    private double y(final int index, final TDoubleArrayList smoothedY) {
+        return smoothedY != null ? smoothedY.get(index) : m_y.get(index);
+    }
+
+    /**
+     * @return the index of the first point whose x-value is greater than or equal to the given value (x-values are
+     *         ascending)
+     */
+    private int lowerBound(final double x) {
+        int low = 0;
+        int high = m_x.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (m_x.get(mid) < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
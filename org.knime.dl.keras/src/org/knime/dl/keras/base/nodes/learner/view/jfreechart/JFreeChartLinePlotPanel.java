@@ -56,7 +56,6 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -76,7 +75,6 @@
 import org.jfree.chart.renderer.xy.XYItemRenderer;
 import org.jfree.chart.util.LogFormat;
 import org.jfree.data.Range;
-import org.jfree.data.xy.XYDataItem;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 
@@ -119,7 +117,23 @@ public class JFreeChartLinePlotPanel extends JPanel {
 
     private final Map<String, AtomicBoolean> m_smoothedLineOutdated = new HashMap<>();
 
-    private Map<String, ExponentialSmoothingIterator> m_smoothingIters;
+    /**
+     * Raw data of each (non-smoothed) line. The series of the dataset only contain a downsampled version of it.
+     */
+    private final Map<String, DLLinePlotLevelOfDetailData> m_lineData = new HashMap<>();
+
+    /**
+     * Set if raw data was added since the last {@link #render()}.
+     */
+    private final AtomicBoolean m_dataChanged = new AtomicBoolean();
+
+    private final AtomicBoolean m_renderScheduled = new AtomicBoolean();
+
+    private double m_renderedLowerX = Double.NaN;
+
+    private double m_renderedUpperX = Double.NaN;
+
+    private int m_renderedWidth = -1;
 
     private XYPlot m_plot;
 
@@ -159,6 +173,7 @@ private XYSeriesCollection createDataset() {
             final String lineLabel = m_spec.getLineLabel(i);
             final XYSeries line = new XYSeries(lineLabel);
             lines.addSeries(line);
+            m_lineData.put(lineLabel, new DLLinePlotLevelOfDetailData());
             m_lineIndexToLineLabel.put(lineCounter, lineLabel);
             m_lineLabelToLineIndex.put(lineLabel, lineCounter);
             lineCounter++;
@@ -173,19 +188,6 @@ private XYSeriesCollection createDataset() {
         return lines;
     }
 
-    /**
-     * Creates new smoothing iterators with the specified smoothing factor.
-     *
-     * @param smoothingAlpha
-     */
-    private void initSmoothingIter(final String lineLabel, final double smoothingAlpha) {
-        if (m_smoothingIters == null) {
-            m_smoothingIters = new HashMap<>();
-        }
-        m_smoothingIters.put(lineLabel + SMOOTHED_LINE_KEY_SUFFIX,
-            new ExponentialSmoothingIterator(m_dataset.getSeries(lineLabel), smoothingAlpha));
-    }
-
     /**
      * Get the chart panel.
      *
@@ -196,10 +198,6 @@ public ChartPanel getChartPanel() {
             m_lineChart = ChartFactory.createXYLineChart(m_spec.title(), m_spec.labelX(), m_spec.labelY(),
                 m_dataset = createDataset(), PlotOrientation.VERTICAL, true, true, false);
 
-            for (int i = 0; i < m_spec.numPlots(); i++) {
-                initSmoothingIter(m_spec.getLineLabel(i), m_smoothingAlpha);
-            }
-
             // Remove the chart title
             m_lineChart.setTitle("");
 
@@ -249,6 +247,9 @@ public ChartPanel getChartPanel() {
                 updateLineStyle(m_spec.getLineLabel(i), false);
             }
 
+            // Zooming or panning changes the level of detail that has to be rendered.
+            m_plot.getDomainAxis().addChangeListener(e -> scheduleRender());
+
             m_defaultAxis = m_plot.getRangeAxis();
             m_logAxis = new LogAxis("Log( " + m_spec.labelY() + " )");
             m_logAxis.setTickLabelFont(m_defaultAxis.getTickLabelFont());
@@ -275,20 +276,28 @@ public void enableLogAxis() {
     }
 
     /**
-     * Plots the specified value to the line with the specified label.
+     * Adds the specified value to the raw data of the line with the specified label. May be called from any thread.
+     * The plot is not updated before the next call of {@link #render()}, which allows to coalesce many updates.
      *
      * @param lineLabel the label of the line to plot to
      * @param valueX the x-value to plot
      * @param valueY the y-value to plot
      */
     public void plotNext(final String lineLabel, final int valueX, final float valueY) {
-        // All updates of the lines need to happen in the EDT
-        SwingUtilities.invokeLater(() -> {
-            final XYSeries line = m_dataset.getSeries(lineLabel);
-            // TODO: we need to differentiate between line plots and scatter plots somewhere
-            line.add(valueX, valueY);
-            plotSmoothed(lineLabel);
-        });
+        // TODO: we need to differentiate between line plots and scatter plots somewhere
+        m_lineData.get(lineLabel).add(valueX, valueY);
+        m_dataChanged.set(true);
+    }
+
+    /**
+     * Removes all raw data of the line with the specified label. Like {@link #plotNext(String, int, float)}, the plot
+     * is not updated before the next call of {@link #render()}.
+     *
+     * @param lineLabel the label of the line to clear
+     */
+    public void clearLine(final String lineLabel) {
+        m_lineData.get(lineLabel).clear();
+        m_dataChanged.set(true);
     }
 
     /**
@@ -296,12 +305,45 @@ public void plotNext(final String lineLabel, final int valueX, final float value
      * alpha changed.
      */
     public void triggerSmoothedLinesUpdate() {
-        // All updates of the lines need to happen in the EDT
-        SwingUtilities.invokeLater(() -> {
-            for (int i = 0; i < m_spec.numPlots(); i++) {
-                plotSmoothed(m_spec.getLineLabel(i));
-            }
-        });
+        m_dataChanged.set(true);
+        scheduleRender();
+    }
+
+    /**
+     * Renders the lines of this plot if new data was added or if the visible range or the plot size changed since the
+     * last call. Each line is downsampled to the pixel width of the plot, which keeps rendering costs independent of
+     * the number of data points. Must be called in the EDT.
+     */
+    public void render() {
+        final NumberAxis domainAxis = getHorizontalAxis();
+        final double lowerX = domainAxis.isAutoRange() ? Double.NEGATIVE_INFINITY : domainAxis.getLowerBound();
+        final double upperX = domainAxis.isAutoRange() ? Double.POSITIVE_INFINITY : domainAxis.getUpperBound();
+        final int width = Math.max(1, m_chartPanel.getWidth());
+        boolean smoothingOutdated = false;
+        for (final AtomicBoolean outdated : m_smoothedLineOutdated.values()) {
+            smoothingOutdated |= outdated.get();
+        }
+        if (!m_dataChanged.getAndSet(false) && !smoothingOutdated && lowerX == m_renderedLowerX
+            && upperX == m_renderedUpperX && width == m_renderedWidth) {
+            return;
+        }
+        m_renderedLowerX = lowerX;
+        m_renderedUpperX = upperX;
+        m_renderedWidth = width;
+        for (int i = 0; i < m_spec.numPlots(); i++) {
+            final String lineLabel = m_spec.getLineLabel(i);
+            m_lineData.get(lineLabel).downsampleTo(m_dataset.getSeries(lineLabel), lowerX, upperX, width);
+            plotSmoothed(lineLabel, lowerX, upperX, width);
+        }
+    }
+
+    private void scheduleRender() {
+        if (m_renderScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                m_renderScheduled.set(false);
+                render();
+            });
+        }
     }
 
     /**
@@ -371,7 +413,7 @@ private Color getColorWithTransparecy(final int lineIndex, final float transpare
         return new Color(cComp[0], cComp[1], cComp[2], transparency);
     }
 
-    private void plotSmoothed(final String lineLabel) {
+    private void plotSmoothed(final String lineLabel, final double lowerX, final double upperX, final int width) {
         final AtomicBoolean lineOutdated = m_smoothedLineOutdated.get(lineLabel + SMOOTHED_LINE_KEY_SUFFIX);
         if (!m_smoothedLinesEnabled) {
             if (lineOutdated.get()) {
@@ -383,20 +425,12 @@ private void plotSmoothed(final String lineLabel) {
         }
 
         if (lineOutdated.get()) {
-            initSmoothingIter(lineLabel, m_smoothingAlpha);
-            clearSmoothedLine(lineLabel);
             updateLineStyle(lineLabel, true);
             lineOutdated.set(false);
         }
 
-        final XYSeries line = m_dataset.getSeries(lineLabel + SMOOTHED_LINE_KEY_SUFFIX);
-        final ExponentialSmoothingIterator iter = m_smoothingIters.get(lineLabel + SMOOTHED_LINE_KEY_SUFFIX);
-        while (iter.hasNext()) {
-            if (lineOutdated.get()) {
-                return;
-            }
-            line.add(iter.next());
-        }
+        m_lineData.get(lineLabel).downsampleSmoothedTo(m_dataset.getSeries(lineLabel + SMOOTHED_LINE_KEY_SUFFIX),
+            lowerX, upperX, width, m_smoothingAlpha);
     }
 
     private void clearSmoothedLine(final String lineLabel) {
@@ -468,61 +502,25 @@ public void restoreHorizontalDomainBounds() {
     }
 
     /**
-     * @return the maximum item count of all plots in this chart
+     * @return the maximum number of raw data points of all plots in this chart
      */
-    @SuppressWarnings("unchecked")
     public int getMaxItemCount() {
-        return m_dataset.getSeries().stream().mapToInt(series -> ((XYSeries)series).getItemCount()).max().getAsInt();
+        return m_lineData.values().stream().mapToInt(DLLinePlotLevelOfDetailData::size).max().orElse(0);
     }
 
     /**
-     * Return the next color in {@link JFreeChartLinePlotPanel#LINE_COLORS}. If the end is reached we will start from
-     * the beginning.
+     * @param lineLabel the label of the line
+     * @return the raw data of the line with the given label
      */
-    private Color getNextColor() {
-        return LINE_COLORS.get(m_colorIdx++ % LINE_COLORS.size());
+    DLLinePlotLevelOfDetailData getLineData(final String lineLabel) {
+        return m_lineData.get(lineLabel);
     }
 
     /**
-     * Iterator backed by a XYSeries which calculates a smoothed version of the series on the fly. See:
-     * https://en.wikipedia.org/wiki/Exponential_smoothing
+     * Return the next color in {@link JFreeChartLinePlotPanel#LINE_COLORS}. If the end is reached we will start from
+     * the beginning.
      */
-    private class ExponentialSmoothingIterator implements Iterator<XYDataItem> {
-
-        private final XYSeries m_data;
-
-        private int m_idx = 0;
-
-        private final double m_alpha;
-
-        private double m_current;
-
-        private double m_previous;
-
-        public ExponentialSmoothingIterator(final XYSeries data, final double alpha) {
-            m_data = data;
-            m_alpha = alpha;
-            if (m_alpha > 1.0 || m_alpha < 0.0) {
-                throw new IllegalArgumentException("Alpha must be in range [0,1]");
-            }
-        }
-
-        @Override
-        public boolean hasNext() {
-            return m_idx < m_data.getItemCount();
-        }
-
-        @Override
-        public XYDataItem next() {
-            m_previous = m_current;
-            if (m_idx == 0) {
-                m_current = (double)m_data.getY(m_idx);
-            } else {
-                m_current = (m_alpha * (double)m_data.getY(m_idx)) + ((1 - m_alpha) * m_previous);
-            }
-            final XYDataItem item = new XYDataItem(m_data.getX(m_idx), m_current);
-            m_idx++;
-            return item;
-        }
+    private Color getNextColor() {
+        return LINE_COLORS.get(m_colorIdx++ % LINE_COLORS.size());
     }
 }
@@ -76,6 +76,7 @@
 import org.knime.dl.base.portobjects.DLNetworkPortObject;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLException;
+import org.knime.dl.core.DLExecutionMonitorCancelable;
 import org.knime.dl.core.DLInstallationTestTimeoutException;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLMissingDependencyException;
@@ -130,6 +131,12 @@ static List<String> getValidInputFileExtensions() {
 
 	private DLKerasNetwork m_network;
 
+    /**
+     * Whether {@link #m_network} was read on Java side. Its specs are only meant for configuration, the network is read
+     * via Python during execution before it is passed on.
+     */
+    private boolean m_readWithoutPython;
+
 	protected DLKerasReaderNodeModel() {
 		super(null, new PortType[] { DLKerasNetworkPortObjectBase.TYPE });
 	}
@@ -169,9 +176,16 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 			throw new InvalidSettingsException(e.getMessage(), e);
 		}
         try {
-            // TODO: We could allow the user to configure "loadTrainingConfig" flag.
-            m_network = new DLPythonDefaultNetworkReader<>(loader).read(new DLNetworkReferenceLocation(uri), true,
-                DLNotCancelable.INSTANCE);
+            final DLNetworkReferenceLocation location = new DLNetworkReferenceLocation(uri);
+            // Avoid starting Python during configuration if the network spec can be determined on Java side.
+            final DLKerasNetwork network = loader.readWithoutPython(location).orElse(null);
+            m_readWithoutPython = network != null;
+            if (network != null) {
+                m_network = network;
+            } else {
+                // TODO: We could allow the user to configure "loadTrainingConfig" flag.
+                m_network = new DLPythonDefaultNetworkReader<>(loader).read(location, true, DLNotCancelable.INSTANCE);
+            }
         } catch (final Exception e) {
             String message;
             if (e instanceof DLException) {
@@ -213,6 +227,13 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
 		} catch (final DLInvalidSourceException e) {
 			throw new RuntimeException(e.getMessage(), e);
 		}
+        if (m_readWithoutPython) {
+            // The specs read on Java side lack the names of the network's tensors, so read them via Python now.
+            m_network = new DLPythonDefaultNetworkReader<>(getBackend(m_smBackend.getStringArrayValue()[1])).read(
+                new DLNetworkReferenceLocation(m_network.getSource().getURI()), true,
+                new DLExecutionMonitorCancelable(exec));
+            m_readWithoutPython = false;
+        }
         if (m_smCopyNetwork.getBooleanValue()) {
             final FileStore fileStore =
                 DLNetworkPortObject.createFileStoreForCopy(m_network.getSource().getURI(), exec);
@@ -55,6 +55,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 
@@ -110,14 +111,17 @@ private static List<FileStore> getNetworkFileStore(final DLKerasNetwork network)
 
     /**
      * Creates a new Keras deep learning network port object. The given network is stored in (i.e. copied to if not
-     * already there) the given file store.
+     * already there) the given file store. If the network is already stored in another file store, that file store is
+     * shared instead of copying the network, as network file stores are never modified once they were written.
      *
      * @param network the Keras deep learning network to store
-     * @param fileStore the file store in which to store the network
+     * @param fileStore the file store in which to store the network if it is not already stored in a file store
      * @throws IOException if failed to store the network
      */
     public DLKerasNetworkPortObject(final DLKerasNetwork network, final FileStore fileStore) throws IOException {
-        this(network, Collections.singletonList(fileStore));
+        this(network, network.getSource() instanceof DLNetworkFileStoreLocation //
+            ? getNetworkFileStore(network) //
+            : Collections.singletonList(fileStore));
     }
 
     /**
@@ -201,9 +205,15 @@ private DLKerasNetwork upgradeNetwork(final DLKerasNetworkSpec oldNetworkSpec,
             .getNetworkLoader((Class<DLKerasNetwork>)m_spec.getNetworkType())
             .orElseThrow(() -> new IllegalStateException("Keras back end '" + m_spec.getNetworkType().getCanonicalName()
                 + "' cannot be found. Are you missing a KNIME Deep Learning extension?"));
+        // Specs read without Python lack the names of the network's tensors. The upgraded network is passed on to
+        // downstream nodes, so it must be read via Python.
         try {
-            return new DLPythonDefaultNetworkReader<>(loader).read(oldNetworkSpec.create(networkSource, false), true,
-                DLNotCancelable.INSTANCE);
+            final DLKerasNetwork network = new DLPythonDefaultNetworkReader<>(loader)
+                .read(oldNetworkSpec.create(networkSource, false), true, DLNotCancelable.INSTANCE);
+            // Frozen layers are only part of the spec, they cannot be extracted from the network.
+            final Optional<String[]> frozenLayers = oldNetworkSpec.getFrozenLayers();
+            return frozenLayers.isPresent()
+                ? network.getSpec().withFrozenLayers(frozenLayers.get()).create(networkSource, false) : network;
         } catch (DLInvalidSourceException | DLInvalidEnvironmentException | DLCanceledExecutionException e) {
             NodeLogger.getLogger(DLKerasNetworkPortObject.class)
                 .warn("An error occurred while upgrading Keras network specs (required for networks created with older "
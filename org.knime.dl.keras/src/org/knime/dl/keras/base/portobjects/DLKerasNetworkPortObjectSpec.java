@@ -57,6 +57,7 @@
 import org.knime.dl.base.portobjects.DLAbstractNetworkPortObjectSpec;
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.DLKerasNetworkSpecSerializer;
 
 /**
  * The spec of {@link DLKerasNetworkPortObjectBase}.
@@ -67,7 +68,15 @@
 public final class DLKerasNetworkPortObjectSpec extends DLAbstractNetworkPortObjectSpec<DLKerasNetworkSpec>
     implements DLKerasNetworkPortObjectSpecBase {
 
-    private static final String ZIP_ENTRY_NAME = "DLKerasNetworkPortObjectSpec";
+    /**
+     * Entry name of the compact format written by {@link DLKerasNetworkSpecSerializer}.
+     */
+    private static final String ZIP_ENTRY_NAME = "DLKerasNetworkPortObjectSpec_v2";
+
+    /**
+     * Entry name of the legacy format that Java-serialized the network spec. Only supported for reading.
+     */
+    private static final String LEGACY_ZIP_ENTRY_NAME = "DLKerasNetworkPortObjectSpec";
 
     /**
      * Creates a new Keras deep learning network port object spec.
@@ -105,21 +114,25 @@ public void savePortObjectSpec(final DLKerasNetworkPortObjectSpec portObjectSpec
             final PortObjectSpecZipOutputStream out) throws IOException {
             out.putNextEntry(new ZipEntry(ZIP_ENTRY_NAME));
             final ObjectOutputStream objOut = new ObjectOutputStream(out);
-            objOut.writeObject(portObjectSpec.m_spec);
+            DLKerasNetworkSpecSerializer.writeSpec(portObjectSpec.m_spec, objOut);
             objOut.writeObject(portObjectSpec.m_type);
+            objOut.flush();
         }
 
         @Override
         public DLKerasNetworkPortObjectSpec loadPortObjectSpec(final PortObjectSpecZipInputStream in)
             throws IOException {
             final ZipEntry entry = in.getNextEntry();
-            if (!ZIP_ENTRY_NAME.equals(entry.getName())) {
+            final boolean isLegacy = LEGACY_ZIP_ENTRY_NAME.equals(entry.getName());
+            if (!isLegacy && !ZIP_ENTRY_NAME.equals(entry.getName())) {
                 throw new IOException("Failed to load Keras deep learning network. Invalid zip entry name '"
                     + entry.getName() + "', expected '" + ZIP_ENTRY_NAME + "'.");
             }
             final ObjectInputStream objIn = new ObjectInputStream(in);
             try {
-                final DLKerasNetworkSpec spec = (DLKerasNetworkSpec)objIn.readObject();
+                final DLKerasNetworkSpec spec = isLegacy //
+                    ? (DLKerasNetworkSpec)objIn.readObject() //
+                    : DLKerasNetworkSpecSerializer.readSpec(objIn);
                 @SuppressWarnings("unchecked") // we know what we serialized
                 final Class<? extends DLKerasNetwork> type = (Class<? extends DLKerasNetwork>)objIn.readObject();
                 return new DLKerasNetworkPortObjectSpec(spec, type);
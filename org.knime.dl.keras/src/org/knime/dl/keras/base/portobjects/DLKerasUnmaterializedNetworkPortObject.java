@@ -50,22 +50,30 @@
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.zip.ZipEntry;
 
+import org.apache.commons.io.FilenameUtils;
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.data.filestore.FileStorePortObject;
 import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.NodeLogger;
+import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortObjectZipInputStream;
 import org.knime.core.node.port.PortObjectZipOutputStream;
+import org.knime.dl.base.portobjects.DLNetworkFileStoreDeduplicator;
+import org.knime.dl.base.portobjects.DLNetworkPortObject;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLNetworkFileStoreLocation;
 import org.knime.dl.keras.core.DLKerasNetwork;
+import org.knime.dl.keras.core.DLKerasNetworkLoader;
 import org.knime.dl.keras.core.layers.DLInvalidTensorSpecException;
 import org.knime.dl.keras.core.layers.DLKerasLayer;
+import org.knime.dl.keras.core.layers.DLKerasLayerRecordStore;
 import org.knime.dl.keras.core.layers.DLKerasNetworkGraphSerializer;
 
 /**
@@ -77,23 +85,85 @@ public final class DLKerasUnmaterializedNetworkPortObject extends FileStorePortO
 
     private static final String ZIP_ENTRY_NAME = "DLKerasUnmaterializedNetworkPortObject";
 
-    private static List<FileStore> prependOutputFileStore(final FileStore outputFileStore,
-        final List<FileStore> baseNetworkFileStores) {
+    /**
+     * Creates the output port object of a layer node. The records of the layers that the node added to the graph are
+     * written to a new layer record store, the records of all other layers are referenced from the record stores of
+     * the node's input port objects.
+     *
+     * @param outputLayers the output layers of the graph
+     * @param inObjects the input port objects of the layer node, unconnected optional inputs may be <code>null</code>
+     * @param exec the execution context that is used to create the file stores of the port object
+     * @return the port object
+     * @throws IOException if failed to create the file stores or to write the layer record store
+     */
+    public static DLKerasUnmaterializedNetworkPortObject create(final List<DLKerasLayer> outputLayers,
+        final PortObject[] inObjects, final ExecutionContext exec) throws IOException {
+        final FileStore fileStore =
+            DLNetworkPortObject.createFileStoreForSaving(DLKerasNetworkLoader.SAVE_MODEL_URL_EXTENSION, exec);
+        final FileStore recordFileStore =
+            DLNetworkPortObject.createFileStoreForSaving(DLKerasLayerRecordStore.FILE_EXTENSION, exec);
+        final List<FileStore> predecessorRecordFileStores = new ArrayList<>();
+        for (final PortObject inObject : inObjects) {
+            if (inObject instanceof DLKerasUnmaterializedNetworkPortObject) {
+                for (final FileStore predecessorRecordFileStore : ((DLKerasUnmaterializedNetworkPortObject)inObject)
+                    .getRecordFileStores()) {
+                    if (!predecessorRecordFileStores.contains(predecessorRecordFileStore)) {
+                        predecessorRecordFileStores.add(predecessorRecordFileStore);
+                    }
+                }
+            }
+        }
+        final List<DLKerasLayerRecordStore> recordStores = new ArrayList<>(predecessorRecordFileStores.size() + 1);
+        for (final FileStore predecessorRecordFileStore : predecessorRecordFileStores) {
+            recordStores.add(DLKerasLayerRecordStore.open(predecessorRecordFileStore.getFile()));
+        }
+        recordStores.add(0, DLKerasLayerRecordStore.write(recordFileStore.getFile(), outputLayers, recordStores));
+        final List<FileStore> recordFileStores = new ArrayList<>(recordStores.size());
+        recordFileStores.add(recordFileStore);
+        recordFileStores.addAll(predecessorRecordFileStores);
+        return new DLKerasUnmaterializedNetworkPortObject(outputLayers, fileStore, recordFileStores, recordStores);
+    }
+
+    private static List<FileStore> createFileStoreList(final FileStore outputFileStore,
+        final List<FileStore> recordFileStores, final List<FileStore> baseNetworkFileStores) {
+        final List<FileStore> fileStores = new ArrayList<>(1 + recordFileStores.size() + baseNetworkFileStores.size());
         // Own file store must be first in the list. Instance code relies on that.
-        baseNetworkFileStores.add(0, outputFileStore);
-        return baseNetworkFileStores;
+        fileStores.add(outputFileStore);
+        fileStores.addAll(recordFileStores);
+        fileStores.addAll(baseNetworkFileStores);
+        return fileStores;
+    }
+
+    private static boolean isRecordFileStore(final FileStore fileStore) {
+        return fileStore.getFile().getName().endsWith(FilenameUtils.EXTENSION_SEPARATOR
+            + DLKerasLayerRecordStore.FILE_EXTENSION);
     }
 
     private DLKerasPortObjectContent m_content;
 
+    /**
+     * Creates a port object whose layer graph is saved self-contained, i.e. without layer record stores.
+     *
+     * @param outputLayers the output layers of the graph
+     * @param fileStore the file store of the network once it is materialized
+     */
     public DLKerasUnmaterializedNetworkPortObject(final List<DLKerasLayer> outputLayers, final FileStore fileStore) {
-        super(prependOutputFileStore(fileStore, DLKerasNetworkGraphSerializer.getNetworkFileStores(outputLayers)));
+        this(outputLayers, fileStore, Collections.emptyList(), Collections.emptyList());
+    }
+
+    private DLKerasUnmaterializedNetworkPortObject(final List<DLKerasLayer> outputLayers, final FileStore fileStore,
+        final List<FileStore> recordFileStores, final List<DLKerasLayerRecordStore> recordStores) {
+        super(createFileStoreList(fileStore, recordFileStores,
+            DLKerasNetworkGraphSerializer.getNetworkFileStores(outputLayers)));
+        final DLKerasUnmaterializedPortObjectContent content;
         try {
-            m_content = new DLKerasUnmaterializedPortObjectContent(outputLayers);
+            content = new DLKerasUnmaterializedPortObjectContent(outputLayers);
         } catch (final DLInvalidTensorSpecException e) {
             // This should not occur because the layer input specs were already validated in the preceding layer node.
             throw new IllegalStateException(e);
         }
+        content.getSpec().setRecordStores(recordStores);
+        m_content = content;
     }
 
     /**
@@ -108,6 +178,7 @@ public DLKerasNetwork getNetwork() throws DLInvalidSourceException, IOException
         if (m_content instanceof DLKerasUnmaterializedPortObjectContent) {
             final DLNetworkFileStoreLocation saveLocation = new DLNetworkFileStoreLocation(getFileStore(0));
             m_content = ((DLKerasUnmaterializedPortObjectContent)m_content).materialize(saveLocation);
+            DLNetworkFileStoreDeduplicator.deduplicate(getFileStore(0));
         }
         final DLKerasMaterializedPortObjectContent materialized = (DLKerasMaterializedPortObjectContent)m_content;
         if (materialized.getNetworkSource() == null) {
@@ -152,12 +223,30 @@ protected void postConstruct() throws IOException {
         if (m_content instanceof DLKerasUnmaterializedPortObjectContent) {
             final DLKerasUnmaterializedPortObjectContent unmaterialized =
                 (DLKerasUnmaterializedPortObjectContent)m_content;
-            final List<DLNetworkFileStoreLocation> baseNetworkSources = new ArrayList<>(getFileStoreCount() - 1);
+            final List<DLKerasLayerRecordStore> recordStores = new ArrayList<>();
+            final List<FileStore> baseNetworkFileStores = new ArrayList<>(getFileStoreCount() - 1);
             for (int i = 1; i < getFileStoreCount(); i++) {
-                baseNetworkSources.add(new DLNetworkFileStoreLocation(getFileStore(i)));
+                if (isRecordFileStore(getFileStore(i))) {
+                    recordStores.add(DLKerasLayerRecordStore.open(getFileStore(i).getFile()));
+                } else {
+                    baseNetworkFileStores.add(getFileStore(i));
+                }
+            }
+            unmaterialized.getSpec().resolve(recordStores, baseNetworkFileStores);
+        }
+    }
+
+    /**
+     * @return the file stores of the layer record stores of this port object, its own store first
+     */
+    private List<FileStore> getRecordFileStores() {
+        final List<FileStore> recordFileStores = new ArrayList<>();
+        for (int i = 1; i < getFileStoreCount(); i++) {
+            if (isRecordFileStore(getFileStore(i))) {
+                recordFileStores.add(getFileStore(i));
             }
-            unmaterialized.getSpec().amendBaseNetworkSources(baseNetworkSources);
         }
+        return recordFileStores;
     }
 
     /**
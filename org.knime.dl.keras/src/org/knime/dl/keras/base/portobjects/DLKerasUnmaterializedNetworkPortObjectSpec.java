@@ -46,28 +46,30 @@
  */
 package org.knime.dl.keras.base.portobjects;
 
-import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.zip.ZipEntry;
 
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.port.PortObjectSpecZipInputStream;
 import org.knime.core.node.port.PortObjectSpecZipOutputStream;
 import org.knime.dl.base.portobjects.DLAbstractNetworkPortObjectSpec;
 import org.knime.dl.base.portobjects.DLNetworkPortObjectSpec;
-import org.knime.dl.core.DLNetworkLocation;
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.DLKerasNetworkSpecSerializer;
 import org.knime.dl.keras.core.layers.DLInvalidTensorSpecException;
-import org.knime.dl.keras.core.layers.DLKerasBaseNetworkTensorSpecOutput;
 import org.knime.dl.keras.core.layers.DLKerasLayer;
+import org.knime.dl.keras.core.layers.DLKerasLayerRecordStore;
 import org.knime.dl.keras.core.layers.DLKerasNetworkGraphSerializer;
+import org.knime.dl.keras.core.layers.DLKerasNetworkGraphSerializer.SerializedGraph;
 import org.knime.dl.keras.core.layers.DLKerasNetworkSpecInferrer;
 import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetwork;
 import org.knime.dl.util.DLUtils;
@@ -81,9 +83,18 @@
 
     private static final String ZIP_ENTRY_NAME = "DLKerasUnmaterializedNetworkPortObjectSpec";
 
-    private final List<DLKerasLayer> m_outputLayers;
+    private List<DLKerasLayer> m_outputLayers;
 
-    private List<DLKerasBaseNetworkTensorSpecOutput> m_baseNetworks;
+    /**
+     * The serialized layer graph of a deserialized spec until its layers are resolved, <code>null</code> afterwards.
+     */
+    private SerializedGraph m_serializedGraph;
+
+    /**
+     * The layer record stores of the port object of this spec. Layers that are contained in these stores are only
+     * referenced when saving this spec.
+     */
+    private List<DLKerasLayerRecordStore> m_recordStores = Collections.emptyList();
 
     public DLKerasUnmaterializedNetworkPortObjectSpec(final List<DLKerasLayer> outputLayers)
         throws DLInvalidTensorSpecException {
@@ -93,13 +104,27 @@ public DLKerasUnmaterializedNetworkPortObjectSpec(final List<DLKerasLayer> outpu
         m_outputLayers = new ArrayList<>(outputLayers);
     }
 
+    /**
+     * Deserialization constructor for graphs that were written by older versions.
+     */
     private DLKerasUnmaterializedNetworkPortObjectSpec(final List<DLKerasLayer> outputLayers,
-        final List<DLKerasBaseNetworkTensorSpecOutput> baseNetworks) {
+        final SerializedGraph serializedGraph) {
         // TODO also support other Keras backends
         super(new DLKerasNetworkSpecInferrer(checkNotNull(outputLayers)).inferNetworkSpec(),
             DLKerasTensorFlowNetwork.class);
         m_outputLayers = outputLayers;
-        m_baseNetworks = baseNetworks;
+        m_serializedGraph = serializedGraph;
+    }
+
+    /**
+     * Deserialization constructor. The layers of the graph are resolved once the record stores of the port object are
+     * known, see {@link #resolve(List, List)}.
+     */
+    private DLKerasUnmaterializedNetworkPortObjectSpec(final DLKerasNetworkSpec networkSpec,
+        final SerializedGraph serializedGraph) {
+        // TODO also support other Keras backends
+        super(networkSpec, DLKerasTensorFlowNetwork.class);
+        m_serializedGraph = serializedGraph;
     }
 
     @Override
@@ -108,12 +133,25 @@ public Class<? extends DLKerasNetwork> getNetworkType() {
         return (Class<? extends DLKerasNetwork>)super.getNetworkType();
     }
 
-    public List<DLKerasLayer> getOutputLayers() {
+    public synchronized List<DLKerasLayer> getOutputLayers() {
+        if (m_outputLayers == null) {
+            try {
+                // Only succeeds if the graph is self-contained.
+                resolve(Collections.emptyList(), Collections.emptyList());
+            } catch (final IOException e) {
+                throw new IllegalStateException(
+                    "The layers of the Keras network port object spec are not available. See log for details.", e);
+            }
+        }
         return m_outputLayers;
     }
 
     @Override
     protected void hashCodeInternal(final HashCodeBuilder b) {
+        if (m_outputLayers == null) {
+            b.append(m_serializedGraph.getOutputHashes());
+            return;
+        }
         for (final DLKerasLayer layer : m_outputLayers) {
             b.append(layer);
         }
@@ -123,6 +161,10 @@ protected void hashCodeInternal(final HashCodeBuilder b) {
     protected boolean equalsInternal(final DLNetworkPortObjectSpec other) {
         final DLKerasUnmaterializedNetworkPortObjectSpec otherUnmaterialized =
             (DLKerasUnmaterializedNetworkPortObjectSpec)other;
+        if (m_outputLayers == null || otherUnmaterialized.m_outputLayers == null) {
+            return m_outputLayers == null && otherUnmaterialized.m_outputLayers == null
+                && otherUnmaterialized.m_serializedGraph.getOutputHashes().equals(m_serializedGraph.getOutputHashes());
+        }
         if (otherUnmaterialized.m_outputLayers.size() != m_outputLayers.size()) {
             return false;
         }
@@ -134,11 +176,24 @@ protected boolean equalsInternal(final DLNetworkPortObjectSpec other) {
         return true;
     }
 
-    void amendBaseNetworkSources(final List<? extends DLNetworkLocation> baseNetworkSources) {
-        checkArgument(baseNetworkSources.size() == m_baseNetworks.size());
-        for (int i = 0; i < m_baseNetworks.size(); i++) {
-            m_baseNetworks.get(i).setBaseNetworkSource(baseNetworkSources.get(i));
+    synchronized void setRecordStores(final List<DLKerasLayerRecordStore> recordStores) {
+        m_recordStores = recordStores;
+    }
+
+    /**
+     * Sets the layer record stores of the port object of this spec and resolves the layers of a deserialized graph
+     * against them.
+     *
+     * @param recordStores the layer record stores of the port object
+     * @param baseNetworkFileStores the file stores of the base networks of the port object
+     */
+    synchronized void resolve(final List<DLKerasLayerRecordStore> recordStores,
+        final List<FileStore> baseNetworkFileStores) throws IOException {
+        if (m_serializedGraph != null) {
+            m_outputLayers = m_serializedGraph.resolve(recordStores, baseNetworkFileStores);
+            m_serializedGraph = null;
         }
+        m_recordStores = recordStores;
     }
 
     /**
@@ -151,7 +206,10 @@ public void savePortObjectSpec(final DLKerasUnmaterializedNetworkPortObjectSpec
             out.putNextEntry(new ZipEntry(ZIP_ENTRY_NAME));
             final ObjectOutputStream objOut = new ObjectOutputStream(out);
             try {
-                DLKerasNetworkGraphSerializer.writeGraphTo(portObjectSpec.m_outputLayers, objOut);
+                DLKerasNetworkGraphSerializer.writeGraphTo(portObjectSpec.getOutputLayers(), objOut,
+                    portObjectSpec.m_recordStores);
+                DLKerasNetworkSpecSerializer.writeSpec(portObjectSpec.getNetworkSpec(), objOut);
+                objOut.flush();
             } catch (final Exception e) {
                 throw new IOException(
                     "Failed to save Keras deep learning network port object spec. See log for details.", e);
@@ -168,10 +226,13 @@ public DLKerasUnmaterializedNetworkPortObjectSpec loadPortObjectSpec(final PortO
             }
             final ObjectInputStream objIn = new ObjectInputStream(in);
             try {
-                final List<DLKerasBaseNetworkTensorSpecOutput> baseNetworks = new ArrayList<>();
-                final List<DLKerasLayer> outputLayers =
-                    DLKerasNetworkGraphSerializer.readGraphFrom(objIn, baseNetworks::add);
-                return new DLKerasUnmaterializedNetworkPortObjectSpec(outputLayers, baseNetworks);
+                final SerializedGraph graph = DLKerasNetworkGraphSerializer.readSerializedGraphFrom(objIn);
+                if (graph.isLegacy()) {
+                    return new DLKerasUnmaterializedNetworkPortObjectSpec(
+                        graph.resolve(Collections.emptyList(), Collections.emptyList()), graph);
+                }
+                return new DLKerasUnmaterializedNetworkPortObjectSpec(DLKerasNetworkSpecSerializer.readSpec(objIn),
+                    graph);
             } catch (final ClassNotFoundException e) {
                 throw new IOException("Failed to load Keras deep learning network port object spec."
                     + " Are you missing a KNIME Deep Learning extension?", e);
@@ -52,6 +52,7 @@
 import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLExecutionProfile;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.core.DLKerasAbstractCommands;
@@ -94,6 +95,19 @@ protected String getSetupEnvironmentCode() {
 				"os.environ['KERAS_BACKEND'] = 'cntk'\n";
 	}
 
+	@Override
+	protected String getSetupBackendCode() {
+		final DLExecutionProfile profile = getExecutionProfile();
+		// CNTK only has a single pool of CPU threads
+		final int threads = profile.getIntraOpThreads() != 0 ? profile.getIntraOpThreads() : profile.getOmpThreads();
+		if (threads == 0) {
+			return super.getSetupBackendCode();
+		}
+		return "import cntk\n" + //
+				"if hasattr(cntk.cntk_py, 'set_max_num_cpu_threads'):\n" + //
+				"    cntk.cntk_py.set_max_num_cpu_threads(" + threads + ")\n";
+	}
+
 	@Override
 	protected File getInstallationTestFile() throws IOException {
 		return DLUtils.Files.getFileFromSameBundle(this, "py/DLKerasCNTKNetworkTester.py");
@@ -57,6 +57,7 @@
 import org.knime.dl.keras.cntk.core.DLKerasCNTKNetwork;
 import org.knime.dl.keras.core.training.DLKerasAbstractNetworkTrainingSession;
 import org.knime.dl.keras.core.training.DLKerasTrainingConfig;
+import org.knime.dl.python.core.DLPythonContext;
 
 /**
  * Training session for Keras (CNTK) networks.
@@ -88,7 +89,8 @@ public DLKerasCNTKNetworkTrainingSession(final DLKerasCNTKNetwork network,
 	}
 
 	@Override
-	protected DLKerasCNTKCommands createCommands() throws DLInvalidEnvironmentException {
-		return new DLKerasCNTKCommands();
+	protected DLKerasCNTKCommands createCommands(final DLPythonContext context)
+			throws DLInvalidEnvironmentException {
+		return new DLKerasCNTKCommands(context);
 	}
 }
@@ -46,8 +46,11 @@
  */
 package org.knime.dl.keras.core;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 import java.util.function.IntSupplier;
@@ -66,8 +69,12 @@
 import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.keras.core.training.DLKerasLossFunction;
 import org.knime.dl.keras.core.training.DLKerasLossFunction.DLKerasCustomLoss;
+import org.knime.dl.keras.core.training.DLKerasTrainingCheckpoint;
 import org.knime.dl.keras.core.training.DLKerasTrainingConfig;
 import org.knime.dl.keras.core.training.DLKerasTrainingStatus;
+import org.knime.dl.keras.core.training.DLKerasTrainingVariant;
+import org.knime.dl.keras.core.training.DLKerasTrainingVariantResult;
+import org.knime.dl.keras.core.training.DLKerasValidationSchedule;
 import org.knime.dl.python.core.DLPythonAbstractCommands;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
@@ -196,6 +203,117 @@ public void setNetworkTrainingConfig(final DLPythonNetworkHandle handle, final D
 		getContext(cancelable).executeInKernel(b.toString(), cancelable);
 	}
 
+    /**
+     * Lets the training of the given network periodically save checkpoints and, if requested by the checkpoint
+     * configuration, resume from a previous checkpoint. Must be called after
+     * {@link #setNetworkTrainingConfig(DLPythonNetworkHandle, DLKerasTrainingConfig, DLCancelable)}.
+     *
+     * @param handle the handle of the network
+     * @param checkpoint the checkpoint configuration
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if executing the code in Python failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public void setTrainingCheckpoint(final DLPythonNetworkHandle handle, final DLKerasTrainingCheckpoint checkpoint,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final File resumeNetworkFile = checkpoint.getResumeNetworkFile();
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLKerasTrainingCallbacks") //
+            .n("import DLPythonNetwork") //
+            .n("config = DLPythonNetwork.get_network(").as(handle.getIdentifier()).a(").spec.training_config") //
+            .n("config.checkpoint = ").a(checkpoint.getBackendRepresentation()) //
+            .n("config.initial_epoch = ").a(checkpoint.getInitialEpoch()) //
+            .n("config.resume_from = ");
+        if (resumeNetworkFile != null) {
+            b.asr(resumeNetworkFile.getAbsolutePath());
+        } else {
+            b.a(DLPythonUtils.NONE);
+        }
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+    }
+
+    /**
+     * Lets the training of the given network validate according to the given schedule instead of validating on the
+     * complete validation data at the end of every epoch. Must be called after
+     * {@link #setNetworkTrainingConfig(DLPythonNetworkHandle, DLKerasTrainingConfig, DLCancelable)}.
+     *
+     * @param handle the handle of the network
+     * @param schedule the validation schedule
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if executing the code in Python failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public void setValidationSchedule(final DLPythonNetworkHandle handle, final DLKerasValidationSchedule schedule,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLKerasTrainingCallbacks") //
+            .n("import DLPythonNetwork") //
+            .n("config = DLPythonNetwork.get_network(").as(handle.getIdentifier()).a(").spec.training_config") //
+            .n("config.validation = ").a(schedule.getBackendRepresentation());
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+    }
+
+    /**
+     * Lets the training of the given network train a copy of the network per given variant instead of the network
+     * itself. The trained copies are registered as separate networks. Must be called after
+     * {@link #setNetworkTrainingConfig(DLPythonNetworkHandle, DLKerasTrainingConfig, DLCancelable)}.
+     *
+     * @param handle the handle of the network
+     * @param variants the training variants
+     * @param cancelable to check if the execution has been canceled
+     * @return the handles of the trained copies of the network, in the order of the variants
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if executing the code in Python failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public List<DLPythonNetworkHandle> setTrainingVariants(final DLPythonNetworkHandle handle,
+        final List<DLKerasTrainingVariant> variants, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final List<DLPythonNetworkHandle> variantHandles = new ArrayList<>(variants.size());
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLKerasTrainingVariants") //
+            .n("import keras") //
+            .n("import DLPythonNetwork") //
+            .n("config = DLPythonNetwork.get_network(").as(handle.getIdentifier()).a(").spec.training_config") //
+            .n("config.variants = []");
+        for (int i = 0; i < variants.size(); i++) {
+            final DLPythonNetworkHandle variantHandle =
+                new DLPythonNetworkHandle(handle.getIdentifier() + "_variant_" + i);
+            b.n("config.variants.append(")
+                .a(variants.get(i).getBackendRepresentation(variantHandle.getIdentifier())).a(")");
+            variantHandles.add(variantHandle);
+        }
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+        return variantHandles;
+    }
+
+    /**
+     * Freezes the given layers of the given network and makes all other layers trainable. The network is recompiled if
+     * it has already been compiled because Keras only considers changes of the layers' trainability when compiling.
+     *
+     * @param network the handle of the network
+     * @param frozenLayers the names of the layers to freeze
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if executing the code in Python failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public void setFrozenLayers(final DLPythonNetworkHandle network, final String[] frozenLayers,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("model = DLPythonNetwork.get_network(").as(network.getIdentifier()).a(").model") //
+            .n("frozen_layers = set(").as(frozenLayers).a(")") //
+            .n("for l in model.layers:") //
+            .n().t().a("l.trainable = l.name not in frozen_layers") //
+            .n("if getattr(model, 'optimizer', None) is not None:") //
+            .n().t().a("model.compile(optimizer=model.optimizer, loss=model.loss, metrics=model.metrics, ") //
+            /**/ .a("loss_weights=model.loss_weights, sample_weight_mode=model.sample_weight_mode)");
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+    }
+
     public void stopTrainNetworkEarly(final DLPythonNetworkHandle network)
         throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
@@ -283,6 +401,10 @@ protected boolean handleCustomMessage(final Message message, final IntSupplier r
                 handleTerminateOnNan(message);
             } else if (messageType.equals("early_stopping")) {
                 handleEarlyStopping(message);
+            } else if (messageType.equals("checkpoint")) {
+                handleCheckpoint(message);
+            } else if (messageType.equals("variant_end")) {
+                handleVariantEnd(message);
             } else {
                 return super.handleCustomMessage(message, responseMessageIdSupplier, responseConsumer, resultConsumer);
             }
@@ -302,5 +424,29 @@ private void handleEarlyStopping(final Message message) {
                 ((DLKerasTrainingStatus)m_status).stoppedEarly().raise(batch);
             }
         }
+
+        private void handleVariantEnd(final Message message) {
+            final String[] resultStr = new PayloadDecoder(message.getPayload()).getNextString().split(";");
+            final float[] metrics = new float[resultStr.length - 1];
+            for (int i = 0; i < metrics.length; i++) {
+                try {
+                    metrics[i] = Float.parseFloat(resultStr[i + 1]);
+                } catch (final NumberFormatException e) {
+                    metrics[i] = Float.NaN;
+                    LOGGER.debug("Received invalid metric value of training variant: " + resultStr[i + 1] + ".");
+                }
+            }
+            if (m_status instanceof DLKerasTrainingStatus) {
+                ((DLKerasTrainingStatus)m_status).variantTrained().raise(new DLKerasTrainingVariantResult(
+                    Integer.parseInt(resultStr[0]), metrics[0], metrics[1], metrics[2], metrics[3]));
+            }
+        }
+
+        private void handleCheckpoint(final Message message) {
+            final int numCompletedEpochs = new PayloadDecoder(message.getPayload()).getNextInt();
+            if (m_status instanceof DLKerasTrainingStatus) {
+                ((DLKerasTrainingStatus)m_status).checkpointSaved().raise(numCompletedEpochs);
+            }
+        }
     }
 }
@@ -53,6 +53,7 @@
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.apache.commons.io.FilenameUtils;
@@ -62,11 +63,15 @@
 import org.knime.core.util.FileUtil;
 import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLException;
 import org.knime.dl.core.DLInvalidDestinationException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObject;
+import org.knime.dl.keras.core.io.DLKerasH5NetworkSpecReader;
 import org.knime.dl.python.core.DLPythonAbstractNetworkLoader;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
@@ -123,11 +128,35 @@ public URL validateDestination(final URI destination) throws DLInvalidDestinatio
 
     @Override
     public DLPythonNetworkHandle load(final N network, final DLPythonContext kernel, final boolean loadTrainingConfig,
-        final DLCancelable cancelable) throws DLInvalidSourceException, DLInvalidEnvironmentException, IOException {
+        final DLCancelable cancelable)
+        throws DLInvalidSourceException, DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final Version kerasVersion = network.getSpec().getKerasVersion();
         final boolean compatibilityMode =
             kerasVersion == null || kerasVersion.compareTo(COMPATIBILITY_VERSION_LIMIT) <= 0;
-        return loadInternal(network.getSource().getURI(), kernel, loadTrainingConfig, compatibilityMode, cancelable);
+        final DLPythonNetworkHandle handle =
+            loadInternal(network.getSource().getURI(), kernel, loadTrainingConfig, compatibilityMode, cancelable);
+        final Optional<String[]> frozenLayers = network.getSpec().getFrozenLayers();
+        if (frozenLayers.isPresent()) {
+            applyFrozenLayers(handle, frozenLayers.get(), kernel, cancelable);
+        }
+        return handle;
+    }
+
+    /**
+     * Applies the {@link DLKerasNetworkSpec#getFrozenLayers() frozen layers} of a network spec to a loaded network.
+     *
+     * @param handle the handle of the loaded network
+     * @param frozenLayers the names of the layers to freeze
+     * @param kernel the Python context in which the network was loaded
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if applying the frozen layers failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public void applyFrozenLayers(final DLPythonNetworkHandle handle, final String[] frozenLayers,
+        final DLPythonContext kernel, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        createCommands(checkNotNull(kernel)).setFrozenLayers(handle, frozenLayers, cancelable);
     }
 
     @Override
@@ -178,11 +207,54 @@ private DLPythonNetworkHandle loadInternal(final URI source, final DLPythonConte
 		}
 	}
 
+    /**
+     * {@inheritDoc}
+     * <P>
+     * Reading without Python is supported for HDF5 files that are locally available and contain a functional model
+     * that is supported by {@link DLKerasH5NetworkSpecReader}. It further requires a successful
+     * {@link #checkAvailability(boolean, int, DLCancelable) installation test} of this back end in
+     * the configured Python environment, which provides the Python version of the spec.
+     */
+    @Override
+    public Optional<N> readWithoutPython(final DLNetworkLocation source) {
+        final File file;
+        try {
+            file = FileUtil.getFileFromURL(validateSource(source.getURI()));
+        } catch (final DLInvalidSourceException | IllegalArgumentException e) {
+            // Unknown protocol or resolving failed. Let the Python side handle (and report) this.
+            return Optional.empty();
+        }
+        if (file == null || !file.isFile() || !FilenameUtils.getExtension(file.getName()).equals("h5")) {
+            return Optional.empty();
+        }
+        final Optional<Version> pythonVersion = getTestedPythonVersion();
+        if (!pythonVersion.isPresent()) {
+            return Optional.empty();
+        }
+        return DLKerasH5NetworkSpecReader.read(file.toPath())
+            .map(specs -> createNetwork(pythonVersion.get(), specs.getKerasVersion(), specs.getInputSpecs(),
+                specs.getHiddenOutputSpecs(), specs.getOutputSpecs(), source));
+    }
+
     @Override
     public DLKerasNetworkPortObject createPortObject(final N network, final FileStore fileStore) throws IOException {
         return new DLKerasNetworkPortObject(network, fileStore);
     }
 
+    /**
+     * Creates a network of this loader's type from specs that were read without Python.
+     *
+     * @param pythonVersion the Python version of the configured environment
+     * @param kerasVersion the Keras version of the network
+     * @param inputSpecs the input tensor specs
+     * @param hiddenOutputSpecs the hidden output tensor specs
+     * @param outputSpecs the output tensor specs
+     * @param source the network location
+     * @return the network
+     */
+    protected abstract N createNetwork(Version pythonVersion, Version kerasVersion, DLTensorSpec[] inputSpecs,
+        DLTensorSpec[] hiddenOutputSpecs, DLTensorSpec[] outputSpecs, DLNetworkLocation source);
+
 	private File resolveToTmpFile(final RemoteFile<?> remote) throws Exception {
 		// Later we may want to have a repo to store already downloaded networks...
 		final String extension = FilenameUtils.getExtension(remote.getFullName());
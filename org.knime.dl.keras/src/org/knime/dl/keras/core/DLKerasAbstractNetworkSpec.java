@@ -52,6 +52,8 @@
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Optional;
 
 import org.knime.core.util.Version;
 import org.knime.dl.core.DLAbstractNetworkSpec;
@@ -64,7 +66,7 @@
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  */
 public abstract class DLKerasAbstractNetworkSpec extends DLAbstractNetworkSpec<DLKerasTrainingConfig>
-    implements DLKerasNetworkSpec {
+    implements DLKerasNetworkSpec, Cloneable {
 
     private static final long serialVersionUID = 1L;
 
@@ -72,6 +74,12 @@ public abstract class DLKerasAbstractNetworkSpec extends DLAbstractNetworkSpec<D
 
     private /** final */ Version m_kerasVersion;
 
+    /**
+     * <code>null</code> if the trainability stored in the network file applies. Also <code>null</code> if this instance
+     * is the result of deserializing an older version of this spec class.
+     */
+    private /** final */ String[] m_frozenLayers;
+
     /**
      * Creates a new instance of this network spec.
      *
@@ -106,6 +114,22 @@ protected DLKerasAbstractNetworkSpec(final Version pythonVersion, final Version
         m_kerasVersion = checkNotNull(kerasVersion);
     }
 
+    /**
+     * Creates a new instance of this network spec. And sets the Python version to null. This is used for specs that
+     * were read without starting Python.
+     *
+     * @param kerasVersion the Keras version of the network
+     * @param inputSpecs the input tensor specs, can be empty
+     * @param hiddenOutputSpecs the hidden output tensor specs, can be empty
+     * @param outputSpecs the output tensor specs, can be empty
+     */
+    protected DLKerasAbstractNetworkSpec(final Version kerasVersion, final DLTensorSpec[] inputSpecs,
+        final DLTensorSpec[] hiddenOutputSpecs, final DLTensorSpec[] outputSpecs) {
+        super(DLKerasNetworkSpec.getKerasBundleVersion(), inputSpecs, hiddenOutputSpecs, outputSpecs);
+        m_pythonVersion = null;
+        m_kerasVersion = checkNotNull(kerasVersion);
+    }
+
     /**
      * Creates a new instance of this network spec. And sets the Python and Keras version to null.
      *
@@ -145,6 +169,39 @@ public Version getKerasVersion() {
         return m_kerasVersion;
     }
 
+    @Override
+    public Optional<String[]> getFrozenLayers() {
+        return m_frozenLayers != null ? Optional.of(m_frozenLayers.clone()) : Optional.empty();
+    }
+
+    @Override
+    public DLKerasAbstractNetworkSpec withFrozenLayers(final String[] frozenLayers) {
+        final DLKerasAbstractNetworkSpec copy;
+        try {
+            copy = (DLKerasAbstractNetworkSpec)clone();
+        } catch (final CloneNotSupportedException e) {
+            // Cannot happen, we implement Cloneable.
+            throw new IllegalStateException(e);
+        }
+        copy.m_frozenLayers = checkNotNull(frozenLayers).clone();
+        return copy;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Arrays.hashCode(m_frozenLayers);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return super.equals(obj) && Arrays.equals(((DLKerasAbstractNetworkSpec)obj).m_frozenLayers, m_frozenLayers);
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + (m_frozenLayers != null ? "\nFrozen layers: " + Arrays.toString(m_frozenLayers) : "");
+    }
+
     @SuppressWarnings("static-method") // signature must be exactly as is
     private void writeObject(final ObjectOutputStream stream) throws IOException {
         stream.defaultWriteObject();
@@ -73,6 +73,11 @@ public DLKerasGenericNetworkSpec(final Version pythonVersion, final Version kera
         super(pythonVersion, kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs, trainingConfig);
     }
 
+    public DLKerasGenericNetworkSpec(final Version kerasVersion, final DLTensorSpec[] inputSpecs,
+        final DLTensorSpec[] hiddenOutputSpecs, final DLTensorSpec[] outputSpecs) {
+        super(kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs);
+    }
+
     public DLKerasGenericNetworkSpec(final DLTensorSpec[] inputSpecs, final DLTensorSpec[] hiddenOutputSpecs,
         final DLTensorSpec[] outputSpecs) {
         super(inputSpecs, hiddenOutputSpecs, outputSpecs);
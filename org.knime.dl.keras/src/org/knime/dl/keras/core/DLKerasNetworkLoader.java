@@ -50,6 +50,7 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -85,6 +86,23 @@ default String getSaveModelURLExtension() {
 		return SAVE_MODEL_URL_EXTENSION;
 	}
 
+	/**
+	 * Tries to read the network at the given location without starting Python. This is considerably faster than
+	 * loading the network into a Python kernel and {@link #fetch(DLPythonNetworkHandle, DLNetworkLocation,
+	 * DLPythonContext, DLCancelable) fetching} its spec but is only supported for a subset of all networks.
+	 * <P>
+	 * The tensor specs of the returned network are equal to the ones obtained via Python, except for their names: the
+	 * names of tensors are back end dependent and only known in Python, the tensor identifiers are used instead. The
+	 * returned network is therefore meant to be used while configuring nodes. Nodes should read the network via
+	 * Python before passing it on during execution.
+	 *
+	 * @param source the network location
+	 * @return the network, or an empty optional if the network must be read via Python
+	 */
+	default Optional<N> readWithoutPython(final DLNetworkLocation source) {
+		return Optional.empty();
+	}
+
 	@Override
 	N fetch(DLPythonNetworkHandle handle, DLNetworkLocation source, DLPythonContext context, DLCancelable cancelable)
 			throws IllegalArgumentException, DLInvalidSourceException, DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
@@ -46,6 +46,8 @@
  */
 package org.knime.dl.keras.core;
 
+import java.util.Optional;
+
 import org.knime.core.util.Version;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLNetworkLocation;
@@ -78,6 +80,27 @@ public static Version getKerasBundleVersion() {
      */
     Version getKerasVersion();
 
+    /**
+     * Returns the names of the layers that are frozen (i.e. not trainable) if the trainability of the network's layers
+     * was changed without rewriting the network file. In this case, all layers whose names are not contained in the
+     * returned array are trainable. The change is applied each time the network is loaded on Python side.
+     *
+     * @return the names of the frozen layers, or an empty optional if the trainability stored in the network file
+     *         applies
+     */
+    default Optional<String[]> getFrozenLayers() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns a copy of this spec whose network has the given layers frozen and all other layers trainable. The network
+     * file is not affected. See {@link #getFrozenLayers()}.
+     *
+     * @param frozenLayers the names of the layers to freeze, may be empty
+     * @return the spec copy
+     */
+    DLKerasNetworkSpec withFrozenLayers(String[] frozenLayers);
+
     /**
      * Creates a network whose {@link DLKerasNetwork#getSpec()} returns this spec and whose
      * {@link DLKerasNetwork#getSource()} returns the given network location.
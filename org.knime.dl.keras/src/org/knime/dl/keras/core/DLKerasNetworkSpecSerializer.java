@@ -0,0 +1,324 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+import org.knime.core.util.Version;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultPartialTensorShape;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLFixedTensorShape;
+import org.knime.dl.core.DLPartialTensorShape;
+import org.knime.dl.core.DLTensorShape;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLUnknownTensorShape;
+import org.knime.dl.keras.cntk.core.DLKerasCNTKNetworkSpec;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetworkSpec;
+import org.knime.dl.keras.theano.core.DLKerasTheanoNetworkSpec;
+
+/**
+ * Compact, versioned binary (de)serialization of {@link DLKerasNetworkSpec Keras network specs}.
+ * <P>
+ * Specs of the known Keras back ends that consist of {@link DLDefaultTensorSpec default tensor specs} and that were
+ * created by the current version of this bundle are written field by field. All other specs (e.g. specs of older
+ * bundle versions whose bundle version must be preserved, or specs that carry a training configuration or frozen
+ * layers) are written using Java serialization, exactly like they used to be. Reading supports both variants.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasNetworkSpecSerializer {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte KIND_JAVA_SERIALIZED = 0;
+
+    private static final byte KIND_TENSORFLOW = 1;
+
+    private static final byte KIND_CNTK = 2;
+
+    private static final byte KIND_THEANO = 3;
+
+    private static final byte KIND_GENERIC = 4;
+
+    private static final byte SHAPE_UNKNOWN = 0;
+
+    private static final byte SHAPE_FIXED = 1;
+
+    private static final byte SHAPE_PARTIAL = 2;
+
+    private static final byte ELEMENT_TYPE_OTHER = -1;
+
+    /**
+     * Element types that are written as their index in this list.
+     */
+    private static final List<Class<?>> ELEMENT_TYPES = Collections.unmodifiableList(Arrays.asList(float.class,
+        double.class, int.class, long.class, short.class, byte.class, boolean.class, String.class));
+
+    private DLKerasNetworkSpecSerializer() {
+    }
+
+    /**
+     * Writes the given network spec to the given output.
+     *
+     * @param spec the network spec to write
+     * @param out the output, it is the client's responsibility to close it
+     * @throws IOException if writing failed
+     */
+    public static void writeSpec(final DLKerasNetworkSpec spec, final ObjectOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        final byte kind = getCompactKind(spec);
+        out.writeByte(kind);
+        if (kind == KIND_JAVA_SERIALIZED) {
+            out.writeObject(spec);
+            return;
+        }
+        writeVersion(spec.getPythonVersion(), out);
+        writeVersion(spec.getKerasVersion(), out);
+        writeTensorSpecs(spec.getInputSpecs(), out);
+        writeTensorSpecs(spec.getHiddenOutputSpecs(), out);
+        writeTensorSpecs(spec.getOutputSpecs(), out);
+    }
+
+    /**
+     * Reads a network spec that was written via {@link #writeSpec(DLKerasNetworkSpec, ObjectOutput)}.
+     *
+     * @param in the input, it is the client's responsibility to close it
+     * @return the read network spec
+     * @throws IOException if reading failed or if the spec was written by a newer, incompatible version
+     * @throws ClassNotFoundException if a class of a Java serialized spec could not be found
+     */
+    public static DLKerasNetworkSpec readSpec(final ObjectInput in) throws IOException, ClassNotFoundException {
+        final byte formatVersion = in.readByte();
+        if (formatVersion > FORMAT_VERSION) {
+            throw new IOException("Keras network spec was saved with a newer version of KNIME (format version "
+                + formatVersion + "). Please update your KNIME Deep Learning extensions.");
+        }
+        final byte kind = in.readByte();
+        if (kind == KIND_JAVA_SERIALIZED) {
+            return (DLKerasNetworkSpec)in.readObject();
+        }
+        final Version pythonVersion = readVersion(in);
+        final Version kerasVersion = readVersion(in);
+        final DLTensorSpec[] inputSpecs = readTensorSpecs(in);
+        final DLTensorSpec[] hiddenOutputSpecs = readTensorSpecs(in);
+        final DLTensorSpec[] outputSpecs = readTensorSpecs(in);
+        switch (kind) {
+            case KIND_TENSORFLOW:
+                if (pythonVersion != null) {
+                    return new DLKerasTensorFlowNetworkSpec(pythonVersion, kerasVersion, inputSpecs,
+                        hiddenOutputSpecs, outputSpecs);
+                }
+                return kerasVersion != null
+                    ? new DLKerasTensorFlowNetworkSpec(kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs)
+                    : new DLKerasTensorFlowNetworkSpec(inputSpecs, hiddenOutputSpecs, outputSpecs);
+            case KIND_CNTK:
+                if (pythonVersion != null) {
+                    return new DLKerasCNTKNetworkSpec(pythonVersion, kerasVersion, inputSpecs, hiddenOutputSpecs,
+                        outputSpecs);
+                }
+                return kerasVersion != null
+                    ? new DLKerasCNTKNetworkSpec(kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs)
+                    : new DLKerasCNTKNetworkSpec(inputSpecs, hiddenOutputSpecs, outputSpecs);
+            case KIND_THEANO:
+                if (pythonVersion != null) {
+                    return new DLKerasTheanoNetworkSpec(pythonVersion, kerasVersion, inputSpecs, hiddenOutputSpecs,
+                        outputSpecs);
+                }
+                return kerasVersion != null
+                    ? new DLKerasTheanoNetworkSpec(kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs)
+                    : new DLKerasTheanoNetworkSpec(inputSpecs, hiddenOutputSpecs, outputSpecs);
+            case KIND_GENERIC:
+                if (pythonVersion != null) {
+                    return new DLKerasGenericNetworkSpec(pythonVersion, kerasVersion, inputSpecs, hiddenOutputSpecs,
+                        outputSpecs);
+                }
+                return kerasVersion != null
+                    ? new DLKerasGenericNetworkSpec(kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs)
+                    : new DLKerasGenericNetworkSpec(inputSpecs, hiddenOutputSpecs, outputSpecs);
+            default:
+                throw new IOException("Unknown Keras network spec kind: " + kind + ".");
+        }
+    }
+
+    private static byte getCompactKind(final DLKerasNetworkSpec spec) {
+        if (spec.getTrainingConfig().isPresent() || spec.getFrozenLayers().isPresent()
+            || !DLKerasNetworkSpec.getKerasBundleVersion().equals(spec.getBundleVersion())
+            || (spec.getPythonVersion() != null && spec.getKerasVersion() == null)
+            || !Stream.of(spec.getInputSpecs(), spec.getHiddenOutputSpecs(), spec.getOutputSpecs())
+                .flatMap(Stream::of).allMatch(DLKerasNetworkSpecSerializer::isCompactlySerializable)) {
+            return KIND_JAVA_SERIALIZED;
+        }
+        final Class<?> specClass = spec.getClass();
+        if (specClass == DLKerasTensorFlowNetworkSpec.class) {
+            return KIND_TENSORFLOW;
+        } else if (specClass == DLKerasCNTKNetworkSpec.class) {
+            return KIND_CNTK;
+        } else if (specClass == DLKerasTheanoNetworkSpec.class) {
+            return KIND_THEANO;
+        } else if (specClass == DLKerasGenericNetworkSpec.class) {
+            return KIND_GENERIC;
+        }
+        return KIND_JAVA_SERIALIZED;
+    }
+
+    private static boolean isCompactlySerializable(final DLTensorSpec tensorSpec) {
+        final DLTensorShape shape = tensorSpec.getShape();
+        return tensorSpec.getClass() == DLDefaultTensorSpec.class //
+            && tensorSpec.getIdentifier() instanceof DLDefaultTensorId //
+            && tensorSpec.getName() != null //
+            && tensorSpec.getDimensionOrder() != null //
+            && (shape == null || shape == DLUnknownTensorShape.INSTANCE || shape instanceof DLDefaultFixedTensorShape
+                || shape instanceof DLDefaultPartialTensorShape);
+    }
+
+    private static void writeVersion(final Version version, final ObjectOutput out) throws IOException {
+        out.writeBoolean(version != null);
+        if (version != null) {
+            out.writeInt(version.getMajor());
+            out.writeInt(version.getMinor());
+            out.writeInt(version.getRevision());
+            final String qualifier = version.getQualifier();
+            out.writeUTF(qualifier != null ? qualifier : "");
+        }
+    }
+
+    private static Version readVersion(final ObjectInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        final int major = in.readInt();
+        final int minor = in.readInt();
+        final int revision = in.readInt();
+        final String qualifier = in.readUTF();
+        return qualifier.isEmpty() ? new Version(major, minor, revision)
+            : new Version(major + "." + minor + "." + revision + "." + qualifier);
+    }
+
+    private static void writeTensorSpecs(final DLTensorSpec[] tensorSpecs, final ObjectOutput out)
+        throws IOException {
+        out.writeInt(tensorSpecs.length);
+        for (final DLTensorSpec tensorSpec : tensorSpecs) {
+            out.writeUTF(tensorSpec.getIdentifier().getIdentifierString());
+            out.writeUTF(tensorSpec.getName());
+            out.writeLong(tensorSpec.getBatchSize().orElse(-1));
+            final DLTensorShape shape = tensorSpec.getShape();
+            if (shape instanceof DLFixedTensorShape) {
+                out.writeByte(SHAPE_FIXED);
+                final long[] dims = ((DLFixedTensorShape)shape).getShape();
+                out.writeInt(dims.length);
+                for (final long dim : dims) {
+                    out.writeLong(dim);
+                }
+            } else if (shape instanceof DLPartialTensorShape) {
+                out.writeByte(SHAPE_PARTIAL);
+                final OptionalLong[] dims = ((DLPartialTensorShape)shape).getShape();
+                out.writeInt(dims.length);
+                for (final OptionalLong dim : dims) {
+                    out.writeLong(dim.orElse(-1));
+                }
+            } else {
+                out.writeByte(SHAPE_UNKNOWN);
+            }
+            final int elementTypeIndex = ELEMENT_TYPES.indexOf(tensorSpec.getElementType());
+            out.writeByte(elementTypeIndex);
+            if (elementTypeIndex == ELEMENT_TYPE_OTHER) {
+                out.writeObject(tensorSpec.getElementType());
+            }
+            out.writeUTF(tensorSpec.getDimensionOrder().name());
+        }
+    }
+
+    private static DLTensorSpec[] readTensorSpecs(final ObjectInput in) throws IOException, ClassNotFoundException {
+        final DLTensorSpec[] tensorSpecs = new DLTensorSpec[in.readInt()];
+        for (int i = 0; i < tensorSpecs.length; i++) {
+            final DLDefaultTensorId id = new DLDefaultTensorId(in.readUTF());
+            final String name = in.readUTF();
+            final long batchSize = in.readLong();
+            final byte shapeKind = in.readByte();
+            final DLTensorShape shape;
+            if (shapeKind == SHAPE_FIXED) {
+                final long[] dims = new long[in.readInt()];
+                for (int d = 0; d < dims.length; d++) {
+                    dims[d] = in.readLong();
+                }
+                shape = new DLDefaultFixedTensorShape(dims);
+            } else if (shapeKind == SHAPE_PARTIAL) {
+                final OptionalLong[] dims = new OptionalLong[in.readInt()];
+                for (int d = 0; d < dims.length; d++) {
+                    final long dim = in.readLong();
+                    dims[d] = dim == -1 ? OptionalLong.empty() : OptionalLong.of(dim);
+                }
+                shape = new DLDefaultPartialTensorShape(dims);
+            } else {
+                shape = null;
+            }
+            final byte elementTypeIndex = in.readByte();
+            final Class<?> elementType =
+                elementTypeIndex == ELEMENT_TYPE_OTHER ? (Class<?>)in.readObject() : ELEMENT_TYPES.get(elementTypeIndex);
+            final DLDimensionOrder dimensionOrder = DLDimensionOrder.valueOf(in.readUTF());
+            if (batchSize > 0) {
+                tensorSpecs[i] = shape != null
+                    ? new DLDefaultTensorSpec(id, name, batchSize, shape, elementType, dimensionOrder)
+                    : new DLDefaultTensorSpec(id, name, batchSize, elementType, dimensionOrder);
+            } else {
+                tensorSpecs[i] = shape != null ? new DLDefaultTensorSpec(id, name, shape, elementType, dimensionOrder)
+                    : new DLDefaultTensorSpec(id, name, elementType, dimensionOrder);
+            }
+        }
+        return tensorSpecs;
+    }
+}
@@ -52,5 +52,12 @@
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  */
 public interface DLKerasInitializer extends DLKerasConfigObject {
-    // NB: marker interface
+
+    /**
+     * @return <code>true</code> if this initializer yields the same initial weights each time a network is
+     *         materialized, i.e. if it is not random or uses a fixed seed
+     */
+    default boolean isDeterministic() {
+        return true;
+    }
 }
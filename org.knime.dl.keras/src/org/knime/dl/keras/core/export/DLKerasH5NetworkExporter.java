@@ -52,12 +52,29 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.util.Optional;
 
 import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidDestinationException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLNotCancelable;
 import org.knime.dl.core.export.DLAbstractNetworkExporter;
 import org.knime.dl.keras.core.DLKerasNetwork;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonDefaultContext;
+import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.core.DLPythonNetworkLoader;
+import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
+
+import com.google.common.base.Strings;
 
 /**
+ * Exports Keras networks to HDF5 files. The network file is copied as is unless the network spec declares
+ * {@link org.knime.dl.keras.core.DLKerasNetworkSpec#getFrozenLayers() frozen layers}, which are only part of the spec.
+ * In this case, the network is loaded in Python, its layers are frozen and it is saved to the destination.
+ *
  * @author Benjamin Wilhelm, KNIME GmbH, Konstanz, Germany
  */
 public class DLKerasH5NetworkExporter extends DLAbstractNetworkExporter<DLKerasNetwork> {
@@ -81,10 +98,35 @@ public void exportNetwork(final DLKerasNetwork network, final URL path, final bo
         if (dest.exists() && !overwrite) {
             throw new IOException("The destination file already exists.");
         }
+        final Optional<String[]> frozenLayers = network.getSpec().getFrozenLayers();
+        if (frozenLayers.isPresent() && frozenLayers.get().length > 0) {
+            exportWithFrozenLayers(network, dest);
+            return;
+        }
         try (final InputStream sourceStream = FileUtil.openStreamWithTimeout(network.getSource().getURI().toURL());
                 final OutputStream destStream = new FileOutputStream(dest)) {
             FileUtil.copy(sourceStream, destStream);
         }
     }
 
+    private static void exportWithFrozenLayers(final DLKerasNetwork network, final File dest) throws IOException {
+        @SuppressWarnings("unchecked")
+        final DLPythonNetworkLoader<DLKerasNetwork> loader = DLPythonNetworkLoaderRegistry.getInstance()
+            .getNetworkLoader((Class<DLKerasNetwork>)network.getClass())
+            .orElseThrow(() -> new IOException("Keras back end '" + network.getClass().getCanonicalName()
+                + "' cannot be found. Are you missing a KNIME Deep Learning extension?"));
+        try (final DLPythonContext context = new DLPythonDefaultContext()) {
+            // Loading applies the frozen layers of the spec to the network.
+            final DLPythonNetworkHandle handle = loader.load(network, context, true, DLNotCancelable.INSTANCE);
+            loader.save(handle, dest.toURI(), context, DLNotCancelable.INSTANCE);
+        } catch (final DLInvalidSourceException | DLInvalidDestinationException | DLInvalidEnvironmentException
+                | DLCanceledExecutionException e) {
+            String message = "An error occurred while exporting the Keras network.";
+            if (!Strings.isNullOrEmpty(e.getMessage())) {
+                message += "\nCause: " + e.getMessage();
+            }
+            throw new IOException(message, e);
+        }
+    }
+
 }
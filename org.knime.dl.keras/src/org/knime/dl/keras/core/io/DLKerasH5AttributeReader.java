@@ -0,0 +1,480 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal, read-only HDF5 reader that extracts the string attributes of the root group of an HDF5 file. This is all
+ * that is needed to obtain the architecture of a network that was saved via Keras' <code>model.save(..)</code>.
+ * <P>
+ * Supported are superblock versions 0 to 3, object header versions 1 and 2 (including continuation blocks) and
+ * attribute message versions 1 to 3 whose values are fixed-length or variable-length strings. Attributes that are
+ * stored densely (i.e. in a fractal heap) or that use shared datatypes are not supported and cause an
+ * {@link IOException}. Callers are expected to fall back to reading the file via Python in that case.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLKerasH5AttributeReader {
+
+    private static final byte[] SIGNATURE = {(byte)0x89, 'H', 'D', 'F', '\r', '\n', 0x1a, '\n'};
+
+    private static final int MSG_TYPE_NIL = 0x0000;
+
+    private static final int MSG_TYPE_ATTRIBUTE = 0x000C;
+
+    private static final int MSG_TYPE_CONTINUATION = 0x0010;
+
+    private static final int MSG_TYPE_ATTRIBUTE_INFO = 0x0015;
+
+    private static final int DATATYPE_CLASS_STRING = 3;
+
+    private static final int DATATYPE_CLASS_VARIABLE_LENGTH = 9;
+
+    private static final long UNDEFINED_ADDRESS = -1L;
+
+    private final FileChannel m_channel;
+
+    private long m_baseAddress;
+
+    private int m_offsetSize;
+
+    private int m_lengthSize;
+
+    private DLKerasH5AttributeReader(final FileChannel channel) {
+        m_channel = channel;
+    }
+
+    /**
+     * Reads all string attributes that are attached to the root group of the given HDF5 file.
+     *
+     * @param file the HDF5 file
+     * @return the attributes, mapped by name
+     * @throws IOException if the file is not a valid HDF5 file, if reading failed or if the file uses features that are
+     *             not supported by this reader
+     */
+    static Map<String, String> readRootAttributes(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final DLKerasH5AttributeReader reader = new DLKerasH5AttributeReader(channel);
+            final long rootObjectHeaderAddress = reader.readSuperblock();
+            final Map<String, String> attributes = new HashMap<>();
+            reader.readObjectHeaderAttributes(rootObjectHeaderAddress, attributes);
+            return attributes;
+        } catch (final IndexOutOfBoundsException | java.nio.BufferUnderflowException e) {
+            throw new IOException("HDF5 file '" + file + "' is corrupt or uses an unsupported layout.", e);
+        }
+    }
+
+    // superblock:
+
+    private long readSuperblock() throws IOException {
+        final long fileSize = m_channel.size();
+        // The superblock may be located at offset 0, 512, 1024, 2048, ...
+        for (long offset = 0; offset + SIGNATURE.length <= fileSize; offset = offset == 0 ? 512 : offset * 2) {
+            final ByteBuffer signature = read(offset, SIGNATURE.length);
+            final byte[] bytes = new byte[SIGNATURE.length];
+            signature.get(bytes);
+            if (Arrays.equals(bytes, SIGNATURE)) {
+                return readSuperblockAt(offset);
+            }
+        }
+        throw new IOException("File is not an HDF5 file.");
+    }
+
+    private long readSuperblockAt(final long offset) throws IOException {
+        final ByteBuffer b = read(offset + SIGNATURE.length, 1);
+        final int version = Byte.toUnsignedInt(b.get());
+        if (version == 0 || version == 1) {
+            final ByteBuffer sb = read(offset + 9, 16);
+            sb.position(13 - 9);
+            m_offsetSize = Byte.toUnsignedInt(sb.get());
+            m_lengthSize = Byte.toUnsignedInt(sb.get());
+            checkSizes();
+            // signature (8), versions etc. (8), group K's (4), consistency flags (4), version 1 only: indexed storage
+            // K and reserved (4)
+            final long addressesOffset = offset + 24 + (version == 1 ? 4 : 0);
+            // base address, free-space info address, end of file address, driver info address
+            final ByteBuffer addresses = read(addressesOffset, 4 * m_offsetSize);
+            m_baseAddress = readOffset(addresses);
+            // root group symbol table entry: link name offset, object header address, ...
+            final ByteBuffer rootEntry = read(addressesOffset + 4 * m_offsetSize, 2 * m_offsetSize);
+            readOffset(rootEntry);
+            return readOffset(rootEntry);
+        } else if (version == 2 || version == 3) {
+            final ByteBuffer sb = read(offset + 9, 2);
+            m_offsetSize = Byte.toUnsignedInt(sb.get());
+            m_lengthSize = Byte.toUnsignedInt(sb.get());
+            checkSizes();
+            // base address, superblock extension address, end of file address, root group object header address
+            final ByteBuffer addresses = read(offset + 12, 4 * m_offsetSize);
+            m_baseAddress = readOffset(addresses);
+            readOffset(addresses);
+            readOffset(addresses);
+            return readOffset(addresses);
+        } else {
+            throw new IOException("Unsupported HDF5 superblock version: " + version + ".");
+        }
+    }
+
+    private void checkSizes() throws IOException {
+        if (!isValidSize(m_offsetSize) || !isValidSize(m_lengthSize)) {
+            throw new IOException(
+                "Unsupported HDF5 offset/length sizes: " + m_offsetSize + "/" + m_lengthSize + ".");
+        }
+    }
+
+    private static boolean isValidSize(final int size) {
+        return size == 2 || size == 4 || size == 8;
+    }
+
+    // object headers:
+
+    private void readObjectHeaderAttributes(final long address, final Map<String, String> attributes)
+        throws IOException {
+        final ByteBuffer prefix = read(m_baseAddress + address, 16);
+        if (prefix.get(0) == 'O' && prefix.get(1) == 'H' && prefix.get(2) == 'D' && prefix.get(3) == 'R') {
+            readObjectHeaderV2(address, attributes);
+        } else if (prefix.get(0) == 1) {
+            readObjectHeaderV1(prefix, address, attributes);
+        } else {
+            throw new IOException("Unsupported HDF5 object header version: " + prefix.get(0) + ".");
+        }
+    }
+
+    private void readObjectHeaderV1(final ByteBuffer prefix, final long address,
+        final Map<String, String> attributes) throws IOException {
+        // version (1), reserved (1), number of messages (2), reference count (4), header size (4), padding (4)
+        prefix.position(8);
+        final long headerSize = Integer.toUnsignedLong(prefix.getInt());
+        readMessagesV1(address + 16, headerSize, attributes);
+    }
+
+    private void readMessagesV1(final long address, final long size, final Map<String, String> attributes)
+        throws IOException {
+        final ByteBuffer block = read(m_baseAddress + address, checkedSize(size));
+        while (block.remaining() >= 8) {
+            final int type = Short.toUnsignedInt(block.getShort());
+            final int messageSize = Short.toUnsignedInt(block.getShort());
+            final int flags = Byte.toUnsignedInt(block.get());
+            block.position(block.position() + 3); // reserved
+            final ByteBuffer message = slice(block, messageSize);
+            handleMessage(type, flags, message, false, attributes);
+        }
+    }
+
+    private void readObjectHeaderV2(final long address, final Map<String, String> attributes) throws IOException {
+        final ByteBuffer prefix = read(m_baseAddress + address, 4 + 1 + 1 + 16 + 4 + 8);
+        prefix.position(4);
+        final int version = Byte.toUnsignedInt(prefix.get());
+        if (version != 2) {
+            throw new IOException("Unsupported HDF5 object header version: " + version + ".");
+        }
+        final int flags = Byte.toUnsignedInt(prefix.get());
+        if ((flags & 0x20) != 0) {
+            prefix.position(prefix.position() + 16); // access, modification, change and birth times
+        }
+        if ((flags & 0x10) != 0) {
+            prefix.position(prefix.position() + 4); // max. compact and min. dense number of attributes
+        }
+        final long chunkSize = readUnsigned(prefix, 1 << (flags & 0x03));
+        final boolean creationOrderTracked = (flags & 0x04) != 0;
+        readMessagesV2(address + prefix.position(), chunkSize, creationOrderTracked, attributes);
+    }
+
+    private void readMessagesV2(final long address, final long size, final boolean creationOrderTracked,
+        final Map<String, String> attributes) throws IOException {
+        final ByteBuffer block = read(m_baseAddress + address, checkedSize(size));
+        final int messageHeaderSize = creationOrderTracked ? 6 : 4;
+        while (block.remaining() >= messageHeaderSize) {
+            final int type = Byte.toUnsignedInt(block.get());
+            final int messageSize = Short.toUnsignedInt(block.getShort());
+            final int flags = Byte.toUnsignedInt(block.get());
+            if (creationOrderTracked) {
+                block.getShort();
+            }
+            final ByteBuffer message = slice(block, messageSize);
+            if (type == MSG_TYPE_CONTINUATION) {
+                final long continuationAddress = readOffset(message);
+                final long continuationLength = readLength(message);
+                // Continuation blocks start with signature "OCHK" and end with a checksum.
+                readMessagesV2(continuationAddress + 4, continuationLength - 8, creationOrderTracked, attributes);
+            } else {
+                handleMessage(type, flags, message, true, attributes);
+            }
+        }
+    }
+
+    private void handleMessage(final int type, final int flags, final ByteBuffer message, final boolean v2,
+        final Map<String, String> attributes) throws IOException {
+        switch (type) {
+            case MSG_TYPE_NIL:
+                break;
+            case MSG_TYPE_CONTINUATION:
+                if (v2) {
+                    throw new IllegalStateException("Continuation messages of version 2 object headers must be "
+                        + "handled by the caller. This is an implementation error.");
+                }
+                final long continuationAddress = readOffset(message);
+                final long continuationLength = readLength(message);
+                readMessagesV1(continuationAddress, continuationLength, attributes);
+                break;
+            case MSG_TYPE_ATTRIBUTE:
+                if ((flags & 0x02) != 0) {
+                    throw new IOException("Shared HDF5 attribute messages are not supported.");
+                }
+                readAttribute(message, attributes);
+                break;
+            case MSG_TYPE_ATTRIBUTE_INFO:
+                final ByteBuffer info = message.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                info.get(); // version
+                final int infoFlags = Byte.toUnsignedInt(info.get());
+                if ((infoFlags & 0x01) != 0) {
+                    info.getShort(); // maximum creation index
+                }
+                final long fractalHeapAddress = readOffset(info);
+                if (fractalHeapAddress != UNDEFINED_ADDRESS) {
+                    throw new IOException("Densely stored HDF5 attributes are not supported.");
+                }
+                break;
+            default:
+                // not of interest
+        }
+    }
+
+    // attributes:
+
+    private void readAttribute(final ByteBuffer message, final Map<String, String> attributes) throws IOException {
+        final int version = Byte.toUnsignedInt(message.get());
+        final int flags = Byte.toUnsignedInt(message.get());
+        final int nameSize = Short.toUnsignedInt(message.getShort());
+        final int datatypeSize = Short.toUnsignedInt(message.getShort());
+        final int dataspaceSize = Short.toUnsignedInt(message.getShort());
+        if (version == 3) {
+            message.get(); // name character set encoding
+        } else if (version != 1 && version != 2) {
+            throw new IOException("Unsupported HDF5 attribute message version: " + version + ".");
+        }
+        if (version >= 2 && (flags & 0x03) != 0) {
+            // Shared datatypes or dataspaces, not used for plain string attributes.
+            return;
+        }
+        final String name = decodeString(slice(message, nameSize), nameSize);
+        skipPadding(message, nameSize, version);
+        final ByteBuffer datatype = slice(message, datatypeSize);
+        skipPadding(message, datatypeSize, version);
+        final ByteBuffer dataspace = slice(message, dataspaceSize);
+        skipPadding(message, dataspaceSize, version);
+        final long numElements = readNumberOfElements(dataspace);
+        final String value = readStringValue(datatype, message, numElements);
+        if (value != null) {
+            attributes.put(name, value);
+        }
+    }
+
+    private static void skipPadding(final ByteBuffer message, final int size, final int version) {
+        if (version == 1) {
+            final int padded = (size + 7) & ~7;
+            message.position(Math.min(message.limit(), message.position() + padded - size));
+        }
+    }
+
+    private long readNumberOfElements(final ByteBuffer dataspace) throws IOException {
+        final int version = Byte.toUnsignedInt(dataspace.get());
+        final int rank = Byte.toUnsignedInt(dataspace.get());
+        dataspace.get(); // flags
+        if (version == 1) {
+            dataspace.position(dataspace.position() + 5); // reserved
+        } else if (version == 2) {
+            final int type = Byte.toUnsignedInt(dataspace.get());
+            if (type == 2) {
+                return 0; // null dataspace
+            }
+        } else {
+            throw new IOException("Unsupported HDF5 dataspace message version: " + version + ".");
+        }
+        long numElements = 1;
+        for (int i = 0; i < rank; i++) {
+            numElements *= readLength(dataspace);
+        }
+        return numElements;
+    }
+
+    /**
+     * @return the value or <code>null</code> if the attribute is not of string type
+     */
+    private String readStringValue(final ByteBuffer datatype, final ByteBuffer data, final long numElements)
+        throws IOException {
+        final int classAndVersion = Byte.toUnsignedInt(datatype.get());
+        final int datatypeClass = classAndVersion & 0x0F;
+        final int bitField = Byte.toUnsignedInt(datatype.get()) | (Byte.toUnsignedInt(datatype.get()) << 8)
+            | (Byte.toUnsignedInt(datatype.get()) << 16);
+        final long size = Integer.toUnsignedLong(datatype.getInt());
+        if (numElements != 1) {
+            // Keras stores its architecture and version information in scalar attributes.
+            return null;
+        }
+        if (datatypeClass == DATATYPE_CLASS_STRING) {
+            return decodeString(slice(data, checkedSize(size)), (int)size);
+        } else if (datatypeClass == DATATYPE_CLASS_VARIABLE_LENGTH && (bitField & 0x0F) == 1) {
+            // variable-length string: length (4), global heap collection address, object index (4)
+            data.getInt();
+            final long collectionAddress = readOffset(data);
+            final int objectIndex = data.getInt();
+            return readGlobalHeapString(collectionAddress, objectIndex);
+        } else {
+            return null;
+        }
+    }
+
+    private String readGlobalHeapString(final long collectionAddress, final int objectIndex) throws IOException {
+        final ByteBuffer header = read(m_baseAddress + collectionAddress, 8 + m_lengthSize);
+        if (header.get(0) != 'G' || header.get(1) != 'C' || header.get(2) != 'O' || header.get(3) != 'L') {
+            throw new IOException("Invalid HDF5 global heap collection signature.");
+        }
+        header.position(8);
+        final long collectionSize = readLength(header);
+        final ByteBuffer collection = read(m_baseAddress + collectionAddress, checkedSize(collectionSize));
+        collection.position(8 + m_lengthSize);
+        final int objectHeaderSize = 8 + m_lengthSize;
+        while (collection.remaining() >= objectHeaderSize) {
+            final int index = Short.toUnsignedInt(collection.getShort());
+            collection.getShort(); // reference count
+            collection.getInt(); // reserved
+            final long objectSize = readLength(collection);
+            if (index == 0) {
+                break; // free space
+            }
+            final int paddedSize = checkedSize((objectSize + 7) & ~7L);
+            if (index == objectIndex) {
+                return decodeString(slice(collection, checkedSize(objectSize)), (int)objectSize);
+            }
+            collection.position(collection.position() + paddedSize);
+        }
+        throw new IOException("HDF5 global heap object " + objectIndex + " not found.");
+    }
+
+    // low level:
+
+    private ByteBuffer read(final long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            final int read = m_channel.read(buffer, pos);
+            if (read < 0) {
+                throw new IOException("Unexpected end of HDF5 file.");
+            }
+            pos += read;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buffer, final int length) {
+        final ByteBuffer slice = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        slice.limit(slice.position() + length);
+        buffer.position(buffer.position() + length);
+        return slice.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static String decodeString(final ByteBuffer buffer, final int length) {
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        int end = length;
+        // null-terminated or null-padded
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == 0) {
+                end = i;
+                break;
+            }
+        }
+        return new String(bytes, 0, end, StandardCharsets.UTF_8).trim();
+    }
+
+    private long readOffset(final ByteBuffer buffer) {
+        final long offset = readUnsigned(buffer, m_offsetSize);
+        return isUndefined(offset, m_offsetSize) ? UNDEFINED_ADDRESS : offset;
+    }
+
+    private long readLength(final ByteBuffer buffer) {
+        return readUnsigned(buffer, m_lengthSize);
+    }
+
+    private static long readUnsigned(final ByteBuffer buffer, final int size) {
+        switch (size) {
+            case 1:
+                return Byte.toUnsignedLong(buffer.get());
+            case 2:
+                return Short.toUnsignedLong(buffer.getShort());
+            case 4:
+                return Integer.toUnsignedLong(buffer.getInt());
+            case 8:
+                return buffer.getLong();
+            default:
+                throw new IllegalArgumentException("Unsupported field size: " + size + ".");
+        }
+    }
+
+    private static boolean isUndefined(final long value, final int size) {
+        return size == 8 ? value == -1L : value == (1L << (8 * size)) - 1;
+    }
+
+    private static int checkedSize(final long size) throws IOException {
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("HDF5 structure size out of range: " + size + ".");
+        }
+        return (int)size;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.io;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.JsonUtil;
+import org.knime.core.util.Version;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.keras.core.io.DLKerasModelConfigSpecInferrer.DLKerasUnsupportedModelConfigException;
+import org.knime.dl.keras.core.layers.DLKerasDataFormat;
+
+/**
+ * Reads the tensor specs of a Keras network that was saved to an HDF5 file (via <code>model.save(..)</code>) directly
+ * on Java side, i.e. without starting a Python process, loading Keras and instantiating the network.
+ * <P>
+ * Only a subset of all possible Keras networks is supported (see {@link DLKerasModelConfigSpecInferrer}). For all
+ * other networks, {@link #read(Path)} returns an empty result and the network must be read via Python.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasH5NetworkSpecReader {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasH5NetworkSpecReader.class);
+
+    private static final String MODEL_CONFIG_ATTRIBUTE = "model_config";
+
+    private static final String KERAS_VERSION_ATTRIBUTE = "keras_version";
+
+    private static final String KERAS_HOME_ENV_VAR = "KERAS_HOME";
+
+    private static final String KERAS_CONFIG_FILE_NAME = "keras.json";
+
+    private static final String IMAGE_DATA_FORMAT_KEY = "image_data_format";
+
+    private static final Pattern KERAS_VERSION_PATTERN = Pattern.compile("^(\\d+)\\.(\\d+)(?:\\.(\\d+))?");
+
+    private DLKerasH5NetworkSpecReader() {
+        // utility class
+    }
+
+    /**
+     * Tries to read the tensor specs of the Keras network stored in the given HDF5 file. Networks whose layers do not
+     * specify a data format get the dimension order of the image data format in the local Keras configuration file,
+     * just like on Python side.
+     *
+     * @param file the HDF5 file
+     * @return the specs of the network, or an empty optional if the file or the network cannot be handled on Java side
+     */
+    public static Optional<DLKerasH5NetworkSpecs> read(final Path file) {
+        final Optional<DLKerasDataFormat> dataFormat = readConfiguredDataFormat();
+        return dataFormat.isPresent() ? read(file, dataFormat.get()) : Optional.empty();
+    }
+
+    /**
+     * Tries to read the tensor specs of the Keras network stored in the given HDF5 file.
+     *
+     * @param file the HDF5 file
+     * @param defaultDataFormat the data format of networks whose layers do not specify a data format
+     * @return the specs of the network, or an empty optional if the file or the network cannot be handled on Java side
+     */
+    public static Optional<DLKerasH5NetworkSpecs> read(final Path file, final DLKerasDataFormat defaultDataFormat) {
+        try {
+            final Map<String, String> attributes = DLKerasH5AttributeReader.readRootAttributes(file);
+            final String modelConfig = attributes.get(MODEL_CONFIG_ATTRIBUTE);
+            final Version kerasVersion = parseKerasVersion(attributes.get(KERAS_VERSION_ATTRIBUTE));
+            if (modelConfig == null || kerasVersion == null) {
+                LOGGER.debug("Keras network file '" + file + "' does not contain a model configuration or a Keras "
+                    + "version. Network must be read via Python.");
+                return Optional.empty();
+            }
+            final JsonObject modelConfigJson;
+            try (JsonReader reader = JsonUtil.getProvider().createReader(new StringReader(modelConfig))) {
+                modelConfigJson = reader.readObject();
+            }
+            final DLTensorSpec[][] specs =
+                DLKerasModelConfigSpecInferrer.inferSpecs(modelConfigJson, defaultDataFormat);
+            return Optional.of(new DLKerasH5NetworkSpecs(kerasVersion, specs[0], specs[1], specs[2]));
+        } catch (final DLKerasUnsupportedModelConfigException e) {
+            LOGGER.debug("Keras network in file '" + file + "' cannot be read on Java side. Network must be read via "
+                + "Python. Reason: " + e.getMessage());
+        } catch (final Exception e) {
+            LOGGER.debug("Failed to read Keras network file '" + file + "' on Java side. Network must be read via "
+                + "Python. Reason: " + e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Resolves the image data format from the Keras configuration file the same way Keras does: the file is located in
+     * <code>$KERAS_HOME</code> or, if not set, in <code>~/.keras</code> (<code>/tmp/.keras</code> if the home
+     * directory is not writable). Keras uses "channels_last" if there is no such file.
+     *
+     * @return the configured data format, or an empty optional if the configuration file cannot be interpreted
+     */
+    static Optional<DLKerasDataFormat> readConfiguredDataFormat() {
+        final String kerasHome = System.getenv(KERAS_HOME_ENV_VAR);
+        final Path kerasDir;
+        if (kerasHome != null) {
+            kerasDir = Paths.get(kerasHome);
+        } else {
+            final Path userHome = Paths.get(System.getProperty("user.home"));
+            kerasDir = (Files.isWritable(userHome) ? userHome : Paths.get("/tmp")).resolve(".keras");
+        }
+        final Path configFile = kerasDir.resolve(KERAS_CONFIG_FILE_NAME);
+        if (!Files.isRegularFile(configFile)) {
+            return Optional.of(DLKerasDataFormat.CHANNEL_LAST);
+        }
+        try (Reader in = Files.newBufferedReader(configFile, StandardCharsets.UTF_8);
+                JsonReader reader = JsonUtil.getProvider().createReader(in)) {
+            final String dataFormat =
+                reader.readObject().getString(IMAGE_DATA_FORMAT_KEY, DLKerasDataFormat.CHANNEL_LAST.value());
+            for (final DLKerasDataFormat candidate : DLKerasDataFormat.values()) {
+                if (candidate.value().equals(dataFormat)) {
+                    return Optional.of(candidate);
+                }
+            }
+            LOGGER.debug("Unknown image data format '" + dataFormat + "' in Keras configuration file '" + configFile
+                + "'. Network must be read via Python.");
+        } catch (final Exception e) {
+            LOGGER.debug("Failed to read Keras configuration file '" + configFile + "'. Network must be read via "
+                + "Python. Reason: " + e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    private static Version parseKerasVersion(final String kerasVersion) {
+        if (kerasVersion == null) {
+            return null;
+        }
+        final Matcher matcher = KERAS_VERSION_PATTERN.matcher(kerasVersion.trim());
+        if (!matcher.find()) {
+            return null;
+        }
+        final int revision = matcher.group(3) != null ? Integer.parseInt(matcher.group(3)) : 0;
+        return new Version(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), revision);
+    }
+
+    /**
+     * The tensor specs of a Keras network and the Keras version that was used to save it.
+     */
+    public static final class DLKerasH5NetworkSpecs {
+
+        private final Version m_kerasVersion;
+
+        private final DLTensorSpec[] m_inputSpecs;
+
+        private final DLTensorSpec[] m_hiddenOutputSpecs;
+
+        private final DLTensorSpec[] m_outputSpecs;
+
+        private DLKerasH5NetworkSpecs(final Version kerasVersion, final DLTensorSpec[] inputSpecs,
+            final DLTensorSpec[] hiddenOutputSpecs, final DLTensorSpec[] outputSpecs) {
+            m_kerasVersion = kerasVersion;
+            m_inputSpecs = inputSpecs;
+            m_hiddenOutputSpecs = hiddenOutputSpecs;
+            m_outputSpecs = outputSpecs;
+        }
+
+        /**
+         * @return the Keras version that was used to save the network
+         */
+        public Version getKerasVersion() {
+            return m_kerasVersion;
+        }
+
+        /**
+         * @return the input tensor specs
+         */
+        public DLTensorSpec[] getInputSpecs() {
+            return m_inputSpecs;
+        }
+
+        /**
+         * @return the hidden output tensor specs
+         */
+        public DLTensorSpec[] getHiddenOutputSpecs() {
+            return m_hiddenOutputSpecs;
+        }
+
+        /**
+         * @return the output tensor specs
+         */
+        public DLTensorSpec[] getOutputSpecs() {
+            return m_outputSpecs;
+        }
+    }
+}
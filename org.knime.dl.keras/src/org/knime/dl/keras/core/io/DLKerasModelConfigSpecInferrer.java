@@ -0,0 +1,695 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultPartialTensorShape;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensorShape;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.keras.core.layers.DLConvolutionLayerUtils;
+import org.knime.dl.keras.core.layers.DLKerasDataFormat;
+import org.knime.dl.keras.util.DLKerasUtils;
+import org.knime.dl.python.core.DLPythonNumPyTypeMap;
+
+/**
+ * Infers the input, hidden output and output tensor specs of a Keras network from its serialized model configuration
+ * (the JSON string Keras stores in the <code>model_config</code> attribute of an HDF5 file) without instantiating the
+ * network.
+ * <P>
+ * The inferred specs mirror the ones that are extracted on Python side by <code>DLKerasNetworkSpecExtractor</code>.
+ * Only functional models whose layers are each called exactly once and whose layer types are known to this class are
+ * supported. Everything else (sequential models, whose specs depend on the installed Keras version, shared layers,
+ * nested models, custom layers, ...) causes an {@link DLKerasUnsupportedModelConfigException} and must be handled by
+ * reading the network via Python.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLKerasModelConfigSpecInferrer {
+
+    private static final String DEFAULT_DTYPE = "float32";
+
+    private static final Set<String> FUNCTIONAL_MODEL_CLASSES =
+        Collections.unmodifiableSet(new HashSet<>(Arrays.asList("Model", "Functional")));
+
+    /**
+     * Layers whose output has the same shape and element type as their (single) input.
+     */
+    private static final Set<String> IDENTITY_LAYERS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "Activation", "ActivityRegularization", "AlphaDropout", "Dropout", "ELU", "GaussianDropout", "GaussianNoise",
+        "LeakyReLU", "Masking", "PReLU", "ReLU", "Softmax", "SpatialDropout1D", "SpatialDropout2D", "SpatialDropout3D",
+        "ThresholdedReLU")));
+
+    /**
+     * Layers whose output has the same shape as their input but whose element type is the (default) float type.
+     */
+    private static final Set<String> FLOAT_IDENTITY_LAYERS =
+        Collections.unmodifiableSet(new HashSet<>(Arrays.asList("BatchNormalization")));
+
+    private static final Set<String> CONVOLUTION_LAYERS = Collections.unmodifiableSet(new HashSet<>(
+        Arrays.asList("Conv1D", "Conv2D", "Conv3D", "SeparableConv1D", "SeparableConv2D", "DepthwiseConv2D")));
+
+    /**
+     * Convolution layers that always have a <code>data_format</code> attribute on Python side even though some Keras
+     * versions do not serialize it.
+     */
+    private static final Set<String> IMPLICIT_CHANNELS_LAST_LAYERS =
+        Collections.unmodifiableSet(new HashSet<>(Arrays.asList("Conv1D", "SeparableConv1D")));
+
+    private static final Set<String> POOLING_LAYERS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "MaxPooling1D", "MaxPooling2D", "MaxPooling3D", "AveragePooling1D", "AveragePooling2D", "AveragePooling3D")));
+
+    private static final Set<String> GLOBAL_POOLING_LAYERS = Collections.unmodifiableSet(new HashSet<>(
+        Arrays.asList("GlobalMaxPooling1D", "GlobalMaxPooling2D", "GlobalMaxPooling3D", "GlobalAveragePooling1D",
+            "GlobalAveragePooling2D", "GlobalAveragePooling3D")));
+
+    private static final Set<String> RECURRENT_LAYERS = Collections.unmodifiableSet(
+        new HashSet<>(Arrays.asList("SimpleRNN", "GRU", "LSTM", "CuDNNGRU", "CuDNNLSTM")));
+
+    private static final Set<String> ELEMENTWISE_MERGE_LAYERS = Collections.unmodifiableSet(
+        new HashSet<>(Arrays.asList("Add", "Subtract", "Multiply", "Average", "Maximum", "Minimum")));
+
+    private final List<DLTensorSpec> m_inputSpecs = new ArrayList<>();
+
+    private final List<DLTensorSpec> m_hiddenOutputSpecs = new ArrayList<>();
+
+    private final List<DLTensorSpec> m_outputSpecs = new ArrayList<>();
+
+    private final DLKerasDataFormat m_defaultDataFormat;
+
+    private DLKerasModelConfigSpecInferrer(final DLKerasDataFormat defaultDataFormat) {
+        m_defaultDataFormat = defaultDataFormat;
+    }
+
+    /**
+     * Infers the tensor specs of the network described by the given model configuration.
+     *
+     * @param modelConfig the model configuration as stored by Keras
+     * @param defaultDataFormat the image data format Keras is configured with, which determines the dimension order of
+     *            networks whose layers do not specify a data format
+     * @return the input specs, hidden output specs and output specs (in that order)
+     * @throws DLKerasUnsupportedModelConfigException if the model configuration is not supported by this class
+     */
+    static DLTensorSpec[][] inferSpecs(final JsonObject modelConfig, final DLKerasDataFormat defaultDataFormat)
+        throws DLKerasUnsupportedModelConfigException {
+        final String className = getString(modelConfig, "class_name", null);
+        if (!FUNCTIONAL_MODEL_CLASSES.contains(className)) {
+            throw new DLKerasUnsupportedModelConfigException("Unsupported model class: " + className + ".");
+        }
+        final DLKerasModelConfigSpecInferrer inferrer = new DLKerasModelConfigSpecInferrer(defaultDataFormat);
+        inferrer.inferFunctionalModelSpecs(getObject(modelConfig, "config"));
+        return new DLTensorSpec[][]{inferrer.m_inputSpecs.toArray(new DLTensorSpec[0]),
+            inferrer.m_hiddenOutputSpecs.toArray(new DLTensorSpec[0]),
+            inferrer.m_outputSpecs.toArray(new DLTensorSpec[0])};
+    }
+
+    private void inferFunctionalModelSpecs(final JsonObject config) throws DLKerasUnsupportedModelConfigException {
+        final JsonArray layers = getArray(config, "layers");
+        final List<String> inputLayerNames = getSingleNodeLayerNames(getArray(config, "input_layers"));
+        final List<String> outputLayerNames = getSingleNodeLayerNames(getArray(config, "output_layers"));
+        final DLDimensionOrder dimensionOrder = determineDimensionOrder(layers);
+
+        // Layer name -> inferred output tensor. Keras serializes the layers of a model in topological order.
+        final Map<String, DLKerasInferredTensor> outputs = new LinkedHashMap<>();
+        final Map<String, DLTensorSpec> inputSpecs = new HashMap<>();
+        final Map<String, DLTensorSpec> outputSpecs = new HashMap<>();
+        for (final JsonValue layerValue : layers) {
+            final JsonObject layer = asObject(layerValue);
+            final String layerClassName = getString(layer, "class_name", null);
+            final String layerName = getString(layer, "name", null);
+            if (layerName == null || outputs.containsKey(layerName)) {
+                throw new DLKerasUnsupportedModelConfigException("Missing or duplicate layer name: " + layerName + ".");
+            }
+            final JsonObject layerConfig = getObject(layer, "config");
+            final List<DLKerasInferredTensor> layerInputs = new ArrayList<>();
+            final JsonArray inboundNodes = getArray(layer, "inbound_nodes");
+            if ("InputLayer".equals(layerClassName)) {
+                if (!inboundNodes.isEmpty()) {
+                    throw new DLKerasUnsupportedModelConfigException("Input layer '" + layerName + "' has inputs.");
+                }
+            } else {
+                if (inboundNodes.size() != 1) {
+                    throw new DLKerasUnsupportedModelConfigException(
+                        "Layer '" + layerName + "' is shared or not connected.");
+                }
+                for (final JsonValue inboundTensor : asArray(inboundNodes.get(0))) {
+                    final JsonArray inbound = asArray(inboundTensor);
+                    final DLKerasInferredTensor input = outputs.get(getString(inbound, 0));
+                    if (input == null || getLong(inbound, 1) != 0 || getLong(inbound, 2) != 0) {
+                        throw new DLKerasUnsupportedModelConfigException(
+                            "Unsupported inbound node of layer '" + layerName + "'.");
+                    }
+                    layerInputs.add(input);
+                }
+            }
+            final DLKerasInferredTensor output = inferOutput(layerClassName, layerConfig, layerInputs);
+            outputs.put(layerName, output);
+            final DLTensorSpec spec = createTensorSpec(layerName, output, dimensionOrder);
+            if (inputLayerNames.contains(layerName)) {
+                inputSpecs.put(layerName, spec);
+            }
+            if (outputLayerNames.contains(layerName)) {
+                outputSpecs.put(layerName, spec);
+            } else {
+                m_hiddenOutputSpecs.add(spec);
+            }
+        }
+        for (final String inputLayerName : inputLayerNames) {
+            final DLTensorSpec spec = inputSpecs.get(inputLayerName);
+            if (spec == null) {
+                throw new DLKerasUnsupportedModelConfigException(
+                    "Model input '" + inputLayerName + "' is not an input layer.");
+            }
+            m_inputSpecs.add(spec);
+        }
+        for (final String outputLayerName : outputLayerNames) {
+            final DLTensorSpec spec = outputSpecs.get(outputLayerName);
+            if (spec == null) {
+                throw new DLKerasUnsupportedModelConfigException(
+                    "Model output '" + outputLayerName + "' cannot be found.");
+            }
+            m_outputSpecs.add(spec);
+        }
+    }
+
+    private static List<String> getSingleNodeLayerNames(final JsonArray layerReferences)
+        throws DLKerasUnsupportedModelConfigException {
+        final List<String> names = new ArrayList<>(layerReferences.size());
+        for (final JsonValue layerReferenceValue : layerReferences) {
+            final JsonArray layerReference = asArray(layerReferenceValue);
+            final String name = getString(layerReference, 0);
+            if (getLong(layerReference, 1) != 0 || getLong(layerReference, 2) != 0 || names.contains(name)) {
+                throw new DLKerasUnsupportedModelConfigException(
+                    "Model inputs or outputs that refer to shared layers or tensors are not supported.");
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    /**
+     * Same logic as in <code>DLKerasNetworkSpecExtractor._determine_data_format</code>. If no layer specifies a data
+     * format, the data format Keras is configured with is used.
+     */
+    private DLDimensionOrder determineDimensionOrder(final JsonArray layers)
+        throws DLKerasUnsupportedModelConfigException {
+        final Set<String> dataFormats = new HashSet<>();
+        for (final JsonValue layerValue : layers) {
+            final JsonObject layer = asObject(layerValue);
+            final JsonObject layerConfig = getObject(layer, "config");
+            final String dataFormat = getString(layerConfig, "data_format", null);
+            if (dataFormat != null) {
+                dataFormats.add(dataFormat);
+            } else if (IMPLICIT_CHANNELS_LAST_LAYERS.contains(getString(layer, "class_name", null))) {
+                dataFormats.add(DLKerasDataFormat.CHANNEL_LAST.value());
+            }
+        }
+        if (dataFormats.size() > 1) {
+            // Let Python report the error.
+            throw new DLKerasUnsupportedModelConfigException("The network contains conflicting data formats.");
+        }
+        if (dataFormats.isEmpty()) {
+            return m_defaultDataFormat.getDimensionOrder();
+        }
+        return DLKerasDataFormat.CHANNEL_FIRST.value().equals(dataFormats.iterator().next())
+            ? DLKerasDataFormat.CHANNEL_FIRST.getDimensionOrder() : DLKerasDataFormat.CHANNEL_LAST.getDimensionOrder();
+    }
+
+    private static DLKerasInferredTensor inferOutput(final String className, final JsonObject config,
+        final List<DLKerasInferredTensor> inputs) throws DLKerasUnsupportedModelConfigException {
+        if ("InputLayer".equals(className)) {
+            final Long[] shape = getShape(config, "batch_input_shape");
+            if (shape == null || shape.length == 0) {
+                throw new DLKerasUnsupportedModelConfigException("Input layer without input shape.");
+            }
+            return new DLKerasInferredTensor(shape, getString(config, "dtype", DEFAULT_DTYPE));
+        }
+        if (inputs.isEmpty()) {
+            throw new DLKerasUnsupportedModelConfigException("Layer of type " + className + " has no inputs.");
+        }
+        final DLKerasInferredTensor input = inputs.get(0);
+        if (IDENTITY_LAYERS.contains(className)) {
+            return single(inputs).withShape(input.m_shape);
+        } else if (FLOAT_IDENTITY_LAYERS.contains(className)) {
+            return single(inputs).withShape(input.m_shape).withDefaultType();
+        } else if (ELEMENTWISE_MERGE_LAYERS.contains(className)) {
+            for (final DLKerasInferredTensor other : inputs) {
+                if (!Arrays.equals(input.m_shape, other.m_shape)) {
+                    // Broadcasting is not supported.
+                    throw new DLKerasUnsupportedModelConfigException(
+                        "Inputs of merge layer of type " + className + " differ in shape.");
+                }
+            }
+            return input;
+        } else if ("Concatenate".equals(className)) {
+            return inferConcatenateOutput(config, inputs);
+        }
+        // Everything below operates on the shape without the batch dimension.
+        final Long[] in = single(inputs).featureShape();
+        if (in.length == 0) {
+            throw new DLKerasUnsupportedModelConfigException("Layer of type " + className + " has a scalar input.");
+        }
+        final Long[] out;
+        boolean defaultType = false;
+        if ("Dense".equals(className)) {
+            out = in.clone();
+            out[out.length - 1] = getLong(config, "units");
+            defaultType = true;
+        } else if ("Flatten".equals(className)) {
+            out = new Long[]{product(in)};
+        } else if ("Reshape".equals(className)) {
+            out = inferReshapeOutput(in, getShape(config, "target_shape"));
+        } else if ("Permute".equals(className)) {
+            final Long[] dims = getShape(config, "dims");
+            if (dims == null || dims.length != in.length) {
+                throw new DLKerasUnsupportedModelConfigException("Invalid permutation.");
+            }
+            out = new Long[dims.length];
+            for (int i = 0; i < dims.length; i++) {
+                if (dims[i] == null || dims[i] < 1 || dims[i] > in.length) {
+                    throw new DLKerasUnsupportedModelConfigException("Invalid permutation.");
+                }
+                out[i] = in[(int)(dims[i] - 1)];
+            }
+        } else if ("RepeatVector".equals(className) && in.length == 1) {
+            out = new Long[]{getLong(config, "n"), in[0]};
+        } else if ("Embedding".equals(className)) {
+            out = Arrays.copyOf(in, in.length + 1);
+            out[in.length] = getLong(config, "output_dim");
+            defaultType = true;
+        } else if (CONVOLUTION_LAYERS.contains(className)) {
+            final int rank = in.length - 1;
+            final String dataFormat = getDataFormat(config);
+            final Long[] kernelSize = getTuple(config, "kernel_size", rank, null);
+            final Long[] strides = getTuple(config, "strides", rank, 1L);
+            final Long[] dilation = getTuple(config, "dilation_rate", rank, 1L);
+            final String padding = getPadding(config);
+            if ("DepthwiseConv2D".equals(className)) {
+                out = DLConvolutionLayerUtils.computeOutputShape(in, kernelSize, strides, dilation, padding,
+                    dataFormat);
+                final int channelIndex = DLKerasDataFormat.CHANNEL_FIRST.value().equals(dataFormat) ? 0 : rank;
+                out[channelIndex] = out[channelIndex] == null ? null
+                    : out[channelIndex] * getLong(config, "depth_multiplier", 1L);
+            } else {
+                out = DLConvolutionLayerUtils.computeOutputShape(in, getLong(config, "filters"), kernelSize, strides,
+                    dilation, padding, dataFormat);
+            }
+            defaultType = true;
+        } else if (POOLING_LAYERS.contains(className)) {
+            final int rank = in.length - 1;
+            final Long[] poolSize = getTuple(config, "pool_size", rank, null);
+            // Strides default to the pool size.
+            final Long[] strides = isAbsent(config, "strides") ? poolSize : getTuple(config, "strides", rank, null);
+            final Long[] dilation = new Long[rank];
+            Arrays.fill(dilation, 1L);
+            out = DLConvolutionLayerUtils.computeOutputShape(in, poolSize, strides, dilation, getPadding(config),
+                getDataFormat(config));
+            defaultType = className.startsWith("Average");
+        } else if (GLOBAL_POOLING_LAYERS.contains(className)) {
+            out = DLConvolutionLayerUtils.computeGlobalPoolingOutputShape(in, getDataFormat(config));
+            defaultType = className.startsWith("GlobalAverage");
+        } else if (className.startsWith("UpSampling") || className.startsWith("ZeroPadding")
+            || className.startsWith("Cropping")) {
+            out = inferSpatialResizingOutput(className, config, in);
+        } else if (RECURRENT_LAYERS.contains(className)) {
+            if (getBoolean(config, "return_state") || getBoolean(config, "stateful") || in.length != 2) {
+                throw new DLKerasUnsupportedModelConfigException(
+                    "Stateful recurrent layers or layers that return their states are not supported.");
+            }
+            final long units = getLong(config, "units");
+            out = getBoolean(config, "return_sequences") ? new Long[]{in[0], units} : new Long[]{units};
+            defaultType = true;
+        } else {
+            throw new DLKerasUnsupportedModelConfigException("Unsupported layer type: " + className + ".");
+        }
+        final DLKerasInferredTensor output = input.withFeatureShape(out);
+        return defaultType ? output.withDefaultType() : output;
+    }
+
+    private static DLKerasInferredTensor inferConcatenateOutput(final JsonObject config,
+        final List<DLKerasInferredTensor> inputs) throws DLKerasUnsupportedModelConfigException {
+        final Long[] first = inputs.get(0).m_shape;
+        int axis = (int)getLong(config, "axis", -1L);
+        if (axis < 0) {
+            axis += first.length;
+        }
+        if (axis <= 0 || axis >= first.length) {
+            throw new DLKerasUnsupportedModelConfigException("Invalid concatenation axis.");
+        }
+        final Long[] out = first.clone();
+        for (final DLKerasInferredTensor input : inputs.subList(1, inputs.size())) {
+            if (input.m_shape.length != first.length) {
+                throw new DLKerasUnsupportedModelConfigException("Concatenated inputs differ in rank.");
+            }
+            out[axis] = out[axis] == null || input.m_shape[axis] == null ? null : out[axis] + input.m_shape[axis];
+        }
+        return inputs.get(0).withShape(out);
+    }
+
+    private static Long[] inferReshapeOutput(final Long[] in, final Long[] targetShape)
+        throws DLKerasUnsupportedModelConfigException {
+        if (targetShape == null) {
+            throw new DLKerasUnsupportedModelConfigException("Reshape layer without target shape.");
+        }
+        final Long[] out = targetShape.clone();
+        int unknownIndex = -1;
+        long knownProduct = 1;
+        for (int i = 0; i < out.length; i++) {
+            if (out[i] == null || out[i] == -1) {
+                unknownIndex = i;
+            } else {
+                knownProduct *= out[i];
+            }
+        }
+        if (unknownIndex != -1) {
+            final Long inputProduct = product(in);
+            out[unknownIndex] = inputProduct == null ? null : inputProduct / knownProduct;
+        }
+        return out;
+    }
+
+    private static Long[] inferSpatialResizingOutput(final String className, final JsonObject config,
+        final Long[] in) throws DLKerasUnsupportedModelConfigException {
+        final int rank = in.length - 1;
+        final String dataFormat = getDataFormat(config);
+        final DLKerasDataFormat format = DLKerasDataFormat.CHANNEL_FIRST.value().equals(dataFormat)
+            ? DLKerasDataFormat.CHANNEL_FIRST : DLKerasDataFormat.CHANNEL_LAST;
+        if (className.startsWith("UpSampling")) {
+            if (!"nearest".equals(getString(config, "interpolation", "nearest"))) {
+                throw new DLKerasUnsupportedModelConfigException("Unsupported up-sampling interpolation.");
+            }
+            return DLConvolutionLayerUtils.computeUpSamplingOutputShape(in, getTuple(config, "size", rank, 2L),
+                format);
+        }
+        final boolean padding = className.startsWith("ZeroPadding");
+        final JsonValue value = config.get(padding ? "padding" : "cropping");
+        if (value == null) {
+            throw new DLKerasUnsupportedModelConfigException("Missing padding or cropping of layer " + className + ".");
+        }
+        // Either a single integer, a (before, after) pair (one-dimensional case) or one such pair per dimension.
+        final Long[][] amounts = new Long[rank][];
+        for (int i = 0; i < rank; i++) {
+            final JsonValue dimension = value.getValueType() == ValueType.ARRAY && rank > 1 ? asArray(value).get(i)
+                : value;
+            amounts[i] = getTuple(dimension, 2);
+        }
+        return padding ? DLConvolutionLayerUtils.computePaddingOutputShape(in, amounts, format)
+            : DLConvolutionLayerUtils.computeCroppingOutputShape(in, amounts, format);
+    }
+
+    private static DLKerasInferredTensor single(final List<DLKerasInferredTensor> inputs)
+        throws DLKerasUnsupportedModelConfigException {
+        if (inputs.size() != 1) {
+            throw new DLKerasUnsupportedModelConfigException("Layer expects exactly one input.");
+        }
+        return inputs.get(0);
+    }
+
+    private static Long product(final Long[] shape) {
+        long product = 1;
+        for (final Long dim : shape) {
+            if (dim == null) {
+                return null;
+            }
+            product *= dim;
+        }
+        return product;
+    }
+
+    private static DLTensorSpec createTensorSpec(final String layerName, final DLKerasInferredTensor tensor,
+        final DLDimensionOrder dimensionOrder) throws DLKerasUnsupportedModelConfigException {
+        final DLDefaultTensorId id = new DLDefaultTensorId(DLKerasUtils.Tensors.createTensorName(layerName, 0, 0));
+        final Class<?> type;
+        try {
+            type = DLPythonNumPyTypeMap.INSTANCE.getPreferredInternalType(tensor.m_dtype);
+        } catch (final IllegalArgumentException e) {
+            throw new DLKerasUnsupportedModelConfigException("Unsupported element type: " + tensor.m_dtype + ".");
+        }
+        final Long[] featureShape = tensor.featureShape();
+        final DLTensorShape shape;
+        if (Arrays.stream(featureShape).allMatch(d -> d != null)) {
+            shape = new DLDefaultFixedTensorShape(Arrays.stream(featureShape).mapToLong(Long::longValue).toArray());
+        } else {
+            shape = new DLDefaultPartialTensorShape(Arrays.stream(featureShape)
+                .map(d -> d == null ? OptionalLong.empty() : OptionalLong.of(d)).toArray(OptionalLong[]::new));
+        }
+        final Long batchSize = tensor.m_shape[0];
+        // Same as on Python side: the name of the tensor is back end dependent, we fall back to the identifier.
+        return batchSize != null && batchSize > 0
+            ? new DLDefaultTensorSpec(id, id.getIdentifierString(), batchSize, shape, type, dimensionOrder)
+            : new DLDefaultTensorSpec(id, id.getIdentifierString(), shape, type, dimensionOrder);
+    }
+
+    // JSON access:
+
+    private static String getDataFormat(final JsonObject config) {
+        return getString(config, "data_format", DLKerasDataFormat.CHANNEL_LAST.value());
+    }
+
+    private static String getPadding(final JsonObject config) throws DLKerasUnsupportedModelConfigException {
+        final String padding = getString(config, "padding", "valid");
+        if ("causal".equals(padding)) {
+            // Causal padding preserves the input length just like "same" padding does.
+            return "same";
+        } else if (!"valid".equals(padding) && !"same".equals(padding)) {
+            throw new DLKerasUnsupportedModelConfigException("Unsupported padding: " + padding + ".");
+        }
+        return padding;
+    }
+
+    private static JsonObject asObject(final JsonValue value) throws DLKerasUnsupportedModelConfigException {
+        if (value == null || value.getValueType() != ValueType.OBJECT) {
+            throw new DLKerasUnsupportedModelConfigException("Malformed model configuration.");
+        }
+        return (JsonObject)value;
+    }
+
+    private static JsonArray asArray(final JsonValue value) throws DLKerasUnsupportedModelConfigException {
+        if (value == null || value.getValueType() != ValueType.ARRAY) {
+            throw new DLKerasUnsupportedModelConfigException("Malformed model configuration.");
+        }
+        return (JsonArray)value;
+    }
+
+    private static JsonObject getObject(final JsonObject object, final String key)
+        throws DLKerasUnsupportedModelConfigException {
+        return asObject(object.get(key));
+    }
+
+    private static JsonArray getArray(final JsonObject object, final String key)
+        throws DLKerasUnsupportedModelConfigException {
+        return asArray(object.get(key));
+    }
+
+    private static String getString(final JsonObject object, final String key, final String defaultValue) {
+        final JsonValue value = object.get(key);
+        return value != null && value.getValueType() == ValueType.STRING ? ((JsonString)value).getString()
+            : defaultValue;
+    }
+
+    private static String getString(final JsonArray array, final int index)
+        throws DLKerasUnsupportedModelConfigException {
+        final JsonValue value = array.size() > index ? array.get(index) : null;
+        if (value == null || value.getValueType() != ValueType.STRING) {
+            throw new DLKerasUnsupportedModelConfigException("Malformed model configuration.");
+        }
+        return ((JsonString)value).getString();
+    }
+
+    private static boolean getBoolean(final JsonObject object, final String key) {
+        final JsonValue value = object.get(key);
+        return value != null && value.getValueType() == ValueType.TRUE;
+    }
+
+    private static long getLong(final JsonObject object, final String key)
+        throws DLKerasUnsupportedModelConfigException {
+        final JsonValue value = object.get(key);
+        if (value == null || value.getValueType() != ValueType.NUMBER) {
+            throw new DLKerasUnsupportedModelConfigException("Missing or malformed layer parameter: " + key + ".");
+        }
+        return ((JsonNumber)value).longValueExact();
+    }
+
+    private static long getLong(final JsonObject object, final String key, final long defaultValue)
+        throws DLKerasUnsupportedModelConfigException {
+        return isAbsent(object, key) ? defaultValue : getLong(object, key);
+    }
+
+    private static boolean isAbsent(final JsonObject object, final String key) {
+        final JsonValue value = object.get(key);
+        return value == null || value.getValueType() == ValueType.NULL;
+    }
+
+    private static long getLong(final JsonArray array, final int index) throws DLKerasUnsupportedModelConfigException {
+        final JsonValue value = array.size() > index ? array.get(index) : null;
+        if (value == null || value.getValueType() != ValueType.NUMBER) {
+            throw new DLKerasUnsupportedModelConfigException("Malformed model configuration.");
+        }
+        return ((JsonNumber)value).longValueExact();
+    }
+
+    /**
+     * @return the shape stored under the given key, <code>null</code> elements denote unknown dimensions; or
+     *         <code>null</code> if there is no such shape
+     */
+    private static Long[] getShape(final JsonObject object, final String key)
+        throws DLKerasUnsupportedModelConfigException {
+        if (isAbsent(object, key)) {
+            return null;
+        }
+        final JsonArray array = asArray(object.get(key));
+        final Long[] shape = new Long[array.size()];
+        for (int i = 0; i < shape.length; i++) {
+            final JsonValue dim = array.get(i);
+            shape[i] = dim.getValueType() == ValueType.NUMBER ? ((JsonNumber)dim).longValueExact() : null;
+        }
+        return shape;
+    }
+
+    /**
+     * Reads a parameter that can either be given as a single integer or as a tuple of integers (one per spatial
+     * dimension), like Keras' <code>kernel_size</code>.
+     *
+     * @param defaultValue the value of each element if the parameter is absent, if <code>null</code> the parameter is
+     *            mandatory
+     */
+    private static Long[] getTuple(final JsonObject object, final String key, final int length,
+        final Long defaultValue) throws DLKerasUnsupportedModelConfigException {
+        if (isAbsent(object, key)) {
+            if (defaultValue == null) {
+                throw new DLKerasUnsupportedModelConfigException("Missing layer parameter: " + key + ".");
+            }
+            final Long[] tuple = new Long[length];
+            Arrays.fill(tuple, defaultValue);
+            return tuple;
+        }
+        return getTuple(object.get(key), length);
+    }
+
+    private static Long[] getTuple(final JsonValue value, final int length)
+        throws DLKerasUnsupportedModelConfigException {
+        final Long[] tuple = new Long[length];
+        if (value.getValueType() == ValueType.NUMBER) {
+            Arrays.fill(tuple, ((JsonNumber)value).longValueExact());
+        } else {
+            final JsonArray array = asArray(value);
+            if (array.size() != length) {
+                throw new DLKerasUnsupportedModelConfigException("Layer parameter has an unexpected length.");
+            }
+            for (int i = 0; i < length; i++) {
+                tuple[i] = getLong(array, i);
+            }
+        }
+        return tuple;
+    }
+
+    /**
+     * The inferred shape (including the batch dimension) and NumPy element type of a layer's output tensor.
+     */
+    private static final class DLKerasInferredTensor {
+
+        private final Long[] m_shape;
+
+        private final String m_dtype;
+
+        private DLKerasInferredTensor(final Long[] shape, final String dtype) {
+            m_shape = shape;
+            m_dtype = dtype;
+        }
+
+        private Long[] featureShape() {
+            return Arrays.copyOfRange(m_shape, 1, m_shape.length);
+        }
+
+        private DLKerasInferredTensor withShape(final Long[] shape) {
+            return new DLKerasInferredTensor(shape, m_dtype);
+        }
+
+        private DLKerasInferredTensor withFeatureShape(final Long[] featureShape) {
+            final Long[] shape = new Long[featureShape.length + 1];
+            shape[0] = m_shape[0];
+            System.arraycopy(featureShape, 0, shape, 1, featureShape.length);
+            return withShape(shape);
+        }
+
+        private DLKerasInferredTensor withDefaultType() {
+            return new DLKerasInferredTensor(m_shape, DEFAULT_DTYPE);
+        }
+    }
+
+    /**
+     * Thrown if a model configuration cannot be handled by {@link DLKerasModelConfigSpecInferrer}.
+     */
+    static final class DLKerasUnsupportedModelConfigException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        DLKerasUnsupportedModelConfigException(final String message) {
+            super(message);
+        }
+    }
+}
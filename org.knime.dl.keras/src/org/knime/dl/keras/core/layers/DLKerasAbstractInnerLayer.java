@@ -51,6 +51,7 @@
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.knime.dl.core.DLDefaultTensorId;
@@ -79,6 +80,18 @@ protected static void checkInputSpec(final boolean expression, final String mess
     
     private DLKerasDataFormat m_dataFormat;
 
+    /**
+     * Memoized result of {@link #getOutputSpecs()}. Only valid as long as the parents still return the output specs in
+     * {@link #m_outputSpecsParentSpecs} and the selected input tensor specs are those in
+     * {@link #m_outputSpecsInputSpecs}. Parents memoize their output specs as well, so inferring the specs of a
+     * layer only requires inferring the layer itself instead of all of its ancestors.
+     */
+    private List<DLTensorSpec> m_outputSpecs;
+
+    private List<?>[] m_outputSpecsParentSpecs;
+
+    private DLTensorSpec[] m_outputSpecsInputSpecs;
+
     public DLKerasAbstractInnerLayer(final String kerasIdentifier, final int numParents) {
         super(kerasIdentifier);
         m_parents = new DLKerasTensorSpecsOutput[numParents];
@@ -120,11 +133,20 @@ public void setParent(final int index, final DLKerasTensorSpecsOutput parent) {
         checkNotNull(parent);
         checkArgument(parent != this);
         m_parents[index] = parent;
+        resetOutputSpecs();
     }
     
     @Override
     public final void setTensorIndexInParent(int parentIndex, int indexInParent) {
         m_indexInParents[parentIndex] = indexInParent;
+        resetOutputSpecs();
+    }
+
+    @Override
+    public synchronized void resetOutputSpecs() {
+        m_outputSpecs = null;
+        m_outputSpecsParentSpecs = null;
+        m_outputSpecsInputSpecs = null;
     }
     
     @Override
@@ -133,8 +155,14 @@ public int getTensorIndexInParent(int parentIndex) {
     }
 
     @Override
-    public final List<DLTensorSpec> getOutputSpecs() throws DLInvalidTensorSpecException {
-        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
+    public final synchronized List<DLTensorSpec> getOutputSpecs() throws DLInvalidTensorSpecException {
+        final List<?>[] parentSpecs = collectParentOutputSpecs();
+        final DLTensorSpec[] selectedInputSpecs = collectSelectedInputSpecs();
+        if (m_outputSpecs != null && areUnchanged(parentSpecs, m_outputSpecsParentSpecs)
+            && Arrays.equals(selectedInputSpecs, m_outputSpecsInputSpecs)) {
+            return m_outputSpecs;
+        }
+        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs(parentSpecs);
         validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
         final List<Class<?>> outputElementTypes = inferOutputElementTypes(inputSpecs.m_elementTypes);
         final List<Long[]> outputShapes = inferOutputShapes(inputSpecs.m_shapes);
@@ -143,12 +171,15 @@ public final List<DLTensorSpec> getOutputSpecs() throws DLInvalidTensorSpecExcep
             outputSpecs.add(DLDefaultTensorSpec.create(new DLDefaultTensorId("dummy"), "dummy", inputSpecs.m_batchSize,
                 outputShapes.get(i), outputElementTypes.get(i), inputSpecs.m_dimensionOrder));
         }
-        return outputSpecs;
+        m_outputSpecs = Collections.unmodifiableList(outputSpecs);
+        m_outputSpecsParentSpecs = parentSpecs;
+        m_outputSpecsInputSpecs = selectedInputSpecs;
+        return m_outputSpecs;
     }
 
     @Override
     public final void validateInputSpecs() throws DLInvalidTensorSpecException {
-        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
+        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs(collectParentOutputSpecs());
         validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
     }
 
@@ -175,16 +206,67 @@ public boolean equalsIgnoreName(final DLKerasTensorSpecsOutput other) {
         return true;
     }
 
-    private DLInputSpecsHelperStruct collectInputSpecs() throws DLInvalidTensorSpecException {
+    /**
+     * @return the output specs of each parent, <code>null</code> at the indices of parents that are not yet set
+     */
+    private List<?>[] collectParentOutputSpecs() throws DLInvalidTensorSpecException {
+        final List<?>[] parentSpecs = new List<?>[m_parents.length];
+        for (int i = 0; i < m_parents.length; i++) {
+            if (m_parents[i] != null) {
+                parentSpecs[i] = m_parents[i].getOutputSpecs();
+            }
+        }
+        return parentSpecs;
+    }
+
+    private DLTensorSpec[] collectSelectedInputSpecs() {
+        final DLTensorSpec[] selectedInputSpecs = new DLTensorSpec[m_parents.length];
+        for (int i = 0; i < m_parents.length; i++) {
+            selectedInputSpecs[i] = getInputTensorSpec(i);
+        }
+        return selectedInputSpecs;
+    }
+
+    /**
+     * Parents that memoize their output specs return the identical list as long as they did not change. Others (e.g.
+     * input layers) return equal specs.
+     */
+    private static boolean areUnchanged(final List<?>[] parentSpecs, final List<?>[] previousParentSpecs) {
+        if (parentSpecs.length != previousParentSpecs.length) {
+            return false;
+        }
+        for (int i = 0; i < parentSpecs.length; i++) {
+            final List<?> specs = parentSpecs[i];
+            final List<?> previousSpecs = previousParentSpecs[i];
+            if (specs == previousSpecs) {
+                continue;
+            }
+            if (specs == null || previousSpecs == null || specs.size() != previousSpecs.size()) {
+                return false;
+            }
+            for (int j = 0; j < specs.size(); j++) {
+                final DLTensorSpec spec = (DLTensorSpec)specs.get(j);
+                final DLTensorSpec previousSpec = (DLTensorSpec)previousSpecs.get(j);
+                // Tensor spec equality does not take the dimension order into account.
+                if (!spec.equals(previousSpec) || spec.getDimensionOrder() != previousSpec.getDimensionOrder()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private DLInputSpecsHelperStruct collectInputSpecs(final List<?>[] parentSpecs)
+        throws DLInvalidTensorSpecException {
         Long inputBatchSize = null;
         final List<Long[]> inputShapes = new ArrayList<>(m_parents.length);
         final List<Class<?>> inputElementTypes = new ArrayList<>(m_parents.length);
         DLDimensionOrder inputDimensionOrder = null;
         for (int i = 0; i < m_parents.length; i++) {
-            DLKerasTensorSpecsOutput parent = m_parents[i];
             DLTensorSpec selected = getInputTensorSpec(i);
-            if (parent != null) {
-                final List<DLTensorSpec> parentOutputSpecs = parent.getOutputSpecs();
+            if (parentSpecs[i] != null) {
+                final List<DLTensorSpec> parentOutputSpecs = (List<DLTensorSpec>)parentSpecs[i];
                 DLTensorSpec parentOutputSpec =
                     parentOutputSpecs.contains(selected) ? selected : parentOutputSpecs.get(0);
                 if (parentOutputSpec.getBatchSize().isPresent()) {
@@ -67,4 +67,12 @@ public interface DLKerasLayer extends DLKerasTensorSpecsOutput, DLKerasObject {
 
     String getBackendRepresentation(String layerName);
 
+    /**
+     * Discards the output specs this layer may have memoized in {@link #getOutputSpecs()}. Must be called after the
+     * layer's parameters were changed. Changes of the layer's parents are detected automatically.
+     */
+    default void resetOutputSpecs() {
+        // no op - layers do not memoize their output specs by default
+    }
+
 }
@@ -0,0 +1,202 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.layers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import org.knime.dl.keras.core.layers.DLKerasNetworkGraphSerializer.LayerRecord;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+
+/**
+ * A file of Keras layer records that is shared by the layer graphs of the port objects of a workflow.
+ * <P>
+ * Each executed layer node writes one store that only contains the records of the layers that the node added to the
+ * graph, i.e. of those layers of its output graph that are not yet contained in the stores of its input port objects.
+ * Records reference their parents by content hash, so the graph of a port object is given by its own store and the
+ * stores of its predecessors (see {@link DLKerasNetworkGraphSerializer#writeGraphTo(List, ObjectOutputStream, List)}).
+ * A chain of <code>n</code> layer nodes therefore stores <code>O(n)</code> layer records
+ * in total.
+ * <P>
+ * Layers that are read from a store are kept by the store. All graphs that are resolved against the same store thus
+ * share one in-memory object graph of their common ancestors. Stores are identified by their file, so only the port
+ * objects that reference the same file store, i.e. the port objects of one workflow, share layers.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasLayerRecordStore {
+
+    /**
+     * The file extension of the file stores of layer record stores.
+     */
+    public static final String FILE_EXTENSION = "kerasrecords";
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The stores that are currently referenced by port objects, keyed by their file. Layer record store files are
+     * written once and never modified afterwards.
+     */
+    private static final Cache<File, DLKerasLayerRecordStore> OPEN_STORES =
+        CacheBuilder.newBuilder().weakValues().build();
+
+    /**
+     * Writes the records of all layers of the given graph that are not contained in any of the given predecessor
+     * stores to a new store.
+     *
+     * @param file the file of the new store, usually the file of a file store
+     * @param outputLayers the output layers of the graph
+     * @param predecessorStores the stores of the graphs that the given graph extends, may be empty
+     * @return the new store
+     * @throws IOException if failed to write the store
+     */
+    public static DLKerasLayerRecordStore write(final File file, final List<DLKerasLayer> outputLayers,
+        final List<DLKerasLayerRecordStore> predecessorStores) throws IOException {
+        final Map<HashCode, LayerRecord> records = new LinkedHashMap<>();
+        try {
+            DLKerasNetworkGraphSerializer.createRecords(outputLayers, true, records);
+        } catch (final Exception e) {
+            throw new IOException("An exception occurred while saving the Keras layer graph. See log for details.", e);
+        }
+        records.keySet().removeIf(hash -> containsRecord(predecessorStores, hash));
+        try (ObjectOutputStream objOut =
+            new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            objOut.writeInt(FORMAT_VERSION);
+            objOut.writeInt(records.size());
+            for (final LayerRecord record : records.values()) {
+                record.writeTo(objOut);
+            }
+        }
+        final DLKerasLayerRecordStore store = new DLKerasLayerRecordStore(records);
+        OPEN_STORES.put(file.getAbsoluteFile(), store);
+        return store;
+    }
+
+    /**
+     * Opens the store of the given file. Returns the store that is already open if the file is referenced by another
+     * port object.
+     *
+     * @param file the file of the store
+     * @return the store
+     * @throws IOException if failed to read the store
+     */
+    public static DLKerasLayerRecordStore open(final File file) throws IOException {
+        try {
+            return OPEN_STORES.get(file.getAbsoluteFile(), () -> read(file));
+        } catch (final ExecutionException e) {
+            throw new IOException("Failed to read Keras layer records from file '" + file + "'.", e.getCause());
+        }
+    }
+
+    static boolean containsRecord(final List<DLKerasLayerRecordStore> stores, final HashCode hash) {
+        for (final DLKerasLayerRecordStore store : stores) {
+            if (store.getRecord(hash) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static DLKerasLayerRecordStore read(final File file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream objIn = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            final int formatVersion = objIn.readInt();
+            if (formatVersion > FORMAT_VERSION) {
+                throw new IOException("The Keras layer records were saved with a newer version of KNIME. Please "
+                    + "update your KNIME Deep Learning extensions.");
+            }
+            final int numRecords = objIn.readInt();
+            final Map<HashCode, LayerRecord> records = new HashMap<>(numRecords);
+            for (int i = 0; i < numRecords; i++) {
+                final LayerRecord record = LayerRecord.readFrom(objIn);
+                records.put(record.getHash(), record);
+            }
+            return new DLKerasLayerRecordStore(records);
+        }
+    }
+
+    private final Map<HashCode, LayerRecord> m_records;
+
+    private final ConcurrentMap<HashCode, DLKerasTensorSpecsOutput> m_layers = new ConcurrentHashMap<>();
+
+    private DLKerasLayerRecordStore(final Map<HashCode, LayerRecord> records) {
+        m_records = Collections.unmodifiableMap(records);
+    }
+
+    int getNumRecords() {
+        return m_records.size();
+    }
+
+    LayerRecord getRecord(final HashCode hash) {
+        return m_records.get(hash);
+    }
+
+    DLKerasTensorSpecsOutput getLayer(final HashCode hash) {
+        return m_layers.get(hash);
+    }
+
+    DLKerasTensorSpecsOutput putLayerIfAbsent(final HashCode hash, final DLKerasTensorSpecsOutput layer) {
+        final DLKerasTensorSpecsOutput existing = m_layers.putIfAbsent(hash, layer);
+        return existing != null ? existing : layer;
+    }
+}
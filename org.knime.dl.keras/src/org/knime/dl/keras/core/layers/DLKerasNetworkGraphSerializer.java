@@ -46,30 +46,38 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeSettings;
 import org.knime.core.node.NodeSettingsRO;
-import org.knime.core.node.NodeSettingsWO;
 import org.knime.dl.core.DLNetworkFileStoreLocation;
 import org.knime.dl.core.DLNetworkLocation;
 import org.knime.dl.core.DLNetworkReferenceLocation;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.DLKerasNetworkSpecSerializer;
 import org.knime.dl.keras.core.layers.DLKerasNetworkGraphIterator.DLKerasLayerVisitor;
+import org.knime.dl.keras.core.layers.DLKerasNetworkGraphIterator.DLNetworkGraphTraversalException;
 import org.knime.dl.keras.core.struct.Structs;
 import org.knime.dl.keras.core.struct.instance.MemberReadInstance;
 import org.knime.dl.keras.core.struct.instance.MemberReadWriteInstance;
@@ -79,9 +87,18 @@
 import org.knime.dl.keras.core.struct.param.ParameterStructs;
 import org.knime.dl.keras.core.struct.param.ValidityException;
 
-import gnu.trove.TIntArrayList;
+import com.google.common.hash.HashCode;
 
 /**
+ * Serializes the layer graphs of unmaterialized Keras networks.
+ * <P>
+ * A graph is written as one record per layer. Records reference their parents by a content hash that covers the
+ * layer's class, parameters, runtime id and the hashes of its parents (base network outputs: the base network spec,
+ * the output index and the base network's source). Records that are already contained in one of the
+ * {@link DLKerasLayerRecordStore layer record stores} passed to
+ * {@link #writeGraphTo(List, ObjectOutputStream, List)} are only referenced by their hash. Reading such a graph
+ * requires the same stores, see {@link SerializedGraph#resolve(List, List)}.
+ *
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  */
@@ -89,7 +106,25 @@ public final class DLKerasNetworkGraphSerializer {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasNetworkGraphSerializer.class);
 
-    private static final String CFG_KEY_GRAPH = "layer_graph";
+    /**
+     * Negative, to be distinguishable from the number of base networks that was written first by older versions.
+     * Decremented for each incompatible format change.
+     */
+    private static final int FORMAT_VERSION_MARKER = -3;
+
+    /**
+     * Last format version that stored the entire graph in a single {@link NodeSettings} object instead of one record
+     * per layer.
+     */
+    private static final int FORMAT_VERSION_MARKER_GRAPH_SETTINGS = -2;
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private static final byte BASE_NETWORK_SOURCE_NONE = 0;
+
+    private static final byte BASE_NETWORK_SOURCE_REFERENCE = 1;
+
+    private static final byte BASE_NETWORK_SOURCE_FILE_STORE = 2;
 
     private static final String CFG_KEY_LAYER_CLASS = "class";
 
@@ -151,184 +186,229 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
 
     /**
      * Writes the Keras network graph specified by the given output layers and their inputs (i.e. predecessor nodes) to
-     * a stream.
+     * a stream. The written graph is self-contained.
      *
      * @param outputLayers the output layers of the network to serialize
      * @param objOut the stream to which to write the network graph, it is the client's responsibility to close it
      * @throws IOException if failed to write the network graph to stream
      */
-    public static Map<Integer, DLKerasBaseNetworkTensorSpecOutput> writeGraphTo(final List<DLKerasLayer> outputLayers,
-        final ObjectOutputStream objOut) throws IOException {
-        final NodeSettings graphSettings = new NodeSettings(CFG_KEY_GRAPH);
-        final AtomicInteger layerIndexCounter = new AtomicInteger();
-        final Map<DLKerasTensorSpecsOutput, Integer> layerIndices = new HashMap<>();
+    public static void writeGraphTo(final List<DLKerasLayer> outputLayers, final ObjectOutputStream objOut)
+        throws IOException {
+        writeGraphTo(outputLayers, objOut, Collections.emptyList(), true);
+    }
+
+    /**
+     * Writes the Keras network graph like {@link #writeGraphTo(List, ObjectOutputStream)} but only references the
+     * records of those layers that are contained in one of the given record stores.
+     *
+     * @param outputLayers the output layers of the network to serialize
+     * @param objOut the stream to which to write the network graph, it is the client's responsibility to close it
+     * @param recordStores the record stores whose layers are only referenced, may be empty
+     * @throws IOException if failed to write the network graph to stream
+     */
+    public static void writeGraphTo(final List<DLKerasLayer> outputLayers, final ObjectOutputStream objOut,
+        final List<DLKerasLayerRecordStore> recordStores) throws IOException {
+        writeGraphTo(outputLayers, objOut, recordStores, true);
+    }
+
+    /**
+     * Writes the Keras network graph like {@link #writeGraphTo(List, ObjectOutputStream)} but optionally omits the
+     * runtime ids of the layers and the file store sources of base networks. Both change whenever a node is reset, so
+     * graphs that are written without them yield identical bytes for identical layer configurations (see
+     * {@link DLKerasNetworkMaterializationCache}). Graphs that are written without them cannot be read back.
+     */
+    static void writeGraphTo(final List<DLKerasLayer> outputLayers, final ObjectOutputStream objOut,
+        final boolean writeRuntimeIds) throws IOException {
+        writeGraphTo(outputLayers, objOut, Collections.emptyList(), writeRuntimeIds);
+    }
+
+    private static void writeGraphTo(final List<DLKerasLayer> outputLayers, final ObjectOutputStream objOut,
+        final List<DLKerasLayerRecordStore> recordStores, final boolean writeRuntimeIds) throws IOException {
         try {
-            final TIntArrayList outputLayerIndices = new TIntArrayList(outputLayers.size());
-            // Collects all base network specs. We have to serialize them outside the node settings.
-            final LinkedHashMap<Integer, DLKerasNetworkSpec> baseNetworkSpecs = new LinkedHashMap<>(2);
-            // Collects all the base networks whose network location cannot be simply (de)serialized.
-            final LinkedHashMap<Integer, DLKerasBaseNetworkTensorSpecOutput> nonReferenceBaseNetworkLayers =
-                new LinkedHashMap<>(2);
-            new DLKerasNetworkGraphTopologicalOrderIterator(outputLayers).visitAll(new DLKerasLayerVisitor() {
-
-                @Override
-                public void visitOutput(final DLKerasInnerLayer outputLayer) throws Exception {
-                    visitHidden(outputLayer);
-                    outputLayerIndices.add(layerIndices.get(outputLayer));
+            final Map<HashCode, LayerRecord> records = new LinkedHashMap<>();
+            final List<HashCode> outputHashes = createRecords(outputLayers, writeRuntimeIds, records);
+            final List<LayerRecord> ownRecords = new ArrayList<>(records.size());
+            for (final LayerRecord record : records.values()) {
+                if (!DLKerasLayerRecordStore.containsRecord(recordStores, record.m_hash)) {
+                    ownRecords.add(record);
                 }
+            }
+            // Write to stream.
+            objOut.writeInt(FORMAT_VERSION_MARKER);
+            objOut.writeInt(ownRecords.size());
+            for (final LayerRecord record : ownRecords) {
+                record.writeTo(objOut);
+            }
+            objOut.writeInt(outputHashes.size());
+            for (final HashCode outputHash : outputHashes) {
+                writeHash(outputHash, objOut);
+            }
+        } catch (final Exception e) {
+            throw new IOException("An exception occurred while saving the Keras layer graph. See log for details.", e);
+        }
+    }
 
-                @Override
-                public void visitHidden(final DLKerasInnerLayer innerLayer) throws Exception {
-                    final NodeSettingsWO layerSettings = saveLayer(innerLayer);
-                    final NodeSettingsWO parentSettings = layerSettings.addNodeSettings(CFG_KEY_LAYER_PARENTS);
-                    for (int i = 0; i < innerLayer.getNumParents(); i++) {
-                        final DLKerasTensorSpecsOutput parent = innerLayer.getParent(i);
-                        NodeSettingsWO parentSetting = parentSettings.addNodeSettings(Integer.toString(i));
-                        parentSetting.addInt(CFG_KEY_PARENT_INDEX, layerIndices.get(parent));
-                        parentSetting.addInt(CFG_KEY_INDEX_IN_PARENT, innerLayer.getTensorIndexInParent(i));
-                    }
-                }
+    /**
+     * Creates one record per layer of the given graph, in topological order.
+     *
+     * @param records the map to which to add the records, keyed by their hash
+     * @return the hashes of the output layers
+     */
+    static List<HashCode> createRecords(final List<DLKerasLayer> outputLayers, final boolean writeRuntimeIds,
+        final Map<HashCode, LayerRecord> records) throws Exception {
+        final Map<DLKerasTensorSpecsOutput, HashCode> layerHashes = new HashMap<>();
+        final List<HashCode> outputHashes = new ArrayList<>(outputLayers.size());
+        new DLKerasNetworkGraphTopologicalOrderIterator(outputLayers).visitAll(new DLKerasLayerVisitor() {
 
-                @Override
-                public void visitInput(final DLKerasInputLayer inputLayer) throws Exception {
-                    saveLayer(inputLayer);
-                }
+            @Override
+            public void visitOutput(final DLKerasInnerLayer outputLayer) throws Exception {
+                visitHidden(outputLayer);
+                outputHashes.add(layerHashes.get(outputLayer));
+            }
 
-                @Override
-                public void visitInputOutput(final DLKerasInputLayer inputOutputLayer) throws Exception {
-                    saveLayer(inputOutputLayer);
-                    outputLayerIndices.add(layerIndices.get(inputOutputLayer));
+            @Override
+            public void visitHidden(final DLKerasInnerLayer innerLayer) throws Exception {
+                final int numParents = innerLayer.getNumParents();
+                final HashCode[] parentHashes = new HashCode[numParents];
+                final int[] indicesInParents = new int[numParents];
+                for (int i = 0; i < numParents; i++) {
+                    parentHashes[i] = layerHashes.get(innerLayer.getParent(i));
+                    indicesInParents[i] = innerLayer.getTensorIndexInParent(i);
                 }
+                addLayerRecord(innerLayer, parentHashes, indicesInParents);
+            }
 
-                @Override
-                public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput) {
-                    final NodeSettingsWO layerSettings = createLayerSettings(baseNetworkOutput);
-                    final int layerIndex = layerIndices.get(baseNetworkOutput);
-                    layerSettings.addInt(CFG_KEY_BASE_NETWORK_OUTPUT_INDEX,
-                        baseNetworkOutput.getBaseNetworkOutputIndex());
-                    final DLNetworkLocation baseNetworkSource = baseNetworkOutput.getBaseNetworkSource();
-                    if (baseNetworkSource instanceof DLNetworkReferenceLocation) {
-                        layerSettings.addString(CFG_KEY_BASE_NETWORK_SOURCE, baseNetworkSource.getURI().toString());
-                    } else {
-                        nonReferenceBaseNetworkLayers.put(layerIndex, baseNetworkOutput);
-                    }
-                    baseNetworkSpecs.put(layerIndex, baseNetworkOutput.getBaseNetworkSpec());
-                }
+            @Override
+            public void visitInput(final DLKerasInputLayer inputLayer) throws Exception {
+                addLayerRecord(inputLayer, new HashCode[0], new int[0]);
+            }
+
+            @Override
+            public void visitInputOutput(final DLKerasInputLayer inputOutputLayer) throws Exception {
+                visitInput(inputOutputLayer);
+                outputHashes.add(layerHashes.get(inputOutputLayer));
+            }
 
-                private NodeSettingsWO saveLayer(final DLKerasLayer layer)
-                    throws ValidityException, InvalidSettingsException {
-                    final NodeSettingsWO layerSettings = createLayerSettings(layer);
-                    // TODO: Avoid redundant creation of layer struct (not instance), should be cached somewhere.
-                    final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
-                        ParameterStructs.createInstance(layer);
-                    final StructInstance<MemberWriteInstance<?>, ?> settingsInstance =
-                        NodeSettingsStructs.createNodeSettingsInstance(
-                            layerSettings.addNodeSettings(CFG_KEY_LAYER_PARAMS), layerInstance.struct());
-                    Structs.shallowCopyUnsafe(layerInstance, settingsInstance);
-                    layerSettings.addString(CFG_KEY_LAYER_RUNTIME_ID, layer.getRuntimeId());
-                    return layerSettings;
+            @Override
+            public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput) {
+                try {
+                    addBaseNetworkOutputRecord(baseNetworkOutput);
+                } catch (final Exception e) {
+                    throw new DLNetworkGraphTraversalException(e.getMessage(), e);
                 }
+            }
 
-                private NodeSettingsWO createLayerSettings(final DLKerasTensorSpecsOutput layer) {
-                    assert !layerIndices.containsKey(layer);
-                    final int layerIndex = layerIndexCounter.getAndIncrement();
-                    layerIndices.put(layer, layerIndex);
-                    final NodeSettingsWO layerSettings = graphSettings.addNodeSettings(Integer.toString(layerIndex));
-                    layerSettings.addString(CFG_KEY_LAYER_CLASS, layer.getClass().getCanonicalName());
-                    return layerSettings;
+            private void addBaseNetworkOutputRecord(final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput)
+                throws Exception {
+                final ByteArrayOutputStream spec = new ByteArrayOutputStream();
+                try (ObjectOutputStream specOut = new ObjectOutputStream(spec)) {
+                    DLKerasNetworkSpecSerializer.writeSpec(baseNetworkOutput.getBaseNetworkSpec(), specOut);
                 }
-            });
-            graphSettings.addIntArray(CFG_KEY_OUTPUT_LAYERS, outputLayerIndices.toNativeArray());
-            // Write to stream.
-            objOut.writeInt(baseNetworkSpecs.size());
-            for (final Entry<Integer, DLKerasNetworkSpec> entry : baseNetworkSpecs.entrySet()) {
-                objOut.writeInt(entry.getKey());
-                objOut.writeObject(entry.getValue());
+                final DLNetworkLocation baseNetworkSource = baseNetworkOutput.getBaseNetworkSource();
+                final byte sourceKind;
+                final String source;
+                if (baseNetworkSource instanceof DLNetworkReferenceLocation) {
+                    sourceKind = BASE_NETWORK_SOURCE_REFERENCE;
+                    source = baseNetworkSource.getURI().toString();
+                } else if (baseNetworkSource instanceof DLNetworkFileStoreLocation && writeRuntimeIds) {
+                    // File stores are resolved by name against the file stores of the reading port object.
+                    sourceKind = BASE_NETWORK_SOURCE_FILE_STORE;
+                    source = ((DLNetworkFileStoreLocation)baseNetworkSource).getFileStore().getFile().getName();
+                } else {
+                    sourceKind = BASE_NETWORK_SOURCE_NONE;
+                    source = null;
+                }
+                addRecord(baseNetworkOutput, new LayerRecord(baseNetworkOutput.getClass().getCanonicalName(),
+                    spec.toByteArray(), baseNetworkOutput.getBaseNetworkOutputIndex(), sourceKind, source));
             }
-            objOut.writeObject(graphSettings);
-            return nonReferenceBaseNetworkLayers;
-        } catch (final Exception e) {
-            throw new IOException("An exception occurred while saving the Keras layer graph. See log for details.", e);
-        }
+
+            private void addLayerRecord(final DLKerasLayer layer, final HashCode[] parentHashes,
+                final int[] indicesInParents) throws Exception {
+                final NodeSettings paramSettings = new NodeSettings(CFG_KEY_LAYER_PARAMS);
+                final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
+                    ParameterStructs.createInstance(layer);
+                final StructInstance<MemberWriteInstance<?>, ?> settingsInstance =
+                    NodeSettingsStructs.createNodeSettingsInstance(paramSettings, layerInstance.struct());
+                Structs.shallowCopyUnsafe(layerInstance, settingsInstance);
+                final ByteArrayOutputStream params = new ByteArrayOutputStream();
+                paramSettings.saveToXML(params);
+                final String runtimeId = writeRuntimeIds ? layer.getRuntimeId() : null;
+                addRecord(layer, new LayerRecord(layer.getClass().getCanonicalName(), params.toByteArray(),
+                    runtimeId, parentHashes, indicesInParents));
+            }
+
+            private void addRecord(final DLKerasTensorSpecsOutput layer, final LayerRecord record) {
+                assert !layerHashes.containsKey(layer);
+                layerHashes.put(layer, record.m_hash);
+                records.putIfAbsent(record.m_hash, record);
+            }
+        });
+        return outputHashes;
     }
 
     /**
      * Reads a Keras network graph from stream and returns its output layers. The entire graph can be accessed via the
-     * layers' input (i.e. predecessor node) relationships.
+     * layers' input (i.e. predecessor node) relationships. The graph must be self-contained, i.e. must have been
+     * written via {@link #writeGraphTo(List, ObjectOutputStream)}.
      *
      * @param objIn the stream from which to read the network graph, it is the client's responsibility to close it
-     * @param baseNetworkSourceAmender may be <code>null</code>
+     * @param baseNetworkSourceAmender may be <code>null</code>, only called for graphs that were written by older
+     *            versions
      * @return the read network graph
      * @throws IOException if failed to read the network graph from stream
      * @throws ClassNotFoundException if a network graph related class (e.g. a layer) could not be found
      */
     public static List<DLKerasLayer> readGraphFrom(final ObjectInputStream objIn,
         final Consumer<DLKerasBaseNetworkTensorSpecOutput> baseNetworkSourceAmender)
+        throws IOException, ClassNotFoundException {
+        final SerializedGraph graph = readSerializedGraphFrom(objIn);
+        if (graph.isLegacy()) {
+            if (baseNetworkSourceAmender != null) {
+                graph.m_legacyBaseNetworks.forEach(baseNetworkSourceAmender);
+            }
+            return graph.m_legacyOutputLayers;
+        }
+        return graph.resolve(Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Reads a Keras network graph from stream without instantiating its layers yet (except for graphs that were written
+     * by older versions).
+     *
+     * @param objIn the stream from which to read the network graph, it is the client's responsibility to close it
+     * @return the read network graph
+     * @throws IOException if failed to read the network graph from stream
+     * @throws ClassNotFoundException if a network graph related class (e.g. a layer) could not be found
+     */
+    public static SerializedGraph readSerializedGraphFrom(final ObjectInputStream objIn)
         throws IOException, ClassNotFoundException {
         try {
             // Read from stream.
-            final int numBaseNetworks = objIn.readInt();
-            final LinkedHashMap<Integer, DLKerasNetworkSpec> baseNetworkSpecs;
-            if (numBaseNetworks > 0) {
-                baseNetworkSpecs = new LinkedHashMap<>(numBaseNetworks);
-                for (int i = 0; i < numBaseNetworks; i++) {
-                    final int layerIndex = objIn.readInt();
-                    final DLKerasNetworkSpec spec = (DLKerasNetworkSpec)objIn.readObject();
-                    baseNetworkSpecs.put(layerIndex, spec);
+            // Graphs of older versions start with the (non-negative) number of base networks directly and contain
+            // Java-serialized base network specs.
+            final int formatVersionOrNumBaseNetworks = objIn.readInt();
+            if (formatVersionOrNumBaseNetworks < FORMAT_VERSION_MARKER) {
+                throw new IOException("The Keras layer graph was saved with a newer version of KNIME. Please update "
+                    + "your KNIME Deep Learning extensions.");
+            }
+            if (formatVersionOrNumBaseNetworks == FORMAT_VERSION_MARKER) {
+                final int numRecords = objIn.readInt();
+                final Map<HashCode, LayerRecord> records = new HashMap<>(numRecords);
+                for (int i = 0; i < numRecords; i++) {
+                    final LayerRecord record = LayerRecord.readFrom(objIn);
+                    records.put(record.m_hash, record);
                 }
-            } else {
-                baseNetworkSpecs = null;
-            }
-            final NodeSettings graphSettings = (NodeSettings)objIn.readObject();
-
-            // -1 because of saved output indices
-            final int numLayers = graphSettings.getChildCount() - 1;
-            final DLKerasTensorSpecsOutput[] loadedLayers = new DLKerasTensorSpecsOutput[numLayers];
-            for (int i = 0; i < numLayers; i++) {
-                final NodeSettings layerSettings = graphSettings.getNodeSettings(Integer.toString(i));
-                final Class<?> layerClass = Class.forName(layerSettings.getString(CFG_KEY_LAYER_CLASS));
-                final DLKerasTensorSpecsOutput layer;
-                if (DLKerasLayer.class.isAssignableFrom(layerClass)) {
-                    // Ordinary layers must expose a public nullary constructor.
-                    layer = (DLKerasTensorSpecsOutput)layerClass.newInstance();
-                    final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
-                        ParameterStructs.createInstance((DLKerasLayer)layer);
-                    final StructInstance<MemberReadInstance<?>, ?> settingsInstance = NodeSettingsStructs
-                        .createNodeSettingsInstance((NodeSettingsRO)layerSettings.getNodeSettings(CFG_KEY_LAYER_PARAMS),
-                            layerInstance.struct());
-                    Structs.shallowCopyUnsafe(settingsInstance, layerInstance);
-                    if (layer instanceof DLKerasInnerLayer) {
-                        final DLKerasInnerLayer innerLayer = ((DLKerasInnerLayer)layer);
-                        final NodeSettings parentSettings = layerSettings.getNodeSettings(CFG_KEY_LAYER_PARENTS);
-                        loadParentSettings(loadedLayers, innerLayer, parentSettings);
-                    }
-                    ((DLKerasLayer)layer).setRuntimeId(layerSettings.getString(CFG_KEY_LAYER_RUNTIME_ID));
-                } else if (DLKerasBaseNetworkTensorSpecOutput.class.isAssignableFrom(layerClass)) {
-                    final DLKerasNetworkSpec spec = baseNetworkSpecs.get(i);
-                    final int outputIndex = layerSettings.getInt(CFG_KEY_BASE_NETWORK_OUTPUT_INDEX);
-                    layer = new DLKerasDefaultBaseNetworkTensorSpecOutput(spec, outputIndex);
-                    final DLNetworkLocation baseNetworkSource;
-                    if (layerSettings.containsKey(CFG_KEY_BASE_NETWORK_SOURCE)) {
-                        final URI sourceURI = new URI(layerSettings.getString(CFG_KEY_BASE_NETWORK_SOURCE));
-                        baseNetworkSource = new DLNetworkReferenceLocation(sourceURI);
-                        ((DLKerasDefaultBaseNetworkTensorSpecOutput)layer).setBaseNetworkSource(baseNetworkSource);
-                    } else if (baseNetworkSourceAmender != null) {
-                        baseNetworkSourceAmender.accept((DLKerasBaseNetworkTensorSpecOutput)layer);
-                    }
-                } else {
-                    throw new UnsupportedOperationException("Layer class '" + layerClass.getCanonicalName()
-                        + "' is not marked as either " + DLKerasLayer.class.getCanonicalName() + " or "
-                        + DLKerasBaseNetworkTensorSpecOutput.class.getCanonicalName()
-                        + ". This is an implementation error.");
+                final int numOutputs = objIn.readInt();
+                final List<HashCode> outputHashes = new ArrayList<>(numOutputs);
+                for (int i = 0; i < numOutputs; i++) {
+                    outputHashes.add(readHash(objIn));
                 }
-                loadedLayers[i] = layer;
-            }
-            final int[] outputLayerIndices = graphSettings.getIntArray(CFG_KEY_OUTPUT_LAYERS);
-            final ArrayList<DLKerasLayer> outputs = new ArrayList<>(outputLayerIndices.length);
-            for (int i = 0; i < outputLayerIndices.length; i++) {
-                outputs.add((DLKerasLayer)loadedLayers[outputLayerIndices[i]]);
+                return new SerializedGraph(records, outputHashes);
             }
-            return outputs;
+            final List<DLKerasBaseNetworkTensorSpecOutput> baseNetworks = new ArrayList<>();
+            final List<DLKerasLayer> outputLayers =
+                readGraphSettingsFrom(objIn, formatVersionOrNumBaseNetworks, baseNetworks::add);
+            return new SerializedGraph(outputLayers, baseNetworks);
         } catch (final ClassNotFoundException e) {
             LOGGER.error(e);
             throw new ClassNotFoundException(
@@ -339,6 +419,76 @@ public static List<DLKerasLayer> readGraphFrom(final ObjectInputStream objIn,
         }
     }
 
+    private static List<DLKerasLayer> readGraphSettingsFrom(final ObjectInputStream objIn,
+        final int formatVersionOrNumBaseNetworks,
+        final Consumer<DLKerasBaseNetworkTensorSpecOutput> baseNetworkSourceAmender) throws Exception {
+        final boolean isLegacy = formatVersionOrNumBaseNetworks >= 0;
+        final int numBaseNetworks = isLegacy ? formatVersionOrNumBaseNetworks : objIn.readInt();
+        final LinkedHashMap<Integer, DLKerasNetworkSpec> baseNetworkSpecs;
+        if (numBaseNetworks > 0) {
+            baseNetworkSpecs = new LinkedHashMap<>(numBaseNetworks);
+            for (int i = 0; i < numBaseNetworks; i++) {
+                final int layerIndex = objIn.readInt();
+                final DLKerasNetworkSpec spec = isLegacy //
+                    ? (DLKerasNetworkSpec)objIn.readObject() //
+                    : DLKerasNetworkSpecSerializer.readSpec(objIn);
+                baseNetworkSpecs.put(layerIndex, spec);
+            }
+        } else {
+            baseNetworkSpecs = null;
+        }
+        final NodeSettings graphSettings = (NodeSettings)objIn.readObject();
+
+        // -1 because of saved output indices
+        final int numLayers = graphSettings.getChildCount() - 1;
+        final DLKerasTensorSpecsOutput[] loadedLayers = new DLKerasTensorSpecsOutput[numLayers];
+        for (int i = 0; i < numLayers; i++) {
+            final NodeSettings layerSettings = graphSettings.getNodeSettings(Integer.toString(i));
+            final Class<?> layerClass = Class.forName(layerSettings.getString(CFG_KEY_LAYER_CLASS));
+            final DLKerasTensorSpecsOutput layer;
+            if (DLKerasLayer.class.isAssignableFrom(layerClass)) {
+                // Ordinary layers must expose a public nullary constructor.
+                layer = (DLKerasTensorSpecsOutput)layerClass.newInstance();
+                final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
+                    ParameterStructs.createInstance((DLKerasLayer)layer);
+                final StructInstance<MemberReadInstance<?>, ?> settingsInstance = NodeSettingsStructs
+                    .createNodeSettingsInstance((NodeSettingsRO)layerSettings.getNodeSettings(CFG_KEY_LAYER_PARAMS),
+                        layerInstance.struct());
+                Structs.shallowCopyUnsafe(settingsInstance, layerInstance);
+                if (layer instanceof DLKerasInnerLayer) {
+                    final DLKerasInnerLayer innerLayer = ((DLKerasInnerLayer)layer);
+                    final NodeSettings parentSettings = layerSettings.getNodeSettings(CFG_KEY_LAYER_PARENTS);
+                    loadParentSettings(loadedLayers, innerLayer, parentSettings);
+                }
+                ((DLKerasLayer)layer).setRuntimeId(layerSettings.getString(CFG_KEY_LAYER_RUNTIME_ID));
+            } else if (DLKerasBaseNetworkTensorSpecOutput.class.isAssignableFrom(layerClass)) {
+                final DLKerasNetworkSpec spec = baseNetworkSpecs.get(i);
+                final int outputIndex = layerSettings.getInt(CFG_KEY_BASE_NETWORK_OUTPUT_INDEX);
+                layer = new DLKerasDefaultBaseNetworkTensorSpecOutput(spec, outputIndex);
+                final DLNetworkLocation baseNetworkSource;
+                if (layerSettings.containsKey(CFG_KEY_BASE_NETWORK_SOURCE)) {
+                    final URI sourceURI = new URI(layerSettings.getString(CFG_KEY_BASE_NETWORK_SOURCE));
+                    baseNetworkSource = new DLNetworkReferenceLocation(sourceURI);
+                    ((DLKerasDefaultBaseNetworkTensorSpecOutput)layer).setBaseNetworkSource(baseNetworkSource);
+                } else if (baseNetworkSourceAmender != null) {
+                    baseNetworkSourceAmender.accept((DLKerasBaseNetworkTensorSpecOutput)layer);
+                }
+            } else {
+                throw new UnsupportedOperationException("Layer class '" + layerClass.getCanonicalName()
+                    + "' is not marked as either " + DLKerasLayer.class.getCanonicalName() + " or "
+                    + DLKerasBaseNetworkTensorSpecOutput.class.getCanonicalName()
+                    + ". This is an implementation error.");
+            }
+            loadedLayers[i] = layer;
+        }
+        final int[] outputLayerIndices = graphSettings.getIntArray(CFG_KEY_OUTPUT_LAYERS);
+        final ArrayList<DLKerasLayer> outputs = new ArrayList<>(outputLayerIndices.length);
+        for (int i = 0; i < outputLayerIndices.length; i++) {
+            outputs.add((DLKerasLayer)loadedLayers[outputLayerIndices[i]]);
+        }
+        return outputs;
+    }
+
     private static void loadParentSettings(final DLKerasTensorSpecsOutput[] loadedLayers,
         final DLKerasInnerLayer innerLayer, final NodeSettings parentSettings) throws InvalidSettingsException {
         try {
@@ -366,4 +516,366 @@ private static void newLoadParentSettings(final DLKerasTensorSpecsOutput[] loade
             innerLayer.setTensorIndexInParent(j, indexInParent);
         }
     }
+
+    static void writeHash(final HashCode hash, final ObjectOutputStream objOut) throws IOException {
+        final byte[] hashBytes = hash.asBytes();
+        objOut.writeInt(hashBytes.length);
+        objOut.write(hashBytes);
+    }
+
+    static HashCode readHash(final ObjectInputStream objIn) throws IOException {
+        final byte[] hashBytes = new byte[objIn.readInt()];
+        objIn.readFully(hashBytes);
+        return HashCode.fromBytes(hashBytes);
+    }
+
+    /**
+     * A Keras network graph as read via {@link #readSerializedGraphFrom(ObjectInputStream)}. Its layers are only
+     * instantiated on {@link #resolve(List, List)}.
+     */
+    public static final class SerializedGraph {
+
+        private final List<DLKerasLayer> m_legacyOutputLayers;
+
+        private final List<DLKerasBaseNetworkTensorSpecOutput> m_legacyBaseNetworks;
+
+        private final Map<HashCode, LayerRecord> m_records;
+
+        private final List<HashCode> m_outputHashes;
+
+        private SerializedGraph(final Map<HashCode, LayerRecord> records, final List<HashCode> outputHashes) {
+            m_legacyOutputLayers = null;
+            m_legacyBaseNetworks = null;
+            m_records = records;
+            m_outputHashes = outputHashes;
+        }
+
+        private SerializedGraph(final List<DLKerasLayer> legacyOutputLayers,
+            final List<DLKerasBaseNetworkTensorSpecOutput> legacyBaseNetworks) {
+            m_legacyOutputLayers = legacyOutputLayers;
+            m_legacyBaseNetworks = legacyBaseNetworks;
+            m_records = null;
+            m_outputHashes = Collections.emptyList();
+        }
+
+        /**
+         * @return <code>true</code> if the graph was written by an older version. The layers of such graphs are
+         *         already instantiated while reading and their base network sources are amended by position.
+         */
+        public boolean isLegacy() {
+            return m_legacyOutputLayers != null;
+        }
+
+        /**
+         * @return the content hashes of the output layers, empty if the graph is {@link #isLegacy() legacy}
+         */
+        public List<HashCode> getOutputHashes() {
+            return Collections.unmodifiableList(m_outputHashes);
+        }
+
+        /**
+         * Instantiates the layers of the graph. Layers whose records are contained in one of the given stores are
+         * taken from the respective store, i.e. they are shared with all other graphs that are resolved against the
+         * same store.
+         *
+         * @param recordStores the record stores against which the graph was written, may be empty if the graph is
+         *            self-contained
+         * @param baseNetworkFileStores the file stores of the base networks of the graph, may be empty
+         * @return the output layers of the graph
+         * @throws IOException if the graph references a record that is not contained in any of the given stores or
+         *             if instantiating a layer failed
+         */
+        public List<DLKerasLayer> resolve(final List<DLKerasLayerRecordStore> recordStores,
+            final List<FileStore> baseNetworkFileStores) throws IOException {
+            if (isLegacy()) {
+                if (!baseNetworkFileStores.isEmpty()) {
+                    checkArgument(baseNetworkFileStores.size() == m_legacyBaseNetworks.size());
+                    for (int i = 0; i < m_legacyBaseNetworks.size(); i++) {
+                        m_legacyBaseNetworks.get(i)
+                            .setBaseNetworkSource(new DLNetworkFileStoreLocation(baseNetworkFileStores.get(i)));
+                    }
+                }
+                return m_legacyOutputLayers;
+            }
+            final Map<String, FileStore> baseNetworkFileStoresByName = new HashMap<>(baseNetworkFileStores.size());
+            for (final FileStore fileStore : baseNetworkFileStores) {
+                baseNetworkFileStoresByName.put(fileStore.getFile().getName(), fileStore);
+            }
+            final GraphResolver resolver = new GraphResolver(m_records, recordStores, name -> {
+                final FileStore fileStore = baseNetworkFileStoresByName.get(name);
+                return fileStore != null ? new DLNetworkFileStoreLocation(fileStore) : null;
+            });
+            try {
+                final List<DLKerasLayer> outputs = new ArrayList<>(m_outputHashes.size());
+                for (final HashCode outputHash : m_outputHashes) {
+                    outputs.add((DLKerasLayer)resolver.resolve(outputHash));
+                }
+                return outputs;
+            } catch (final IOException e) {
+                throw e;
+            } catch (final ClassNotFoundException e) {
+                LOGGER.error(e);
+                throw new IOException("A class could not be found while loading the Keras layer graph. "
+                    + "Are you missing a KNIME Deep Learning extension?", e);
+            } catch (final Exception e) {
+                LOGGER.error(e);
+                throw new IOException("An exception occurred while loading the Keras layer graph. See log for details.",
+                    e);
+            }
+        }
+    }
+
+    /**
+     * Instantiates the layers of a single graph. Layers of the graph's own records are only shared within the graph,
+     * layers of record stores are shared via the stores.
+     */
+    private static final class GraphResolver {
+
+        private final Map<HashCode, LayerRecord> m_records;
+
+        private final List<DLKerasLayerRecordStore> m_recordStores;
+
+        private final Function<String, DLNetworkLocation> m_baseNetworkFileStoreSources;
+
+        private final Map<HashCode, DLKerasTensorSpecsOutput> m_layers = new HashMap<>();
+
+        private GraphResolver(final Map<HashCode, LayerRecord> records,
+            final List<DLKerasLayerRecordStore> recordStores,
+            final Function<String, DLNetworkLocation> baseNetworkFileStoreSources) {
+            m_records = records;
+            m_recordStores = recordStores;
+            m_baseNetworkFileStoreSources = baseNetworkFileStoreSources;
+        }
+
+        private DLKerasTensorSpecsOutput resolve(final HashCode hash) throws Exception {
+            DLKerasTensorSpecsOutput layer = m_layers.get(hash);
+            if (layer != null) {
+                return layer;
+            }
+            for (final DLKerasLayerRecordStore recordStore : m_recordStores) {
+                final LayerRecord record = recordStore.getRecord(hash);
+                if (record != null) {
+                    layer = recordStore.getLayer(hash);
+                    if (layer == null) {
+                        // Another graph may have resolved the same layer in the meantime. Use the first one then.
+                        layer = recordStore.putLayerIfAbsent(hash, instantiate(record));
+                    }
+                    m_layers.put(hash, layer);
+                    return layer;
+                }
+            }
+            final LayerRecord record = m_records.get(hash);
+            if (record == null) {
+                throw new IOException("The Keras layer graph references a layer that is not available. Its layer "
+                    + "record store may have been deleted. Please re-execute the preceding layer nodes.");
+            }
+            layer = instantiate(record);
+            m_layers.put(hash, layer);
+            return layer;
+        }
+
+        private DLKerasTensorSpecsOutput instantiate(final LayerRecord record) throws Exception {
+            final DLKerasTensorSpecsOutput[] parents = new DLKerasTensorSpecsOutput[record.m_parentHashes.length];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = resolve(record.m_parentHashes[i]);
+            }
+            return record.instantiate(parents, m_baseNetworkFileStoreSources);
+        }
+    }
+
+    /**
+     * The serialized form of a single layer of the graph.
+     */
+    static final class LayerRecord {
+
+        private final String m_layerClass;
+
+        private final HashCode m_hash;
+
+        private final byte[] m_params;
+
+        private final String m_runtimeId;
+
+        private final HashCode[] m_parentHashes;
+
+        private final int[] m_indicesInParents;
+
+        private final byte[] m_baseNetworkSpec;
+
+        private final int m_baseNetworkOutputIndex;
+
+        private final byte m_baseNetworkSourceKind;
+
+        /**
+         * The URI of a reference location or the name of a file store, <code>null</code> if there is no source.
+         */
+        private final String m_baseNetworkSource;
+
+        private LayerRecord(final String layerClass, final byte[] params, final String runtimeId,
+            final HashCode[] parentHashes, final int[] indicesInParents) throws NoSuchAlgorithmException {
+            m_layerClass = layerClass;
+            m_params = params;
+            m_runtimeId = runtimeId;
+            m_parentHashes = parentHashes;
+            m_indicesInParents = indicesInParents;
+            m_baseNetworkSpec = null;
+            m_baseNetworkOutputIndex = -1;
+            m_baseNetworkSourceKind = BASE_NETWORK_SOURCE_NONE;
+            m_baseNetworkSource = null;
+            m_hash = computeHash();
+        }
+
+        private LayerRecord(final String layerClass, final byte[] baseNetworkSpec, final int baseNetworkOutputIndex,
+            final byte baseNetworkSourceKind, final String baseNetworkSource) throws NoSuchAlgorithmException {
+            m_layerClass = layerClass;
+            m_params = null;
+            m_runtimeId = null;
+            m_parentHashes = new HashCode[0];
+            m_indicesInParents = new int[0];
+            m_baseNetworkSpec = baseNetworkSpec;
+            m_baseNetworkOutputIndex = baseNetworkOutputIndex;
+            m_baseNetworkSourceKind = baseNetworkSourceKind;
+            m_baseNetworkSource = baseNetworkSource;
+            m_hash = computeHash();
+        }
+
+        private LayerRecord(final String layerClass, final HashCode hash, final byte[] params, final String runtimeId,
+            final HashCode[] parentHashes, final int[] indicesInParents, final byte[] baseNetworkSpec,
+            final int baseNetworkOutputIndex, final byte baseNetworkSourceKind, final String baseNetworkSource) {
+            m_layerClass = layerClass;
+            m_hash = hash;
+            m_params = params;
+            m_runtimeId = runtimeId;
+            m_parentHashes = parentHashes;
+            m_indicesInParents = indicesInParents;
+            m_baseNetworkSpec = baseNetworkSpec;
+            m_baseNetworkOutputIndex = baseNetworkOutputIndex;
+            m_baseNetworkSourceKind = baseNetworkSourceKind;
+            m_baseNetworkSource = baseNetworkSource;
+        }
+
+        HashCode getHash() {
+            return m_hash;
+        }
+
+        private HashCode computeHash() throws NoSuchAlgorithmException {
+            final MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            digest.update(m_layerClass.getBytes(StandardCharsets.UTF_8));
+            if (m_params != null) {
+                digest.update(m_params);
+                digest.update((m_runtimeId != null ? "1" + m_runtimeId : "0").getBytes(StandardCharsets.UTF_8));
+                for (int i = 0; i < m_parentHashes.length; i++) {
+                    digest.update(m_parentHashes[i].asBytes());
+                    digest.update(Integer.toString(m_indicesInParents[i]).getBytes(StandardCharsets.UTF_8));
+                }
+            } else {
+                digest.update(m_baseNetworkSpec);
+                digest.update(Integer.toString(m_baseNetworkOutputIndex).getBytes(StandardCharsets.UTF_8));
+                digest.update(m_baseNetworkSourceKind);
+                if (m_baseNetworkSource != null) {
+                    digest.update(m_baseNetworkSource.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return HashCode.fromBytes(digest.digest());
+        }
+
+        private DLKerasTensorSpecsOutput instantiate(final DLKerasTensorSpecsOutput[] parents,
+            final Function<String, DLNetworkLocation> baseNetworkFileStoreSources) throws Exception {
+            final Class<?> layerClass = Class.forName(m_layerClass);
+            if (DLKerasLayer.class.isAssignableFrom(layerClass)) {
+                // Ordinary layers must expose a public nullary constructor.
+                final DLKerasLayer layer = (DLKerasLayer)layerClass.newInstance();
+                final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
+                    ParameterStructs.createInstance(layer);
+                final StructInstance<MemberReadInstance<?>, ?> settingsInstance = NodeSettingsStructs
+                    .createNodeSettingsInstance(NodeSettings.loadFromXML(new ByteArrayInputStream(m_params)),
+                        layerInstance.struct());
+                Structs.shallowCopyUnsafe(settingsInstance, layerInstance);
+                if (layer instanceof DLKerasInnerLayer) {
+                    final DLKerasInnerLayer innerLayer = (DLKerasInnerLayer)layer;
+                    for (int i = 0; i < parents.length; i++) {
+                        innerLayer.setParent(i, parents[i]);
+                        innerLayer.setTensorIndexInParent(i, m_indicesInParents[i]);
+                    }
+                }
+                layer.setRuntimeId(m_runtimeId);
+                return layer;
+            } else if (DLKerasBaseNetworkTensorSpecOutput.class.isAssignableFrom(layerClass)) {
+                final DLKerasNetworkSpec spec;
+                try (ObjectInputStream specIn = new ObjectInputStream(new ByteArrayInputStream(m_baseNetworkSpec))) {
+                    spec = DLKerasNetworkSpecSerializer.readSpec(specIn);
+                }
+                final DLKerasDefaultBaseNetworkTensorSpecOutput layer =
+                    new DLKerasDefaultBaseNetworkTensorSpecOutput(spec, m_baseNetworkOutputIndex);
+                if (m_baseNetworkSourceKind == BASE_NETWORK_SOURCE_REFERENCE) {
+                    layer.setBaseNetworkSource(new DLNetworkReferenceLocation(new URI(m_baseNetworkSource)));
+                } else if (m_baseNetworkSourceKind == BASE_NETWORK_SOURCE_FILE_STORE) {
+                    final DLNetworkLocation source = baseNetworkFileStoreSources.apply(m_baseNetworkSource);
+                    if (source != null) {
+                        layer.setBaseNetworkSource(source);
+                    }
+                }
+                return layer;
+            } else {
+                throw new UnsupportedOperationException("Layer class '" + layerClass.getCanonicalName()
+                    + "' is not marked as either " + DLKerasLayer.class.getCanonicalName() + " or "
+                    + DLKerasBaseNetworkTensorSpecOutput.class.getCanonicalName()
+                    + ". This is an implementation error.");
+            }
+        }
+
+        void writeTo(final ObjectOutputStream objOut) throws IOException {
+            objOut.writeUTF(m_layerClass);
+            writeHash(m_hash, objOut);
+            if (m_params == null) {
+                // base network output
+                objOut.writeInt(m_baseNetworkSpec.length);
+                objOut.write(m_baseNetworkSpec);
+                objOut.writeInt(m_baseNetworkOutputIndex);
+                objOut.writeByte(m_baseNetworkSourceKind);
+                if (m_baseNetworkSource != null) {
+                    objOut.writeUTF(m_baseNetworkSource);
+                }
+                return;
+            }
+            objOut.writeInt(m_parentHashes.length);
+            for (int i = 0; i < m_parentHashes.length; i++) {
+                writeHash(m_parentHashes[i], objOut);
+                objOut.writeInt(m_indicesInParents[i]);
+            }
+            objOut.writeBoolean(m_runtimeId != null);
+            if (m_runtimeId != null) {
+                objOut.writeUTF(m_runtimeId);
+            }
+            objOut.writeInt(m_params.length);
+            objOut.write(m_params);
+        }
+
+        static LayerRecord readFrom(final ObjectInputStream objIn) throws IOException, ClassNotFoundException {
+            final String layerClass = objIn.readUTF();
+            final HashCode hash = readHash(objIn);
+            if (DLKerasBaseNetworkTensorSpecOutput.class.isAssignableFrom(Class.forName(layerClass))) {
+                final byte[] baseNetworkSpec = new byte[objIn.readInt()];
+                objIn.readFully(baseNetworkSpec);
+                final int baseNetworkOutputIndex = objIn.readInt();
+                final byte baseNetworkSourceKind = objIn.readByte();
+                final String baseNetworkSource =
+                    baseNetworkSourceKind != BASE_NETWORK_SOURCE_NONE ? objIn.readUTF() : null;
+                return new LayerRecord(layerClass, hash, null, null, new HashCode[0], new int[0], baseNetworkSpec,
+                    baseNetworkOutputIndex, baseNetworkSourceKind, baseNetworkSource);
+            }
+            final int numParents = objIn.readInt();
+            final HashCode[] parentHashes = new HashCode[numParents];
+            final int[] indicesInParents = new int[numParents];
+            for (int i = 0; i < numParents; i++) {
+                parentHashes[i] = readHash(objIn);
+                indicesInParents[i] = objIn.readInt();
+            }
+            final String runtimeId = objIn.readBoolean() ? objIn.readUTF() : null;
+            final byte[] params = new byte[objIn.readInt()];
+            objIn.readFully(params);
+            return new LayerRecord(layerClass, hash, params, runtimeId, parentHashes, indicesInParents, null, -1,
+                BASE_NETWORK_SOURCE_NONE, null);
+        }
+    }
 }
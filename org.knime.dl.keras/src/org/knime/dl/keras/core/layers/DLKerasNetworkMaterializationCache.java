@@ -0,0 +1,369 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.layers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.keras.core.DLKerasNetwork;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.config.initializer.DLKerasInitializer;
+import org.knime.dl.keras.core.layers.DLKerasNetworkGraphIterator.DLKerasLayerVisitor;
+import org.knime.dl.keras.core.struct.instance.MemberReadWriteInstance;
+import org.knime.dl.keras.core.struct.param.ParameterStructs;
+
+/**
+ * Session-wide cache of materialized Keras layer graphs. Entries are keyed by a hash of the serialized layer graph
+ * (without layer runtime ids), the contents of all base networks and the back end. On a hit, the previously
+ * materialized network file is linked (or copied if linking is not supported) to the requested save location and the
+ * previously inferred network spec is reused, which avoids starting a Python process altogether.
+ * <P>
+ * Since a hit reuses the weights of the earlier materialization, graphs that contain random initializers without a
+ * fixed seed are never cached: each of their materializations must yield new initial weights (e.g. in loops or when
+ * training ensembles). Caching can be disabled altogether via VM option {@link #CACHE_VM_OPT}.
+ * <P>
+ * Entries whose network files were deleted in the meantime (e.g. because the owning node was reset) are evicted
+ * lazily.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLKerasNetworkMaterializationCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasNetworkMaterializationCache.class);
+
+    /**
+     * Set this VM option to <code>false</code> (i.e. <code>-Dknime.dl.keras.materializationcache=false</code> in the
+     * knime.ini) to disable the reuse of materialized networks, e.g. if identical layer graphs with seeded initializers
+     * must nonetheless be materialized anew each time.
+     */
+    static final String CACHE_VM_OPT = "knime.dl.keras.materializationcache";
+
+    private static final int MAX_ENTRIES = 64;
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private static final Map<String, CachedNetwork> CACHE = new LinkedHashMap<String, CachedNetwork>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedNetwork> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private DLKerasNetworkMaterializationCache() {
+    }
+
+    /**
+     * Computes the cache key of the given layer graph.
+     *
+     * @param outputLayers the output layers of the graph
+     * @param backend the back end in which the graph is materialized
+     * @return the cache key, empty if the graph's key cannot be determined (e.g. because a base network is not stored
+     *         in a local file) or the graph must not be cached
+     */
+    static Optional<String> computeKey(final List<DLKerasLayer> outputLayers,
+        final Class<? extends DLKerasNetwork> backend) {
+        if ("false".equalsIgnoreCase(System.getProperty(CACHE_VM_OPT))) {
+            return Optional.empty();
+        }
+        if (hasRandomInitializers(outputLayers)) {
+            return Optional.empty();
+        }
+        final MessageDigest digest = createDigest();
+        try (ObjectOutputStream objOut = new ObjectOutputStream(new DigestOutputStream(new OutputStream() {
+
+            @Override
+            public void write(final int b) {
+                // no op - bytes are only digested
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                // no op - bytes are only digested
+            }
+        }, digest))) {
+            objOut.writeUTF(backend.getName());
+            DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, objOut, false);
+            for (final DLNetworkLocation baseNetworkSource : collectBaseNetworkSources(outputLayers)) {
+                final Optional<Path> baseNetworkFile = toLocalFile(baseNetworkSource);
+                if (!baseNetworkFile.isPresent() || !Files.isRegularFile(baseNetworkFile.get())) {
+                    return Optional.empty();
+                }
+                objOut.write(hashFile(baseNetworkFile.get()));
+            }
+        } catch (final IOException e) {
+            LOGGER.debug("Failed to compute the cache key of a Keras layer graph.", e);
+            return Optional.empty();
+        }
+        return Optional.of(toHexString(digest.digest()));
+    }
+
+    /**
+     * Looks up the materialized network of the given key and, on a hit, places it at the given save location.
+     *
+     * @param key the cache key
+     * @param saveLocation the location where the materialized network is to be saved
+     * @return the network at the save location, empty on a cache miss
+     */
+    static Optional<DLKerasNetwork> get(final String key, final DLNetworkLocation saveLocation) {
+        final Optional<Path> target = toLocalFile(saveLocation);
+        if (!target.isPresent()) {
+            return Optional.empty();
+        }
+        final CachedNetwork cached;
+        synchronized (CACHE) {
+            cached = CACHE.get(key);
+            if (cached != null && !Files.isRegularFile(cached.m_file)) {
+                CACHE.remove(key);
+                return Optional.empty();
+            }
+        }
+        if (cached == null) {
+            return Optional.empty();
+        }
+        try {
+            placeFile(cached.m_file, target.get());
+            return Optional.of(cached.m_spec.create(saveLocation, false));
+        } catch (final IOException | DLInvalidSourceException e) {
+            LOGGER.debug("Failed to reuse cached materialized Keras network '" + cached.m_file + "'.", e);
+            synchronized (CACHE) {
+                CACHE.remove(key);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Registers a freshly materialized network under the given key.
+     *
+     * @param key the cache key
+     * @param network the materialized network
+     */
+    static void put(final String key, final DLKerasNetwork network) {
+        final Optional<Path> file = toLocalFile(network.getSource());
+        if (file.isPresent()) {
+            synchronized (CACHE) {
+                CACHE.put(key, new CachedNetwork(file.get(), network.getSpec()));
+            }
+        }
+    }
+
+    private static void placeFile(final Path source, final Path target) throws IOException {
+        if (Files.exists(target) && Files.isSameFile(source, target)) {
+            return;
+        }
+        final Path link = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createLink(link, source);
+            Files.move(link, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException | UnsupportedOperationException | SecurityException e) {
+            Files.deleteIfExists(link);
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if any layer of the graph has a {@link DLKerasInitializer#isDeterministic() random}
+     *         initializer, or if the initializers of a layer cannot be inspected
+     */
+    static boolean hasRandomInitializers(final List<DLKerasLayer> outputLayers) {
+        final boolean[] random = new boolean[1];
+        new DLKerasNetworkGraphTopologicalOrderIterator(outputLayers).visitAll(new DLKerasLayerVisitor() {
+
+            @Override
+            public void visitOutput(final DLKerasInnerLayer outputLayer) throws Exception {
+                random[0] |= hasRandomInitializers(outputLayer);
+            }
+
+            @Override
+            public void visitInputOutput(final DLKerasInputLayer inputOutputLayer) throws Exception {
+                // no op - input layers have no weights
+            }
+
+            @Override
+            public void visitInput(final DLKerasInputLayer inputLayer) throws Exception {
+                // no op - input layers have no weights
+            }
+
+            @Override
+            public void visitHidden(final DLKerasInnerLayer hiddenLayer) throws Exception {
+                random[0] |= hasRandomInitializers(hiddenLayer);
+            }
+
+            @Override
+            public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput) {
+                // no op - weights of base networks are fixed
+            }
+        });
+        return random[0];
+    }
+
+    private static boolean hasRandomInitializers(final DLKerasLayer layer) {
+        for (final MemberReadWriteInstance<?> member : ParameterStructs.createInstance(layer)) {
+            try {
+                final Object value = member.get();
+                if (value instanceof DLKerasInitializer && !((DLKerasInitializer)value).isDeterministic()) {
+                    return true;
+                }
+            } catch (final InvalidSettingsException e) {
+                LOGGER.debug("Failed to inspect the parameters of layer '" + layer + "'.", e);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<DLNetworkLocation> collectBaseNetworkSources(final List<DLKerasLayer> outputLayers) {
+        final List<DLNetworkLocation> baseNetworkSources = new ArrayList<>(2);
+        new DLKerasNetworkGraphTopologicalOrderIterator(outputLayers).visitAll(new DLKerasLayerVisitor() {
+
+            @Override
+            public void visitOutput(final DLKerasInnerLayer outputLayer) throws Exception {
+                // no op - we are only interested in base networks
+            }
+
+            @Override
+            public void visitInputOutput(final DLKerasInputLayer inputOutputLayer) throws Exception {
+                // no op - we are only interested in base networks
+            }
+
+            @Override
+            public void visitInput(final DLKerasInputLayer inputLayer) throws Exception {
+                // no op - we are only interested in base networks
+            }
+
+            @Override
+            public void visitHidden(final DLKerasInnerLayer hiddenLayer) throws Exception {
+                // no op - we are only interested in base networks
+            }
+
+            @Override
+            public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput) {
+                baseNetworkSources.add(baseNetworkOutput.getBaseNetworkSource());
+            }
+        });
+        return baseNetworkSources;
+    }
+
+    private static Optional<Path> toLocalFile(final DLNetworkLocation location) {
+        if (location == null) {
+            return Optional.empty();
+        }
+        final URI uri = location.getURI();
+        if (uri == null || !"file".equalsIgnoreCase(uri.getScheme())) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Paths.get(uri));
+        } catch (final IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] hashFile(final Path file) throws IOException {
+        final MessageDigest digest = createDigest();
+        try (InputStream in = Files.newInputStream(file)) {
+            final byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHexString(final byte[] bytes) {
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static final class CachedNetwork {
+
+        private final Path m_file;
+
+        private final DLKerasNetworkSpec m_spec;
+
+        private CachedNetwork(final Path file, final DLKerasNetworkSpec spec) {
+            m_file = file;
+            m_spec = spec;
+        }
+    }
+}
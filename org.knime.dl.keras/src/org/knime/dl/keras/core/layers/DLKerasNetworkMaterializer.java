@@ -53,6 +53,7 @@
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.function.Function;
@@ -116,6 +117,27 @@ public DLKerasNetworkMaterializer(final List<DLKerasLayer> outputLayers, final D
      * @throws IOException if failed to materialize and save the network due to I/O related errors
      */
     public DLKerasNetwork materialize() throws DLInvalidEnvironmentException, DLInvalidSourceException, IOException {
+        // TODO: Hard-coded for the moment.
+        final Class<DLKerasTensorFlowNetwork> backend = DLKerasTensorFlowNetwork.class;
+
+        // Reuse the result of an earlier materialization of the same graph if possible.
+        final Optional<String> cacheKey = DLKerasNetworkMaterializationCache.computeKey(m_outputLayers, backend);
+        if (cacheKey.isPresent()) {
+            final Optional<DLKerasNetwork> cached =
+                DLKerasNetworkMaterializationCache.get(cacheKey.get(), m_saveLocation);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        final DLKerasNetwork materialized = materializeInBackend(backend);
+        if (cacheKey.isPresent()) {
+            DLKerasNetworkMaterializationCache.put(cacheKey.get(), materialized);
+        }
+        return materialized;
+    }
+
+    private DLKerasNetwork materializeInBackend(final Class<? extends DLKerasNetwork> backend)
+        throws DLInvalidEnvironmentException, DLInvalidSourceException, IOException {
         final DLKerasNetworkSpecInferrer specInferrer = new DLKerasNetworkSpecInferrer(m_outputLayers);
         specInferrer.inferNetworkSpec();
         // Parse layer graph.
@@ -123,9 +145,6 @@ public DLKerasNetwork materialize() throws DLInvalidEnvironmentException, DLInva
             new DLKerasNetworkMaterializerParser(specInferrer.getLayerToTensorMap());
         new DLKerasNetworkGraphDepthFirstIterator(m_outputLayers).visitAll(parser);
 
-        // TODO: Hard-coded for the moment.
-        final Class<DLKerasTensorFlowNetwork> backend = DLKerasTensorFlowNetwork.class;
-
         final DLPythonNetworkLoader<? extends DLKerasNetwork> loader = DLPythonNetworkLoaderRegistry.getInstance()
             .getNetworkLoader(backend).orElseThrow(() -> new IllegalStateException("Back end for Keras network type '"
                 + backend.getName() + "' is missing. " + "Are you missing a KNIME Deep Learning extension?"));
@@ -209,6 +228,10 @@ private static List<DLKerasNetworkSpec> retrieveBaseNetworkSpecs(
             try {
                 final DLPythonNetworkHandle baseNetworkHandle = loader.load(baseNetworkHelper.m_networkSource.getURI(),
                     commands.getContext(DLNotCancelable.INSTANCE), true, DLNotCancelable.INSTANCE);
+                final Optional<String[]> frozenLayers = baseNetworkHelper.m_networkSpec.getFrozenLayers();
+                if (frozenLayers.isPresent()) {
+                    commands.setFrozenLayers(baseNetworkHandle, frozenLayers.get(), DLNotCancelable.INSTANCE);
+                }
                 final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
                     .n("import DLPythonNetwork") //
                     .n("DLPythonNetwork.add_network(") //
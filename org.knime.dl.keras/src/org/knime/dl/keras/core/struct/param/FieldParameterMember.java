@@ -69,8 +69,16 @@
     private Class<?> m_structType;
 
     public FieldParameterMember(final Field field, final Class<?> structType) {
-        super(fieldType(field, structType), //
-            field.getAnnotation(Parameter.class));
+        this(field, structType, fieldType(field, structType));
+    }
+
+    /**
+     * @param field the field
+     * @param structType the type that declares or inherits the field
+     * @param fieldType the exact type of the field within structType, e.g. cached in {@link ParameterStructMetadata}
+     */
+    FieldParameterMember(final Field field, final Class<?> structType, final Type fieldType) {
+        super(fieldType, field.getAnnotation(Parameter.class));
         m_field = field;
         m_structType = structType;
     }
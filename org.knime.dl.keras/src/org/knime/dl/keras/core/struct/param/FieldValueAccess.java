@@ -46,46 +46,51 @@
  */
 package org.knime.dl.keras.core.struct.param;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 
 import org.knime.dl.keras.core.struct.access.MemberReadAccess;
 import org.knime.dl.keras.core.struct.access.StructAccess;
 import org.knime.dl.keras.core.struct.access.ValueReadAccess;
 import org.knime.dl.keras.core.struct.access.ValueWriteAccess;
+import org.knime.dl.keras.core.struct.param.ParameterStructMetadata.FieldMetadata;
 
 /**
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  */
 class FieldValueAccess<S, T> implements ValueReadAccess<T, S>, ValueWriteAccess<T, S> {
 
-    private Field m_field;
+    private final FieldMetadata m_field;
 
     private boolean m_isEnabled;
 
     private StructAccess<? extends MemberReadAccess<?, ?>> m_nestedAccess;
 
-    public FieldValueAccess(Field field) {
+    public FieldValueAccess(FieldMetadata field) {
         m_field = field;
-        m_field.setAccessible(true);
     }
 
     @Override
     public T get(S storage) {
         try {
             @SuppressWarnings("unchecked")
-            final T obj = (T)m_field.get(storage);
+            final T obj = (T)m_field.getter().invokeExact((Object)storage);
             return obj;
-        } catch (IllegalArgumentException | IllegalAccessException e) {
+        } catch (Throwable e) {
             throw new IllegalStateException("Error while reading from field.", e);
         }
     }
 
     @Override
     public void set(S storage, T value) {
+        final MethodHandle setter = m_field.setter();
+        if (setter == null) {
+            throw new IllegalStateException("Field '" + m_field.getField().getName() + "' is final.");
+        }
         try {
-            m_field.set(storage, value);
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            e.printStackTrace();
+            setter.invokeExact((Object)storage, (Object)value);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Error while writing to field.", e);
         }
     }
 
@@ -101,6 +106,6 @@ public boolean isEnabled() {
     }
 
     protected Field field() {
-        return m_field;
+        return m_field.getField();
     }
 }
\ No newline at end of file
@@ -46,7 +46,6 @@
  */
 package org.knime.dl.keras.core.struct.param;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 
 import org.apache.commons.lang3.reflect.FieldUtils;
@@ -56,6 +55,7 @@
 import org.knime.dl.keras.core.struct.access.DefaultMemberReadWriteAccess;
 import org.knime.dl.keras.core.struct.access.MemberReadWriteAccess;
 import org.knime.dl.keras.core.struct.access.StructReadWriteAccess;
+import org.knime.dl.keras.core.struct.param.ParameterStructMetadata.FieldMetadata;
 
 /**
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
@@ -66,18 +66,24 @@
     public ParameterStructAccess(final Struct struct, final Class<?> type) throws ValidityException {
         // TODO we can check if type is compatible with struct, e.g. by checking the params...
         super(struct);
+        final ParameterStructMetadata metadata = ParameterStructMetadata.of(type);
         for (final Member<?> member : struct.members()) {
             final String key = member.getKey();
             final Class<?> rawType = member.getRawType();
-            final Field field = FieldUtils.getField(type, key, true);
-            if (!isEqual(field.getType(), rawType)) {
-                throw new ValidityException("Field type " + field + "  incompatible  member type " + rawType + ".");
+            FieldMetadata field = metadata.getField(key);
+            if (field == null) {
+                // not a cached @Parameter field of type, fall back to looking it up
+                field = ParameterStructMetadata.createFieldMetadata(FieldUtils.getField(type, key, true), type);
+            }
+            if (!isEqual(field.getField().getType(), rawType)) {
+                throw new ValidityException(
+                    "Field type " + field.getField() + "  incompatible  member type " + rawType + ".");
             }
             addMemberInstance(createFieldAccess(member, field));
         }
     }
 
-    private static <T, S> MemberReadWriteAccess<T, S> createFieldAccess(Member<T> member, Field field) {
+    private static <T, S> MemberReadWriteAccess<T, S> createFieldAccess(Member<T> member, FieldMetadata field) {
         final FieldValueAccess<S, T> fieldAccess = new FieldValueAccess<>(field);
         return new DefaultMemberReadWriteAccess<>(member, fieldAccess);
     }
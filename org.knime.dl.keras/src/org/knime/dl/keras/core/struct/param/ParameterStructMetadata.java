@@ -0,0 +1,207 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.struct.param;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.dl.keras.core.struct.Member;
+import org.scijava.util.ClassUtils;
+
+import com.googlecode.gentyref.GenericTypeReflector;
+
+/**
+ * Reflective metadata of a type with @Parameter annotated fields. The metadata is computed once per type and cached
+ * for the lifetime of the type's class loader, so that deriving structs and accesses for the same type over and over
+ * again (configure, load, clone, dialogs) does not repeat the annotation scanning and field reflection.
+ * <P>
+ * Only immutable information is cached. {@link Member Members} and
+ * {@link FieldValueAccess FieldValueAccesses} carry mutable state and are still created per struct (access).
+ *
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+final class ParameterStructMetadata {
+
+    private static final ClassValue<ParameterStructMetadata> CACHE = new ClassValue<ParameterStructMetadata>() {
+
+        @Override
+        protected ParameterStructMetadata computeValue(final Class<?> type) {
+            return new ParameterStructMetadata(type);
+        }
+    };
+
+    /**
+     * @param type the type, must not be <code>null</code>
+     * @return the cached metadata of the type
+     */
+    static ParameterStructMetadata of(final Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Creates the accessors of a field. Only used for fields that are not covered by cached metadata.
+     *
+     * @param field the field
+     * @param type the type that declares or inherits the field
+     * @return the field's metadata
+     */
+    static FieldMetadata createFieldMetadata(final Field field, final Class<?> type) {
+        return new FieldMetadata(field, type);
+    }
+
+    private final Class<?> m_type;
+
+    private final Map<String, FieldMetadata> m_fields;
+
+    private ParameterStructMetadata(final Class<?> type) {
+        m_type = type;
+        if (type.isPrimitive() || type.isArray()) {
+            m_fields = Collections.emptyMap();
+        } else {
+            final Map<String, FieldMetadata> fields = new LinkedHashMap<>();
+            // Parse field level @Parameter annotations.
+            for (final Field f : ClassUtils.getAnnotatedFields(type, Parameter.class)) {
+                if (Modifier.isFinal(f.getModifiers())) {
+                    continue;
+                }
+                final FieldMetadata field = new FieldMetadata(f, type);
+                fields.put(field.getKey(), field);
+            }
+            m_fields = Collections.unmodifiableMap(fields);
+        }
+    }
+
+    /**
+     * @return newly created members of the type, in declaration order
+     */
+    List<Member<?>> createMembers() {
+        final List<Member<?>> members = new ArrayList<>(m_fields.size());
+        for (final FieldMetadata field : m_fields.values()) {
+            members.add(new FieldParameterMember<>(field.getField(), m_type, field.getType()));
+        }
+        return members;
+    }
+
+    /**
+     * @param key the member key
+     * @return the metadata of the field backing the member with the given key, or <code>null</code> if there is none
+     */
+    FieldMetadata getField(final String key) {
+        return m_fields.get(key);
+    }
+
+    /**
+     * Immutable reflective metadata of a single @Parameter annotated field.
+     */
+    static final class FieldMetadata {
+
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final Field m_field;
+
+        private final Type m_type;
+
+        private final MethodHandle m_getter;
+
+        private final MethodHandle m_setter;
+
+        private FieldMetadata(final Field field, final Class<?> structType) {
+            field.setAccessible(true); // expose private fields
+            m_field = field;
+            m_type = GenericTypeReflector.getExactFieldType(field,
+                GenericTypeReflector.addWildcardParameters(structType));
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                m_getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                m_setter = Modifier.isFinal(field.getModifiers()) ? null
+                    : lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (final IllegalAccessException e) {
+                throw new IllegalStateException("Field " + field + " cannot be accessed.", e);
+            }
+        }
+
+        String getKey() {
+            final Parameter annotation = m_field.getAnnotation(Parameter.class);
+            final String key = annotation != null ? annotation.key() : null;
+            return key == null || key.isEmpty() ? m_field.getName() : key;
+        }
+
+        Field getField() {
+            return m_field;
+        }
+
+        Type getType() {
+            return m_type;
+        }
+
+        /**
+         * @return a handle of type <code>(Object)Object</code> that reads the field
+         */
+        MethodHandle getter() {
+            return m_getter;
+        }
+
+        /**
+         * @return a handle of type <code>(Object,Object)void</code> that writes the field, <code>null</code> if the
+         *         field is final
+         */
+        MethodHandle setter() {
+            return m_setter;
+        }
+    }
+}
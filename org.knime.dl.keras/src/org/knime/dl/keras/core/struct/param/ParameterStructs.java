@@ -46,13 +46,7 @@
  */
 package org.knime.dl.keras.core.struct.param;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import org.knime.dl.keras.core.struct.Member;
 import org.knime.dl.keras.core.struct.Struct;
@@ -61,7 +55,6 @@
 import org.knime.dl.keras.core.struct.instance.MemberReadWriteInstance;
 import org.knime.dl.keras.core.struct.instance.StructInstance;
 import org.knime.dl.keras.core.struct.instance.StructInstances;
-import org.scijava.util.ClassUtils;
 
 /**
  * Helper class to deal with ParameterStructs.
@@ -82,44 +75,14 @@ public final class ParameterStructs {
      * @return {@link Struct} derived from type
      */
     public static Struct structOf(final Class<?> type) {
-        final List<Member<?>> items = parse(type);
+        final List<Member<?>> items = type != null ? ParameterStructMetadata.of(type).createMembers() : null;
         return () -> items;
     }
 
-    private static List<Member<?>> parse(final Class<?> type) {
-        if (type == null)
-            return null;
-
-        if (type.isPrimitive() || type.isArray()) {
-            return Collections.emptyList();
-        }
-
-        final ArrayList<Member<?>> items = new ArrayList<>();
-        final Set<String> names = new HashSet<>();
-
-        // Parse field level @Parameter annotations.
-        final List<Field> fields = ClassUtils.getAnnotatedFields(type, Parameter.class);
-
-        for (final Field f : fields) {
-            f.setAccessible(true); // expose private fields
-
-            final String name = f.getName();
-            final boolean isFinal = Modifier.isFinal(f.getModifiers());
-            if (isFinal)
-                continue;
-
-            // add item to the list
-            final ParameterMember<?> item = new FieldParameterMember<>(f, type);
-            names.add(name);
-            items.add(item);
-        }
-
-        return items;
-    }
-
     /**
      * @param type with @Parameter annotated fields.
-     * @return a {@link StructAccess} over the provided type.
+     * @return a {@link StructAccess} over the provided type. Field accessors are taken from a per-type cache, only the
+     *         (mutable) accesses themselves are created anew.
      */
     public static <S> StructAccess<MemberReadWriteAccess<?, S>> createStructAccess(Class<?> type) {
         try {
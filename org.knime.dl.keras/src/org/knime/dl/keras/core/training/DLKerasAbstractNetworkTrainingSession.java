@@ -46,13 +46,19 @@
  */
 package org.knime.dl.keras.core.training;
 
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.io.IOException;
 import java.net.URI;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.NodeLogger;
+import org.knime.dl.base.portobjects.DLNetworkFileStoreDeduplicator;
 import org.knime.dl.base.portobjects.DLNetworkPortObject;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -86,6 +92,18 @@
 	extends DLPythonAbstractNetworkTrainingSession<DLKerasTrainingStatus, N, DLKerasTrainingConfig, C>
 		implements DLKerasNetworkTrainingSession {
 
+	private DLKerasTrainingCheckpoint m_checkpoint;
+
+	private DLKerasValidationSchedule m_validationSchedule;
+
+	private List<DLKerasTrainingVariant> m_variants = Collections.emptyList();
+
+	/**
+	 * The Python handles of the trained copies of the network, one per variant. Populated once the training
+	 * configuration is set.
+	 */
+	private List<DLPythonNetworkHandle> m_variantHandles = Collections.emptyList();
+
 	/**
 	 * @param network the network to train
 	 * @param trainingConfig the training configuration that specifies how the network will be trained
@@ -123,10 +141,46 @@ protected DLKerasAbstractNetworkTrainingSession(final N network, final DLKerasTr
 	protected void setNetworkTrainingConfig(final DLPythonNetworkHandle handle, final DLKerasTrainingConfig config, final DLCancelable cancelable)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
 		m_commands.setNetworkTrainingConfig(handle, config, cancelable);
+		if (m_checkpoint != null) {
+			m_commands.setTrainingCheckpoint(handle, m_checkpoint, cancelable);
+		}
+		if (m_validationSchedule != null && m_doValidation) {
+			m_commands.setValidationSchedule(handle, m_validationSchedule, cancelable);
+		}
+		if (!m_variants.isEmpty()) {
+			m_variantHandles = m_commands.setTrainingVariants(handle, m_variants, cancelable);
+		}
+	}
+
+	@Override
+	public void setCheckpoint(final DLKerasTrainingCheckpoint checkpoint) {
+		m_checkpoint = checkpoint;
+	}
+
+	@Override
+	public void setValidationSchedule(final DLKerasValidationSchedule schedule) {
+		m_validationSchedule = schedule;
+	}
+
+	@Override
+	public void setTrainingVariants(final List<DLKerasTrainingVariant> variants) {
+		m_variants = checkNotNull(variants);
 	}
 
 	@Override
 	public DLKerasNetworkPortObjectBase getTrainedNetwork(final ExecutionContext exec) throws Exception {
+		return getTrainedNetwork(m_handle, exec);
+	}
+
+	@Override
+	public DLKerasNetworkPortObjectBase getTrainedNetwork(final int variantIndex, final ExecutionContext exec)
+			throws Exception {
+		checkElementIndex(variantIndex, m_variantHandles.size(), "Training variant index");
+		return getTrainedNetwork(m_variantHandles.get(variantIndex), exec);
+	}
+
+	private DLKerasNetworkPortObjectBase getTrainedNetwork(final DLPythonNetworkHandle handle,
+			final ExecutionContext exec) throws Exception {
 		if (m_commands == null) {
 			throw new IllegalStateException("Network was not trained, yet.");
 		}
@@ -136,12 +190,15 @@ public DLKerasNetworkPortObjectBase getTrainedNetwork(final ExecutionContext exe
 		final FileStore fileStore = DLNetworkPortObject.createFileStoreForSaving(loader.getSaveModelURLExtension(),
 				exec);
         final URI fileStoreURI = fileStore.getFile().toURI();
-        loader.save(m_handle, fileStoreURI, m_commands.getContext(cancelable), cancelable);
+        loader.save(handle, fileStoreURI, m_commands.getContext(cancelable), cancelable);
 		if (!fileStore.getFile().exists()) {
 			throw new IllegalStateException("Failed to save trained Keras deep learning network.");
 		}
-        return new DLKerasNetworkPortObject(
-            loader.fetch(m_handle, new DLNetworkFileStoreLocation(fileStore), m_commands.getContext(cancelable), cancelable));
+		DLNetworkFileStoreDeduplicator.deduplicate(fileStore);
+        final DLKerasNetwork trainedNetwork =
+            loader.fetch(handle, new DLNetworkFileStoreLocation(fileStore), m_commands.getContext(cancelable), cancelable);
+        handOffTrainedNetwork(trainedNetwork, handle, cancelable);
+        return new DLKerasNetworkPortObject(trainedNetwork);
 	}
 
     @Override
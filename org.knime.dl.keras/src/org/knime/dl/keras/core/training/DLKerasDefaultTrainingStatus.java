@@ -68,6 +68,10 @@ public final class DLKerasDefaultTrainingStatus extends DLPythonAbstractTraining
 
 	private final DLEvent<Long> m_terminatedOnNaNLoss = new DLDefaultEvent<>();
 
+	private final DLEvent<Integer> m_checkpointSaved = new DLDefaultEvent<>();
+
+	private final DLEvent<DLKerasTrainingVariantResult> m_variantTrained = new DLDefaultEvent<>();
+
 	public DLKerasDefaultTrainingStatus(final int numEpochs, final int numBatchesPerEpoch) {
 		super(numEpochs, numBatchesPerEpoch);
 		m_stoppedEarly.addListener((src, epoch) -> setStatus(Status.STOPPED_EARLY));
@@ -131,4 +135,14 @@ public DLEvent<Integer> stoppedEarly() {
 	public DLEvent<Long> terminatedOnNaNLoss() {
 		return m_terminatedOnNaNLoss;
 	}
+
+	@Override
+	public DLEvent<Integer> checkpointSaved() {
+		return m_checkpointSaved;
+	}
+
+	@Override
+	public DLEvent<DLKerasTrainingVariantResult> variantTrained() {
+		return m_variantTrained;
+	}
 }
@@ -46,6 +46,8 @@
  */
 package org.knime.dl.keras.core.training;
 
+import java.util.List;
+
 import org.knime.core.node.ExecutionContext;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectBase;
@@ -60,5 +62,43 @@ public interface DLKerasNetworkTrainingSession extends DLPythonNetworkTrainingSe
 	// TODO: this should go somewhere else as it's "base" related rather than "core"
 	DLKerasNetworkPortObjectBase getTrainedNetwork(ExecutionContext exec) throws Exception;
 
+    /**
+     * Returns the trained copy of the network that belongs to the given {@link #setTrainingVariants(List) training
+     * variant}. Must only be called once training is complete.
+     *
+     * @param variantIndex the index of the variant in the list of variants of this session
+     * @param exec the execution context that is used to save the network
+     * @return the network that was trained using the variant
+     * @throws Exception if saving the network failed
+     */
+    DLKerasNetworkPortObjectBase getTrainedNetwork(int variantIndex, ExecutionContext exec) throws Exception;
+
     void stopEarly() throws DLCanceledExecutionException, Exception;
+
+    /**
+     * Lets the training periodically save checkpoints and, possibly, resume from a previous one. Must be called before
+     * the training is run.
+     *
+     * @param checkpoint the checkpoint configuration, <code>null</code> if no checkpoints should be saved
+     */
+    void setCheckpoint(DLKerasTrainingCheckpoint checkpoint);
+
+    /**
+     * Lets the training validate according to the given schedule. Must be called before the training is run. Has no
+     * effect if the session does not perform validation.
+     *
+     * @param schedule the validation schedule, <code>null</code> to validate on the complete validation data at the
+     *            end of every epoch
+     */
+    void setValidationSchedule(DLKerasValidationSchedule schedule);
+
+    /**
+     * Lets the training train a copy of the network per given variant instead of the network itself. All copies are
+     * trained on the same data, each batch is only prepared once. Checkpoints, validation schedules and callbacks do
+     * not apply to variants. The final metrics of the variants are reported via
+     * {@link DLKerasTrainingStatus#variantTrained()}. Must be called before the training is run.
+     *
+     * @param variants the variants, empty to train the network itself
+     */
+    void setTrainingVariants(List<DLKerasTrainingVariant> variants);
 }
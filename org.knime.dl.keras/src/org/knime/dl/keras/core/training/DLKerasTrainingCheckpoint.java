@@ -0,0 +1,168 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.training;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+
+import org.knime.dl.python.util.DLPythonUtils;
+
+/**
+ * Describes where and how often a Keras training session saves checkpoints of the trained network and, optionally,
+ * from which checkpoint an interrupted training run is resumed.
+ * <P>
+ * A checkpoint is written at the end of every {@link #getInterval() n-th} epoch and at the end of the last epoch. It
+ * comprises the network's weights and the state of its optimizer. Each checkpoint is written to its own file (see
+ * {@link #getNetworkFile(int)}) which is complete once the training status'
+ * {@link DLKerasTrainingStatus#checkpointSaved() checkpointSaved} event is raised. It is up to the client to record
+ * the latest complete checkpoint and to clean up older ones.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasTrainingCheckpoint {
+
+	private static final String NETWORK_FILE_PREFIX = "checkpoint-";
+
+	private static final String NETWORK_FILE_SUFFIX = ".h5";
+
+	private final File m_directory;
+
+	private final int m_interval;
+
+	private final int m_initialEpoch;
+
+	private final File m_resumeNetworkFile;
+
+	/**
+	 * Creates a checkpoint configuration for a training run that starts from scratch.
+	 *
+	 * @param directory the directory to which checkpoints are written, must exist
+	 * @param interval the number of epochs between two checkpoints, must be greater than zero
+	 */
+	public DLKerasTrainingCheckpoint(final File directory, final int interval) {
+		this(directory, interval, 0, null);
+	}
+
+	/**
+	 * Creates a checkpoint configuration for a training run that resumes from a previous checkpoint.
+	 *
+	 * @param directory the directory to which checkpoints are written, must exist
+	 * @param interval the number of epochs between two checkpoints, must be greater than zero
+	 * @param initialEpoch the number of epochs that are completed in the checkpoint to resume from, training
+	 *            continues with the next epoch
+	 * @param resumeNetworkFile the checkpoint file to resume from, <code>null</code> if training starts from scratch
+	 */
+	public DLKerasTrainingCheckpoint(final File directory, final int interval, final int initialEpoch,
+			final File resumeNetworkFile) {
+		checkArgument(interval > 0, "Checkpoint interval must be greater than zero.");
+		checkArgument(initialEpoch >= 0, "Initial epoch must not be negative.");
+		checkArgument((initialEpoch == 0) == (resumeNetworkFile == null),
+				"A checkpoint file must be given if and only if training does not start from scratch.");
+		m_directory = checkNotNull(directory);
+		m_interval = interval;
+		m_initialEpoch = initialEpoch;
+		m_resumeNetworkFile = resumeNetworkFile;
+	}
+
+	/**
+	 * @return the directory to which checkpoints are written
+	 */
+	public File getDirectory() {
+		return m_directory;
+	}
+
+	/**
+	 * @return the number of epochs between two checkpoints
+	 */
+	public int getInterval() {
+		return m_interval;
+	}
+
+	/**
+	 * @return the number of epochs that are already completed when training starts, <code>0</code> if training starts
+	 *         from scratch
+	 */
+	public int getInitialEpoch() {
+		return m_initialEpoch;
+	}
+
+	/**
+	 * @return the checkpoint file to resume from, <code>null</code> if training starts from scratch
+	 */
+	public File getResumeNetworkFile() {
+		return m_resumeNetworkFile;
+	}
+
+	/**
+	 * @param numCompletedEpochs the number of epochs that are completed in the checkpoint
+	 * @return the file of the checkpoint that is written after the given number of epochs
+	 */
+	public File getNetworkFile(final int numCompletedEpochs) {
+		return new File(m_directory, NETWORK_FILE_PREFIX + numCompletedEpochs + NETWORK_FILE_SUFFIX);
+	}
+
+	/**
+	 * @param file a file
+	 * @return <code>true</code> if the given file is a checkpoint file written according to this configuration
+	 */
+	public boolean isNetworkFile(final File file) {
+		final String name = file.getName();
+		return m_directory.equals(file.getParentFile()) && name.startsWith(NETWORK_FILE_PREFIX)
+				&& name.endsWith(NETWORK_FILE_SUFFIX);
+	}
+
+	/**
+	 * @return the Python representation of the callback that writes the checkpoints
+	 */
+	public String getBackendRepresentation() {
+		final String pattern = new File(m_directory, NETWORK_FILE_PREFIX + "{}" + NETWORK_FILE_SUFFIX).getAbsolutePath();
+		return "DLKerasTrainingCallbacks.DLKerasTrainingCheckpoint(" + DLPythonUtils.toPythonRawString(pattern) + ", "
+				+ DLPythonUtils.toPython(m_interval) + ")";
+	}
+}
@@ -60,4 +60,16 @@ public interface DLKerasTrainingStatus extends DLPythonTrainingStatus {
 	DLEvent<Integer> stoppedEarly();
 
 	DLEvent<Long> terminatedOnNaNLoss();
+
+	/**
+	 * Raised once a training checkpoint has been completely written (see {@link DLKerasTrainingCheckpoint}). The event
+	 * data is the number of epochs that are completed in the checkpoint.
+	 */
+	DLEvent<Integer> checkpointSaved();
+
+	/**
+	 * Raised once per {@link DLKerasTrainingVariant training variant} after all variants have been trained. The event
+	 * data are the final metrics of the variant.
+	 */
+	DLEvent<DLKerasTrainingVariantResult> variantTrained();
 }
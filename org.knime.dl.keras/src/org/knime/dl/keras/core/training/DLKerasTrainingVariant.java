@@ -0,0 +1,121 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.training;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.OptionalDouble;
+
+import org.knime.dl.python.util.DLPythonUtils;
+
+/**
+ * A variation of the training configuration of a Keras network. A training session that is given several variants
+ * (see {@link DLKerasNetworkTrainingSession#setTrainingVariants(java.util.List)}) trains a copy of the network per
+ * variant instead of the network itself. All copies are trained on the same training and validation data which is only
+ * prepared once.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasTrainingVariant {
+
+	private final String m_name;
+
+	private final DLKerasOptimizer m_optimizer;
+
+	private final OptionalDouble m_learningRate;
+
+	/**
+	 * @param name the name of the variant
+	 * @param optimizer the optimizer that is used to train the variant
+	 * @param learningRate the learning rate that replaces the one of the optimizer, empty to keep the optimizer's one
+	 */
+	public DLKerasTrainingVariant(final String name, final DLKerasOptimizer optimizer,
+			final OptionalDouble learningRate) {
+		m_name = checkNotNull(name);
+		m_optimizer = checkNotNull(optimizer);
+		m_learningRate = checkNotNull(learningRate);
+		checkArgument(!learningRate.isPresent() || learningRate.getAsDouble() > 0d,
+				"Learning rate of training variant '" + name + "' must be greater than zero.");
+	}
+
+	/**
+	 * @return the name of the variant
+	 */
+	public String getName() {
+		return m_name;
+	}
+
+	/**
+	 * @return the optimizer that is used to train the variant
+	 */
+	public DLKerasOptimizer getOptimizer() {
+		return m_optimizer;
+	}
+
+	/**
+	 * @return the learning rate that replaces the one of the optimizer, empty if the optimizer's one is kept
+	 */
+	public OptionalDouble getLearningRate() {
+		return m_learningRate;
+	}
+
+	/**
+	 * @param networkIdentifier the identifier under which the trained copy of the network is registered in Python
+	 * @return the Python representation of the variant
+	 */
+	public String getBackendRepresentation(final String networkIdentifier) {
+		return "DLKerasTrainingVariants.DLKerasTrainingVariant(" + DLPythonUtils.toPython(networkIdentifier) + ", "
+				+ m_optimizer.getBackendRepresentation() + ", " + DLPythonUtils.toPython(m_learningRate) + ")";
+	}
+
+	@Override
+	public String toString() {
+		return m_name + ": " + m_optimizer.getName()
+				+ (m_learningRate.isPresent() ? " (learning rate: " + m_learningRate.getAsDouble() + ")" : "");
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.training;
+
+/**
+ * The final metrics of a {@link DLKerasTrainingVariant training variant}: the mean training metrics over the batches
+ * of the last epoch and the validation metrics of the last validation. Metrics that are not available are
+ * {@link Float#NaN}.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasTrainingVariantResult {
+
+	private final int m_variantIndex;
+
+	private final float m_loss;
+
+	private final float m_accuracy;
+
+	private final float m_validationLoss;
+
+	private final float m_validationAccuracy;
+
+	/**
+	 * @param variantIndex the index of the variant in the list of variants of the training session
+	 * @param loss the training loss
+	 * @param accuracy the training accuracy
+	 * @param validationLoss the validation loss
+	 * @param validationAccuracy the validation accuracy
+	 */
+	public DLKerasTrainingVariantResult(final int variantIndex, final float loss, final float accuracy,
+			final float validationLoss, final float validationAccuracy) {
+		m_variantIndex = variantIndex;
+		m_loss = loss;
+		m_accuracy = accuracy;
+		m_validationLoss = validationLoss;
+		m_validationAccuracy = validationAccuracy;
+	}
+
+	/**
+	 * @return the index of the variant in the list of variants of the training session
+	 */
+	public int getVariantIndex() {
+		return m_variantIndex;
+	}
+
+	/**
+	 * @return the training loss
+	 */
+	public float getLoss() {
+		return m_loss;
+	}
+
+	/**
+	 * @return the training accuracy
+	 */
+	public float getAccuracy() {
+		return m_accuracy;
+	}
+
+	/**
+	 * @return the validation loss, {@link Float#NaN} if no validation was performed
+	 */
+	public float getValidationLoss() {
+		return m_validationLoss;
+	}
+
+	/**
+	 * @return the validation accuracy, {@link Float#NaN} if no validation was performed
+	 */
+	public float getValidationAccuracy() {
+		return m_validationAccuracy;
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.training;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.knime.dl.core.training.DLKnimeNetworkSampledValidationInputPreparer;
+import org.knime.dl.python.util.DLPythonUtils;
+
+/**
+ * Describes how often a Keras training session validates the trained network and on which part of the validation
+ * data. By default, Keras validates on the complete validation data at the end of every epoch.
+ * <P>
+ * Validation takes place at the end of every {@link #getEpochInterval() n-th} epoch or, if a
+ * {@link #getBatchInterval() batch interval} is set, after every n-th training batch. Intermediate validations may be
+ * restricted to the {@link #getNumSampleBatches() first batches} of the validation data (see
+ * {@link DLKnimeNetworkSampledValidationInputPreparer}). The validation at the end of the last epoch always uses the
+ * complete validation data. Callbacks that monitor validation quantities (early stopping, reducing the learning rate on
+ * plateaus) only observe the ends of epochs in which a validation took place.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasValidationSchedule {
+
+	private final int m_epochInterval;
+
+	private final int m_batchInterval;
+
+	private final long m_numSampleBatches;
+
+	/**
+	 * @param epochInterval the number of epochs between two validations, must be greater than zero, ignored if a batch
+	 *            interval is set
+	 * @param batchInterval the number of training batches between two validations, <code>0</code> to validate at the
+	 *            end of epochs instead
+	 * @param numSampleBatches the number of leading validation batches that form the sample used by intermediate
+	 *            validations, <code>0</code> to always validate on the complete validation data
+	 */
+	public DLKerasValidationSchedule(final int epochInterval, final int batchInterval, final long numSampleBatches) {
+		checkArgument(epochInterval > 0, "Validation epoch interval must be greater than zero.");
+		checkArgument(batchInterval >= 0, "Validation batch interval must not be negative.");
+		checkArgument(numSampleBatches >= 0, "Number of validation sample batches must not be negative.");
+		m_epochInterval = epochInterval;
+		m_batchInterval = batchInterval;
+		m_numSampleBatches = numSampleBatches;
+	}
+
+	/**
+	 * @return the number of epochs between two validations, only relevant if no batch interval is set
+	 */
+	public int getEpochInterval() {
+		return m_epochInterval;
+	}
+
+	/**
+	 * @return the number of training batches between two validations, <code>0</code> if validation takes place at the
+	 *         end of epochs
+	 */
+	public int getBatchInterval() {
+		return m_batchInterval;
+	}
+
+	/**
+	 * @return the number of leading validation batches that are used by intermediate validations, <code>0</code> if
+	 *         all validations use the complete validation data
+	 */
+	public long getNumSampleBatches() {
+		return m_numSampleBatches;
+	}
+
+	/**
+	 * @return the Python representation of the callback that performs the validation
+	 */
+	public String getBackendRepresentation() {
+		return "DLKerasTrainingCallbacks.DLKerasPeriodicValidation(" + DLPythonUtils.toPython(m_epochInterval) + ", "
+				+ DLPythonUtils.toPython(m_batchInterval) + ", " + DLPythonUtils.toPython(m_numSampleBatches) + ")";
+	}
+}
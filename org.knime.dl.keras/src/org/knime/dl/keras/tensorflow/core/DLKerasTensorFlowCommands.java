@@ -52,11 +52,14 @@
 import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLExecutionProfile;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.core.DLKerasAbstractCommands;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
+import org.knime.dl.python.util.DLPythonUtils;
 import org.knime.dl.util.DLUtils;
 
 /**
@@ -89,12 +92,57 @@ public DLKerasTensorFlowNetworkSpec extractNetworkSpec(final DLPythonNetworkHand
             outputSpecs);
     }
 
+    /**
+     * Exports a network in a form that is optimized for inference: training-only operations are removed, constants
+     * are folded and batch normalizations are fused into the preceding layers. The outputs of the exported network are
+     * checked against the ones of the original network on a random sample batch.
+     *
+     * @param handle the handle of the network to export
+     * @param path the path of the destination file
+     * @param savedModel <code>true</code> to write a zip archive of a TensorFlow SavedModel, <code>false</code> to
+     *            write a frozen TensorFlow graph
+     * @param quantization the quantization to apply to the weights of the network
+     * @param tolerance the maximum deviation of the outputs of the exported network from the ones of the original
+     *            network, relative to the magnitude of the outputs
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context or if the export failed,
+     *             e.g. because the outputs of the exported network deviate too much
+     * @throws IOException if an error occurred while communicating with Python
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public void exportInferenceNetwork(final DLPythonNetworkHandle handle, final String path,
+        final boolean savedModel, final DLKerasTensorFlowWeightQuantization quantization, final double tolerance,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("from DLKerasTensorFlowInferenceExporter import export_inference_network") //
+            .n("export_inference_network(DLPythonNetwork.get_network(").as(handle.getIdentifier()).a(").model, ") //
+            /**/ .asr(path).a(", ").as(savedModel ? "saved_model" : "frozen_graph").a(", ") //
+            /**/ .a("quantization=").a(quantization.getBackendRepresentation()).a(", ") //
+            /**/ .a("tolerance=").a(tolerance).a(")");
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+    }
+
 	@Override
 	protected String getSetupEnvironmentCode() {
 		return "import os\n" + //
 				"os.environ['KERAS_BACKEND'] = 'tensorflow'\n";
 	}
 
+	@Override
+	protected String getSetupBackendCode() {
+		final DLExecutionProfile profile = getExecutionProfile();
+		if (profile.getIntraOpThreads() == 0 && profile.getInterOpThreads() == 0) {
+			return super.getSetupBackendCode();
+		}
+		// zero lets TensorFlow choose the size of the respective thread pool
+		return "import tensorflow as tf\n" + //
+				"from keras import backend as K\n" + //
+				"K.set_session(tf.Session(config=tf.ConfigProto(intra_op_parallelism_threads="
+				+ profile.getIntraOpThreads() + ", inter_op_parallelism_threads=" + profile.getInterOpThreads()
+				+ ")))\n";
+	}
+
 	@Override
 	protected File getInstallationTestFile() throws IOException {
 		return DLUtils.Files.getFileFromSameBundle(this, "py/DLKerasTensorFlowNetworkTester.py");
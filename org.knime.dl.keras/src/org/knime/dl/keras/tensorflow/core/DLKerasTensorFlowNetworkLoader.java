@@ -50,11 +50,13 @@
 
 import java.io.IOException;
 
+import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.core.DLKerasAbstractNetworkLoader;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
@@ -98,6 +100,14 @@ public DLKerasTensorFlowNetwork fetch(final DLPythonNetworkHandle handle, final
 		return new DLKerasTensorFlowNetwork(spec, source);
 	}
 
+    @Override
+    protected DLKerasTensorFlowNetwork createNetwork(final Version pythonVersion, final Version kerasVersion,
+        final DLTensorSpec[] inputSpecs, final DLTensorSpec[] hiddenOutputSpecs, final DLTensorSpec[] outputSpecs,
+        final DLNetworkLocation source) {
+        return new DLKerasTensorFlowNetwork(new DLKerasTensorFlowNetworkSpec(pythonVersion, kerasVersion, inputSpecs,
+            hiddenOutputSpecs, outputSpecs), source);
+    }
+
 	@Override
 	protected DLPythonInstallationTester getInstallationTester() {
 		return installationTester;
@@ -75,6 +75,11 @@ public DLKerasTensorFlowNetworkSpec(final Version pythonVersion, final Version k
         super(pythonVersion, kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs, trainingConfig);
     }
 
+    public DLKerasTensorFlowNetworkSpec(final Version kerasVersion, final DLTensorSpec[] inputSpecs,
+        final DLTensorSpec[] hiddenOutputSpecs, final DLTensorSpec[] outputSpecs) {
+        super(kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs);
+    }
+
     public DLKerasTensorFlowNetworkSpec(final DLTensorSpec[] inputSpecs, final DLTensorSpec[] hiddenOutputSpecs,
         final DLTensorSpec[] outputSpecs) {
         super(inputSpecs, hiddenOutputSpecs, outputSpecs);
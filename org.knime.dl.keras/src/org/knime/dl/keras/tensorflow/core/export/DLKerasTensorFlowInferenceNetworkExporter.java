@@ -0,0 +1,149 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.tensorflow.core.export;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.core.export.DLAbstractNetworkExporter;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowCommands;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetwork;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetworkLoader;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowWeightQuantization;
+import org.knime.dl.python.core.DLPythonDefaultContext;
+import org.knime.dl.python.core.DLPythonNetworkHandle;
+
+import com.google.common.base.Strings;
+
+/**
+ * Base class of exporters that convert a Keras (TensorFlow) network into a TensorFlow graph that is optimized for
+ * inference. Unlike the plain Keras network file, the exported graph neither contains training-only operations nor
+ * requires Keras to be parsed. The outputs of the exported graph are checked against the ones of the original network
+ * on a random sample batch. The tolerance of this check can be set via VM option {@link #TOLERANCE_VM_OPT}.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public abstract class DLKerasTensorFlowInferenceNetworkExporter
+    extends DLAbstractNetworkExporter<DLKerasTensorFlowNetwork> {
+
+    /**
+     * VM option that specifies the maximum deviation of the outputs of an exported network from the outputs of the
+     * original network, relative to the magnitude of the outputs. If not set, a default that depends on the weight
+     * quantization of the exporter is used.
+     */
+    public static final String TOLERANCE_VM_OPT = "knime.dl.keras.exporttolerance";
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasTensorFlowInferenceNetworkExporter.class);
+
+    private final boolean m_savedModel;
+
+    private final DLKerasTensorFlowWeightQuantization m_quantization;
+
+    /**
+     * Creates a new exporter.
+     *
+     * @param name the name of the exporter
+     * @param extension the extension of the exported files
+     * @param savedModel <code>true</code> if the exporter writes a zip archive of a TensorFlow SavedModel,
+     *            <code>false</code> if it writes a frozen TensorFlow graph
+     * @param quantization the quantization to apply to the weights of the exported networks
+     */
+    protected DLKerasTensorFlowInferenceNetworkExporter(final String name, final String extension,
+        final boolean savedModel, final DLKerasTensorFlowWeightQuantization quantization) {
+        super(DLKerasTensorFlowNetwork.class, name, new String[]{extension});
+        m_savedModel = savedModel;
+        m_quantization = quantization;
+    }
+
+    @Override
+    public void exportNetwork(final DLKerasTensorFlowNetwork network, final URL path, final boolean overwrite)
+        throws IOException {
+        // TODO make more general for remote destination files
+        final File dest = FileUtil.getFileFromURL(path);
+        if (dest.exists() && !overwrite) {
+            throw new IOException("The destination file already exists.");
+        }
+        final DLKerasTensorFlowNetworkLoader loader = new DLKerasTensorFlowNetworkLoader();
+        try (final DLKerasTensorFlowCommands commands = loader.createCommands(new DLPythonDefaultContext())) {
+            final DLPythonNetworkHandle handle =
+                loader.load(network, commands.getContext(DLNotCancelable.INSTANCE), false, DLNotCancelable.INSTANCE);
+            commands.exportInferenceNetwork(handle, dest.getAbsolutePath(), m_savedModel, m_quantization,
+                getTolerance(), DLNotCancelable.INSTANCE);
+        } catch (final DLInvalidSourceException | DLInvalidEnvironmentException | DLCanceledExecutionException e) {
+            String message = "An error occurred while exporting the Keras network.";
+            if (!Strings.isNullOrEmpty(e.getMessage())) {
+                message += "\nCause: " + e.getMessage();
+            }
+            throw new IOException(message, e);
+        }
+    }
+
+    private double getTolerance() {
+        final String tolerance = System.getProperty(TOLERANCE_VM_OPT);
+        if (tolerance != null) {
+            try {
+                final double parsed = Double.parseDouble(tolerance);
+                if (parsed >= 0) {
+                    return parsed;
+                }
+            } catch (final NumberFormatException ex) {
+                // Ignore, see below.
+            }
+            LOGGER.warn("The VM option -D" + TOLERANCE_VM_OPT
+                + " was not set to a non-negative number. Using the default value of "
+                + m_quantization.getDefaultTolerance() + " instead.");
+        }
+        return m_quantization.getDefaultTolerance();
+    }
+}
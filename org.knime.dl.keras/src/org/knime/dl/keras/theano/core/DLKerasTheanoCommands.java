@@ -90,8 +90,19 @@ public DLKerasTheanoNetworkSpec extractNetworkSpec(final DLPythonNetworkHandle h
 
 	@Override
 	protected String getSetupEnvironmentCode() {
-		return "import os\n" + //
+		final String code = "import os\n" + //
 				"os.environ['KERAS_BACKEND'] = 'theano'\n";
+		final int intraOpThreads = getExecutionProfile().getIntraOpThreads();
+		if (intraOpThreads == 0) {
+			return code;
+		}
+		// Theano parallelizes operations via OpenMP only. An explicit OpenMP thread count of the execution profile is
+		// applied afterwards and takes precedence.
+		return code + //
+				"os.environ['OMP_NUM_THREADS'] = '" + intraOpThreads + "'\n" + //
+				"_theano_flags = os.environ.get('THEANO_FLAGS')\n" + //
+				"os.environ['THEANO_FLAGS'] = (_theano_flags + ',' if _theano_flags else '') + 'openmp="
+				+ (intraOpThreads > 1 ? "True" : "False") + "'\n";
 	}
 
 	@Override
@@ -50,11 +50,13 @@
 
 import java.io.IOException;
 
+import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.core.DLKerasAbstractNetworkLoader;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
@@ -97,6 +99,14 @@ public DLKerasTheanoNetwork fetch(final DLPythonNetworkHandle handle, final DLNe
 		return new DLKerasTheanoNetwork(spec, source);
 	}
 
+    @Override
+    protected DLKerasTheanoNetwork createNetwork(final Version pythonVersion, final Version kerasVersion,
+        final DLTensorSpec[] inputSpecs, final DLTensorSpec[] hiddenOutputSpecs, final DLTensorSpec[] outputSpecs,
+        final DLNetworkLocation source) {
+        return new DLKerasTheanoNetwork(new DLKerasTheanoNetworkSpec(pythonVersion, kerasVersion, inputSpecs,
+            hiddenOutputSpecs, outputSpecs), source);
+    }
+
 	@Override
 	protected DLPythonInstallationTester getInstallationTester() {
 		return installationTester;
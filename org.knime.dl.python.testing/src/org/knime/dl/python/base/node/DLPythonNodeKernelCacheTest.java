@@ -0,0 +1,219 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.base.node;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.python2.PythonVersion;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableChunker;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableCreator;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableCreatorFactory;
+import org.knime.python2.kernel.PythonKernel;
+import org.knime.python2.kernel.PythonKernelOptions;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLPythonNodeKernelCacheTest {
+
+    private static final String[] OUTPUT_VARIABLES = {"output_network"};
+
+    private static final PythonKernelOptions OPTIONS =
+        new PythonKernelOptions().forPythonVersion(PythonVersion.PYTHON3);
+
+    private final List<RecordingContext> m_contexts = new ArrayList<>();
+
+    private final DLPythonNodeKernelCache m_cache = new DLPythonNodeKernelCache(options -> {
+        final RecordingContext context = new RecordingContext();
+        m_contexts.add(context);
+        return new DLPythonNodeKernel(options, context);
+    });
+
+    @After
+    public void discardCache() {
+        m_cache.discard();
+    }
+
+    @Test
+    public void testReusesKernelAfterSuccessfulExecution() throws Exception {
+        final DLPythonNodeKernel first = open(OPTIONS, true);
+        assertFalse(first.isReused());
+        m_cache.close(first, true, true);
+        assertFalse(m_contexts.get(0).m_closed);
+
+        final DLPythonNodeKernel second = open(OPTIONS, true);
+        assertSame(first, second);
+        assertTrue(second.isReused());
+        assertEquals(1, m_contexts.size());
+        // the outputs of the previous execution are removed from the reused kernel
+        assertTrue(m_contexts.get(0).m_executedCode.stream().anyMatch(c -> c.contains("del output_network")));
+    }
+
+    @Test
+    public void testClosesKernelIfNotKeptAlive() throws Exception {
+        final DLPythonNodeKernel first = open(OPTIONS, false);
+        m_cache.close(first, true, false);
+        assertTrue(m_contexts.get(0).m_closed);
+        assertNotSame(first, open(OPTIONS, false));
+    }
+
+    @Test
+    public void testDiscardsKernelIfKeepAliveWasDisabled() throws Exception {
+        final DLPythonNodeKernel first = open(OPTIONS, true);
+        m_cache.close(first, true, true);
+        assertNotSame(first, open(OPTIONS, false));
+        assertTrue(m_contexts.get(0).m_closed);
+    }
+
+    @Test
+    public void testDiscardsKernelIfOptionsChanged() throws Exception {
+        final DLPythonNodeKernel first = open(OPTIONS, true);
+        m_cache.close(first, true, true);
+        final DLPythonNodeKernel second = open(OPTIONS.forPythonVersion(PythonVersion.PYTHON2), true);
+        assertNotSame(first, second);
+        assertFalse(second.isReused());
+        assertTrue(m_contexts.get(0).m_closed);
+    }
+
+    @Test
+    public void testDiscardsKernelIfPreferencesChanged() throws Exception {
+        final DLPythonNodeKernel first = open(OPTIONS, true);
+        m_cache.close(first, true, true);
+        m_cache.onPreferencesChanged();
+        final DLPythonNodeKernel second = open(OPTIONS, true);
+        assertNotSame(first, second);
+        assertTrue(m_contexts.get(0).m_closed);
+        // the change was consumed by discarding the first kernel
+        m_cache.close(second, true, true);
+        assertSame(second, open(OPTIONS, true));
+    }
+
+    @Test
+    public void testDiscardsKernelAfterFailedExecution() throws Exception {
+        final DLPythonNodeKernel first = open(OPTIONS, true);
+        m_cache.close(first, false, true);
+        assertTrue(m_contexts.get(0).m_closed);
+        assertNotSame(first, open(OPTIONS, true));
+    }
+
+    @Test
+    public void testDiscardsReusedKernelAfterFailedExecution() throws Exception {
+        final DLPythonNodeKernel first = open(OPTIONS, true);
+        m_cache.close(first, true, true);
+        assertSame(first, open(OPTIONS, true));
+        m_cache.close(first, false, true);
+        assertTrue(m_contexts.get(0).m_closed);
+        assertNotSame(first, open(OPTIONS, true));
+    }
+
+    private DLPythonNodeKernel open(final PythonKernelOptions options, final boolean keepAlive) throws Exception {
+        return m_cache.open(options, keepAlive, OUTPUT_VARIABLES, DLNotCancelable.INSTANCE);
+    }
+
+    private static final class RecordingContext implements DLPythonContext {
+
+        private final List<String> m_executedCode = new ArrayList<>();
+
+        private boolean m_closed;
+
+        @Override
+        public boolean isKernelOpen() {
+            return !m_closed;
+        }
+
+        @Override
+        public PythonKernel getKernel() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String[] execute(final DLCancelable cancelable, final File script, final String... args) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String[] executeInKernel(final String code, final DLCancelable cancelable) {
+            m_executedCode.add(code);
+            return new String[]{"", ""};
+        }
+
+        @Override
+        public String[] executeAsyncInKernel(final String code, final DLCancelable cancelable) {
+            return executeInKernel(code, cancelable);
+        }
+
+        @Override
+        public void putDataInKernel(final String name, final TableChunker tableChunker, final int rowsPerChunk,
+            final DLCancelable cancelable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TableCreator<?> getDataFromKernel(final String name, final TableCreatorFactory tcf,
+            final DLCancelable cancelable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            m_closed = true;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.training;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.knime.dl.python.core.training.DLPythonTrainingLog.Increment;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLPythonTrainingLogTest {
+
+    @Test
+    public void testIncrementalRead() {
+        final DLPythonTrainingLog log = new DLPythonTrainingLog(10, null);
+        log.append("a");
+        log.append("b");
+        Increment increment = log.readSince(0);
+        assertEquals(Arrays.asList("a", "b"), increment.getLines());
+        assertFalse(increment.isDiscontinuous());
+        log.append("c");
+        increment = log.readSince(increment.getEndPosition());
+        assertEquals(Collections.singletonList("c"), increment.getLines());
+        assertFalse(increment.isDiscontinuous());
+        increment = log.readSince(increment.getEndPosition());
+        assertTrue(increment.getLines().isEmpty());
+        assertEquals(3, increment.getEndPosition());
+    }
+
+    @Test
+    public void testEvictionAndSpill() throws IOException {
+        final Path spillFile = Files.createTempFile("dl-training-log", ".txt");
+        try {
+            final DLPythonTrainingLog log = new DLPythonTrainingLog(3, spillFile);
+            for (int i = 0; i < 5; i++) {
+                log.append(Integer.toString(i));
+            }
+            final Increment increment = log.readSince(1);
+            assertTrue(increment.isDiscontinuous());
+            assertEquals(Arrays.asList("2", "3", "4"), increment.getLines());
+            assertEquals("2\n3\n4\n", log.getText());
+            log.closeSpill();
+            assertEquals(Arrays.asList("0", "1"), Files.readAllLines(spillFile));
+        } finally {
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    @Test
+    public void testDisposeDeletesSpillFile() throws IOException {
+        final Path spillFile = Files.createTempFile("dl-training-log", ".txt");
+        try {
+            final DLPythonTrainingLog log = new DLPythonTrainingLog(2, spillFile);
+            for (int i = 0; i < 4; i++) {
+                log.append(Integer.toString(i));
+            }
+            log.dispose();
+            assertFalse(Files.exists(spillFile));
+            // Lines held in memory remain readable, evicted lines are not spilled anymore.
+            assertEquals("2\n3\n", log.getText());
+            log.append("4");
+            assertEquals("3\n4\n", log.getText());
+            assertFalse(Files.exists(spillFile));
+        } finally {
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    @Test
+    public void testSetTextAndClear() {
+        final DLPythonTrainingLog log = new DLPythonTrainingLog(10, null);
+        log.appendText("x\ny\n");
+        assertEquals(2, log.getNumLines());
+        final long position = log.getNumLines();
+        log.clear();
+        log.append("z");
+        final Increment increment = log.readSince(position);
+        assertTrue(increment.isDiscontinuous());
+        assertEquals(Collections.singletonList("z"), increment.getLines());
+    }
+
+    @Test
+    public void testClearIsDetectedByGeneration() {
+        final DLPythonTrainingLog log = new DLPythonTrainingLog(10, null);
+        log.appendText("x\ny\n");
+        final Increment previous = log.readSince((Increment)null);
+        assertEquals(2, previous.getEndPosition());
+        // The new lines reach the previous end position, which cannot be detected by positions alone.
+        log.clear();
+        log.appendText("u\nv\nw\n");
+        final Increment increment = log.readSince(previous);
+        assertTrue(increment.isDiscontinuous());
+        assertEquals(previous.getGeneration() + 1, increment.getGeneration());
+        assertEquals(Arrays.asList("u", "v", "w"), increment.getLines());
+        log.append("t");
+        final Increment next = log.readSince(increment);
+        assertFalse(next.isDiscontinuous());
+        assertEquals(Collections.singletonList("t"), next.getLines());
+    }
+
+    @Test
+    public void testConfiguredLog() throws IOException {
+        final Path spillDirectory = Files.createTempDirectory("dl-training-log");
+        System.setProperty(DLPythonTrainingLog.SPILL_DIRECTORY_VM_OPT, spillDirectory.toString());
+        try {
+            final DLPythonTrainingLog log = DLPythonTrainingLog.createConfigured("stdout");
+            assertEquals(DLPythonTrainingLog.getConfiguredCapacity(), log.getCapacity());
+            assertEquals(spillDirectory, log.getSpillFile().get().getParent());
+            // The spill file is only created once lines are evicted.
+            assertFalse(Files.exists(log.getSpillFile().get()));
+        } finally {
+            System.clearProperty(DLPythonTrainingLog.SPILL_DIRECTORY_VM_OPT);
+            Files.delete(spillDirectory);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+
+"""
+Applies the process wide settings of an execution profile. Must be called before any deep learning back end (or
+library that initializes OpenMP or MKL) is imported in order to take full effect.
+
+@author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+"""
+
+import os
+
+
+def apply_process_profile(omp_threads=0, mkl_threads=0, cpu_affinity=None):
+    """
+    Zero thread counts and an empty affinity leave the respective setting untouched. Cores of the affinity that are
+    not available to this process are ignored.
+    """
+    if omp_threads > 0:
+        os.environ['OMP_NUM_THREADS'] = str(omp_threads)
+    if mkl_threads > 0:
+        os.environ['MKL_NUM_THREADS'] = str(mkl_threads)
+        try:
+            # MKL may already have been loaded (e.g. by numpy), reconfigure it at runtime if possible
+            import mkl
+            mkl.set_num_threads(mkl_threads)
+        except ImportError:
+            pass
+    if cpu_affinity and hasattr(os, 'sched_setaffinity'):
+        cores = set(cpu_affinity) & os.sched_getaffinity(0)
+        if cores:
+            os.sched_setaffinity(0, cores)
@@ -52,6 +52,8 @@ import abc
 
 from pandas.util.testing import network
 
+import DLPythonKernelGateway
+
 
 _networks = {}
 
@@ -73,6 +75,8 @@ def add_network(network, identifier=None):
 def remove_network(identifier):
     if identifier in _networks:
         del _networks[identifier]
+        for command_id in [k for k, c in _execution_commands.items() if c.network_identifier == identifier]:
+            del _execution_commands[command_id]
         return True
     else:
         return False
@@ -84,6 +88,52 @@ def _get_next_network_id():
     return identifier
 
 
+# Execution commands are registered once per network and set of requested outputs. Executing a batch then only
+# requires a short call that refers to the command by its id instead of a freshly generated script.
+
+_execution_commands = {}
+
+_execution_command_id_suffix = 0
+
+def register_execution_command(network_identifier, output_identifiers):
+    global _execution_command_id_suffix
+    command_id = _execution_command_id_suffix
+    _execution_command_id_suffix += 1
+    _execution_commands[command_id] = _DLPythonNetworkExecutionCommand(network_identifier, output_identifiers)
+    return command_id
+
+def execute_network(command_id, batch_size, prediction_batch_size=None):
+    # prediction_batch_size is the number of examples the back end processes at once. It may be smaller than batch_size
+    # if the client transfers several batches per call.
+    _execution_commands[command_id].execute(batch_size, prediction_batch_size)
+
+def get_output_shapes(command_id):
+    return _execution_commands[command_id].output_shapes()
+
+
+class _DLPythonNetworkExecutionCommand(object):
+
+    def __init__(self, network_identifier, output_identifiers):
+        self.network_identifier = network_identifier
+        self._network = get_network(network_identifier)
+        self._input_identifiers = [input_spec.identifier for input_spec in self._network.spec.input_specs]
+        self._output_identifiers = output_identifiers
+        self._output_shapes = {}
+
+    def execute(self, batch_size, prediction_batch_size=None):
+        workspace = DLPythonKernelGateway.global_workspace()
+        in_data = {identifier: workspace[identifier] for identifier in self._input_identifiers}
+        out_data = self._network.execute(in_data, batch_size, self._output_identifiers, prediction_batch_size)
+        for name, data in out_data.items():
+            self._output_shapes[name] = [list(data.iloc[0][0].array.shape)]
+            workspace[name] = data
+
+    def output_shapes(self):
+        # Only materialized as data frame if requested by the client.
+        import pandas as pd
+        return pd.DataFrame(self._output_shapes)
+
+
 class DLPythonNetworkReader(object):
     __metaclass__ = abc.ABCMeta
 
@@ -108,7 +158,7 @@ class DLPythonNetwork(object):
         raise NotImplementedError()
 
     @abc.abstractmethod
-    def execute(self, in_data, batch_size, output_identifiers):
+    def execute(self, in_data, batch_size, output_identifiers, prediction_batch_size=None):
         raise NotImplementedError()
 
     @abc.abstractmethod
@@ -86,11 +86,17 @@ class DLPythonNetworkTrainingInputGenerator(object):
     def steps(self):
         return self._steps
 
-    def get_generator(self):
-        i = 0
+    def get_generator(self, first_step=0, steps=None):
+        """
+        Returns a generator that endlessly cycles through the batches [first_step, first_step + steps). By default, it
+        cycles through all batches.
+        """
+        end = self._steps if steps is None else first_step + steps
+        assert 0 <= first_step < end <= self._steps
+        i = first_step
         while True:
-            if i == self._steps:
-                i = 0
+            if i == end:
+                i = first_step
             try:
                 batch = self._get_batch(i)
             except Exception as e:
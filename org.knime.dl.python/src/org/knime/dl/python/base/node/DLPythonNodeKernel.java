@@ -0,0 +1,191 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.base.node;
+
+import java.io.IOException;
+import java.util.stream.Collectors;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLUncheckedException;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonDefaultContext;
+import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
+import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.python2.kernel.PythonKernel;
+import org.knime.python2.kernel.PythonKernelOptions;
+
+/**
+ * The Python kernel of an execution of a {@link DLPythonNodeModel}. If the node is configured to keep its kernel alive,
+ * the kernel is reused by subsequent executions of the node as long as the kernel options and the deep learning Python
+ * preferences stay the same. Back ends are then only imported once per kernel. Input networks are loaded anew by
+ * each execution since scripts may modify them.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLPythonNodeKernel {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonNodeKernel.class);
+
+    private final PythonKernelOptions m_options;
+
+    private final DLPythonContext m_context;
+
+    private boolean m_reused = false;
+
+    private boolean m_backendsLoaded = false;
+
+    /**
+     * The input network that was loaded by the latest execution, <code>null</code> if none.
+     */
+    private DLPythonNetworkHandle m_loadedNetworkHandle;
+
+    DLPythonNodeKernel(final PythonKernelOptions options) throws IOException {
+        this(options, new DLPythonDefaultContext(new PythonKernel(options)));
+    }
+
+    DLPythonNodeKernel(final PythonKernelOptions options, final DLPythonContext context) {
+        m_options = options;
+        m_context = context;
+    }
+
+    /**
+     * @return the Python context of this kernel
+     */
+    public DLPythonContext getContext() {
+        return m_context;
+    }
+
+    /**
+     * @return <code>true</code> if this kernel was already used by a previous execution of the node
+     */
+    public boolean isReused() {
+        return m_reused;
+    }
+
+    /**
+     * Imports the Python modules of all available back ends. Does nothing if this was already done in this kernel.
+     *
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if importing the modules failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public void loadBackends(final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        if (!m_backendsLoaded) {
+            final String loadBackendCode = DLPythonNetworkLoaderRegistry.getInstance().getAllNetworkLoaders().stream()
+                .map(nl -> "import " + nl.getPythonModuleName() + "\n") //
+                .collect(Collectors.joining());
+            // TODO: we should move this logic out of the node in a later iteration
+            m_context.executeInKernel(loadBackendCode, cancelable);
+            m_backendsLoaded = true;
+        }
+    }
+
+    /**
+     * Records the given network as the input network that is loaded into this kernel. The previously loaded input
+     * network, if any, is removed from the kernel.
+     *
+     * @param handle the handle of the loaded network
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if removing the previously loaded network failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public void setLoadedNetwork(final DLPythonNetworkHandle handle, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        if (m_loadedNetworkHandle != null && !m_loadedNetworkHandle.getIdentifier().equals(handle.getIdentifier())) {
+            removeNetworks(new String[]{m_loadedNetworkHandle.getIdentifier()}, cancelable);
+        }
+        m_loadedNetworkHandle = handle;
+    }
+
+    PythonKernelOptions getOptions() {
+        return m_options;
+    }
+
+    /**
+     * Prepares this kernel for being used by another execution of the node. Removes the given output variables and the
+     * networks registered under their names that were created by the previous execution. Otherwise, they could be
+     * mistaken for outputs of the upcoming execution.
+     */
+    void prepareReuse(final String[] outputVariables, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        m_reused = true;
+        removeNetworks(outputVariables, cancelable);
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder();
+        for (final String outputVariable : outputVariables) {
+            b.n("try:") //
+                .n().t().a("del ").a(outputVariable) //
+                .n("except NameError:") //
+                .n().t().a("pass");
+        }
+        m_context.executeInKernel(b.toString(), cancelable);
+    }
+
+    void close() {
+        try {
+            m_context.close();
+        } catch (final DLUncheckedException e) {
+            LOGGER.debug(e.getMessage(), e);
+        }
+    }
+
+    private void removeNetworks(final String[] identifiers, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("for identifier in ").as(identifiers).a(":") //
+            .n().t().a("DLPythonNetwork.remove_network(identifier)");
+        m_context.executeInKernel(b.toString(), cancelable);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.base.node;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.python.prefs.DLPythonPreferences;
+import org.knime.python2.kernel.PythonKernelOptions;
+
+/**
+ * Keeps the {@link DLPythonNodeKernel kernel} of a {@link DLPythonNodeModel} alive between executions of the node.
+ * The kernel of the previous execution is only reused if that execution succeeded, the node is still configured to keep
+ * its kernel alive and neither the kernel options nor the deep learning Python preferences changed in the meantime.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLPythonNodeKernelCache {
+
+    @FunctionalInterface
+    interface KernelFactory {
+
+        DLPythonNodeKernel create(PythonKernelOptions options) throws IOException;
+    }
+
+    private final KernelFactory m_kernelFactory;
+
+    /**
+     * The kernel that is kept alive between executions, <code>null</code> if none.
+     */
+    private DLPythonNodeKernel m_kernel;
+
+    private final AtomicBoolean m_preferencesChanged = new AtomicBoolean();
+
+    private final IPreferenceChangeListener m_preferencesListener = e -> onPreferencesChanged();
+
+    DLPythonNodeKernelCache(final KernelFactory kernelFactory) {
+        m_kernelFactory = kernelFactory;
+    }
+
+    /**
+     * Returns the kernel to use for an execution of the node. Each kernel returned by this method must be handed back
+     * via {@link #close(DLPythonNodeKernel, boolean, boolean)}.
+     *
+     * @param options the kernel options of the upcoming execution
+     * @param keepAlive <code>true</code> if the node is configured to keep its kernel alive
+     * @param outputVariables the names of the node's output variables, they are removed from a reused kernel
+     * @param cancelable to check if the execution has been canceled
+     */
+    synchronized DLPythonNodeKernel open(final PythonKernelOptions options, final boolean keepAlive,
+        final String[] outputVariables, final DLCancelable cancelable)
+        throws IOException, DLInvalidEnvironmentException, DLCanceledExecutionException {
+        if (m_kernel != null) {
+            if (m_preferencesChanged.getAndSet(false) || !keepAlive || !options.equals(m_kernel.getOptions())) {
+                discard();
+            } else {
+                m_kernel.prepareReuse(outputVariables, cancelable);
+                return m_kernel;
+            }
+        }
+        return m_kernelFactory.create(options);
+    }
+
+    /**
+     * Hands back a kernel that was obtained via {@link #open(PythonKernelOptions, boolean, String[], DLCancelable)}.
+     * The kernel is kept alive if the execution succeeded and the node is configured accordingly. Otherwise, it is
+     * closed.
+     *
+     * @param kernel the kernel
+     * @param executionSucceeded <code>true</code> if the execution that used the kernel succeeded
+     * @param keepAlive <code>true</code> if the node is configured to keep its kernel alive
+     */
+    synchronized void close(final DLPythonNodeKernel kernel, final boolean executionSucceeded,
+        final boolean keepAlive) {
+        if (executionSucceeded && keepAlive) {
+            if (m_kernel != kernel) {
+                discard();
+                m_kernel = kernel;
+                m_preferencesChanged.set(false);
+                DLPythonPreferences.addPreferencesChangeListener(m_preferencesListener);
+            }
+        } else if (m_kernel == kernel) {
+            discard();
+        } else {
+            kernel.close();
+        }
+    }
+
+    /**
+     * Closes the kernel that is kept alive, if any.
+     */
+    synchronized void discard() {
+        if (m_kernel != null) {
+            DLPythonPreferences.removePreferencesChangeListener(m_preferencesListener);
+            m_kernel.close();
+            m_kernel = null;
+        }
+    }
+
+    /**
+     * Invalidates the kernel that is kept alive, if any. It is closed by the next call to
+     * {@link #open(PythonKernelOptions, boolean, String[], DLCancelable)}.
+     */
+    void onPreferencesChanged() {
+        m_preferencesChanged.set(true);
+    }
+}
@@ -68,7 +68,6 @@
 import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
 import org.knime.python2.config.PythonFlowVariableOptions;
-import org.knime.python2.config.PythonSourceCodeConfig;
 import org.knime.python2.kernel.PythonKernelOptions;
 
 /**
@@ -78,10 +77,12 @@
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  */
-public abstract class DLPythonNodeModel<CFG extends PythonSourceCodeConfig> extends ExtToolOutputNodeModel {
+public abstract class DLPythonNodeModel<CFG extends DLPythonSourceCodeConfig> extends ExtToolOutputNodeModel {
 
 	private CFG m_config = createConfig();
 
+    private final DLPythonNodeKernelCache m_kernelCache = new DLPythonNodeKernelCache(DLPythonNodeKernel::new);
+
 	public DLPythonNodeModel(final PortType[] inPortTypes, final PortType[] outPortTypes) {
 		super(inPortTypes, outPortTypes);
 	}
@@ -99,6 +100,41 @@ protected PythonKernelOptions getKernelOptions() {
         return options.forSerializationOptions(options.getSerializationOptions().forSerializerId(serializerId));
     }
 
+    /**
+     * Returns the Python kernel to use for an execution of this node. If the node is configured to keep its kernel
+     * alive, the kernel of the previous execution is reused unless the kernel options or the deep learning Python
+     * preferences changed in the meantime. Each kernel returned by this method must be handed back via
+     * {@link #closeKernel(DLPythonNodeKernel, boolean)}.
+     *
+     * @param outputVariables the names of the node's output variables, they are removed from a reused kernel
+     * @param cancelable to check if the execution has been canceled
+     * @return the kernel
+     * @throws IOException if starting the kernel failed
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    protected final DLPythonNodeKernel openKernel(final String[] outputVariables, final DLCancelable cancelable)
+        throws IOException, DLInvalidEnvironmentException, DLCanceledExecutionException {
+        return m_kernelCache.open(getKernelOptions(), m_config.isKeepKernelAlive(), outputVariables, cancelable);
+    }
+
+    /**
+     * Hands back a kernel that was obtained via {@link #openKernel(String[], DLCancelable)}. The kernel is kept alive
+     * if the execution succeeded and the node is configured accordingly. Otherwise, it is closed.
+     *
+     * @param kernel the kernel
+     * @param executionSucceeded <code>true</code> if the execution that used the kernel succeeded
+     */
+    protected final void closeKernel(final DLPythonNodeKernel kernel, final boolean executionSucceeded) {
+        m_kernelCache.close(kernel, executionSucceeded, m_config.isKeepKernelAlive());
+    }
+
+    @Override
+    protected void onDispose() {
+        m_kernelCache.discard();
+        super.onDispose();
+    }
+
 	/**
 	 * Push new variables to the stack. Only pushes new variables to the stack if they are new or changed in type or
 	 * value.
@@ -168,5 +204,8 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
 		final CFG config = createConfig();
 		config.loadFrom(settings);
 		m_config = config;
+        if (!config.isKeepKernelAlive()) {
+            m_kernelCache.discard();
+        }
 	}
 }
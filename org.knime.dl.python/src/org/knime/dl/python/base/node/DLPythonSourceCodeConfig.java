@@ -46,6 +46,9 @@
  */
 package org.knime.dl.python.base.node;
 
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
 import org.knime.dl.python.prefs.DLPythonPreferences;
 import org.knime.python2.PythonCommand;
 import org.knime.python2.config.PythonSourceCodeConfig;
@@ -60,6 +63,47 @@
  */
 public class DLPythonSourceCodeConfig extends PythonSourceCodeConfig {
 
+    private static final String CFG_KEY_KEEP_KERNEL_ALIVE = "keep_kernel_alive";
+
+    private static final boolean DEFAULT_KEEP_KERNEL_ALIVE = false;
+
+    private boolean m_keepKernelAlive = DEFAULT_KEEP_KERNEL_ALIVE;
+
+    /**
+     * @return <code>true</code> if the Python kernel of the node shall be kept alive and be reused by subsequent
+     *         executions of the node
+     */
+    public boolean isKeepKernelAlive() {
+        return m_keepKernelAlive;
+    }
+
+    /**
+     * @param keepKernelAlive <code>true</code> if the Python kernel of the node shall be kept alive and be reused by
+     *            subsequent executions of the node
+     */
+    public void setKeepKernelAlive(final boolean keepKernelAlive) {
+        m_keepKernelAlive = keepKernelAlive;
+    }
+
+    @Override
+    public void saveTo(final NodeSettingsWO settings) {
+        super.saveTo(settings);
+        settings.addBoolean(CFG_KEY_KEEP_KERNEL_ALIVE, m_keepKernelAlive);
+    }
+
+    @Override
+    public void loadFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        super.loadFrom(settings);
+        // Backward compatibility: the setting did not exist in older versions.
+        m_keepKernelAlive = settings.getBoolean(CFG_KEY_KEEP_KERNEL_ALIVE, DEFAULT_KEEP_KERNEL_ALIVE);
+    }
+
+    @Override
+    public void loadFromInDialog(final NodeSettingsRO settings) {
+        super.loadFromInDialog(settings);
+        m_keepKernelAlive = settings.getBoolean(CFG_KEY_KEEP_KERNEL_ALIVE, DEFAULT_KEEP_KERNEL_ALIVE);
+    }
+
     @Override
     public PythonKernelOptions getKernelOptions() {
         final SerializationOptions serializationOptions =
@@ -46,6 +46,13 @@
  */
 package org.knime.dl.python.base.node;
 
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+
+import javax.swing.BorderFactory;
+import javax.swing.JCheckBox;
+import javax.swing.JPanel;
+
 import org.knime.dl.python.prefs.DLPythonPreferences;
 import org.knime.python2.config.PythonSourceCodeOptionsPanel;
 import org.knime.python2.config.PythonSourceCodePanel;
@@ -57,6 +64,8 @@ public class DLPythonSourceCodeOptionsPanel extends PythonSourceCodeOptionsPanel
 
     private static final long serialVersionUID = 1L;
 
+    private final JCheckBox m_keepKernelAlive = new JCheckBox("Keep Python kernel alive between executions");
+
     /**
      * Creates a {@link PythonSourceCodeOptionsPanel} with Python 3 as enforced Python version and the deep learning
      * Python command as default Python 3 command.
@@ -66,5 +75,35 @@ public class DLPythonSourceCodeOptionsPanel extends PythonSourceCodeOptionsPanel
     public DLPythonSourceCodeOptionsPanel(final PythonSourceCodePanel sourceCodePanel) {
         super(sourceCodePanel, EnforcePythonVersion.PYTHON3, () -> null,
             DLPythonPreferences::getPythonCommandPreference);
+        m_keepKernelAlive.setToolTipText("<html>Reuses the Python kernel of the previous execution if the Python "
+            + "configuration did not change.<br>Variables of previous executions and, in case of the executor node, "
+            + "the loaded input network<br>remain in memory until the node is deleted or the option is disabled."
+            + "</html>");
+        final JPanel kernelPanel = new JPanel(new FlowLayout(FlowLayout.LEADING));
+        kernelPanel.setBorder(BorderFactory.createTitledBorder("Python kernel"));
+        kernelPanel.add(m_keepKernelAlive);
+        if (getLayout() instanceof BorderLayout) {
+            add(kernelPanel, BorderLayout.SOUTH);
+        } else {
+            add(kernelPanel);
+        }
+    }
+
+    /**
+     * Saves the deep learning specific options of this panel to the given config.
+     *
+     * @param config the config
+     */
+    public void saveDLSettingsTo(final DLPythonSourceCodeConfig config) {
+        config.setKeepKernelAlive(m_keepKernelAlive.isSelected());
+    }
+
+    /**
+     * Loads the deep learning specific options of this panel from the given config.
+     *
+     * @param config the config
+     */
+    public void loadDLSettingsFrom(final DLPythonSourceCodeConfig config) {
+        m_keepKernelAlive.setSelected(config.isKeepKernelAlive());
     }
 }
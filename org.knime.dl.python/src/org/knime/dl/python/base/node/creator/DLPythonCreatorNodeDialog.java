@@ -56,7 +56,6 @@
 import org.knime.core.node.workflow.FlowVariable;
 import org.knime.dl.python.base.node.DLPythonSourceCodeOptionsPanel;
 import org.knime.dl.python.base.node.DLPythonSourceCodePanel;
-import org.knime.python2.config.PythonSourceCodeOptionsPanel;
 import org.knime.python2.generic.templates.SourceCodeTemplatesPanel;
 
 /**
@@ -69,7 +68,7 @@ final class DLPythonCreatorNodeDialog extends NodeDialogPane {
 
 	private final DLPythonSourceCodePanel m_sourceCodePanel;
 
-	private final PythonSourceCodeOptionsPanel m_sourceCodeOptionsPanel;
+	private final DLPythonSourceCodeOptionsPanel m_sourceCodeOptionsPanel;
 
 	private final SourceCodeTemplatesPanel m_templatesPanel;
 
@@ -87,6 +86,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
 		final DLPythonCreatorNodeConfig config = new DLPythonCreatorNodeConfig();
 		m_sourceCodePanel.saveSettingsTo(config);
 		m_sourceCodeOptionsPanel.saveSettingsTo(config);
+		m_sourceCodeOptionsPanel.saveDLSettingsTo(config);
 		config.saveTo(settings);
 	}
 
@@ -99,6 +99,7 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
 		m_sourceCodePanel.updateFlowVariables(
 				getAvailableFlowVariables().values().toArray(new FlowVariable[getAvailableFlowVariables().size()]));
 		m_sourceCodeOptionsPanel.loadSettingsFrom(config);
+		m_sourceCodeOptionsPanel.loadDLSettingsFrom(config);
 	}
 
 	@Override
@@ -52,7 +52,6 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
-import java.util.stream.Collectors;
 
 import org.knime.core.data.StringValue;
 import org.knime.core.data.filestore.FileStore;
@@ -62,22 +61,22 @@
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
 import org.knime.core.node.workflow.FlowVariable;
+import org.knime.dl.base.portobjects.DLNetworkFileStoreDeduplicator;
 import org.knime.dl.base.portobjects.DLNetworkPortObject;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLExecutionMonitorCancelable;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLMissingExtensionException;
+import org.knime.dl.python.base.node.DLPythonNodeKernel;
 import org.knime.dl.python.base.node.DLPythonNodeModel;
 import org.knime.dl.python.core.DLPythonContext;
-import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
 import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
 import org.knime.dl.python.util.DLPythonUtils;
-import org.knime.python2.kernel.PythonKernel;
 
 /**
  * Shamelessly copied and pasted from python source.
@@ -119,16 +118,15 @@ static void checkExecutePostConditions(final DLPythonContext context, final DLCa
 
 	@Override
 	protected PortObject[] execute(final PortObject[] inData, final ExecutionContext exec) throws Exception {
-		final DLPythonContext context = new DLPythonDefaultContext(new PythonKernel(getKernelOptions()));
 		final DLCancelable cancelable = new DLExecutionMonitorCancelable(exec);
+		final DLPythonNodeKernel kernel =
+				openKernel(DLPythonCreatorNodeConfig.getVariableNames().getGeneralOutputObjects(), cancelable);
+		final DLPythonContext context = kernel.getContext();
+		boolean executionSucceeded = false;
 		try {
 			context.getKernel().putFlowVariables(DLPythonCreatorNodeConfig.getVariableNames().getFlowVariables(),
 					getAvailableFlowVariables().values());
-			final String loadBackendCode = DLPythonNetworkLoaderRegistry.getInstance().getAllNetworkLoaders().stream()
-					.map(nl -> "import " + nl.getPythonModuleName() + "\n") //
-					.collect(Collectors.joining());
-			// TODO: we should move this logic out of the node in a later iteration
-			context.executeInKernel(loadBackendCode, cancelable);
+			kernel.loadBackends(cancelable);
 			final String outputNetworkName = DLPythonCreatorNodeConfig.getVariableNames().getGeneralOutputObjects()[0];
 			String[] output = context.executeInKernel(getConfig().getSourceCode(), cancelable);
 			setExternalOutput(new LinkedList<>(Arrays.asList(output[0].split("\n"))));
@@ -162,11 +160,14 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 				throw new IllegalStateException(
 						"Failed to save output deep learning network '" + outputNetworkName + "'.");
 			}
+			DLNetworkFileStoreDeduplicator.deduplicate(fileStore);
 			addNewVariables(variables);
-			return new DLNetworkPortObject[] {
-                createOutputPortObject(loader, handle, fileStore, context, cancelable)};
+			final PortObject[] outputs =
+					new DLNetworkPortObject[] { createOutputPortObject(loader, handle, fileStore, context, cancelable) };
+			executionSucceeded = true;
+			return outputs;
 		} finally {
-			context.close();
+			closeKernel(kernel, executionSucceeded);
 		}
 	}
 
@@ -65,7 +65,6 @@
 import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
-import org.knime.python2.config.PythonSourceCodeOptionsPanel;
 import org.knime.python2.config.WorkspacePreparer;
 
 /**
@@ -78,7 +77,7 @@ final class DLPythonEditorNodeDialog extends DataAwareNodeDialogPane {
 
 	private final DLPythonSourceCodePanel m_sourceCodePanel;
 
-	private final PythonSourceCodeOptionsPanel m_sourceCodeOptionsPanel;
+	private final DLPythonSourceCodeOptionsPanel m_sourceCodeOptionsPanel;
 
 	private WorkspacePreparer m_workspacePreparer;
 
@@ -94,6 +93,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
 		final DLPythonEditorNodeConfig config = new DLPythonEditorNodeConfig();
 		m_sourceCodePanel.saveSettingsTo(config);
 		m_sourceCodeOptionsPanel.saveSettingsTo(config);
+		m_sourceCodeOptionsPanel.saveDLSettingsTo(config);
 		config.saveTo(settings);
 	}
 
@@ -106,6 +106,7 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
 		m_sourceCodePanel.updateFlowVariables(
 				getAvailableFlowVariables().values().toArray(new FlowVariable[getAvailableFlowVariables().size()]));
 		m_sourceCodeOptionsPanel.loadSettingsFrom(config);
+		m_sourceCodeOptionsPanel.loadDLSettingsFrom(config);
 	}
 
 	@Override
@@ -52,7 +52,6 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
-import java.util.stream.Collectors;
 
 import org.knime.core.data.StringValue;
 import org.knime.core.data.filestore.FileStore;
@@ -62,6 +61,7 @@
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
 import org.knime.core.node.workflow.FlowVariable;
+import org.knime.dl.base.portobjects.DLNetworkFileStoreDeduplicator;
 import org.knime.dl.base.portobjects.DLNetworkPortObject;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -69,9 +69,9 @@
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLMissingExtensionException;
+import org.knime.dl.python.base.node.DLPythonNodeKernel;
 import org.knime.dl.python.base.node.DLPythonNodeModel;
 import org.knime.dl.python.core.DLPythonContext;
-import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
 import org.knime.dl.python.core.DLPythonNetworkLoader;
@@ -79,7 +79,6 @@
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
 import org.knime.dl.python.util.DLPythonUtils;
-import org.knime.python2.kernel.PythonKernel;
 
 /**
  * Shamelessly copied and pasted from python source.
@@ -91,7 +90,8 @@ final class DLPythonEditorNodeModel extends DLPythonNodeModel<DLPythonEditorNode
 
 	static final int IN_NETWORK_PORT_IDX = 0;
 
-    static <N extends DLPythonNetwork> void setupNetwork(final N inputNetwork, final DLPythonContext context,
+    static <N extends DLPythonNetwork> DLPythonNetworkHandle setupNetwork(final N inputNetwork,
+        final DLPythonContext context,
         final DLCancelable cancelable)
 			throws DLMissingExtensionException, DLInvalidSourceException, DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final DLPythonNetworkLoader<N> loader =
@@ -110,6 +110,7 @@ static <N extends DLPythonNetwork> void setupNetwork(final N inputNetwork, final
 			throw new IOException(
 					"An error occurred while communicating with Python (while setting up the Python network).", e);
 		}
+		return networkHandle;
 	}
 
 	static void checkExecutePostConditions(final DLPythonContext context, final DLCancelable cancelable)
@@ -145,19 +146,19 @@ static void checkExecutePostConditions(final DLPythonContext context, final DLCa
 	@Override
 	protected PortObject[] execute(final PortObject[] inData, final ExecutionContext exec) throws Exception {
 		final DLPythonNetworkPortObject<?> portObject = (DLPythonNetworkPortObject<?>) inData[IN_NETWORK_PORT_IDX];
-		final DLPythonContext context = new DLPythonDefaultContext(new PythonKernel(getKernelOptions()));
 		final DLCancelable cancelable = new DLExecutionMonitorCancelable(exec);
+		final DLPythonNodeKernel kernel =
+				openKernel(DLPythonEditorNodeConfig.getVariableNames().getGeneralOutputObjects(), cancelable);
+		final DLPythonContext context = kernel.getContext();
+		boolean executionSucceeded = false;
 		try {
 			context.getKernel().putFlowVariables(DLPythonEditorNodeConfig.getVariableNames().getFlowVariables(),
 					getAvailableFlowVariables().values());
 
 			final DLPythonNetwork inNetwork = portObject.getNetwork();
-			setupNetwork(inNetwork, context, cancelable);
-			final String loadBackendCode = DLPythonNetworkLoaderRegistry.getInstance().getAllNetworkLoaders().stream()
-					.map(nl -> "import " + nl.getPythonModuleName() + "\n") //
-					.collect(Collectors.joining());
-			// TODO: we should move this logic out of the node in a later iteration
-			context.executeInKernel(loadBackendCode, cancelable);
+			// The script may modify the input network, so it is always loaded anew.
+			kernel.setLoadedNetwork(setupNetwork(inNetwork, context, cancelable), cancelable);
+			kernel.loadBackends(cancelable);
 			final String outputNetworkName = DLPythonEditorNodeConfig.getVariableNames().getGeneralOutputObjects()[0];
 			String[] output = context.executeInKernel(getConfig().getSourceCode(), cancelable);
 			setExternalOutput(new LinkedList<>(Arrays.asList(output[0].split("\n"))));
@@ -191,10 +192,14 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 				throw new IllegalStateException(
 						"Failed to save output deep learning network '" + outputNetworkName + "'.");
 			}
+			DLNetworkFileStoreDeduplicator.deduplicate(fileStore);
 			addNewVariables(variables);
-            return new PortObject[]{createOutputPortObject(loader, handle, fileStore, context, cancelable)};
+			final PortObject[] outputs =
+					new PortObject[] { createOutputPortObject(loader, handle, fileStore, context, cancelable) };
+			executionSucceeded = true;
+			return outputs;
 		} finally {
-			context.close();
+			closeKernel(kernel, executionSucceeded);
 		}
 	}
 
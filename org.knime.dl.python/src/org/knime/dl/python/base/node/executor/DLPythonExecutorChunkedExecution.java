@@ -0,0 +1,305 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.base.node.executor;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.SingleValueTableCreator;
+import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.python2.extensions.serializationlibrary.interfaces.Cell;
+
+/**
+ * Streams an input table through the script of the DL Python Network Executor node in chunks of a fixed number of
+ * rows. The script is given an iterator over the input chunks (pandas.DataFrames) and has to provide an iterable of
+ * output chunks, typically a generator. Only one input chunk and one output chunk are held in Python at a time. As
+ * Python pulls the input chunks from the script's side, the script must yield an output chunk before requesting the
+ * next input chunk.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLPythonExecutorChunkedExecution {
+
+	private static final String PENDING_INPUT_CHUNKS_NAME = "_dl_pending_input_chunks";
+
+	private static final String INPUT_EXHAUSTED_NAME = "_dl_input_exhausted";
+
+	private static final String INPUT_CHUNK_NAME = "_dl_input_chunk";
+
+	private static final String OUTPUT_CHUNK_ITERATOR_NAME = "_dl_output_chunk_iterator";
+
+	private static final String CHUNK_STATE_NAME = "_dl_chunk_state";
+
+	private static final String NUM_OUTPUT_ROWS_NAME = "_dl_num_output_rows";
+
+	private static final String CHUNK_STATE_OUTPUT = "output";
+
+	private static final String CHUNK_STATE_END = "end";
+
+	private final DLPythonContext m_context;
+
+	private final int m_rowsPerChunk;
+
+	private final List<String> m_standardOutput = new LinkedList<>();
+
+	private final List<String> m_errorOutput = new LinkedList<>();
+
+	private DataTableSpec m_outputSpec;
+
+	private long m_numOutputChunks;
+
+	private boolean m_inputFullyConsumed;
+
+	/**
+	 * @param context the Python context in which the input network is already set up
+	 * @param rowsPerChunk the number of rows per input chunk
+	 */
+	DLPythonExecutorChunkedExecution(final DLPythonContext context, final int rowsPerChunk) {
+		m_context = context;
+		m_rowsPerChunk = rowsPerChunk;
+	}
+
+	/**
+	 * Executes the given script and streams the given input through it.
+	 *
+	 * @param sourceCode the script
+	 * @param input the input rows, not closed by this method
+	 * @param numRows the number of input rows if known, used for progress reporting only, otherwise <code>-1</code>
+	 * @param outputConsumer consumes the output chunks in order
+	 * @param exec the execution context
+	 * @param cancelable to check if the execution has been canceled
+	 * @throws Exception if the execution failed
+	 */
+	void execute(final String sourceCode, final RowInput input, final long numRows,
+			final OutputChunkConsumer outputConsumer, final ExecutionContext exec, final DLCancelable cancelable)
+			throws Exception {
+		final String inputChunks = DLPythonExecutorNodeConfig.INPUT_TABLE_CHUNKS_NAME;
+		final String outputChunks = DLPythonExecutorNodeConfig.OUTPUT_TABLE_CHUNKS_NAME;
+		final DLPythonSourceCodeBuilder setup = DLPythonUtils.createSourceCodeBuilder() //
+				.a("import collections") //
+				.n("global ").a(PENDING_INPUT_CHUNKS_NAME) //
+				.n(PENDING_INPUT_CHUNKS_NAME).a(" = collections.deque()") //
+				.n("global ").a(INPUT_EXHAUSTED_NAME) //
+				.n(INPUT_EXHAUSTED_NAME).a(" = False") //
+				.n("global ").a(NUM_OUTPUT_ROWS_NAME) //
+				.n(NUM_OUTPUT_ROWS_NAME).a(" = 0") //
+				.n("def _dl_iterate_input_chunks():") //
+				.n().t().a("while True:") //
+				.n().t().t().a("if ").a(PENDING_INPUT_CHUNKS_NAME).a(":") //
+				.n().t().t().t().a("yield ").a(PENDING_INPUT_CHUNKS_NAME).a(".popleft()") //
+				.n().t().t().a("elif ").a(INPUT_EXHAUSTED_NAME).a(":") //
+				.n().t().t().t().a("return") //
+				.n().t().t().a("else:") //
+				.n().t().t().t().a("raise RuntimeError(") //
+				.as("The script requested the next input chunk before yielding an output chunk for the "
+						+ "previous one. In chunked execution mode, exactly one output chunk must be yielded per "
+						+ "consumed input chunk.") //
+				.a(")") //
+				.n("global ").a(inputChunks) //
+				.n(inputChunks).a(" = _dl_iterate_input_chunks()");
+		execute(setup.toString(), cancelable);
+		execute(sourceCode, cancelable);
+		final DLPythonSourceCodeBuilder outputSetup = DLPythonUtils.createSourceCodeBuilder() //
+				.a("try:") //
+				.n().t().a(outputChunks) //
+				.n("except NameError:") //
+				.n().t().a("raise NameError(") //
+				.as("In chunked execution mode, the script must define the variable '" + outputChunks + "'.") //
+				.a(")") //
+				.n("try:") //
+				.n().t().a("global ").a(OUTPUT_CHUNK_ITERATOR_NAME) //
+				.n().t().a(OUTPUT_CHUNK_ITERATOR_NAME).a(" = iter(").a(outputChunks).a(")") //
+				.n("except TypeError:") //
+				.n().t().a("raise TypeError(") //
+				.as("'" + outputChunks + "' must be an iterable of pandas.DataFrame, for example a generator.") //
+				.a(")");
+		execute(outputSetup.toString(), cancelable);
+
+		final DataTableSpec inputSpec = input.getDataTableSpec();
+		long numRowsRead = 0;
+		boolean outputEnded = false;
+		while (!outputEnded) {
+			exec.checkCanceled();
+			final BufferedDataContainer inputChunk = exec.createDataContainer(inputSpec);
+			DataRow row;
+			int numChunkRows = 0;
+			while (numChunkRows < m_rowsPerChunk && (row = input.poll()) != null) {
+				inputChunk.addRowToTable(row);
+				numChunkRows++;
+			}
+			inputChunk.close();
+			if (numChunkRows == 0) {
+				m_inputFullyConsumed = true;
+				break;
+			}
+			numRowsRead += numChunkRows;
+			m_context.getKernel().putDataTable(INPUT_CHUNK_NAME, inputChunk.getTable(), exec.createSubProgress(0));
+			outputEnded = !pullOutputChunk(PENDING_INPUT_CHUNKS_NAME + ".append(" + INPUT_CHUNK_NAME + ")\n" //
+					+ "del " + INPUT_CHUNK_NAME + "\n", outputConsumer, exec, cancelable);
+			final String message = numRowsRead + " rows processed";
+			if (numRows > 0) {
+				exec.setProgress(Math.min(numRowsRead / (double) numRows, 1d), message);
+			} else {
+				exec.setMessage(message);
+			}
+		}
+		if (!outputEnded) {
+			// Let the script finish: its input iterator now terminates instead of raising an error.
+			String prefix = "global " + INPUT_EXHAUSTED_NAME + "\n" + INPUT_EXHAUSTED_NAME + " = True\n";
+			while (pullOutputChunk(prefix, outputConsumer, exec, cancelable)) {
+				prefix = "";
+			}
+		}
+		final DLPythonSourceCodeBuilder cleanup = DLPythonUtils.createSourceCodeBuilder() //
+				.a("for _dl_name in ").as(new String[] { PENDING_INPUT_CHUNKS_NAME, INPUT_EXHAUSTED_NAME,
+						"_dl_iterate_input_chunks", OUTPUT_CHUNK_ITERATOR_NAME, CHUNK_STATE_NAME, NUM_OUTPUT_ROWS_NAME,
+						inputChunks })
+				.a(":") //
+				.n().t().a("globals().pop(_dl_name, None)") //
+				.n("del _dl_name");
+		execute(cleanup.toString(), cancelable);
+	}
+
+	/**
+	 * @return the lines the script wrote to standard output
+	 */
+	List<String> getStandardOutput() {
+		return m_standardOutput;
+	}
+
+	/**
+	 * @return the lines the script wrote to standard error
+	 */
+	List<String> getErrorOutput() {
+		return m_errorOutput;
+	}
+
+	/**
+	 * @return <code>false</code> if the script stopped yielding output chunks before the input was consumed entirely
+	 */
+	boolean isInputFullyConsumed() {
+		return m_inputFullyConsumed;
+	}
+
+	private boolean pullOutputChunk(final String prefix, final OutputChunkConsumer outputConsumer,
+			final ExecutionContext exec, final DLCancelable cancelable) throws Exception {
+		final String outputTable = DLPythonExecutorNodeConfig.getVariableNames().getOutputTables()[0];
+		final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+				.a(prefix) //
+				.a("import pandas as pd") //
+				.n("global ").a(outputTable) //
+				.n("global ").a(CHUNK_STATE_NAME) //
+				.n("global ").a(NUM_OUTPUT_ROWS_NAME) //
+				.n("try:") //
+				.n().t().a(outputTable).a(" = next(").a(OUTPUT_CHUNK_ITERATOR_NAME).a(")") //
+				// A default index restarts in each chunk. Continue it instead, like a single output table would.
+				.n().t().a("if ").a(outputTable).a(".index.equals(pd.RangeIndex(len(").a(outputTable).a("))):") //
+				.n().t().t().a(outputTable).a(" = ").a(outputTable).a(".copy(deep=False)") //
+				.n().t().t().a(outputTable).a(".index = pd.RangeIndex(").a(NUM_OUTPUT_ROWS_NAME).a(", ")
+				.a(NUM_OUTPUT_ROWS_NAME).a(" + len(").a(outputTable).a("))") //
+				.n().t().a(NUM_OUTPUT_ROWS_NAME).a(" += len(").a(outputTable).a(")") //
+				.n().t().a(CHUNK_STATE_NAME).a(" = pd.DataFrame([").as(CHUNK_STATE_OUTPUT).a("])") //
+				.n("except StopIteration:") //
+				.n().t().a(CHUNK_STATE_NAME).a(" = pd.DataFrame([").as(CHUNK_STATE_END).a("])");
+		execute(b.toString(), cancelable);
+		final String state = (String) m_context.getDataFromKernel(CHUNK_STATE_NAME,
+				(s, ts) -> new SingleValueTableCreator<>(s, Cell::getStringValue), cancelable).getTable();
+		if (CHUNK_STATE_END.equals(state)) {
+			return false;
+		}
+		final BufferedDataTable outputChunk = m_context.getKernel().getDataTable(outputTable, exec,
+				exec.createSubProgress(0));
+		final DataTableSpec outputSpec = outputChunk.getDataTableSpec();
+		if (m_outputSpec == null) {
+			m_outputSpec = outputSpec;
+		} else if (!m_outputSpec.equalStructure(outputSpec)) {
+			throw new IllegalStateException("Output chunk " + (m_numOutputChunks + 1)
+					+ " has a different table structure than the first output chunk. All output chunks must "
+					+ "contain the same columns of the same types.");
+		}
+		m_numOutputChunks++;
+		outputConsumer.accept(outputChunk);
+		return true;
+	}
+
+	private void execute(final String code, final DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		final String[] output = m_context.executeInKernel(code, cancelable);
+		if (!output[0].isEmpty()) {
+			m_standardOutput.addAll(Arrays.asList(output[0].split("\n")));
+		}
+		if (!output[1].isEmpty()) {
+			m_errorOutput.addAll(Arrays.asList(output[1].split("\n")));
+		}
+	}
+
+	/**
+	 * Consumes the output chunks of a chunked execution.
+	 */
+	@FunctionalInterface
+	interface OutputChunkConsumer {
+
+		/**
+		 * @param chunk the next output chunk, all chunks have the same table structure
+		 * @throws Exception if consuming the chunk failed
+		 */
+		void accept(BufferedDataTable chunk) throws Exception;
+	}
+}
@@ -47,6 +47,9 @@
  */
 package org.knime.dl.python.base.node.executor;
 
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
 import org.knime.dl.python.base.node.DLPythonSourceCodeConfig;
 import org.knime.python2.generic.VariableNames;
 
@@ -69,6 +72,79 @@ final class DLPythonExecutorNodeConfig extends DLPythonSourceCodeConfig {
 			null // general output objects
 	);
 
+	/**
+	 * Name of the Python iterator over the input table chunks in chunked execution mode.
+	 */
+	static final String INPUT_TABLE_CHUNKS_NAME = "input_table_chunks";
+
+	/**
+	 * Name of the Python iterable of output table chunks in chunked execution mode.
+	 */
+	static final String OUTPUT_TABLE_CHUNKS_NAME = "output_table_chunks";
+
+	static final int DEFAULT_ROWS_PER_EXECUTION_CHUNK = 10000;
+
+	private static final String CFG_KEY_CHUNKED_EXECUTION = "chunked_execution";
+
+	private static final String CFG_KEY_ROWS_PER_EXECUTION_CHUNK = "rows_per_execution_chunk";
+
+	private static final boolean DEFAULT_CHUNKED_EXECUTION = false;
+
+	private boolean m_chunkedExecution = DEFAULT_CHUNKED_EXECUTION;
+
+	private int m_rowsPerExecutionChunk = DEFAULT_ROWS_PER_EXECUTION_CHUNK;
+
+	/**
+	 * @return <code>true</code> if the input table is streamed through the script in chunks instead of being
+	 *         transferred to Python as a whole
+	 */
+	boolean isChunkedExecution() {
+		return m_chunkedExecution;
+	}
+
+	void setChunkedExecution(final boolean chunkedExecution) {
+		m_chunkedExecution = chunkedExecution;
+	}
+
+	/**
+	 * @return the number of rows of each input table chunk in chunked execution mode
+	 */
+	int getRowsPerExecutionChunk() {
+		return m_rowsPerExecutionChunk;
+	}
+
+	void setRowsPerExecutionChunk(final int rowsPerExecutionChunk) {
+		m_rowsPerExecutionChunk = rowsPerExecutionChunk;
+	}
+
+	@Override
+	public void saveTo(final NodeSettingsWO settings) {
+		super.saveTo(settings);
+		settings.addBoolean(CFG_KEY_CHUNKED_EXECUTION, m_chunkedExecution);
+		settings.addInt(CFG_KEY_ROWS_PER_EXECUTION_CHUNK, m_rowsPerExecutionChunk);
+	}
+
+	@Override
+	public void loadFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+		super.loadFrom(settings);
+		// Backward compatibility: the settings did not exist in older versions.
+		m_chunkedExecution = settings.getBoolean(CFG_KEY_CHUNKED_EXECUTION, DEFAULT_CHUNKED_EXECUTION);
+		m_rowsPerExecutionChunk =
+				settings.getInt(CFG_KEY_ROWS_PER_EXECUTION_CHUNK, DEFAULT_ROWS_PER_EXECUTION_CHUNK);
+		if (m_rowsPerExecutionChunk < 1) {
+			throw new InvalidSettingsException(
+					"The number of rows per execution chunk must be positive but was " + m_rowsPerExecutionChunk + ".");
+		}
+	}
+
+	@Override
+	public void loadFromInDialog(final NodeSettingsRO settings) {
+		super.loadFromInDialog(settings);
+		m_chunkedExecution = settings.getBoolean(CFG_KEY_CHUNKED_EXECUTION, DEFAULT_CHUNKED_EXECUTION);
+		m_rowsPerExecutionChunk = Math.max(1,
+				settings.getInt(CFG_KEY_ROWS_PER_EXECUTION_CHUNK, DEFAULT_ROWS_PER_EXECUTION_CHUNK));
+	}
+
 	@Override
 	protected String getDefaultSourceCode() {
 		final VariableNames vars = getVariableNames();
@@ -47,8 +47,17 @@
  */
 package org.knime.dl.python.base.node.executor;
 
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
 import java.io.IOException;
 
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.DataAwareNodeDialogPane;
 import org.knime.core.node.InvalidSettingsException;
@@ -66,7 +75,6 @@
 import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
-import org.knime.python2.config.PythonSourceCodeOptionsPanel;
 import org.knime.python2.config.WorkspacePreparer;
 import org.knime.python2.port.PickledObject;
 
@@ -80,7 +88,12 @@ final class DLPythonExecutorNodeDialog extends DataAwareNodeDialogPane {
 
     private final DLPythonSourceCodePanel m_sourceCodePanel;
 
-    private final PythonSourceCodeOptionsPanel m_sourceCodeOptionsPanel;
+    private final DLPythonSourceCodeOptionsPanel m_sourceCodeOptionsPanel;
+
+    private final JCheckBox m_chunkedExecution = new JCheckBox("Stream the input table through the script in chunks");
+
+    private final JSpinner m_rowsPerExecutionChunk = new JSpinner(new SpinnerNumberModel(
+        DLPythonExecutorNodeConfig.DEFAULT_ROWS_PER_EXECUTION_CHUNK, 1, Integer.MAX_VALUE, 1000));
 
     private WorkspacePreparer m_workspacePreparer;
 
@@ -89,6 +102,32 @@ final class DLPythonExecutorNodeDialog extends DataAwareNodeDialogPane {
         m_sourceCodeOptionsPanel = new DLPythonSourceCodeOptionsPanel(m_sourceCodePanel);
         addTab("Script", m_sourceCodePanel, false);
         addTab("Options", m_sourceCodeOptionsPanel, true);
+        addTab("Chunked Execution", createChunkedExecutionPanel(), true);
+    }
+
+    private JPanel createChunkedExecutionPanel() {
+        m_chunkedExecution.setToolTipText("<html>Instead of " + DLPythonExecutorNodeConfig.getVariableNames()
+            .getInputTables()[0] + " and " + DLPythonExecutorNodeConfig.getVariableNames().getOutputTables()[0]
+            + ", the script receives the iterator " + DLPythonExecutorNodeConfig.INPUT_TABLE_CHUNKS_NAME
+            + " over the input chunks<br>and has to assign an iterable of output chunks (e.g. a generator) to "
+            + DLPythonExecutorNodeConfig.OUTPUT_TABLE_CHUNKS_NAME + ".</html>");
+        m_chunkedExecution.addItemListener(e -> m_rowsPerExecutionChunk.setEnabled(m_chunkedExecution.isSelected()));
+        final JPanel panel = new JPanel(new GridBagLayout());
+        final GridBagConstraints gbc = new GridBagConstraints();
+        gbc.anchor = GridBagConstraints.NORTHWEST;
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.gridwidth = 2;
+        panel.add(m_chunkedExecution, gbc);
+        gbc.gridy++;
+        gbc.gridwidth = 1;
+        panel.add(new JLabel("Rows per chunk"), gbc);
+        gbc.gridx++;
+        gbc.weightx = 1;
+        gbc.weighty = 1;
+        panel.add(m_rowsPerExecutionChunk, gbc);
+        return panel;
     }
 
     @Override
@@ -96,6 +135,9 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         final DLPythonExecutorNodeConfig config = new DLPythonExecutorNodeConfig();
         m_sourceCodePanel.saveSettingsTo(config);
         m_sourceCodeOptionsPanel.saveSettingsTo(config);
+        m_sourceCodeOptionsPanel.saveDLSettingsTo(config);
+        config.setChunkedExecution(m_chunkedExecution.isSelected());
+        config.setRowsPerExecutionChunk((Integer)m_rowsPerExecutionChunk.getValue());
         config.saveTo(settings);
     }
 
@@ -108,6 +150,10 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
         m_sourceCodePanel.updateFlowVariables(
             getAvailableFlowVariables().values().toArray(new FlowVariable[getAvailableFlowVariables().size()]));
         m_sourceCodeOptionsPanel.loadSettingsFrom(config);
+        m_sourceCodeOptionsPanel.loadDLSettingsFrom(config);
+        m_chunkedExecution.setSelected(config.isChunkedExecution());
+        m_rowsPerExecutionChunk.setValue(config.getRowsPerExecutionChunk());
+        m_rowsPerExecutionChunk.setEnabled(config.isChunkedExecution());
         m_sourceCodePanel.updateData(new BufferedDataTable[]{null}, new PickledObject[]{null});
     }
 
@@ -53,14 +53,18 @@
 import java.util.LinkedList;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
+import org.knime.core.node.streamable.DataTableRowInput;
+import org.knime.core.node.streamable.RowInput;
 import org.knime.core.node.workflow.FlowVariable;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -68,15 +72,15 @@
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLMissingExtensionException;
+import org.knime.dl.python.base.node.DLPythonNodeKernel;
 import org.knime.dl.python.base.node.DLPythonNodeModel;
+import org.knime.dl.python.base.node.executor.DLPythonExecutorChunkedExecution.OutputChunkConsumer;
 import org.knime.dl.python.core.DLPythonContext;
-import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
 import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
-import org.knime.python2.kernel.PythonKernel;
 
 /**
  * Shamelessly copied and pasted from python predictor.
@@ -90,7 +94,8 @@ final class DLPythonExecutorNodeModel extends DLPythonNodeModel<DLPythonExecutor
 
 	static final int IN_DATA_PORT_IDX = 1;
 
-    static <N extends DLPythonNetwork> void setupNetwork(final N inputNetwork, final DLPythonContext context,
+    static <N extends DLPythonNetwork> DLPythonNetworkHandle setupNetwork(final N inputNetwork,
+        final DLPythonContext context,
         final DLCancelable cancelable)
 			throws DLMissingExtensionException, DLInvalidSourceException, DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final DLPythonNetworkLoader<N> loader =
@@ -109,6 +114,7 @@ static <N extends DLPythonNetwork> void setupNetwork(final N inputNetwork, final
 			throw new IOException(
 					"An error occurred while communicating with Python (while setting up the Python network).", e);
 		}
+		return networkHandle;
 	}
 
 	private DataTableSpec m_lastIncomingTableSpec;
@@ -128,32 +134,74 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 			setWarningMessage("Input table is empty. Node created an empty output table.");
 			return new PortObject[] { emptyContainer.getTable() };
 		}
-		BufferedDataTable outTable = null;
-		final DLPythonDefaultContext context = new DLPythonDefaultContext(new PythonKernel(getKernelOptions()));
+		final BufferedDataTable outTable;
+		if (getConfig().isChunkedExecution()) {
+			outTable = executeInternal(inData[IN_NETWORK_PORT_IDX], exec, (context, cancelable) -> {
+				final OutputChunkCollector collector = new OutputChunkCollector(exec);
+				executeChunked(context, new DataTableRowInput(inTable), inTable.size(), collector, exec, cancelable);
+				return collector.getTable();
+			});
+		} else {
+			outTable = executeInternal(inData[IN_NETWORK_PORT_IDX], exec, (context, cancelable) -> {
+				context.getKernel().putDataTable(DLPythonExecutorNodeConfig.getVariableNames().getInputTables()[0],
+						inTable, exec.createSubProgress(0.2));
+				final String[] output = context.executeInKernel(getConfig().getSourceCode(), cancelable);
+				setExternalOutput(new LinkedList<>(Arrays.asList(output[0].split("\n"))));
+				setExternalErrorOutput(new LinkedList<>(Arrays.asList(output[1].split("\n"))));
+				exec.createSubProgress(0.4).setProgress(1);
+				return context.getKernel().getDataTable(
+						DLPythonExecutorNodeConfig.getVariableNames().getOutputTables()[0], exec,
+						exec.createSubProgress(0.3));
+			});
+		}
+		return new BufferedDataTable[] { outTable };
+	}
+
+	/**
+	 * Opens the kernel, sets up the input network and the flow variables, runs the given script execution and
+	 * retrieves the output flow variables.
+	 */
+	private <T> T executeInternal(final PortObject networkPortObject, final ExecutionContext exec,
+			final ScriptExecution<T> scriptExecution) throws Exception {
 		final DLCancelable cancelable = new DLExecutionMonitorCancelable(exec);
+		final DLPythonNodeKernel kernel =
+				openKernel(DLPythonExecutorNodeConfig.getVariableNames().getOutputTables(), cancelable);
+		final DLPythonContext context = kernel.getContext();
+		boolean executionSucceeded = false;
 		try {
 			context.getKernel().putFlowVariables(DLPythonExecutorNodeConfig.getVariableNames().getFlowVariables(),
 					getAvailableFlowVariables().values());
-			final DLPythonNetworkPortObject<?> portObject = (DLPythonNetworkPortObject<?>) inData[IN_NETWORK_PORT_IDX];
-			final DLPythonNetwork network = portObject.getNetwork();
-            setupNetwork(network, context, cancelable);
+			final DLPythonNetwork network = ((DLPythonNetworkPortObject<?>) networkPortObject).getNetwork();
+			// The script may modify the input network, so it is always loaded anew.
+			kernel.setLoadedNetwork(setupNetwork(network, context, cancelable), cancelable);
 			exec.createSubProgress(0.1).setProgress(1);
-			context.getKernel().putDataTable(DLPythonExecutorNodeConfig.getVariableNames().getInputTables()[0], inTable,
-					exec.createSubProgress(0.2));
-			final String[] output = context.executeInKernel(getConfig().getSourceCode(), cancelable);
-			setExternalOutput(new LinkedList<>(Arrays.asList(output[0].split("\n"))));
-			setExternalErrorOutput(new LinkedList<>(Arrays.asList(output[1].split("\n"))));
-			exec.createSubProgress(0.4).setProgress(1);
+			final T result = scriptExecution.execute(context, cancelable);
 			final Collection<FlowVariable> variables = context.getKernel()
 					.getFlowVariables(DLPythonExecutorNodeConfig.getVariableNames().getFlowVariables());
-			outTable = context.getKernel().getDataTable(
-					DLPythonExecutorNodeConfig.getVariableNames().getOutputTables()[0], exec,
-					exec.createSubProgress(0.3));
 			addNewVariables(variables);
+			executionSucceeded = true;
+			return result;
 		} finally {
-			context.close();
+			closeKernel(kernel, executionSucceeded);
+		}
+	}
+
+	private void executeChunked(final DLPythonContext context, final RowInput input, final long numRows,
+			final OutputChunkConsumer outputConsumer, final ExecutionContext exec, final DLCancelable cancelable)
+			throws Exception {
+		final DLPythonExecutorChunkedExecution chunkedExecution =
+				new DLPythonExecutorChunkedExecution(context, getConfig().getRowsPerExecutionChunk());
+		try {
+			chunkedExecution.execute(getConfig().getSourceCode(), input, numRows, outputConsumer, exec, cancelable);
+		} finally {
+			setExternalOutput(new LinkedList<>(chunkedExecution.getStandardOutput()));
+			setExternalErrorOutput(new LinkedList<>(chunkedExecution.getErrorOutput()));
+			input.close();
+		}
+		if (!chunkedExecution.isInputFullyConsumed()) {
+			setWarningMessage("The script stopped yielding output chunks before consuming the entire input table. "
+					+ "The remaining input rows were ignored.");
 		}
-		return new BufferedDataTable[] { outTable };
 	}
 
 	@Override
@@ -186,4 +234,48 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 	protected DLPythonExecutorNodeConfig createConfig() {
 		return new DLPythonExecutorNodeConfig();
 	}
+
+	@FunctionalInterface
+	private interface ScriptExecution<T> {
+
+		T execute(DLPythonContext context, DLCancelable cancelable) throws Exception;
+	}
+
+	/**
+	 * Collects the output chunks of a chunked execution in a single table. The row keys of the chunks are kept (see
+	 * {@link DLPythonExecutorChunkedExecution} for chunks with a default index), duplicates across chunks fail the
+	 * execution just as duplicates within a single output table do.
+	 */
+	private static final class OutputChunkCollector implements OutputChunkConsumer {
+
+		private final ExecutionContext m_exec;
+
+		private BufferedDataContainer m_container;
+
+		private OutputChunkCollector(final ExecutionContext exec) {
+			m_exec = exec;
+		}
+
+		@Override
+		public void accept(final BufferedDataTable chunk) throws CanceledExecutionException {
+			// The structure of the chunks was already validated against the first chunk, see
+			// DLPythonExecutorChunkedExecution.
+			if (m_container == null) {
+				m_container = m_exec.createDataContainer(chunk.getDataTableSpec());
+			}
+			for (final DataRow row : chunk) {
+				m_exec.checkCanceled();
+				m_container.addRowToTable(row);
+			}
+		}
+
+		private BufferedDataTable getTable() {
+			if (m_container == null) {
+				// The script did not yield any output chunk.
+				m_container = m_exec.createDataContainer(new DataTableSpec());
+			}
+			m_container.close();
+			return m_container.getTable();
+		}
+	}
 }
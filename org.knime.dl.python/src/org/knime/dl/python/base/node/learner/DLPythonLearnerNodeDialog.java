@@ -66,7 +66,6 @@
 import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
-import org.knime.python2.config.PythonSourceCodeOptionsPanel;
 import org.knime.python2.config.WorkspacePreparer;
 import org.knime.python2.port.PickledObject;
 
@@ -80,7 +79,7 @@ final class DLPythonLearnerNodeDialog extends DataAwareNodeDialogPane {
 
 	private final DLPythonSourceCodePanel m_sourceCodePanel;
 
-	private final PythonSourceCodeOptionsPanel m_sourceCodeOptionsPanel;
+	private final DLPythonSourceCodeOptionsPanel m_sourceCodeOptionsPanel;
 
 	private WorkspacePreparer m_workspacePreparer;
 
@@ -96,6 +95,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
 		final DLPythonLearnerNodeConfig config = new DLPythonLearnerNodeConfig();
 		m_sourceCodePanel.saveSettingsTo(config);
 		m_sourceCodeOptionsPanel.saveSettingsTo(config);
+		m_sourceCodeOptionsPanel.saveDLSettingsTo(config);
 		config.saveTo(settings);
 	}
 
@@ -108,6 +108,7 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
 		m_sourceCodePanel.updateFlowVariables(
 				getAvailableFlowVariables().values().toArray(new FlowVariable[getAvailableFlowVariables().size()]));
 		m_sourceCodeOptionsPanel.loadSettingsFrom(config);
+		m_sourceCodeOptionsPanel.loadDLSettingsFrom(config);
 		m_sourceCodePanel.updateData(new BufferedDataTable[] { null }, new PickledObject[] { null });
 	}
 
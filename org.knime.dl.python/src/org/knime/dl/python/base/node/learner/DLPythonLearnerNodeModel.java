@@ -52,7 +52,6 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
-import java.util.stream.Collectors;
 
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataTableSpec;
@@ -65,6 +64,7 @@
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
 import org.knime.core.node.workflow.FlowVariable;
+import org.knime.dl.base.portobjects.DLNetworkFileStoreDeduplicator;
 import org.knime.dl.base.portobjects.DLNetworkPortObject;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -72,9 +72,9 @@
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLMissingExtensionException;
+import org.knime.dl.python.base.node.DLPythonNodeKernel;
 import org.knime.dl.python.base.node.DLPythonNodeModel;
 import org.knime.dl.python.core.DLPythonContext;
-import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
 import org.knime.dl.python.core.DLPythonNetworkLoader;
@@ -82,7 +82,6 @@
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
 import org.knime.dl.python.util.DLPythonUtils;
-import org.knime.python2.kernel.PythonKernel;
 
 /**
  * Shamelessly copied and pasted from python predictor.
@@ -96,7 +95,8 @@ final class DLPythonLearnerNodeModel extends DLPythonNodeModel<DLPythonLearnerNo
 
 	static final int IN_DATA_PORT_IDX = 1;
 
-    static <N extends DLPythonNetwork> void setupNetwork(final N inputNetwork, final DLPythonContext context,
+    static <N extends DLPythonNetwork> DLPythonNetworkHandle setupNetwork(final N inputNetwork,
+        final DLPythonContext context,
         final DLCancelable cancelable)
 			throws DLMissingExtensionException, DLInvalidSourceException, DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final DLPythonNetworkLoader<N> loader =
@@ -115,6 +115,7 @@ static <N extends DLPythonNetwork> void setupNetwork(final N inputNetwork, final
 			throw new IOException(
 					"An error occurred while communicating with Python (while setting up the Python network).", e);
 		}
+		return networkHandle;
 	}
 
 	static void checkExecutePostConditions(final DLPythonContext context, final DLCancelable cancelable)
@@ -163,16 +164,16 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
             return new DLNetworkPortObject[]{inPortObject};
 		}
 
-		final DLPythonContext context = new DLPythonDefaultContext(new PythonKernel(getKernelOptions()));
+		final DLPythonNodeKernel kernel =
+				openKernel(DLPythonLearnerNodeConfig.getVariableNames().getGeneralOutputObjects(), cancelable);
+		final DLPythonContext context = kernel.getContext();
+		boolean executionSucceeded = false;
 		try {
 			context.getKernel().putFlowVariables(DLPythonLearnerNodeConfig.getVariableNames().getFlowVariables(),
 					getAvailableFlowVariables().values());
-			setupNetwork(inNetwork, context, cancelable);
-			final String loadBackendCode = DLPythonNetworkLoaderRegistry.getInstance().getAllNetworkLoaders().stream()
-					.map(l -> "import " + l.getPythonModuleName() + "\n") //
-					.collect(Collectors.joining());
-			// TODO: we should move this logic out of the node in a later iteration
-			context.executeInKernel(loadBackendCode, cancelable);
+			// The script trains the input network, so it is always loaded anew.
+			kernel.setLoadedNetwork(setupNetwork(inNetwork, context, cancelable), cancelable);
+			kernel.loadBackends(cancelable);
 			exec.createSubProgress(0.1).setProgress(1);
 			context.getKernel().putDataTable(DLPythonLearnerNodeConfig.getVariableNames().getInputTables()[0], inTable,
 					exec.createSubProgress(0.2));
@@ -209,10 +210,14 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 				throw new IllegalStateException(
 						"Failed to save output deep learning network '" + handle.getIdentifier() + "'.");
 			}
+			DLNetworkFileStoreDeduplicator.deduplicate(fileStore);
 			addNewVariables(variables);
-            return new PortObject[]{createOutputPortObject(loader, handle, fileStore, context, cancelable)};
+			final PortObject[] outputs =
+					new PortObject[] { createOutputPortObject(loader, handle, fileStore, context, cancelable) };
+			executionSucceeded = true;
+			return outputs;
 		} finally {
-			context.close();
+			closeKernel(kernel, executionSucceeded);
 		}
 	}
 
@@ -48,12 +48,17 @@
  */
 package org.knime.dl.python.core;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -68,6 +73,7 @@
 import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLExecutionProfile;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLNetworkInputProvider;
 import org.knime.dl.core.DLTensor;
@@ -81,6 +87,7 @@
 import org.knime.dl.python.core.data.serde.DLPythonDeserializer;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializerFactory;
 import org.knime.dl.python.core.data.serde.DLSerializerFactory;
+import org.knime.dl.python.core.training.DLPythonTrainingLog;
 import org.knime.dl.python.core.training.DLPythonTrainingStatus;
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
 import org.knime.dl.python.util.DLPythonUtils;
@@ -146,6 +153,9 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 
     public static final String OUTPUT_SHAPES_NAME = "output_shapes";
 
+    /** Name of the DataFrame in python that holds the id of a newly registered execution command */
+    private static final String EXECUTION_COMMAND_ID_NAME = "execution_command_id";
+
     /** Name of the 'python version' DataFrame in python */
     public static final String PYTHON_VERSION_NAME = "python_version";
 
@@ -155,8 +165,40 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 
     // --
 
+    /**
+     * VM option that specifies the time window in milliseconds over which the training progress of consecutive batches
+     * is coalesced on Python side before it is reported to KNIME. Zero reports the progress of each batch separately.
+     */
+    public static final String TRAINING_PROGRESS_INTERVAL_VM_OPT = "knime.dl.python.trainingprogressinterval";
+
+    private static final long DEFAULT_TRAINING_PROGRESS_INTERVAL = 200;
+
     private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonAbstractCommands.class);
 
+    private static long trainingProgressInterval = -1;
+
+    /**
+     * @return the time window in milliseconds over which the training progress of consecutive batches is coalesced,
+     *         as specified by the user via VM option {@link #TRAINING_PROGRESS_INTERVAL_VM_OPT}
+     */
+    public static synchronized long getTrainingProgressInterval() {
+        if (trainingProgressInterval == -1) {
+            try {
+                trainingProgressInterval = Long.parseLong(System.getProperty(TRAINING_PROGRESS_INTERVAL_VM_OPT,
+                    Long.toString(DEFAULT_TRAINING_PROGRESS_INTERVAL)));
+            } catch (final NumberFormatException ex) {
+                // Ignore, see below.
+            }
+            if (trainingProgressInterval < 0) {
+                trainingProgressInterval = DEFAULT_TRAINING_PROGRESS_INTERVAL;
+                LOGGER.warn("The VM option -D" + TRAINING_PROGRESS_INTERVAL_VM_OPT
+                    + " was not set to a non-negative integer value. Using the default value of "
+                    + DEFAULT_TRAINING_PROGRESS_INTERVAL + " milliseconds instead.");
+            }
+        }
+        return trainingProgressInterval;
+    }
+
     /**
      * Methods that require a properly setup Python environment should not access this field directly. Instead, they
      * should use {@link #getContext()}.
@@ -165,11 +207,19 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 
     private final Map<DLTensorId, DLPythonTableChunker> m_tableChunkers = new HashMap<>();
 
+    /**
+     * Ids of the execution commands registered in Python, keyed by network identifier followed by the sorted output
+     * identifiers.
+     */
+    private final Map<List<String>, Integer> m_executionCommands = new HashMap<>();
+
     /**
      * Set to <code>true</code> if the setup steps in {@link #getContext()} were successful.
      */
     private boolean m_contextSetup = false;
 
+    private DLExecutionProfile m_executionProfile = DLExecutionProfile.DEFAULT;
+
     /**
      * Creates a new instance of this commands class.
      */
@@ -192,6 +242,44 @@ protected DLPythonAbstractCommands(final DLPythonContext context) {
 
     protected abstract String getSetupBackendCode();
 
+    /**
+     * @return the profile that limits the CPU resources of the back end, applied while setting up the context
+     */
+    protected DLExecutionProfile getExecutionProfile() {
+        return m_executionProfile;
+    }
+
+    /**
+     * Returns the code that applies the process wide settings of the {@link #getExecutionProfile() execution profile}
+     * (OpenMP and MKL thread counts, CPU affinity). It is executed together with {@link #getSetupEnvironmentCode()},
+     * i.e. before any back end is imported. Back end specific settings (e.g. the sizes of the back end's own thread
+     * pools) have to be applied in {@link #getSetupBackendCode()}.
+     *
+     * @return the code, empty if the profile leaves all settings to the back end
+     */
+    protected String getSetupExecutionProfileCode() {
+        final DLExecutionProfile profile = getExecutionProfile();
+        if (profile.getOmpThreads() == 0 && profile.getMklThreads() == 0 && profile.getCpuAffinity().isEmpty()) {
+            return "";
+        }
+        return DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonExecutionProfile") //
+            .n("DLPythonExecutionProfile.apply_process_profile(") //
+            /**/ .a("omp_threads=").a(profile.getOmpThreads()) //
+            /**/ .a(", mkl_threads=").a(profile.getMklThreads()) //
+            /**/ .a(", cpu_affinity=").a(profile.getCpuAffinity().stream().mapToInt(Integer::intValue).toArray()) //
+            /**/ .a(")").n().toString();
+    }
+
+    @Override
+    public synchronized void setExecutionProfile(final DLExecutionProfile profile) {
+        if (m_contextSetup) {
+            LOGGER.debug("Execution profile '" + profile + "' is ignored as the Python context is already set up.");
+            return;
+        }
+        m_executionProfile = checkNotNull(profile);
+    }
+
     protected abstract DLPythonAbstractNetworkReaderCommands getNetworkReaderCommands();
 
     protected abstract DLPythonNetworkTrainingTaskHandler createNetworkTrainingTaskHandler(DLPythonContext context,
@@ -210,7 +298,8 @@ public final synchronized DLPythonContext getContext(final DLCancelable cancelab
                     .n("DLPythonKernelGateway._instance = ")
                     /**/ .a("DLPythonKernelGateway.DLPythonKernelGateway(globals())").n().toString();
                 final String error =
-                    m_context.executeInKernel(setupGatewayCode + getSetupEnvironmentCode(), cancelable)[1];
+                    m_context.executeInKernel(setupGatewayCode + getSetupEnvironmentCode()
+                        + getSetupExecutionProfileCode(), cancelable)[1];
                 if (!error.isEmpty()) {
                     throw new DLInvalidEnvironmentException(
                         "Deep learning Python back end environment could not be set up.\nCause: " + error);
@@ -332,23 +421,44 @@ public void setNetworkInputs(final DLPythonNetworkHandle network,
     public void executeNetwork(final DLPythonNetworkHandle network, final Set<? extends DLTensorId> requestedOutputs,
         final long batchSize, final DLCancelable cancelable)
         throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
-        final String outputIdentifiers = requestedOutputs.stream().map((id) -> "'" + id.getIdentifierString() + "'")
-            .collect(Collectors.joining(", ", "[", "]"));
-        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
-            .a("import DLPythonNetwork") //
-            .n("network = DLPythonNetwork.get_network(").as(network.getIdentifier()).a(")") //
-            .n("in_data = {}") //
-            .n("for input_spec in network.spec.input_specs:") //
-            .n().t().a("in_data[input_spec.identifier] = globals()[input_spec.identifier]") //
-            .n("out_data = network.execute(in_data, ").a(batchSize).a(", ").a(outputIdentifiers).a(")") //
-            .n("import pandas as pd") //
-            .n("output_shapes = {}") //
-            .n("for name, data in out_data.items():") //
-            .n().t().a("shape = [list(data.iloc[0][0].array.shape)]").n().t()
-            .a("output_shapes[name] = [-1 if d is None else d for d in shape]") // replace None with -1
-            .n().t().a("globals()[name] = data").n("globals()[").as(OUTPUT_SHAPES_NAME)
-            .a("] = pd.DataFrame(output_shapes)");
-        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+        executeNetwork(network, requestedOutputs, batchSize, batchSize, cancelable);
+    }
+
+    @Override
+    public void executeNetwork(final DLPythonNetworkHandle network, final Set<? extends DLTensorId> requestedOutputs,
+        final long batchSize, final long predictionBatchSize, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final int commandId = getExecutionCommand(network, requestedOutputs, cancelable);
+        getContext(cancelable).executeInKernel("DLPythonNetwork.execute_network(" + commandId + ", "
+            + DLPythonUtils.toPython(batchSize) + ", " + DLPythonUtils.toPython(predictionBatchSize) + ")", cancelable);
+    }
+
+    /**
+     * Returns the id of the Python command that executes the given network for the given outputs. The command is
+     * registered on the first request. Executing a batch then only requires a short call instead of a generated script
+     * that has to be compiled anew for each batch.
+     */
+    private int getExecutionCommand(final DLPythonNetworkHandle network, final Set<? extends DLTensorId> outputs,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final String[] outputIdentifiers =
+            outputs.stream().map(DLTensorId::getIdentifierString).sorted().toArray(String[]::new);
+        final List<String> key = new ArrayList<>(outputIdentifiers.length + 1);
+        key.add(network.getIdentifier());
+        key.addAll(Arrays.asList(outputIdentifiers));
+        Integer commandId = m_executionCommands.get(key);
+        if (commandId == null) {
+            final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+                .a("import DLPythonNetwork") //
+                .n("import pandas as pd") //
+                .n("global ").a(EXECUTION_COMMAND_ID_NAME) //
+                .n(EXECUTION_COMMAND_ID_NAME).a(" = pd.DataFrame([DLPythonNetwork.register_execution_command(")
+                /**/ .as(network.getIdentifier()).a(", ").as(outputIdentifiers).a(")])");
+            getContext(cancelable).executeInKernel(b.toString(), cancelable);
+            commandId = ((Number)getContext(cancelable).getDataFromKernel(EXECUTION_COMMAND_ID_NAME,
+                (s, ts) -> new SingleValueTableCreator<>(s, Cell::getLongValue), cancelable).getTable()).intValue();
+            m_executionCommands.put(key, commandId);
+        }
+        return commandId;
     }
 
     @Override
@@ -358,6 +468,10 @@ public <T extends DLTensorId> Map<T, long[]> getNetworkOutputShapes(final DLPyth
         final Map<T, long[]> shapes = new HashMap<>(outputs.size());
         final Map<String, T> idMap =
             outputs.stream().collect(Collectors.toMap(DLTensorId::getIdentifierString, Function.identity()));
+        final int commandId = getExecutionCommand(network, outputs, cancelable);
+        getContext(cancelable).executeInKernel("import DLPythonNetwork\n" //
+            + "global " + OUTPUT_SHAPES_NAME + "\n" //
+            + OUTPUT_SHAPES_NAME + " = DLPythonNetwork.get_output_shapes(" + commandId + ")", cancelable);
         getContext(cancelable).getDataFromKernel(OUTPUT_SHAPES_NAME,
             (tableSpec, tableSize) -> new TableCreator<Object>() {
 
@@ -462,9 +576,10 @@ public void trainNetwork(final DLPythonNetworkHandle network, final DLNetworkInp
         final DLPythonContext context = getContext(monitor);
         final DLPythonTrainingStatus status = monitor.getTrainingStatus();
 
-        // Add log listeners.
-        final StringBuilder stdOut = new StringBuilder();
-        final StringBuilder stdErr = new StringBuilder();
+        // Add log listeners. Messages are appended to the bounded logs of the training status, consumers pull them
+        // incrementally.
+        final DLPythonTrainingLog stdOut = status.getStdOutLog();
+        final DLPythonTrainingLog stdErr = status.getStdErrLog();
         final PythonOutputListener stdErrListener = new PythonOutputListener() {
 
             private boolean m_silenced = false;
@@ -478,8 +593,6 @@ public void setSilenced(final boolean silenced) {
             public void messageReceived(final String message, final boolean isWarningMessage) {
                 if (!m_silenced) {
                     stdErr.append(message);
-                    stdErr.append("\n");
-                    status.setStdErrOutput(stdErr.toString());
                 }
             }
         };
@@ -500,8 +613,6 @@ public void messageReceived(final String message, final boolean isWarningMessage
                         stdErrListener.messageReceived(message, isWarningMessage);
                     } else {
                         stdOut.append(message);
-                        stdOut.append("\n");
-                        status.setStdOutOutput(stdOut.toString());
                     }
                 }
             }
@@ -528,7 +639,8 @@ public void messageReceived(final String message, final boolean isWarningMessage
         b.n("from DLKerasTrainTask import DLKerasTrainTask") //
             .n("reply_to = locals()['python_messaging_initiating_message_id']")
             .n("train_task = DLKerasTrainTask(reply_to, network, training_data_supplier, ") //
-            .a("validation_data_supplier=validation_data_supplier)") //
+            .a("validation_data_supplier=validation_data_supplier, ") //
+            .a("progress_interval=").a(getTrainingProgressInterval() / 1000d).a(")") //
             .n("train_task.get()");
 
         try {
@@ -551,7 +663,7 @@ public void messageReceived(final String message, final boolean isWarningMessage
         } finally {
             kernel.routeErrorMessagesToWarningLog(false);
             // Remove log listeners.
-            kernel.removeStderrorListener(stdOutListener);
+            kernel.removeStdoutListener(stdOutListener);
             kernel.removeStderrorListener(stdErrListener);
         }
     }
@@ -797,6 +909,17 @@ protected static class DLPythonNetworkTrainingTaskHandler extends AbstractTaskHa
 
         protected LinkedHashMap<String, DLReportedMetric> batchMetrics = new LinkedHashMap<>(4);
 
+        /**
+         * Metrics of validations that are performed by the back end independently of the end of an epoch.
+         */
+        protected LinkedHashMap<String, DLReportedMetric> validationMetrics = new LinkedHashMap<>(4);
+
+        /**
+         * The names of the metrics in the order in which their values appear in the binary batch metrics messages.
+         * Fixed by Python at the beginning of the training.
+         */
+        protected String[] m_batchMetricsIndex;
+
         protected final DLThrowingBiFunction<DLTensorId, DLTensor<? extends DLWritableBuffer>, TableChunker, //
                 IOException> m_singleTensorTableChunkerCreator;
 
@@ -815,8 +938,12 @@ protected DLPythonNetworkTrainingTaskHandler(final DLPythonContext context,
             epochMetrics.put("val_accuracy", new DLReportedMetric("val_accuracy", 0f));
             epochMetrics.put("val_loss", new DLReportedMetric("val_loss", 0f));
 
+            validationMetrics.put("val_accuracy", new DLReportedMetric("val_accuracy", 0f));
+            validationMetrics.put("val_loss", new DLReportedMetric("val_loss", 0f));
+
             batchMetrics.put("accuracy", new DLReportedMetric("accuracy", 0f));
             batchMetrics.put("loss", new DLReportedMetric("loss", 0f));
+            m_batchMetricsIndex = batchMetrics.keySet().toArray(new String[0]);
         }
 
         @Override
@@ -852,11 +979,14 @@ protected boolean handleCustomMessage(final Message message, final IntSupplier r
                     case "epoch_end":
                         handleEpochEnd(message);
                         break;
-                    case "batch_begin":
-                        handleBatchBegin(message);
+                    case "validation_end":
+                        handleValidationEnd(message);
                         break;
-                    case "batch_end":
-                        handleBatchEnd(message);
+                    case "batch_metrics_index":
+                        handleBatchMetricsIndex(message);
+                        break;
+                    case "batches_end":
+                        handleBatchesEnd(message);
                         break;
                     default:
                         return false;
@@ -935,23 +1065,58 @@ private void handleEpochEnd(final Message message) {
             m_status.epochEnded().raise(epochMetrics);
         }
 
-        private void handleBatchBegin(final Message message) {
-            m_status.batchStarted().raise(null);
-        }
-
-        private void handleBatchEnd(final Message message) {
+        private void handleValidationEnd(final Message message) {
             final String[] metricsStr = new PayloadDecoder(message.getPayload()).getNextString().split(";");
             int i = 0;
-            for (final DLReportedMetric m : batchMetrics.values()) {
+            for (final DLReportedMetric m : validationMetrics.values()) {
                 try {
                     m.setValue(Float.parseFloat(metricsStr[i]));
                 } catch (final NumberFormatException e) {
-                    m.setValue(-1f);
-                    LOGGER.debug("Received invalid value for metric '" + m.getName() + "': " + m.getValue() + ".");
+                    m.setValue(Float.NaN);
+                    LOGGER.debug("Received invalid value for metric '" + m.getName() + "': " + metricsStr[i] + ".");
                 }
                 i++;
             }
-            m_status.batchEnded().raise(batchMetrics);
+            m_status.valdationEnded().raise(validationMetrics);
+        }
+
+        private void handleBatchMetricsIndex(final Message message) {
+            m_batchMetricsIndex = new PayloadDecoder(message.getPayload()).getNextString().split(";");
+        }
+
+        /**
+         * Payload layout (big-endian): number of batches (int32), number of metrics (int32), followed by the metric
+         * values (float32), batch-major. The metrics are ordered according to {@link #m_batchMetricsIndex}.
+         */
+        private void handleBatchesEnd(final Message message) {
+            final ByteBuffer payload = ByteBuffer.wrap(message.getPayload());
+            final int numBatches = payload.getInt();
+            final int numMetrics = payload.getInt();
+            if (numBatches == 0) {
+                return;
+            }
+            final float[][] values = new float[numMetrics][numBatches];
+            for (int b = 0; b < numBatches; b++) {
+                for (int m = 0; m < numMetrics; m++) {
+                    final float value = payload.getFloat();
+                    // Invalid values are reported as -1, consistent with the epoch metrics messages.
+                    values[m][b] = Float.isNaN(value) ? -1f : value;
+                }
+            }
+            final LinkedHashMap<String, float[]> coalescedMetrics = new LinkedHashMap<>(numMetrics);
+            for (int m = 0; m < numMetrics; m++) {
+                final String name = m_batchMetricsIndex[m];
+                coalescedMetrics.put(name, values[m]);
+                final DLReportedMetric metric = batchMetrics.get(name);
+                if (metric != null) {
+                    metric.setValue(values[m][numBatches - 1]);
+                }
+            }
+            m_status.batchesEnded().raise(coalescedMetrics);
+            raiseValidationStartedIfEpochFinished();
+        }
+
+        private void raiseValidationStartedIfEpochFinished() {
             // Start validation phase if validation is enabled and we finished the last training batch of the
             // epoch.
             if (m_validationInputProvider != null
@@ -51,10 +51,13 @@
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.knime.core.node.NodeLogger;
 import org.knime.core.util.FileUtil;
+import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInstallationTestTimeout;
@@ -62,6 +65,7 @@
 import org.knime.dl.core.DLInvalidDestinationException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLMissingDependencyException;
+import org.knime.dl.python.core.DLPythonInstallationTestCache.DLPythonInstallationTestResult;
 import org.knime.dl.python.prefs.DLPythonPreferences;
 
 import com.google.common.base.Strings;
@@ -92,6 +96,41 @@ public void save(final DLPythonNetworkHandle handle, final URI destination, fina
         commands.saveNetwork(checkNotNull(handle), destinationFile.getAbsolutePath(), cancelable);
     }
 
+    /**
+     * @return the version of Python in the environment in which the installation of this loader's back end was last
+     *         tested successfully, if that environment is still the configured one. Empty if no such test was run or
+     *         its Python version could not be determined.
+     */
+    public Optional<Version> getTestedPythonVersion() {
+        return getInstallationTester().getPythonVersion(this);
+    }
+
+    /**
+     * Tests the installation of this loader's back end using the given, possibly shared, Python context instead of
+     * a context of its own. The context is not closed by this method. Previously persisted test results are reused
+     * unless <code>forceRefresh</code> is <code>true</code>.
+     *
+     * @param forceRefresh if <code>true</code>, the installation test is re-run regardless of any cached results
+     * @param timeout the timeout in milliseconds
+     * @param context the Python context in which to run the test
+     * @param cancelable to check if the test has been canceled
+     * @throws DLMissingDependencyException if the back end is not available
+     * @throws DLInstallationTestTimeoutException if the test timed out or was interrupted
+     */
+    final synchronized void checkAvailability(final boolean forceRefresh, final int timeout,
+        final DLPythonContext context, final DLCancelable cancelable)
+        throws DLMissingDependencyException, DLInstallationTestTimeoutException {
+        getInstallationTester().testInstallation(forceRefresh, timeout, this, context, cancelable);
+    }
+
+    /**
+     * @return <code>true</code> if a valid installation test result for the currently configured Python environment is
+     *         available, either in memory or persisted from an earlier session
+     */
+    final boolean hasValidInstallationTestResult() {
+        return getInstallationTester().hasValidResult(this);
+    }
+
     protected static class DLPythonInstallationTester {
 
         protected boolean m_tested = false;
@@ -100,75 +139,70 @@ protected static class DLPythonInstallationTester {
 
         protected String m_message;
 
+        /**
+         * The Python version of the environment in which the current result was obtained, <code>null</code> if
+         * unknown.
+         */
+        private String m_pythonVersion;
+
         protected DLInstallationTestTimeoutException m_timeoutException;
 
+        /**
+         * The key of the environment in which the current result was obtained, see
+         * {@link DLPythonInstallationTestCache#getEnvironmentKey()}.
+         */
+        private String m_environmentKey;
+
         public DLPythonInstallationTester() {
             DLPythonPreferences.addPreferencesChangeListener(e -> {
                 m_tested = false;
+                DLPythonInstallationTestCache.getInstance().clear();
             });
         }
 
         protected synchronized void testInstallation(final boolean forceRefresh, final int timeout,
             final DLPythonAbstractNetworkLoader<?> loader, final DLCancelable cancelable)
             throws DLMissingDependencyException, DLInstallationTestTimeoutException {
+            testInstallation(forceRefresh, timeout, loader, null, cancelable);
+        }
+
+        /**
+         * @param sharedContext the context in which to run the test, <code>null</code> if the test should run in a
+         *            context of its own
+         */
+        protected synchronized void testInstallation(final boolean forceRefresh, final int timeout,
+            final DLPythonAbstractNetworkLoader<?> loader, final DLPythonContext sharedContext,
+            final DLCancelable cancelable) throws DLMissingDependencyException, DLInstallationTestTimeoutException {
             if (forceRefresh || !m_tested) {
-                final AtomicBoolean success = new AtomicBoolean();
-                final AtomicReference<String> message = new AtomicReference<>();
-                final AtomicReference<DLInstallationTestTimeoutException> timeoutException = new AtomicReference<>();
-                try (DLPythonContext context = new DLPythonDefaultContext()) {
-                    final Thread t = new Thread(() -> {
-                        try {
-                            loader.createCommands(context).testInstallation(cancelable);
-                            success.set(true);
-                        } catch (final Throwable th) {
-                            message.set(Strings.isNullOrEmpty(th.getMessage())
-                                ? "Unknown error of type '" + th.getClass().getName() + "'." //
-                                : th.getMessage());
-                            if (th instanceof Error) {
-                                throw (Error)th;
-                            }
-                        }
-                    }, "DL-Installation-Test-" + loader.getNetworkType().getCanonicalName());
-                    t.start();
-                    try {
-                        t.join(timeout);
-                    } catch (final InterruptedException e) {
-                        if (!success.get()) {
-                            t.interrupt();
-                            message.getAndUpdate(msg -> {
-                                if (msg == null) {
-                                    msg = "Installation test for Python back end '"
-                                        + loader.getNetworkType().getCanonicalName() + "' was interrupted.";
-                                    timeoutException.set(new DLInstallationTestTimeoutException(msg, e));
-                                }
-                                return msg;
-                            });
+                final String environmentKey = DLPythonInstallationTestCache.getEnvironmentKey();
+                final DLPythonInstallationTestCache cache = DLPythonInstallationTestCache.getInstance();
+                // Results persisted by earlier versions lack the Python version, re-run the test in this case.
+                final Optional<DLPythonInstallationTestResult> persisted = forceRefresh ? Optional.empty()
+                    : cache.get(loader, environmentKey).filter(r -> r.getPythonVersion() != null);
+                if (persisted.isPresent()) {
+                    m_success = persisted.get().isSuccess();
+                    m_message = persisted.get().getMessage();
+                    m_pythonVersion = persisted.get().getPythonVersion();
+                    m_timeoutException = null;
+                } else {
+                    if (sharedContext != null) {
+                        runTest(timeout, loader, sharedContext, cancelable);
+                    } else {
+                        try (DLPythonContext context = new DLPythonDefaultContext()) {
+                            runTest(timeout, loader, context, cancelable);
                         }
-                        Thread.currentThread().interrupt();
                     }
-                    if (!success.get() && timeoutException.get() == null) {
-                        t.interrupt();
-                        message.getAndUpdate(msg -> {
-                            if (msg == null) {
-                                msg = "Installation test for Python back end '"
-                                    + loader.getNetworkType().getCanonicalName() + "' timed out. "
-                                    + "Please make sure your Python environment is properly set up and "
-                                    + "consider increasing the timeout (currently " + timeout
-                                    + " ms) using the VM option " + "'-D"
-                                    + DLInstallationTestTimeout.INSTALLATION_TEST_VM_OPT + "=<value-in-ms>'.";
-                                timeoutException.set(new DLInstallationTestTimeoutException(msg));
-                            } else {
-                                msg += "\nIf packages are missing you can install the correct version of the "
-                                    + "required packages on the 'Python Deep Learning' preference page.";
-                            }
-                            return msg;
-                        });
+                    // Failures are not persisted: the user may fix the environment (e.g. by installing missing
+                    // packages) without changing anything that is part of the environment key.
+                    if (m_success) {
+                        cache.put(loader, environmentKey,
+                            new DLPythonInstallationTestResult(m_success, m_message, m_pythonVersion));
+                    } else {
+                        cache.remove(loader);
                     }
                 }
                 m_tested = true;
-                m_success = success.get();
-                m_message = message.get();
-                m_timeoutException = timeoutException.get();
+                m_environmentKey = environmentKey;
             }
             if (!m_success) {
                 if (m_timeoutException != null) {
@@ -180,5 +214,96 @@ protected synchronized void testInstallation(final boolean forceRefresh, final i
                 m_message = null;
             }
         }
+
+        protected synchronized boolean hasValidResult(final DLPythonAbstractNetworkLoader<?> loader) {
+            final String environmentKey = DLPythonInstallationTestCache.getEnvironmentKey();
+            if (m_tested && environmentKey.equals(m_environmentKey)) {
+                return true;
+            }
+            return DLPythonInstallationTestCache.getInstance().get(loader, environmentKey).isPresent();
+        }
+
+        protected synchronized Optional<Version> getPythonVersion(final DLPythonAbstractNetworkLoader<?> loader) {
+            final String environmentKey = DLPythonInstallationTestCache.getEnvironmentKey();
+            final String pythonVersion;
+            if (m_tested && environmentKey.equals(m_environmentKey)) {
+                pythonVersion = m_success ? m_pythonVersion : null;
+            } else {
+                pythonVersion = DLPythonInstallationTestCache.getInstance().get(loader, environmentKey)
+                    .filter(DLPythonInstallationTestResult::isSuccess)
+                    .map(DLPythonInstallationTestResult::getPythonVersion).orElse(null);
+            }
+            try {
+                return pythonVersion != null ? Optional.of(new Version(pythonVersion)) : Optional.empty();
+            } catch (final IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+
+        private void runTest(final int timeout, final DLPythonAbstractNetworkLoader<?> loader,
+            final DLPythonContext context, final DLCancelable cancelable) {
+            final AtomicBoolean success = new AtomicBoolean();
+            final AtomicReference<String> message = new AtomicReference<>();
+            final AtomicReference<String> pythonVersion = new AtomicReference<>();
+            final AtomicReference<DLInstallationTestTimeoutException> timeoutException = new AtomicReference<>();
+            final Thread t = new Thread(() -> {
+                try {
+                    final DLPythonAbstractCommands commands = loader.createCommands(context);
+                    commands.testInstallation(cancelable);
+                    success.set(true);
+                    // Remembered to complete network specs that are read without starting Python.
+                    try {
+                        pythonVersion.set(commands.getPythonVersion(cancelable).toString());
+                    } catch (final Exception e) {
+                        NodeLogger.getLogger(DLPythonAbstractNetworkLoader.class)
+                            .debug("Could not determine the Python version of the tested environment.", e);
+                    }
+                } catch (final Throwable th) {
+                    message.set(Strings.isNullOrEmpty(th.getMessage())
+                        ? "Unknown error of type '" + th.getClass().getName() + "'." //
+                        : th.getMessage());
+                    if (th instanceof Error) {
+                        throw (Error)th;
+                    }
+                }
+            }, "DL-Installation-Test-" + loader.getNetworkType().getCanonicalName());
+            t.start();
+            try {
+                t.join(timeout);
+            } catch (final InterruptedException e) {
+                if (!success.get()) {
+                    t.interrupt();
+                    message.getAndUpdate(msg -> {
+                        if (msg == null) {
+                            msg = "Installation test for Python back end '"
+                                + loader.getNetworkType().getCanonicalName() + "' was interrupted.";
+                            timeoutException.set(new DLInstallationTestTimeoutException(msg, e));
+                        }
+                        return msg;
+                    });
+                }
+                Thread.currentThread().interrupt();
+            }
+            if (!success.get() && timeoutException.get() == null) {
+                t.interrupt();
+                message.getAndUpdate(msg -> {
+                    if (msg == null) {
+                        msg = "Installation test for Python back end '" + loader.getNetworkType().getCanonicalName()
+                            + "' timed out. " + "Please make sure your Python environment is properly set up and "
+                            + "consider increasing the timeout (currently " + timeout + " ms) using the VM option "
+                            + "'-D" + DLInstallationTestTimeout.INSTALLATION_TEST_VM_OPT + "=<value-in-ms>'.";
+                        timeoutException.set(new DLInstallationTestTimeoutException(msg));
+                    } else {
+                        msg += "\nIf packages are missing you can install the correct version of the "
+                            + "required packages on the 'Python Deep Learning' preference page.";
+                    }
+                    return msg;
+                });
+            }
+            m_success = success.get();
+            m_message = message.get();
+            m_pythonVersion = pythonVersion.get();
+            m_timeoutException = timeoutException.get();
+        }
     }
 }
@@ -52,6 +52,7 @@
 
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLExecutionProfile;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLNetworkInputProvider;
 import org.knime.dl.core.DLNetworkSpec;
@@ -79,6 +80,14 @@ public interface DLPythonCommands extends AutoCloseable {
 	 */
 	DLPythonContext getContext(DLCancelable cancelable) throws DLInvalidEnvironmentException, DLCanceledExecutionException;
 
+	/**
+	 * Sets the profile that limits the CPU resources of the Python back end. Only takes effect if called before the
+	 * context is {@link #getContext(DLCancelable) set up}.
+	 *
+	 * @param profile the execution profile
+	 */
+	void setExecutionProfile(DLExecutionProfile profile);
+
 	void testInstallation(DLCancelable cancelable) throws DLInvalidEnvironmentException, DLCanceledExecutionException;
 
 	DLPythonNetworkHandle loadNetwork(String path, boolean loadTrainingConfig, DLCancelable cancelable)
@@ -95,6 +104,21 @@ void setNetworkInputs(DLPythonNetworkHandle network,
 	void executeNetwork(DLPythonNetworkHandle network, Set<? extends DLTensorId> requestedOutputs, final long batchSize, DLCancelable cancelable)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
 
+	/**
+	 * Executes the network on inputs that may consist of several batches. The back end splits the inputs into batches
+	 * of size <code>predictionBatchSize</code> on its own, which saves the round trips between Java and Python that
+	 * separate calls of {@link #executeNetwork(DLPythonNetworkHandle, Set, long, DLCancelable)} would cost.
+	 *
+	 * @param network the network handle
+	 * @param requestedOutputs the outputs to compute
+	 * @param batchSize the number of examples in the current inputs
+	 * @param predictionBatchSize the number of examples the back end processes at once
+	 * @param cancelable to check if execution has been canceled
+	 */
+	void executeNetwork(DLPythonNetworkHandle network, Set<? extends DLTensorId> requestedOutputs, long batchSize,
+			long predictionBatchSize, DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
+
 	/**
 	 * Retrieves the shapes of the output tensors from python. </br>
 	 * <b>NOTE:</b> The first dimension of the returned shapes is the batch dimension, which is treated separately in
@@ -0,0 +1,289 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+import org.eclipse.core.runtime.Platform;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.python.prefs.DLPythonPreferences;
+import org.knime.python2.PythonCommand;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Persists the results of the installation tests of the {@link DLPythonNetworkLoader Python back ends} across KNIME
+ * sessions. Results are keyed by the currently configured Python environment (environment type, Python command, the
+ * modification time of the Python executable and the deep learning Conda environment) such that any change of the
+ * environment automatically invalidates all previously stored results. Only successful results are persisted: a failed
+ * test may be fixed by installing packages into the same environment, which does not change its key. All results are
+ * discarded when the Python preferences change.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLPythonInstallationTestCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonInstallationTestCache.class);
+
+    private static final String CACHE_FILE_NAME = "dl-python-installation-tests.properties";
+
+    private static final String KEY_SUFFIX_ENVIRONMENT = ".environment";
+
+    private static final String KEY_SUFFIX_SUCCESS = ".success";
+
+    private static final String KEY_SUFFIX_MESSAGE = ".message";
+
+    private static final String KEY_SUFFIX_PYTHON_VERSION = ".pythonversion";
+
+    private static DLPythonInstallationTestCache instance;
+
+    static synchronized DLPythonInstallationTestCache getInstance() {
+        if (instance == null) {
+            instance = new DLPythonInstallationTestCache(getCacheFile());
+        }
+        return instance;
+    }
+
+    /**
+     * @return a key that uniquely identifies the currently configured Python environment
+     */
+    static String getEnvironmentKey() {
+        final PythonCommand command = DLPythonPreferences.getPythonCommandPreference();
+        long executableLastModified = -1;
+        try {
+            final List<String> commandLine = command.createProcessBuilder().command();
+            if (!commandLine.isEmpty()) {
+                final File executable = resolveExecutable(commandLine.get(0));
+                executableLastModified = executable != null ? executable.lastModified() : -1;
+            }
+        } catch (final Exception e) {
+            // Fall back to command string only.
+            LOGGER.debug("Could not determine the Python executable of command '" + command + "'.", e);
+        }
+        return DLPythonPreferences.getEnvironmentTypePreference().getId() + "|" + command + "|"
+            + executableLastModified + "|" + DLPythonPreferences.getCondaEnvironmentNamePreference();
+    }
+
+    /**
+     * Resolves commands such as <code>python</code> against the <code>PATH</code> environment variable.
+     *
+     * @return the executable file or <code>null</code> if it cannot be found
+     */
+    private static File resolveExecutable(final String command) {
+        final File file = new File(command);
+        if (file.isAbsolute() || command.contains(File.separator)) {
+            return file.isFile() ? file : null;
+        }
+        final String path = System.getenv("PATH");
+        if (path == null) {
+            return null;
+        }
+        for (final String directory : path.split(File.pathSeparator)) {
+            for (final String extension : new String[]{"", ".exe"}) {
+                final File candidate = new File(directory, command + extension);
+                if (candidate.isFile()) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Path getCacheFile() {
+        try {
+            final Bundle bundle = FrameworkUtil.getBundle(DLPythonInstallationTestCache.class);
+            if (bundle != null) {
+                return Platform.getStateLocation(bundle).toFile().toPath().resolve(CACHE_FILE_NAME);
+            }
+        } catch (final Exception e) {
+            LOGGER.debug("Could not resolve the state location of the deep learning Python plug-in. "
+                + "Installation test results will not be persisted.", e);
+        }
+        return null;
+    }
+
+    /**
+     * <code>null</code> if results cannot be persisted.
+     */
+    private final Path m_cacheFile;
+
+    private final Properties m_entries = new Properties();
+
+    private DLPythonInstallationTestCache(final Path cacheFile) {
+        m_cacheFile = cacheFile;
+        if (m_cacheFile != null && Files.isRegularFile(m_cacheFile)) {
+            try (InputStream in = Files.newInputStream(m_cacheFile)) {
+                m_entries.load(in);
+            } catch (final IOException e) {
+                LOGGER.debug("Could not read persisted installation test results. Tests will be re-run.", e);
+                m_entries.clear();
+            }
+        }
+    }
+
+    /**
+     * @param loader the loader whose installation test result to look up
+     * @param environmentKey the key of the environment for which the result must be valid, see
+     *            {@link #getEnvironmentKey()}
+     * @return the persisted result if present and valid for the given environment
+     */
+    synchronized Optional<DLPythonInstallationTestResult> get(final DLPythonNetworkLoader<?> loader,
+        final String environmentKey) {
+        final String prefix = loader.getNetworkType().getCanonicalName();
+        if (!environmentKey.equals(m_entries.getProperty(prefix + KEY_SUFFIX_ENVIRONMENT))) {
+            return Optional.empty();
+        }
+        final boolean success = Boolean.parseBoolean(m_entries.getProperty(prefix + KEY_SUFFIX_SUCCESS));
+        final String message = m_entries.getProperty(prefix + KEY_SUFFIX_MESSAGE);
+        final String pythonVersion = m_entries.getProperty(prefix + KEY_SUFFIX_PYTHON_VERSION);
+        return Optional.of(new DLPythonInstallationTestResult(success, message, pythonVersion));
+    }
+
+    /**
+     * Stores the given result and writes all results to disk.
+     *
+     * @param loader the tested loader
+     * @param environmentKey the key of the environment in which the test was run, see {@link #getEnvironmentKey()}
+     * @param result the test result
+     */
+    synchronized void put(final DLPythonNetworkLoader<?> loader, final String environmentKey,
+        final DLPythonInstallationTestResult result) {
+        final String prefix = loader.getNetworkType().getCanonicalName();
+        m_entries.setProperty(prefix + KEY_SUFFIX_ENVIRONMENT, environmentKey);
+        m_entries.setProperty(prefix + KEY_SUFFIX_SUCCESS, Boolean.toString(result.isSuccess()));
+        if (result.getMessage() != null) {
+            m_entries.setProperty(prefix + KEY_SUFFIX_MESSAGE, result.getMessage());
+        } else {
+            m_entries.remove(prefix + KEY_SUFFIX_MESSAGE);
+        }
+        if (result.getPythonVersion() != null) {
+            m_entries.setProperty(prefix + KEY_SUFFIX_PYTHON_VERSION, result.getPythonVersion());
+        } else {
+            m_entries.remove(prefix + KEY_SUFFIX_PYTHON_VERSION);
+        }
+        flush();
+    }
+
+    /**
+     * Removes the persisted result of the given loader.
+     *
+     * @param loader the loader whose result to remove
+     */
+    synchronized void remove(final DLPythonNetworkLoader<?> loader) {
+        final String prefix = loader.getNetworkType().getCanonicalName();
+        m_entries.remove(prefix + KEY_SUFFIX_ENVIRONMENT);
+        m_entries.remove(prefix + KEY_SUFFIX_SUCCESS);
+        m_entries.remove(prefix + KEY_SUFFIX_MESSAGE);
+        m_entries.remove(prefix + KEY_SUFFIX_PYTHON_VERSION);
+        flush();
+    }
+
+    /**
+     * Removes all persisted results.
+     */
+    synchronized void clear() {
+        if (!m_entries.isEmpty()) {
+            m_entries.clear();
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (m_cacheFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(m_cacheFile.getParent());
+            final Path tmp = Files.createTempFile(m_cacheFile.getParent(), CACHE_FILE_NAME, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                m_entries.store(out, "Deep learning Python installation test results");
+            }
+            Files.move(tmp, m_cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOGGER.debug("Could not persist installation test results.", e);
+        }
+    }
+
+    static final class DLPythonInstallationTestResult {
+
+        private final boolean m_success;
+
+        private final String m_message;
+
+        private final String m_pythonVersion;
+
+        DLPythonInstallationTestResult(final boolean success, final String message, final String pythonVersion) {
+            m_success = success;
+            m_message = message;
+            m_pythonVersion = pythonVersion;
+        }
+
+        boolean isSuccess() {
+            return m_success;
+        }
+
+        String getMessage() {
+            return m_message;
+        }
+
+        /**
+         * @return the Python version of the tested environment, <code>null</code> if unknown
+         */
+        String getPythonVersion() {
+            return m_pythonVersion;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.knime.core.data.util.memory.MemoryAlert;
+import org.knime.core.data.util.memory.MemoryAlertListener;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLUncheckedException;
+import org.knime.dl.python.prefs.DLPythonPreferences;
+
+/**
+ * Hands Python networks that are already loaded in a live Python process over from the node that produced them to the
+ * node that consumes them next. The consuming node can then skip starting a Python process of its own and loading the
+ * network from its file.
+ * <P>
+ * A producer {@link #offer(DLPythonNetwork, DLPythonNetworkHandle, DLPythonContext) offers} its context after it
+ * saved the network. A consumer {@link #claim(DLPythonNetwork) claims} it before loading the network. A resident
+ * network is only handed out if its type, its source, its spec and the state of its source file are unchanged and if
+ * the Python context was created with the currently configured kernel options. Once claimed, the context is owned by
+ * the consumer. Resident networks that are not claimed within the configured timeout are discarded, as are all of them
+ * if the Java heap runs low or the deep learning Python configuration changes.
+ * <P>
+ * The handoff is disabled by default. It can be enabled by setting the VM option {@link #HANDOFF_TIMEOUT_VM_OPT} to a
+ * positive number of milliseconds.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLPythonNetworkHandoff {
+
+    /**
+     * @see #getHandoffTimeout()
+     */
+    public static final String HANDOFF_TIMEOUT_VM_OPT = "knime.dl.python.networkhandofftimeout";
+
+    /**
+     * Resident networks hold a Python process each, so only few of them are kept at once.
+     */
+    private static final int MAX_RESIDENT_NETWORKS = 2;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonNetworkHandoff.class);
+
+    private static final List<ResidentNetwork> RESIDENT_NETWORKS = new ArrayList<>(MAX_RESIDENT_NETWORKS);
+
+    private static long timeout = -1;
+
+    private static Timer timer;
+
+    private DLPythonNetworkHandoff() {
+        // Utility class.
+    }
+
+    /**
+     * @return the time in milliseconds a resident network is kept for being claimed, as specified by the user via VM
+     *         option {@link #HANDOFF_TIMEOUT_VM_OPT}. Zero if the handoff is disabled, which is the default.
+     */
+    public static synchronized long getHandoffTimeout() {
+        if (timeout == -1) {
+            try {
+                timeout = Long.parseLong(System.getProperty(HANDOFF_TIMEOUT_VM_OPT, "0"));
+            } catch (final NumberFormatException ex) {
+                // Ignore, see below.
+            }
+            if (timeout < 0) {
+                timeout = 0;
+                LOGGER.warn("The VM option -D" + HANDOFF_TIMEOUT_VM_OPT
+                    + " was not set to a non-negative integer value. Network handoff is disabled.");
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * Offers a network that is loaded in the given context to the next node that needs it. If the offer is accepted,
+     * this class takes over the ownership of the context and the caller must not use or close it anymore.
+     *
+     * @param network the network, its source must point to the location the network was saved to
+     * @param handle the handle of the network in the given context
+     * @param context the context in which the network is loaded
+     * @return <code>true</code> if the offer was accepted, <code>false</code> if the caller remains the owner of the
+     *         context
+     */
+    public static synchronized boolean offer(final DLPythonNetwork network, final DLPythonNetworkHandle handle,
+        final DLPythonContext context) {
+        if (getHandoffTimeout() == 0 || !context.isKernelOpen()) {
+            return false;
+        }
+        initialize();
+        final ResidentNetwork resident = new ResidentNetwork(createKey(network), handle, context);
+        RESIDENT_NETWORKS.add(resident);
+        while (RESIDENT_NETWORKS.size() > MAX_RESIDENT_NETWORKS) {
+            RESIDENT_NETWORKS.remove(0).close();
+        }
+        timer.schedule(new TimerTask() {
+
+            @Override
+            public void run() {
+                discard(resident);
+            }
+        }, timeout);
+        return true;
+    }
+
+    /**
+     * Claims a context in which the given network is already loaded. The caller becomes the owner of the context and
+     * is responsible for closing it.
+     *
+     * @param network the network
+     * @return the claimed resident network, empty if the network must be loaded as usual
+     */
+    public static synchronized Optional<ResidentNetwork> claim(final DLPythonNetwork network) {
+        if (RESIDENT_NETWORKS.isEmpty()) {
+            return Optional.empty();
+        }
+        final List<Object> key = createKey(network);
+        for (final Iterator<ResidentNetwork> it = RESIDENT_NETWORKS.iterator(); it.hasNext();) {
+            final ResidentNetwork resident = it.next();
+            if (resident.m_key.equals(key)) {
+                it.remove();
+                return Optional.of(resident);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static synchronized void discard(final ResidentNetwork resident) {
+        if (RESIDENT_NETWORKS.remove(resident)) {
+            resident.close();
+        }
+    }
+
+    private static synchronized void discardAll() {
+        RESIDENT_NETWORKS.forEach(ResidentNetwork::close);
+        RESIDENT_NETWORKS.clear();
+    }
+
+    private static void initialize() {
+        if (timer == null) {
+            timer = new Timer("DL-Python-Network-Handoff", true);
+            MemoryAlertSystem.getInstance().addListener(new MemoryAlertListener() {
+
+                @Override
+                protected boolean memoryAlert(final MemoryAlert alert) {
+                    discardAll();
+                    return false;
+                }
+            });
+            DLPythonPreferences.addPreferencesChangeListener(e -> discardAll());
+        }
+    }
+
+    /**
+     * The key consists of the type, source and spec of the network (the spec may carry modifications that are applied
+     * when loading the network), the size and modification time of the network's file, if it is local, and the current
+     * kernel options.
+     */
+    private static List<Object> createKey(final DLPythonNetwork network) {
+        final URI uri = network.getSource().getURI();
+        long length = -1;
+        long lastModified = -1;
+        if ("file".equalsIgnoreCase(uri.getScheme())) {
+            final File file = new File(uri);
+            length = file.length();
+            lastModified = file.lastModified();
+        }
+        return Arrays.asList(network.getClass(), uri, network.getSpec(), length, lastModified,
+            DLPythonDefaultContext.getKernelOptions());
+    }
+
+    /**
+     * A network that is loaded in a live Python context.
+     */
+    public static final class ResidentNetwork {
+
+        private final List<Object> m_key;
+
+        private final DLPythonNetworkHandle m_handle;
+
+        private final DLPythonContext m_context;
+
+        private ResidentNetwork(final List<Object> key, final DLPythonNetworkHandle handle,
+            final DLPythonContext context) {
+            m_key = key;
+            m_handle = handle;
+            m_context = context;
+        }
+
+        /**
+         * @return the handle of the network in the context
+         */
+        public DLPythonNetworkHandle getHandle() {
+            return m_handle;
+        }
+
+        /**
+         * @return the context in which the network is loaded
+         */
+        public DLPythonContext getContext() {
+            return m_context;
+        }
+
+        private void close() {
+            try {
+                m_context.close();
+            } catch (final DLUncheckedException e) {
+                LOGGER.debug(e.getMessage(), e);
+            }
+        }
+    }
+}
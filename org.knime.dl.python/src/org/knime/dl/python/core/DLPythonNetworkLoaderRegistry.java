@@ -46,9 +46,11 @@
  */
 package org.knime.dl.python.core;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -59,8 +61,10 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInstallationTestTimeout;
 import org.knime.dl.core.DLInstallationTestTimeoutException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLMissingDependencyException;
 import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.core.DLUncheckedException;
 
 /**
  * Registry for deep learning {@link DLPythonNetworkLoader network Python loaders}.
@@ -104,24 +108,78 @@ private DLPythonNetworkLoaderRegistry() {
 			return; // spares us creation of threads etc.
 		}
 
-		// test each installation independently
-		for (final DLPythonNetworkLoader<?> loader : m_loaders.values()) {
-			new Thread(() -> {
-				try {
-                    loader.checkAvailability(true, getInstallationTestTimeout(), DLNotCancelable.INSTANCE);
-				} catch (final DLInstallationTestTimeoutException e) {
-					Thread.currentThread().interrupt();
-                    LOGGER.debug("Installation test for deep learning Python back end '"
-                        + loader.getNetworkType().getCanonicalName() + "' timed out or was interrupted.");
-				} catch (final DLMissingDependencyException e) {
-                    LOGGER.debug("Installation test for deep learning Python back end '"
-                        + loader.getNetworkType().getCanonicalName() + "' failed: "
-                        + e.getMessage());
-				} catch (final DLCanceledExecutionException e) {
-                    // Doesn't happen.
-                }
-			}, "DL-Installation-Test-Trigger-" + loader.getNetworkType().getName()).start();
+		testInstallationsInBackground();
+	}
+
+	/**
+	 * Runs the installation tests of all registered loaders in the background. Loaders whose results are still valid
+	 * for the current Python environment (either in memory or persisted from an earlier session) are skipped. All
+	 * remaining tests share a single Python kernel, so the costs of launching Python are only paid once. If a test
+	 * times out, the kernel is closed and the remaining tests are run in a fresh one.
+	 */
+	private void testInstallationsInBackground() {
+		final Thread t = new Thread(() -> {
+			final List<DLPythonAbstractNetworkLoader<?>> untested = new ArrayList<>();
+			for (final DLPythonNetworkLoader<?> loader : m_loaders.values()) {
+				if (loader instanceof DLPythonAbstractNetworkLoader
+						&& !((DLPythonAbstractNetworkLoader<?>) loader).hasValidInstallationTestResult()) {
+					untested.add((DLPythonAbstractNetworkLoader<?>) loader);
+				} else {
+					// Restores cached results or runs the loader's custom test.
+					checkAvailability(loader, null);
+				}
+			}
+			if (untested.isEmpty()) {
+				return;
+			}
+			int next = 0;
+			while (next < untested.size()) {
+				// A timed out test may leave code running in the shared kernel. Subsequent tests would queue behind it
+				// and be reported as failed, so they are continued in a fresh kernel instead.
+				try (DLPythonContext sharedContext = new DLPythonDefaultContext()) {
+					try {
+						sharedContext.getKernel();
+					} catch (final DLInvalidEnvironmentException e) {
+						LOGGER.debug("Python could not be launched for the deep learning installation tests: "
+								+ e.getMessage(), e);
+						return;
+					}
+					while (next < untested.size()) {
+						if (!checkAvailability(untested.get(next++), sharedContext)) {
+							break;
+						}
+					}
+				} catch (final DLUncheckedException e) {
+					LOGGER.debug(e.getMessage(), e);
+				}
+			}
+		}, "DL-Installation-Test-Trigger");
+		t.setDaemon(true);
+		t.start();
+	}
+
+	/**
+	 * @return <code>false</code> if the installation test timed out, <code>true</code> otherwise
+	 */
+	private boolean checkAvailability(final DLPythonNetworkLoader<?> loader, final DLPythonContext sharedContext) {
+		try {
+			if (sharedContext != null) {
+				((DLPythonAbstractNetworkLoader<?>) loader).checkAvailability(false, getInstallationTestTimeout(),
+						sharedContext, DLNotCancelable.INSTANCE);
+			} else {
+				loader.checkAvailability(false, getInstallationTestTimeout(), DLNotCancelable.INSTANCE);
+			}
+		} catch (final DLInstallationTestTimeoutException e) {
+			LOGGER.debug("Installation test for deep learning Python back end '"
+					+ loader.getNetworkType().getCanonicalName() + "' timed out or was interrupted.");
+			return false;
+		} catch (final DLMissingDependencyException e) {
+			LOGGER.debug("Installation test for deep learning Python back end '"
+					+ loader.getNetworkType().getCanonicalName() + "' failed: " + e.getMessage());
+		} catch (final DLCanceledExecutionException e) {
+			// Doesn't happen.
 		}
+		return true;
 	}
 
 	/**
@@ -48,12 +48,17 @@
  */
 package org.knime.dl.python.core.execution;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.knime.core.node.NodeLogger;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLExecutionProfile;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLMissingExtensionException;
 import org.knime.dl.core.DLNetworkInputPreparer;
@@ -68,8 +73,12 @@
 import org.knime.dl.core.execution.DLNetworkOutputConsumer;
 import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.python.core.DLPythonCommands;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.core.DLPythonNetworkHandoff;
+import org.knime.dl.python.core.DLPythonNetworkHandoff.ResidentNetwork;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 
 /**
@@ -79,6 +88,8 @@
 public abstract class DLPythonAbstractNetworkExecutionSession<N extends DLPythonNetwork, C extends DLPythonCommands>
 	extends DLAbstractNetworkExecutionSession<N> implements DLPythonNetworkExecutionSession {
 
+	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonAbstractNetworkExecutionSession.class);
+
 	/**
 	 * Is instantiated via {@link #createCommands()} at the beginning of the first call of
 	 * {@link #trainInternal(DLTrainingMonitor)}.
@@ -87,6 +98,8 @@
 
 	private DLPythonNetworkHandle m_handle;
 
+	private DLExecutionProfile m_executionProfile = DLExecutionProfile.DEFAULT;
+
 	protected DLPythonAbstractNetworkExecutionSession(final N network, final Set<DLTensorSpec> executionInputSpecs,
 			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
 			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory) {
@@ -95,8 +108,15 @@ protected DLPythonAbstractNetworkExecutionSession(final N network, final Set<DLT
 
 	/**
 	 * The caller is responsible for {@link AutoCloseable#close() closing} the command.
+	 *
+	 * @param context the Python context the commands use, may already hold the network to execute
 	 */
-	protected abstract C createCommands() throws DLInvalidEnvironmentException;
+	protected abstract C createCommands(DLPythonContext context) throws DLInvalidEnvironmentException;
+
+	@Override
+	public void setExecutionProfile(final DLExecutionProfile profile) {
+		m_executionProfile = checkNotNull(profile);
+	}
 
 	@Override
 	public void close() throws Exception {
@@ -109,12 +129,25 @@ public void close() throws Exception {
 	@Override
 	protected void executeInternal(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
 		if (m_commands == null) {
-			m_commands = createCommands();
-            m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
-                .orElseThrow(
-                    () -> new DLMissingExtensionException("Python back end '" + m_network.getClass().getCanonicalName()
-                        + "' could not be found. Are you missing a KNIME Deep Learning extension?"))
-                .load(m_network, m_commands.getContext(monitor), false, monitor);
+			// use the network that the preceding node left loaded in Python, if any
+			final Optional<ResidentNetwork> resident = DLPythonNetworkHandoff.claim(m_network);
+			if (resident.isPresent()) {
+				m_commands = createCommands(resident.get().getContext());
+				m_handle = resident.get().getHandle();
+				if (!m_executionProfile.isDefault()) {
+					// the back end of the resident network is already set up and cannot be reconfigured
+					LOGGER.debug("Execution profile '" + m_executionProfile
+							+ "' is ignored as the network is still loaded by the preceding node.");
+				}
+			} else {
+				m_commands = createCommands(new DLPythonDefaultContext());
+				m_commands.setExecutionProfile(m_executionProfile);
+                m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
+                    .orElseThrow(() -> new DLMissingExtensionException(
+                        "Python back end '" + m_network.getClass().getCanonicalName()
+                            + "' could not be found. Are you missing a KNIME Deep Learning extension?"))
+                    .load(m_network, m_commands.getContext(monitor), false, monitor);
+			}
 		}
 		final DLExecutionStatus status = monitor.getExecutionStatus();
 		long currentInBatchSize = m_expectedBatchSize;
@@ -129,7 +162,8 @@ protected void executeInternal(final DLExecutionMonitor monitor) throws DLCancel
 			}
 			m_commands.setNetworkInputs(m_handle, m_input, monitor);
 			monitor.checkCanceled();
-			m_commands.executeNetwork(m_handle, m_requestedOutputs, currentInBatchSize, monitor);
+			m_commands.executeNetwork(m_handle, m_requestedOutputs, currentInBatchSize,
+					Math.min(m_predictionBatchSize, currentInBatchSize), monitor);
 			monitor.checkCanceled();
 			for (final DLTensor<?> input : m_input.values()) {
 				input.getBuffer().reset();
@@ -143,7 +177,9 @@ protected void executeInternal(final DLExecutionMonitor monitor) throws DLCancel
 				for (final DLTensorSpec spec : outputSpecs) {
 					if (m_requestedOutputs.contains(spec.getIdentifier())) {
 						final long[] outShape = outputShapes.get(spec.getIdentifier());
-						final long outBatchSize = outShape[0];
+						// The first batch is incomplete if it is the only one. Allocate the output for complete batches
+						// nonetheless as the session may be run again on more data.
+						final long outBatchSize = outShape[0] == currentInBatchSize ? m_expectedBatchSize : outShape[0];
 						final long[] outShapeWithoutBatchSize = new long[outShape.length - 1];
 						System.arraycopy(outShape, 1, outShapeWithoutBatchSize, 0, outShapeWithoutBatchSize.length);
 						final DLTensorSpec executionSpec = m_tensorFactory.createExecutionTensorSpec(spec, outBatchSize,
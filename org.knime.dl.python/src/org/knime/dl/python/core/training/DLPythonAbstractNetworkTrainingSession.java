@@ -46,11 +46,16 @@
  */
 package org.knime.dl.python.core.training;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.io.IOException;
+import java.util.Optional;
 import java.util.Set;
 
 import org.knime.dl.core.DLCancelable;
+import org.knime.core.node.NodeLogger;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLExecutionProfile;
 import org.knime.dl.core.DLFixedTensorShape;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLMissingExtensionException;
@@ -62,8 +67,12 @@
 import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.core.training.DLTrainingStatus;
 import org.knime.dl.python.core.DLPythonCommands;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.core.DLPythonNetworkHandoff;
+import org.knime.dl.python.core.DLPythonNetworkHandoff.ResidentNetwork;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 
 /**
@@ -81,6 +90,8 @@
 		CFG extends DLTrainingConfig, C extends DLPythonCommands>
 	extends DLAbstractNetworkTrainingSession<S, N, CFG> implements DLPythonNetworkTrainingSession<S> {
 
+	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonAbstractNetworkTrainingSession.class);
+
 	/**
 	 * The Python commands that are used to control the training process on Python side. Is instantiated via
 	 * {@link #createCommands()} at the beginning of the first call of {@link #trainInternal(DLTrainingMonitor)}.
@@ -93,6 +104,14 @@
 	 */
 	protected DLPythonNetworkHandle m_handle;
 
+	/**
+	 * Set to <code>true</code> once the Python context of {@link #m_commands} was handed over to the next node via
+	 * {@link #handOffTrainedNetwork(DLPythonNetwork, DLCancelable)}. The context must not be closed by this session then.
+	 */
+	private boolean m_handedOff = false;
+
+	private DLExecutionProfile m_executionProfile = DLExecutionProfile.DEFAULT;
+
 	/**
 	 * @param network the network to train
 	 * @param trainingConfig the training configuration that specifies how the network will be trained
@@ -119,10 +138,11 @@ protected DLPythonAbstractNetworkTrainingSession(final N network, final CFG trai
 	 * {@link DLPythonAbstractNetworkTrainingSession#trainInternal(DLTrainingMonitor)}.<br>
 	 * The caller is responsible for {@link AutoCloseable#close() closing} the command.
 	 *
+	 * @param context the Python context the commands use, may already hold the network to train
 	 * @return the created Python commands
 	 * @throws DLInvalidEnvironmentException if failed to create valid Python commands
 	 */
-	protected abstract C createCommands() throws DLInvalidEnvironmentException;
+	protected abstract C createCommands(DLPythonContext context) throws DLInvalidEnvironmentException;
 
 	/**
 	 * Sets the given training config for the given network handle.
@@ -141,24 +161,76 @@ protected DLPythonAbstractNetworkTrainingSession(final N network, final CFG trai
 	protected abstract void setNetworkTrainingConfig(DLPythonNetworkHandle handle, CFG config, DLCancelable cancelable)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
 
+	@Override
+	public void setExecutionProfile(final DLExecutionProfile profile) {
+		m_executionProfile = checkNotNull(profile);
+	}
+
 	@Override
 	public void close() throws Exception {
 		super.close();
-		if (m_commands != null) {
+		if (m_commands != null && !m_handedOff) {
 			m_commands.close();
 		}
 	}
 
+	/**
+	 * Offers the trained network, which is still loaded in Python, to the next node that needs it (see
+	 * {@link DLPythonNetworkHandoff}). Must only be called once training is complete and the trained network has been
+	 * saved to its final location. If the offer is accepted, this session must not be used anymore except for being
+	 * closed.
+	 *
+	 * @param trainedNetwork the trained network, its source must point to the location it was saved to
+	 * @param cancelable to check if the operation has been canceled
+	 * @throws DLInvalidEnvironmentException if the Python context is invalid
+	 * @throws DLCanceledExecutionException if the operation has been canceled
+	 */
+	protected void handOffTrainedNetwork(final DLPythonNetwork trainedNetwork, final DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, DLCanceledExecutionException {
+		handOffTrainedNetwork(trainedNetwork, m_handle, cancelable);
+	}
+
+	/**
+	 * Same as {@link #handOffTrainedNetwork(DLPythonNetwork, DLCancelable)} but for a network other than the trained
+	 * one that is loaded in the same Python context, e.g. a trained copy of it. At most one network is handed off per
+	 * session.
+	 *
+	 * @param trainedNetwork the network to hand off, its source must point to the location it was saved to
+	 * @param handle the Python handle of the network to hand off
+	 * @param cancelable to check if the operation has been canceled
+	 * @throws DLInvalidEnvironmentException if the Python context is invalid
+	 * @throws DLCanceledExecutionException if the operation has been canceled
+	 */
+	protected void handOffTrainedNetwork(final DLPythonNetwork trainedNetwork, final DLPythonNetworkHandle handle,
+			final DLCancelable cancelable) throws DLInvalidEnvironmentException, DLCanceledExecutionException {
+		if (m_commands != null && !m_handedOff) {
+			m_handedOff = DLPythonNetworkHandoff.offer(trainedNetwork, handle, m_commands.getContext(cancelable));
+		}
+	}
+
 	@Override
 	protected void trainInternal(final DLTrainingMonitor<? extends S> monitor)
 			throws DLCanceledExecutionException, Exception {
 		if (m_commands == null) {
-			m_commands = createCommands();
-            m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
-                .orElseThrow(
-                    () -> new DLMissingExtensionException("Python back end '" + m_network.getClass().getCanonicalName()
-                        + "' could not be found. Are you missing a KNIME Deep Learning extension?"))
-                .load(m_network, m_commands.getContext(monitor), true, monitor);
+			// use the network that the preceding node left loaded in Python, if any
+			final Optional<ResidentNetwork> resident = DLPythonNetworkHandoff.claim(m_network);
+			if (resident.isPresent()) {
+				m_commands = createCommands(resident.get().getContext());
+				m_handle = resident.get().getHandle();
+				if (!m_executionProfile.isDefault()) {
+					// the back end of the resident network is already set up and cannot be reconfigured
+					LOGGER.debug("Execution profile '" + m_executionProfile
+							+ "' is ignored as the network is still loaded by the preceding node.");
+				}
+			} else {
+				m_commands = createCommands(new DLPythonDefaultContext());
+				m_commands.setExecutionProfile(m_executionProfile);
+                m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
+                    .orElseThrow(() -> new DLMissingExtensionException(
+                        "Python back end '" + m_network.getClass().getCanonicalName()
+                            + "' could not be found. Are you missing a KNIME Deep Learning extension?"))
+                    .load(m_network, m_commands.getContext(monitor), true, monitor);
+			}
 			setNetworkTrainingConfig(m_handle, m_trainingConfig, monitor);
 		}
 		m_commands.trainNetwork(m_handle, m_trainingInputProvider, m_validationInputProvider, monitor);
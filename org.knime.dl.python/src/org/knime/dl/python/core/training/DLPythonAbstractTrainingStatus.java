@@ -57,9 +57,9 @@
  */
 public abstract class DLPythonAbstractTrainingStatus extends DLAbstractTrainingStatus implements DLPythonTrainingStatus {
 
-    private String m_stdOut = "";
+    private final DLPythonTrainingLog m_stdOut = DLPythonTrainingLog.createConfigured("stdout");
 
-    private String m_stdErr = "";
+    private final DLPythonTrainingLog m_stdErr = DLPythonTrainingLog.createConfigured("stderr");
 
     /**
      * @param numEpochs must be greater than zero
@@ -76,38 +76,56 @@ public DLPythonAbstractTrainingStatus() {
     }
 
     @Override
-    public String getStdOutOutput() {
+    public DLPythonTrainingLog getStdOutLog() {
         return m_stdOut;
     }
 
     @Override
-    public String getStdErrOutput() {
+    public DLPythonTrainingLog getStdErrLog() {
         return m_stdErr;
     }
 
+    @Override
+    public void dispose() {
+        m_stdOut.dispose();
+        m_stdErr.dispose();
+    }
+
+    @Override
+    public String getStdOutOutput() {
+        return m_stdOut.getText();
+    }
+
+    @Override
+    public String getStdErrOutput() {
+        return m_stdErr.getText();
+    }
+
     @Override
     public void setStdOutOutput(final String stdOut) {
-        m_stdOut = stdOut;
+        m_stdOut.clear();
+        m_stdOut.appendText(stdOut);
     }
 
     @Override
     public void setStdErrOutput(final String stdErr) {
-        m_stdErr = stdErr;
+        m_stdErr.clear();
+        m_stdErr.appendText(stdErr);
     }
 
     @Override
     public void writeExternal(final ObjectOutput objOut) throws IOException {
         super.writeExternal(objOut);
-        objOut.writeObject(m_stdOut);
-        objOut.writeObject(m_stdErr);
+        objOut.writeObject(m_stdOut.getText());
+        objOut.writeObject(m_stdErr.getText());
     }
 
     @Override
     public void readExternal(final ObjectInput objIn) throws IOException, ClassNotFoundException {
         super.readExternal(objIn);
         try {
-            m_stdOut = (String)objIn.readObject();
-            m_stdErr = (String)objIn.readObject();
+            setStdOutOutput((String)objIn.readObject());
+            setStdErrOutput((String)objIn.readObject());
         } catch (final IOException e) {
             // Backwards compatibility
         }
@@ -0,0 +1,429 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.training;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * A bounded, line-based log of the output of a training run. The most recent lines are kept in a ring buffer of fixed
+ * capacity. Appending a line is a constant-time operation and consumers pull only the lines that were appended since
+ * their last read (see {@link #readSince(long)}) instead of copying the entire log on each update.
+ * <P>
+ * Optionally, lines that are evicted from the ring buffer are spilled to a file such that the complete log remains
+ * available.
+ * <P>
+ * Logs created via {@link #createConfigured(String)} take their capacity and spill directory from the VM options
+ * {@link #CAPACITY_VM_OPT} and {@link #SPILL_DIRECTORY_VM_OPT}.
+ * <P>
+ * Instances of this class are thread-safe.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLPythonTrainingLog {
+
+    /**
+     * The default number of lines that are kept in memory.
+     */
+    public static final int DEFAULT_CAPACITY = 5000;
+
+    /**
+     * VM option that specifies the number of lines that are kept in memory by {@link #createConfigured(String)
+     * configured} logs.
+     */
+    public static final String CAPACITY_VM_OPT = "knime.dl.python.traininglogcapacity";
+
+    /**
+     * VM option that specifies the directory to which {@link #createConfigured(String) configured} logs spill the
+     * lines that are evicted from memory. If not set, evicted lines are discarded.
+     */
+    public static final String SPILL_DIRECTORY_VM_OPT = "knime.dl.python.traininglogspilldir";
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonTrainingLog.class);
+
+    private static int configuredCapacity = -1;
+
+    /**
+     * Creates a new log whose capacity and spill file are determined by the VM options {@link #CAPACITY_VM_OPT} and
+     * {@link #SPILL_DIRECTORY_VM_OPT}. The spill file is only created once lines are evicted.
+     *
+     * @param name the name of the log (e.g. "stdout"), part of the name of the spill file
+     * @return the log
+     */
+    public static DLPythonTrainingLog createConfigured(final String name) {
+        final String spillDirectory = System.getProperty(SPILL_DIRECTORY_VM_OPT);
+        Path spillFile = null;
+        if (spillDirectory != null && !spillDirectory.trim().isEmpty()) {
+            try {
+                spillFile = Paths.get(spillDirectory.trim())
+                    .resolve("knime-dl-training-" + name + "-" + UUID.randomUUID() + ".log");
+            } catch (final IllegalArgumentException e) {
+                LOGGER.warn("The VM option -D" + SPILL_DIRECTORY_VM_OPT + " is not a valid path. Lines that are "
+                    + "evicted from the training log are discarded.", e);
+            }
+        }
+        return new DLPythonTrainingLog(getConfiguredCapacity(), spillFile);
+    }
+
+    /**
+     * @return the number of lines that are kept in memory, as specified by the user via VM option
+     *         {@link #CAPACITY_VM_OPT}
+     */
+    public static synchronized int getConfiguredCapacity() {
+        if (configuredCapacity == -1) {
+            try {
+                configuredCapacity =
+                    Integer.parseInt(System.getProperty(CAPACITY_VM_OPT, Integer.toString(DEFAULT_CAPACITY)));
+            } catch (final NumberFormatException ex) {
+                // Ignore, see below.
+            }
+            if (configuredCapacity <= 0) {
+                configuredCapacity = DEFAULT_CAPACITY;
+                LOGGER.warn("The VM option -D" + CAPACITY_VM_OPT
+                    + " was not set to a positive integer value. Using the default value of " + DEFAULT_CAPACITY
+                    + " lines instead.");
+            }
+        }
+        return configuredCapacity;
+    }
+
+    private final String[] m_lines;
+
+    private final Path m_spillFile;
+
+    private BufferedWriter m_spillWriter;
+
+    /**
+     * Set once the log was {@link #dispose() disposed}, evicted lines are discarded from then on.
+     */
+    private boolean m_disposed;
+
+    /**
+     * The total number of lines that were appended to this log. Also the position of the next line.
+     */
+    private long m_numLines;
+
+    /**
+     * Incremented each time the log is {@link #clear() cleared}, which restarts the line positions. Allows readers to
+     * detect that a position they obtained earlier does not refer to the current lines anymore.
+     */
+    private long m_generation;
+
+    /**
+     * Creates a new log that keeps the {@link #DEFAULT_CAPACITY default number} of lines in memory and does not spill
+     * evicted lines.
+     */
+    public DLPythonTrainingLog() {
+        this(DEFAULT_CAPACITY, null);
+    }
+
+    /**
+     * @param capacity the maximum number of lines that are kept in memory, must be greater than zero
+     * @param spillFile the file to which lines that are evicted from memory are appended, may be <code>null</code> in
+     *            which case evicted lines are discarded
+     */
+    public DLPythonTrainingLog(final int capacity, final Path spillFile) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                "Training log capacity must be greater than zero, was " + capacity + ".");
+        }
+        m_lines = new String[capacity];
+        m_spillFile = spillFile;
+    }
+
+    /**
+     * @return the maximum number of lines that are kept in memory
+     */
+    public int getCapacity() {
+        return m_lines.length;
+    }
+
+    /**
+     * @return the spill file, if any
+     */
+    public Optional<Path> getSpillFile() {
+        return Optional.ofNullable(m_spillFile);
+    }
+
+    /**
+     * Appends a line to this log.
+     *
+     * @param line the line to append, must not contain line breaks
+     */
+    public synchronized void append(final String line) {
+        final int index = (int)(m_numLines % m_lines.length);
+        if (m_numLines >= m_lines.length) {
+            spill(m_lines[index]);
+        }
+        m_lines[index] = line;
+        m_numLines++;
+    }
+
+    /**
+     * Appends all lines of the given text to this log.
+     *
+     * @param text the text to append
+     */
+    public synchronized void appendText(final String text) {
+        if (text != null && !text.isEmpty()) {
+            // A trailing line break terminates the last line, it does not start a new one.
+            final String terminated = text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+            for (final String line : terminated.split("\\r?\\n", -1)) {
+                append(line);
+            }
+        }
+    }
+
+    /**
+     * Removes all lines from memory and starts a new generation of line positions. Lines that were already spilled
+     * remain in the spill file.
+     */
+    public synchronized void clear() {
+        for (long i = Math.max(0, m_numLines - m_lines.length); i < m_numLines; i++) {
+            spill(m_lines[(int)(i % m_lines.length)]);
+        }
+        flushSpill();
+        m_numLines = 0;
+        m_generation++;
+    }
+
+    /**
+     * @return the number of times this log was {@link #clear() cleared}
+     */
+    public synchronized long getGeneration() {
+        return m_generation;
+    }
+
+    /**
+     * @return the total number of lines that were appended to this log, i.e. the position of the next line
+     */
+    public synchronized long getNumLines() {
+        return m_numLines;
+    }
+
+    /**
+     * Returns the lines that were appended at or after the given position of the current generation and that are
+     * still held in memory. Prefer {@link #readSince(Increment)} to read incrementally, which also detects that the
+     * log was cleared in the meantime.
+     *
+     * @param position the position of the first line to read
+     * @return the read lines
+     */
+    public synchronized Increment readSince(final long position) {
+        final long oldest = Math.max(0, m_numLines - m_lines.length);
+        // A position beyond the end means that the log was cleared in the meantime.
+        final long start = position > m_numLines ? oldest : Math.max(position, oldest);
+        return read(start, start != position);
+    }
+
+    /**
+     * Returns the lines that were appended after the given previous read and that are still held in memory. If the log
+     * was {@link #clear() cleared} since the previous read, all lines held in memory are returned and the result is
+     * marked as {@link Increment#isDiscontinuous() discontinuous}.
+     *
+     * @param previous the result of the previous read, <code>null</code> to read from the beginning
+     * @return the read lines
+     */
+    public synchronized Increment readSince(final Increment previous) {
+        if (previous == null) {
+            return readSince(0);
+        }
+        if (previous.m_generation != m_generation) {
+            return read(Math.max(0, m_numLines - m_lines.length), true);
+        }
+        return readSince(previous.getEndPosition());
+    }
+
+    private Increment read(final long start, final boolean discontinuous) {
+        final int count = (int)(m_numLines - start);
+        final List<String> lines = new ArrayList<>(count);
+        for (long i = start; i < m_numLines; i++) {
+            lines.add(m_lines[(int)(i % m_lines.length)]);
+        }
+        return new Increment(m_generation, start, m_numLines, discontinuous, Collections.unmodifiableList(lines));
+    }
+
+    /**
+     * @return the lines held in memory, joined by line breaks
+     */
+    public synchronized String getText() {
+        final StringBuilder text = new StringBuilder();
+        for (final String line : readSince(0).getLines()) {
+            text.append(line).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Flushes and closes the spill file, if any. Further evicted lines reopen it.
+     */
+    public synchronized void closeSpill() {
+        if (m_spillWriter != null) {
+            try {
+                m_spillWriter.close();
+            } catch (final IOException e) {
+                LOGGER.debug("Failed to close training log spill file '" + m_spillFile + "'.", e);
+            }
+            m_spillWriter = null;
+        }
+    }
+
+    /**
+     * Closes and deletes the spill file, if any. Lines held in memory remain readable, lines that are evicted
+     * afterwards are discarded. Must be called once the log is not needed anymore.
+     */
+    public synchronized void dispose() {
+        closeSpill();
+        m_disposed = true;
+        if (m_spillFile != null) {
+            try {
+                Files.deleteIfExists(m_spillFile);
+            } catch (final IOException e) {
+                LOGGER.debug("Failed to delete training log spill file '" + m_spillFile + "'.", e);
+            }
+        }
+    }
+
+    private void spill(final String line) {
+        if (m_spillFile == null || m_disposed) {
+            return;
+        }
+        try {
+            if (m_spillWriter == null) {
+                m_spillWriter = Files.newBufferedWriter(m_spillFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            }
+            m_spillWriter.write(line);
+            m_spillWriter.newLine();
+        } catch (final IOException e) {
+            LOGGER.debug("Failed to spill training log to file '" + m_spillFile + "'.", e);
+        }
+    }
+
+    private void flushSpill() {
+        if (m_spillWriter != null) {
+            try {
+                m_spillWriter.flush();
+            } catch (final IOException e) {
+                LOGGER.debug("Failed to flush training log spill file '" + m_spillFile + "'.", e);
+            }
+        }
+    }
+
+    /**
+     * The lines that were read from a log via {@link DLPythonTrainingLog#readSince(long)}.
+     */
+    public static final class Increment {
+
+        private final long m_generation;
+
+        private final long m_startPosition;
+
+        private final long m_endPosition;
+
+        private final boolean m_discontinuous;
+
+        private final List<String> m_lines;
+
+        private Increment(final long generation, final long startPosition, final long endPosition,
+            final boolean discontinuous, final List<String> lines) {
+            m_generation = generation;
+            m_startPosition = startPosition;
+            m_endPosition = endPosition;
+            m_discontinuous = discontinuous;
+            m_lines = lines;
+        }
+
+        /**
+         * @return the {@link DLPythonTrainingLog#getGeneration() generation} of the log at the time of the read
+         */
+        public long getGeneration() {
+            return m_generation;
+        }
+
+        /**
+         * @return the position of the first read line
+         */
+        public long getStartPosition() {
+            return m_startPosition;
+        }
+
+        /**
+         * @return the position after the last read line
+         */
+        public long getEndPosition() {
+            return m_endPosition;
+        }
+
+        /**
+         * @return <code>true</code> if the read lines do not directly continue the requested position, i.e. lines were
+         *         evicted in the meantime or the log was cleared. Consumers should then discard what they read before.
+         */
+        public boolean isDiscontinuous() {
+            return m_discontinuous;
+        }
+
+        /**
+         * @return the read lines
+         */
+        public List<String> getLines() {
+            return m_lines;
+        }
+    }
+}
@@ -54,24 +54,43 @@
 public interface DLPythonTrainingStatus extends DLTrainingStatus {
 
     /**
-     * @return the standard output of the training
+     * @return the log of the standard output of the training, consumers should read it incrementally via
+     *         {@link DLPythonTrainingLog#readSince(DLPythonTrainingLog.Increment)}
+     */
+    DLPythonTrainingLog getStdOutLog();
+
+    /**
+     * @return the log of the standard error of the training, consumers should read it incrementally via
+     *         {@link DLPythonTrainingLog#readSince(DLPythonTrainingLog.Increment)}
+     */
+    DLPythonTrainingLog getStdErrLog();
+
+    /**
+     * Releases the resources of the {@link #getStdOutLog() standard output} and {@link #getStdErrLog() standard error}
+     * logs, i.e. deletes their spill files. Must be called once the status is not needed anymore, e.g. when the owning
+     * node is reset or disposed.
+     */
+    void dispose();
+
+    /**
+     * @return the standard output of the training (as far as it is held in memory by {@link #getStdOutLog()})
      */
     String getStdOutOutput();
 
     /**
-     * @return the standard error of the training
+     * @return the standard error of the training (as far as it is held in memory by {@link #getStdErrLog()})
      */
     String getStdErrOutput();
 
     /**
-     * Set the standard output of the training.
+     * Set the standard output of the training. Prefer appending to {@link #getStdOutLog()}.
      *
      * @param stdOut the standard output as a String
      */
     void setStdOutOutput(String stdOut);
 
     /**
-     * Set the standard error of the training.
+     * Set the standard error of the training. Prefer appending to {@link #getStdErrLog()}.
      *
      * @param stdErr the standard error as a String
      */
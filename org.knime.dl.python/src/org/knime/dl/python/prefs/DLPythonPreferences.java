@@ -131,6 +131,19 @@ public static PythonCommand getPythonCommandPreference() {
         }
     }
 
+    /**
+     * @return the name of the currently selected deep learning Conda environment, or an empty string if the deep
+     *         learning configuration does not use a Conda environment of its own
+     */
+    public static String getCondaEnvironmentNamePreference() {
+        if (usePythonPreferences() || !PythonEnvironmentType.CONDA.equals(getEnvironmentTypePreference())) {
+            return "";
+        }
+        final DLCondaEnvironmentConfig envConfig = new DLCondaEnvironmentConfig();
+        envConfig.loadConfigFrom(CURRENT);
+        return envConfig.getEnvironmentName().getStringValue();
+    }
+
     /**
      * @return the currently selected serialization library
      */
@@ -0,0 +1,125 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.base.portobjects;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.core.util.FileUtil;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLNetworkFileStoreDeduplicatorTest {
+
+    private static final byte[] CONTENT = "identical network".getBytes();
+
+    @Rule
+    public final TemporaryFolder m_tmp = new TemporaryFolder();
+
+    @Test
+    public void testIdenticalFilesAreLinked() throws IOException {
+        final Path first = writeNetworkFile("fs1", CONTENT);
+        final Path second = writeNetworkFile("fs2", CONTENT);
+        DLNetworkFileStoreDeduplicator.deduplicate(first);
+        DLNetworkFileStoreDeduplicator.deduplicate(second);
+        assumeTrue("File system does not support hard links.", Files.isSameFile(first, second));
+        assertArrayEquals(CONTENT, Files.readAllBytes(second));
+    }
+
+    @Test
+    public void testLinkedFilesSurviveSave() throws IOException {
+        final Path first = writeNetworkFile("fs1", CONTENT);
+        final Path second = writeNetworkFile("fs2", CONTENT);
+        DLNetworkFileStoreDeduplicator.deduplicate(first);
+        DLNetworkFileStoreDeduplicator.deduplicate(second);
+        // KNIME copies the file store directories into the workflow directory when saving a workflow.
+        final File workflowDir = m_tmp.newFolder("workflow");
+        final Path saved = workflowDir.toPath().resolve("fs2");
+        FileUtil.copyDir(second.getParent().toFile(), saved.toFile());
+        final Path savedFile = saved.resolve(second.getFileName());
+        assertFalse(Files.isSameFile(savedFile, first));
+        // Disposing the file stores of the session must not affect the saved copy.
+        FileUtil.deleteRecursively(first.getParent().toFile());
+        FileUtil.deleteRecursively(second.getParent().toFile());
+        assertArrayEquals(CONTENT, Files.readAllBytes(savedFile));
+    }
+
+    @Test
+    public void testDisposedFileStoresAreEvicted() throws IOException {
+        final int sizeBefore = DLNetworkFileStoreDeduplicator.getIndexSize();
+        final Path file = writeNetworkFile("fs1", "network to dispose".getBytes());
+        DLNetworkFileStoreDeduplicator.deduplicate(file);
+        assertEquals(sizeBefore + 1, DLNetworkFileStoreDeduplicator.getIndexSize());
+        FileUtil.deleteRecursively(file.getParent().toFile());
+        assertEquals(sizeBefore, DLNetworkFileStoreDeduplicator.getIndexSize());
+    }
+
+    @Test
+    public void testIndexIsBounded() throws IOException {
+        for (int i = 0; i < DLNetworkFileStoreDeduplicator.MAX_INDEX_SIZE + 10; i++) {
+            DLNetworkFileStoreDeduplicator.deduplicate(writeNetworkFile("fs" + i, ("network " + i).getBytes()));
+        }
+        assertEquals(DLNetworkFileStoreDeduplicator.MAX_INDEX_SIZE, DLNetworkFileStoreDeduplicator.getIndexSize());
+    }
+
+    private Path writeNetworkFile(final String fileStoreName, final byte[] content) throws IOException {
+        final Path file = m_tmp.newFolder(fileStoreName).toPath().resolve("network.h5");
+        Files.write(file, content);
+        return file;
+    }
+}
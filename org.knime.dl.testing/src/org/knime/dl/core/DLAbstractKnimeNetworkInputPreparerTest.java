@@ -0,0 +1,260 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLDoubleValueToDoubleTensorConverterFactory;
+import org.knime.dl.core.execution.DLKnimeNetworkExecutionInputPreparer;
+import org.knime.dl.testing.DLTestingTensorFactory;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Tests that data written by converters in a {@link DLDataValueToTensorConverterFactory#getSourceDimensionOrder()
+ * dimension order} that differs from the network's is shaped and laid out in the network's order, from the creation of
+ * the execution tensor specs to the filled tensors.
+ *
+ * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
+ */
+public class DLAbstractKnimeNetworkInputPreparerTest {
+
+	private static final DLTensorId TENSOR_ID = new DLDefaultTensorId("image");
+
+	private static final int HEIGHT = 2;
+
+	private static final int WIDTH = 3;
+
+	private static final int CHANNELS = 4;
+
+	private static final int NUM_ROWS = 3;
+
+	private static final int BATCH_SIZE = 2;
+
+	@Test
+	public void testChannelsLastDataIsTransposedIntoChannelsFirstTensor() throws Exception {
+		// The network only knows the number of channels.
+		final DLTensorSpec configureSpec = new DLDefaultTensorSpec(TENSOR_ID, "image",
+				new DLDefaultPartialTensorShape(new OptionalLong[] { OptionalLong.of(CHANNELS), OptionalLong.empty(),
+						OptionalLong.empty() }),
+				double.class, DLDimensionOrder.TCDHW);
+		final DLDataValueToTensorConverterFactory<?, ?> converterFactory = new DLChannelsLastConverterFactory();
+		final List<DataRow> rows = createRows();
+		final Map<DLTensorId, int[]> columns = Collections.singletonMap(TENSOR_ID, createColumnIndices());
+		final DLTensorFactory tensorFactory = new DLOrderPreservingTestingTensorFactory();
+
+		final Set<DLTensorSpec> executionSpecs = DLExecutionSpecCreator.createExecutionSpecs(rows.get(0),
+				tensorFactory, BATCH_SIZE, columns, Collections.singletonMap(configureSpec, converterFactory));
+		final DLTensorSpec executionSpec = executionSpecs.iterator().next();
+		assertArrayEquals(new long[] { CHANNELS, HEIGHT, WIDTH },
+				DLUtils.Shapes.getFixedShape(executionSpec.getShape()).get());
+
+		final DLTensor<? extends DLWritableBuffer> tensor = tensorFactory.createWritableTensor(executionSpec);
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = Collections.singletonMap(TENSOR_ID,
+				tensor);
+		try (final DLKnimeNetworkExecutionInputPreparer preparer = new DLKnimeNetworkExecutionInputPreparer(
+				new DLListRowIterator(createTableSpec(), rows, columns), BATCH_SIZE, false,
+				Collections.singletonMap(TENSOR_ID, converterFactory))) {
+			int row = 0;
+			while (preparer.hasNext()) {
+				preparer.prepareNext(input);
+				final DLReadableDoubleBuffer buffer = (DLReadableDoubleBuffer) tensor.getBuffer();
+				final long numExamples = buffer.size() / (CHANNELS * HEIGHT * WIDTH);
+				for (int e = 0; e < numExamples; e++, row++) {
+					for (int c = 0; c < CHANNELS; c++) {
+						for (int h = 0; h < HEIGHT; h++) {
+							for (int w = 0; w < WIDTH; w++) {
+								assertEquals(getValue(row, h, w, c), buffer.readNextDouble(), 0);
+							}
+						}
+					}
+				}
+				buffer.reset();
+			}
+			assertEquals(NUM_ROWS, row);
+		}
+	}
+
+	/**
+	 * The value of the given pixel and channel of the given row. Rows store their pixels interleaved, i.e. channels
+	 * last.
+	 */
+	private static double getValue(final int row, final int h, final int w, final int c) {
+		return row * 1000 + h * 100 + w * 10 + c;
+	}
+
+	private static DataTableSpec createTableSpec() {
+		final DataColumnSpec[] columnSpecs = new DataColumnSpec[HEIGHT * WIDTH * CHANNELS];
+		for (int i = 0; i < columnSpecs.length; i++) {
+			columnSpecs[i] = new DataColumnSpecCreator("column" + i, DoubleCell.TYPE).createSpec();
+		}
+		return new DataTableSpec(columnSpecs);
+	}
+
+	private static int[] createColumnIndices() {
+		final int[] indices = new int[HEIGHT * WIDTH * CHANNELS];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = i;
+		}
+		return indices;
+	}
+
+	private static List<DataRow> createRows() {
+		final List<DataRow> rows = new ArrayList<>(NUM_ROWS);
+		for (int r = 0; r < NUM_ROWS; r++) {
+			final DataCell[] cells = new DataCell[HEIGHT * WIDTH * CHANNELS];
+			int i = 0;
+			for (int h = 0; h < HEIGHT; h++) {
+				for (int w = 0; w < WIDTH; w++) {
+					for (int c = 0; c < CHANNELS; c++) {
+						cells[i++] = new DoubleCell(getValue(r, h, w, c));
+					}
+				}
+			}
+			rows.add(new DefaultRow("Row" + r, cells));
+		}
+		return rows;
+	}
+
+	/**
+	 * Reads interleaved image data of a fixed size from a list of double columns.
+	 */
+	private static final class DLChannelsLastConverterFactory extends DLDoubleValueToDoubleTensorConverterFactory {
+
+		@Override
+		public long[] getDataShape(final List<? extends DataValue> input, final DLTensorSpec tensorSpec) {
+			return new long[] { HEIGHT, WIDTH, CHANNELS };
+		}
+
+		@Override
+		public DLDimensionOrder getSourceDimensionOrder() {
+			return DLDimensionOrder.TDHWC;
+		}
+	}
+
+	/**
+	 * Unlike its super class, keeps the dimension order of the tensor specs like the actual back ends do.
+	 */
+	private static final class DLOrderPreservingTestingTensorFactory extends DLTestingTensorFactory {
+
+		@Override
+		public DLTensorSpec createExecutionTensorSpec(final DLTensorSpec spec, final long batchSize,
+				final long[] shape) {
+			return new DLDefaultTensorSpec(spec.getIdentifier(), spec.getName(), batchSize,
+					new DLDefaultFixedTensorShape(shape), spec.getElementType(), spec.getDimensionOrder());
+		}
+	}
+
+	private static final class DLListRowIterator extends DLAbstractRowIterator {
+
+		private final List<DataRow> m_rows;
+
+		private int m_index;
+
+		private DLListRowIterator(final DataTableSpec tableSpec, final List<DataRow> rows,
+				final Map<DLTensorId, int[]> columns) {
+			super(tableSpec, new HashMap<>(columns));
+			m_rows = rows;
+		}
+
+		@Override
+		public long size() {
+			return m_rows.size();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return m_index < m_rows.size();
+		}
+
+		@Override
+		public DataRow peek() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return m_rows.get(m_index);
+		}
+
+		@Override
+		public DataRow next() {
+			final DataRow row = peek();
+			m_index++;
+			return row;
+		}
+
+		@Override
+		public void reset() {
+			m_index = 0;
+		}
+
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	}
+}
@@ -102,4 +102,15 @@ public void testInferMappingTCDHW() throws Exception {
 		assertArrayEquals(new int[] { 0, 1, 2 }, dimOrder.inferMappingFor(createDimensionArrayFromString("CHW")));
 	}
 
+	@Test
+	public void testGetDimensionsForRank() throws Exception {
+		assertArrayEquals(createDimensionArrayFromString("WC"), DLDimensionOrder.TDHWC.getDimensionsForRank(2));
+		assertArrayEquals(createDimensionArrayFromString("HWC"), DLDimensionOrder.TDHWC.getDimensionsForRank(3));
+		assertArrayEquals(createDimensionArrayFromString("CHW"), DLDimensionOrder.TCDHW.getDimensionsForRank(3));
+		assertArrayEquals(createDimensionArrayFromString("CDHW"), DLDimensionOrder.TCDHW.getDimensionsForRank(4));
+		assertArrayEquals(createDimensionArrayFromString("TDHWC"), DLDimensionOrder.TDHWC.getDimensionsForRank(5));
+		assertArrayEquals(new int[] { 2, 0, 1 },
+				DLDimensionOrder.TCDHW.inferMappingFor(DLDimensionOrder.TDHWC.getDimensionsForRank(3)));
+	}
+
 }
@@ -0,0 +1,111 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLExecutionProfileTest {
+
+	@Test
+	public void testParse() throws Exception {
+		final DLExecutionProfile profile = DLExecutionProfile.parse(" intra=4;inter = 2; omp=3; mkl=1; affinity=0-2, 5 ;");
+		assertEquals(4, profile.getIntraOpThreads());
+		assertEquals(2, profile.getInterOpThreads());
+		assertEquals(3, profile.getOmpThreads());
+		assertEquals(1, profile.getMklThreads());
+		assertEquals(Arrays.asList(0, 1, 2, 5), profile.getCpuAffinity());
+		assertFalse(profile.isDefault());
+		assertEquals(profile, DLExecutionProfile.parse(profile.toString()));
+	}
+
+	@Test
+	public void testParseEmpty() throws Exception {
+		assertTrue(DLExecutionProfile.parse("").isDefault());
+		assertTrue(DLExecutionProfile.parse(null).isDefault());
+		assertTrue(DLExecutionProfile.parse(" ; ").isDefault());
+		assertEquals(Collections.emptyList(), DLExecutionProfile.DEFAULT.getCpuAffinity());
+		assertEquals("", DLExecutionProfile.DEFAULT.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseUnknownKey() throws Exception {
+		DLExecutionProfile.parse("threads=4");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseNegativeThreadCount() throws Exception {
+		DLExecutionProfile.parse("intra=-1");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseInvalidAffinity() throws Exception {
+		DLExecutionProfile.parse("affinity=3-1");
+	}
+
+	@Test
+	public void testWithDefaults() throws Exception {
+		final DLExecutionProfile global = DLExecutionProfile.parse("intra=8; inter=2; affinity=0-7");
+		final DLExecutionProfile node = DLExecutionProfile.parse("intra=4; omp=4");
+		final DLExecutionProfile combined = node.withDefaults(global);
+		assertEquals(4, combined.getIntraOpThreads());
+		assertEquals(2, combined.getInterOpThreads());
+		assertEquals(4, combined.getOmpThreads());
+		assertEquals(0, combined.getMklThreads());
+		assertEquals(8, combined.getCpuAffinity().size());
+		assertEquals(global, DLExecutionProfile.DEFAULT.withDefaults(global));
+	}
+}
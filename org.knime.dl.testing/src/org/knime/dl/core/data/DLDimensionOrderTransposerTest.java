@@ -0,0 +1,172 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.knime.dl.core.DLDimensionOrder;
+
+/**
+ * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
+ */
+public class DLDimensionOrderTransposerTest {
+
+	@Test
+	public void testNoTranspositionRequired() throws Exception {
+		final long[] shape = new long[] { 4, 5, 3 };
+		assertFalse(DLDimensionOrderTransposer.create(DLDimensionOrder.TDHWC, DLDimensionOrder.TDHWC, shape)
+				.isPresent());
+		assertFalse(DLDimensionOrderTransposer.create(DLDimensionOrder.Unknown, DLDimensionOrder.TCDHW, shape)
+				.isPresent());
+		assertFalse(DLDimensionOrderTransposer.create(DLDimensionOrder.TDHWC, DLDimensionOrder.Unknown, shape)
+				.isPresent());
+		assertFalse(DLDimensionOrderTransposer.create(null, DLDimensionOrder.TCDHW, shape).isPresent());
+		assertFalse(DLDimensionOrderTransposer
+				.create(DLDimensionOrder.TDHWC, DLDimensionOrder.TCDHW, new long[] { 10 }).isPresent());
+		// a single channel does not change the memory layout
+		assertFalse(DLDimensionOrderTransposer
+				.create(DLDimensionOrder.TDHWC, DLDimensionOrder.TCDHW, new long[] { 1, 4, 5 }).isPresent());
+	}
+
+	@Test
+	public void testTransposeShape() throws Exception {
+		assertArrayEquals(new long[] { 4, 2, 3 }, DLDimensionOrderTransposer.transposeShape(DLDimensionOrder.TDHWC,
+				DLDimensionOrder.TCDHW, new long[] { 2, 3, 4 }));
+		assertArrayEquals(new long[] { 2, 3, 4 }, DLDimensionOrderTransposer.transposeShape(DLDimensionOrder.TCDHW,
+				DLDimensionOrder.TDHWC, new long[] { 4, 2, 3 }));
+		assertArrayEquals(new long[] { 4, 5, 2, 3 }, DLDimensionOrderTransposer
+				.transposeShape(DLDimensionOrder.TDHWC, DLDimensionOrder.TCDHW, new long[] { 5, 2, 3, 4 }));
+		// unknown orders and ranks that cannot be expressed in terms of dimension orders are left as they are
+		assertArrayEquals(new long[] { 2, 3, 4 }, DLDimensionOrderTransposer.transposeShape(DLDimensionOrder.Unknown,
+				DLDimensionOrder.TCDHW, new long[] { 2, 3, 4 }));
+		assertArrayEquals(new long[] { 7 }, DLDimensionOrderTransposer.transposeShape(DLDimensionOrder.TDHWC,
+				DLDimensionOrder.TCDHW, new long[] { 7 }));
+	}
+
+	@Test
+	public void testChannelsLastToChannelsFirst() throws Exception {
+		// target shape CHW
+		final int c = 3;
+		final int h = 37;
+		final int w = 45;
+		final DLDimensionOrderTransposer transposer = DLDimensionOrderTransposer
+				.create(DLDimensionOrder.TDHWC, DLDimensionOrder.TCDHW, new long[] { c, h, w }).get();
+		assertEquals(c * h * w, transposer.getExampleSize());
+		assertTrue(transposer.isApplicableTo(new long[] { c, h, w }));
+		assertFalse(transposer.isApplicableTo(new long[] { h, w, c }));
+		try (DLDefaultFloatBuffer buffer = new DLDefaultFloatBuffer(2 * c * h * w)) {
+			// two examples in HWC order, value encodes the position
+			for (int example = 0; example < 2; example++) {
+				for (int y = 0; y < h; y++) {
+					for (int x = 0; x < w; x++) {
+						for (int ch = 0; ch < c; ch++) {
+							buffer.put(value(example, ch, y, x));
+						}
+					}
+				}
+				transposer.transpose(buffer, example * c * h * w);
+			}
+			assertEquals(2 * c * h * w, buffer.size());
+			final float[] expected = new float[2 * c * h * w];
+			int i = 0;
+			for (int example = 0; example < 2; example++) {
+				for (int ch = 0; ch < c; ch++) {
+					for (int y = 0; y < h; y++) {
+						for (int x = 0; x < w; x++) {
+							expected[i++] = value(example, ch, y, x);
+						}
+					}
+				}
+			}
+			assertArrayEquals(expected, buffer.toFloatArray(), 0f);
+		}
+	}
+
+	@Test
+	public void testChannelsFirstToChannelsLastWithTime() throws Exception {
+		// target shape TDHWC
+		final long[] shape = new long[] { 2, 3, 4, 5, 6 };
+		final DLDimensionOrderTransposer transposer = DLDimensionOrderTransposer
+				.create(DLDimensionOrder.TCDHW, DLDimensionOrder.TDHWC, shape).get();
+		try (DLDefaultIntBuffer buffer = new DLDefaultIntBuffer(transposer.getExampleSize())) {
+			// written in TCDHW order
+			for (int t = 0; t < 2; t++) {
+				for (int ch = 0; ch < 6; ch++) {
+					for (int d = 0; d < 3; d++) {
+						for (int y = 0; y < 4; y++) {
+							for (int x = 0; x < 5; x++) {
+								buffer.put(((((t * 6 + ch) * 3 + d) * 4 + y) * 5) + x);
+							}
+						}
+					}
+				}
+			}
+			transposer.transpose(buffer, 0);
+			final int[] actual = buffer.toIntArray();
+			int i = 0;
+			for (int t = 0; t < 2; t++) {
+				for (int d = 0; d < 3; d++) {
+					for (int y = 0; y < 4; y++) {
+						for (int x = 0; x < 5; x++) {
+							for (int ch = 0; ch < 6; ch++) {
+								assertEquals(((((t * 6 + ch) * 3 + d) * 4 + y) * 5) + x, actual[i++]);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static float value(final int example, final int channel, final int y, final int x) {
+		return example * 100000 + channel * 10000 + y * 100 + x;
+	}
+}
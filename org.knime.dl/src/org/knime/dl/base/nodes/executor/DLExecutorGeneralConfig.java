@@ -58,6 +58,8 @@
 import org.knime.dl.base.settings.AbstractConfigEntry;
 import org.knime.dl.base.settings.ConfigEntry;
 import org.knime.dl.base.settings.DLGeneralConfig;
+import org.knime.dl.base.settings.DefaultConfigEntry;
+import org.knime.dl.core.DLExecutionProfile;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.execution.DLExecutionContext;
 import org.knime.dl.core.execution.DLExecutionContextRegistry;
@@ -81,6 +83,10 @@ class DLExecutorGeneralConfig extends AbstractConfig implements DLGeneralConfig<
 
 	private static final String CFG_KEY_KEEP_INPUT_COLS = "keep_input_columns";
 
+	private static final String CFG_KEY_BATCHES_PER_CALL = "batches_per_call";
+
+	private static final String CFG_KEY_EXECUTION_PROFILE = "execution_profile";
+
 
 	@SuppressWarnings("rawtypes") // java limitation
     DLExecutorGeneralConfig(final String defaultBackendName, final String defaultBackendId,
@@ -118,6 +124,24 @@ public void loadSettingsFrom(NodeSettingsRO settings) throws InvalidSettingsExce
 		put(SettingsModelConfigEntries.createIntegerBoundedConfigEntry(CFG_KEY_BATCH_SIZE, defaultBatchSize,
 		    1, Integer.MAX_VALUE));
 		put(SettingsModelConfigEntries.createBooleanConfigEntry(CFG_KEY_KEEP_INPUT_COLS, false));
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_BATCHES_PER_CALL, Integer.class, 1) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): transfer a single batch per call
+				m_value = 1;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<String>(CFG_KEY_EXECUTION_PROFILE, String.class, "") {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): use the global execution profile
+				m_value = "";
+				return true;
+			}
+		});
 	}
 
 	ConfigEntry<Integer> getBatchSizeEntry() {
@@ -134,6 +158,22 @@ public ConfigEntry<Boolean> getKeepInputColumnsEntry() {
         return get(CFG_KEY_KEEP_INPUT_COLS, Boolean.class);
     }
 
+    /**
+     * The number of batches that are transferred to the back end at once. The back end then processes them batch by
+     * batch on its own.
+     */
+    ConfigEntry<Integer> getBatchesPerCallEntry() {
+        return get(CFG_KEY_BATCHES_PER_CALL, Integer.class);
+    }
+
+    /**
+     * The execution profile that limits the CPU resources of the back end, see {@link DLExecutionProfile}. Empty to
+     * use the global profile.
+     */
+    ConfigEntry<String> getExecutionProfileEntry() {
+        return get(CFG_KEY_EXECUTION_PROFILE, String.class);
+    }
+
 
     static Collection<DLExecutionContext<?>> getAvailableExecutionContexts(Class<? extends DLNetwork> networkType) {
         return DLExecutionContextRegistry.getInstance().getExecutionContextsForNetworkType(networkType);
@@ -92,6 +92,10 @@ class DLExecutorGeneralPanel extends AbstractGridBagDialogComponentGroup {
 		    
 		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
 		    m_cfg.getBatchSizeEntry(), 1, Integer.MAX_VALUE), "Input batch size", 100);
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+		    m_cfg.getBatchesPerCallEntry(), 1, Integer.MAX_VALUE), "Batches per back end call", 1);
+		addStringEditRowComponent(ConfigUtil.toSettingsModelString(m_cfg.getExecutionProfileEntry()),
+		    "Execution profile");
 		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getKeepInputColumnsEntry()),
 		    "Keep input columns in output table", true);
 	}
@@ -125,8 +129,12 @@ public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec
 		if (batchSize != -1) {
 			m_cfg.getBatchSizeEntry().setValue((int) batchSize);
 			m_cfg.getBatchSizeEntry().setEnabled(false);
+			// the network cannot process inputs that span several batches
+			m_cfg.getBatchesPerCallEntry().setValue(1);
+			m_cfg.getBatchesPerCallEntry().setEnabled(false);
 		} else {
 			m_cfg.getBatchSizeEntry().setEnabled(true);
+			m_cfg.getBatchesPerCallEntry().setEnabled(true);
 		}
 	}
 
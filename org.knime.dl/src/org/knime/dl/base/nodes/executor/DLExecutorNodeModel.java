@@ -56,9 +56,11 @@
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.knime.core.data.DataColumnSpec;
@@ -89,6 +91,7 @@
 import org.knime.core.node.streamable.RowOutput;
 import org.knime.core.node.streamable.StreamableOperator;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
+import org.knime.core.node.workflow.FlowVariable;
 import org.knime.core.util.UniqueNameGenerator;
 import org.knime.dl.base.nodes.DLConfigurationUtility;
 import org.knime.dl.base.nodes.DLTensorRole;
@@ -98,6 +101,7 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLDefaultTensorId;
 import org.knime.dl.core.DLException;
+import org.knime.dl.core.DLExecutionProfile;
 import org.knime.dl.core.DLExecutionSpecCreator;
 import org.knime.dl.core.DLInstallationTestTimeout;
 import org.knime.dl.core.DLInstallationTestTimeoutException;
@@ -143,6 +147,10 @@ final class DLExecutorNodeModel extends NodeModel {
 
 	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLExecutorNodeModel.class);
 
+	private static final String FLOW_VAR_CURRENT_ITERATION = "currentIteration";
+
+	private static final String FLOW_VAR_MAX_ITERATIONS = "maxIterations";
+
 	static DLExecutorGeneralConfig createGeneralModelConfig() {
 		return new DLExecutorGeneralConfig("<none>", null, 100);
 	}
@@ -179,6 +187,8 @@ static SettingsModelStringArray createOutputOrderSettingsModel(final int outputs
 
 	private boolean m_initialLoaded;
 
+	private final DLExecutorSessionCache m_sessionCache = new DLExecutorSessionCache();
+
 	DLExecutorNodeModel() {
 		super(new PortType[] { DLNetworkPortObject.TYPE, BufferedDataTable.TYPE },
 				new PortType[] { BufferedDataTable.TYPE });
@@ -359,7 +369,15 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
 
 	@Override
 	protected void reset() {
-		// no op
+		// The cached execution session must survive the resets between the iterations of a loop. It is keyed by
+		// everything it depends on and therefore never reused inappropriately. Sessions that outlive their loop are
+		// closed by the cache's idle timeout.
+	}
+
+	@Override
+	protected void onDispose() {
+		m_sessionCache.close();
+		super.onDispose();
 	}
 
     private static DLTensorSpec getOutputOrHiddenTensorSpec(final String tensorNameOrId,
@@ -393,8 +411,21 @@ private void configureGeneral(final Class<? extends DLNetwork> networkType)
             throw new InvalidSettingsException(
                 "Selected back end is not compatible to the input deep learning network. Please reconfigure the node.");
         }
+        createExecutionProfile();
 	}
 
+    /**
+     * @return the execution profile of this node, completed by the global one
+     */
+    private DLExecutionProfile createExecutionProfile() throws InvalidSettingsException {
+        try {
+            return DLExecutionProfile.parse(m_generalCfg.getExecutionProfileEntry().getValue())
+                .withDefaults(DLExecutionProfile.getGlobalProfile());
+        } catch (final IllegalArgumentException e) {
+            throw new InvalidSettingsException("Invalid execution profile. " + e.getMessage(), e);
+        }
+    }
+
     private void configureInputs(final DLNetworkSpec networkSpec, final DataTableSpec inDataSpec)
         throws InvalidSettingsException {
         m_inputConverters = new LinkedHashMap<>(m_inputCfgs.size());
@@ -529,9 +560,15 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
                 + "Please check your local installation.\nDetails: " + e.getMessage());
         }
 
-		final int batchSize = m_generalCfg.getBatchSizeEntry().getValue();
+		final int predictionBatchSize = m_generalCfg.getBatchSizeEntry().getValue();
 		final boolean isPredefinedBatchSize = Arrays.stream(networkSpec.getInputSpecs())
 				.anyMatch(s -> s.getBatchSize().isPresent());
+		// Several batches can be transferred to the back end at once which then splits them up on its own. This saves
+		// round trips for back ends that run in a separate process. Networks with a predefined batch size only accept
+		// inputs of exactly that size.
+		final int batchesPerCall = isPredefinedBatchSize ? 1
+				: Math.min(m_generalCfg.getBatchesPerCallEntry().getValue(), Integer.MAX_VALUE / predictionBatchSize);
+		final int batchSize = predictionBatchSize * batchesPerCall;
 
 		final boolean keepInputColumns = m_generalCfg.getKeepInputColumnsEntry().getValue();
 
@@ -549,13 +586,35 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
 				final DLKnimeNetworkExecutionInputPreparer inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
 						rowIterator, batchSize, isPredefinedBatchSize, inputConverterForTensorId);
 				final DLKnimeNetworkOutputConsumer outputConsumer = new DLKnimeNetworkOutputConsumer(rowOutput,
-						inputPreparer.getBaseRows()::remove, keepInputColumns, outputConverterForTensorId, exec);
-				final DLNetworkExecutionSession session = ctx.createExecutionSession(network,
-						DLExecutionSpecCreator.createExecutionSpecs(rowIterator.peek(), ctx.getTensorFactory(),
-								batchSize, columnsForTensorId, m_inputConverters),
-						outputConverterForTensorId.keySet(), inputPreparer, outputConsumer)) {
-            final DLKnimeExecutionMonitor monitor = createExecutionMonitor(exec, inputPreparer.getNumBatches());
-			session.run(monitor);
+						inputPreparer.getBaseRows()::remove, keepInputColumns, outputConverterForTensorId, exec)) {
+			final Set<DLTensorSpec> executionInputSpecs = DLExecutionSpecCreator.createExecutionSpecs(
+					rowIterator.peek(), ctx.getTensorFactory(), batchSize, columnsForTensorId, m_inputConverters);
+			// Within a loop, the session (and with it, e.g., the loaded network and the preallocated tensors) is kept
+			// alive across iterations as long as network, input specs and requested outputs do not change.
+			final DLExecutionProfile executionProfile = createExecutionProfile();
+			final List<Object> sessionKey = Arrays.asList(portObject, ctx.getIdentifier(), executionInputSpecs,
+					outputConverterForTensorId.keySet(), predictionBatchSize, executionProfile);
+			DLNetworkExecutionSession session = m_sessionCache.acquire(sessionKey);
+			boolean keepSessionAlive = false;
+			try {
+				if (session == null) {
+					session = ctx.createExecutionSession(network, executionInputSpecs,
+							outputConverterForTensorId.keySet(), inputPreparer, outputConsumer);
+					session.setPredictionBatchSize(predictionBatchSize);
+					session.setExecutionProfile(executionProfile);
+				} else {
+					session.rebind(inputPreparer, outputConsumer);
+				}
+				final DLKnimeExecutionMonitor monitor = createExecutionMonitor(exec, inputPreparer.getNumBatches());
+				final long startTime = System.currentTimeMillis();
+				session.run(monitor);
+				LOGGER.debug("Executed " + (monitor.getExecutionStatus().getCurrentBatch() + 1) + " batch(es) in "
+						+ (System.currentTimeMillis() - startTime) + " ms (execution profile: '"
+						+ (executionProfile.isDefault() ? "back end defaults" : executionProfile) + "').");
+				keepSessionAlive = isInLoop() && !isInLastLoopIteration();
+			} finally {
+				m_sessionCache.release(sessionKey, session, keepSessionAlive);
+			}
 		} catch (final CanceledExecutionException | DLCanceledExecutionException e) {
 			throw e;
 		} catch (final Exception e) {
@@ -595,6 +654,27 @@ private void fillInputSpecificMaps(final DataTableSpec inDataSpec,
         }
     }
 
+    /**
+     * Loop start nodes expose the current iteration via a flow variable which is visible in the loop body.
+     */
+    private boolean isInLoop() {
+        return getAvailableFlowVariables().containsKey(FLOW_VAR_CURRENT_ITERATION);
+    }
+
+    /**
+     * Only loops with a known number of iterations expose their maximum number of iterations. For all other loops,
+     * the session is kept alive until the next execution outside of the loop, the disposal of the node or low memory.
+     */
+    private boolean isInLastLoopIteration() {
+        final Map<String, FlowVariable> flowVariables = getAvailableFlowVariables();
+        final FlowVariable currentIteration = flowVariables.get(FLOW_VAR_CURRENT_ITERATION);
+        final FlowVariable maxIterations = flowVariables.get(FLOW_VAR_MAX_ITERATIONS);
+        return currentIteration != null && maxIterations != null
+            && currentIteration.getType() == FlowVariable.Type.INTEGER
+            && maxIterations.getType() == FlowVariable.Type.INTEGER
+            && currentIteration.getIntValue() >= maxIterations.getIntValue() - 1;
+    }
+
     private static void handleGeneralException(final Exception e) throws CanceledExecutionException {
         final Throwable cause = e.getCause();
         if (cause != null) {
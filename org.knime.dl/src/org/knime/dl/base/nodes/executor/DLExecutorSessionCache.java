@@ -0,0 +1,242 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.base.nodes.executor;
+
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.knime.core.data.util.memory.MemoryAlert;
+import org.knime.core.data.util.memory.MemoryAlertListener;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.execution.DLNetworkExecutionSession;
+
+/**
+ * Keeps the execution session of a {@link DLExecutorNodeModel} alive between two executions of the node, e.g. between
+ * the iterations of a loop. The session is identified by a key that captures everything the session depends on (input
+ * network, execution input specs, requested outputs etc.). It is only handed out again for an equal key and discarded
+ * otherwise. The session is also discarded when the Java heap runs low or if it was not acquired again within the
+ * idle timeout (see {@link #IDLE_TIMEOUT_VM_OPT}), e.g. because the loop ended.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLExecutorSessionCache {
+
+    /**
+     * @see #getIdleTimeout()
+     */
+    static final String IDLE_TIMEOUT_VM_OPT = "knime.dl.executor.sessionidletimeout";
+
+    static final long DEFAULT_IDLE_TIMEOUT = 60000;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLExecutorSessionCache.class);
+
+    private static long idleTimeout = -1;
+
+    private static Timer timer;
+
+    /**
+     * @return the time in milliseconds a cached session is kept alive without being acquired again, as specified by the
+     *         user via VM option {@link #IDLE_TIMEOUT_VM_OPT}
+     */
+    static synchronized long getIdleTimeout() {
+        if (idleTimeout == -1) {
+            try {
+                idleTimeout = Long.parseLong(
+                    System.getProperty(IDLE_TIMEOUT_VM_OPT, Long.toString(DEFAULT_IDLE_TIMEOUT)));
+            } catch (final NumberFormatException ex) {
+                // Ignore, see below.
+            }
+            if (idleTimeout <= 0) {
+                idleTimeout = DEFAULT_IDLE_TIMEOUT;
+                LOGGER.warn("The VM option -D" + IDLE_TIMEOUT_VM_OPT
+                    + " was not set to a positive integer value. Using the default value of " + DEFAULT_IDLE_TIMEOUT
+                    + " ms instead.");
+            }
+        }
+        return idleTimeout;
+    }
+
+    private static synchronized Timer getTimer() {
+        if (timer == null) {
+            timer = new Timer("DL-Executor-Session-Cache", true);
+        }
+        return timer;
+    }
+
+    private DLNetworkExecutionSession m_session;
+
+    private List<Object> m_key;
+
+    private boolean m_inUse = false;
+
+    private boolean m_discardRequested = false;
+
+    private MemoryAlertListener m_memoryAlertListener;
+
+    /**
+     * Closes the cached session once the idle timeout expired, <code>null</code> while the session is in use or if
+     * there is none.
+     */
+    private TimerTask m_idleTask;
+
+    /**
+     * Returns the cached session if it was created for an equal key and discards it otherwise. The returned session
+     * must be handed back via {@link #release(List, DLNetworkExecutionSession, boolean)}.
+     *
+     * @param key the key that identifies the requested session
+     * @return the cached session or <code>null</code> if a new session must be created
+     */
+    synchronized DLNetworkExecutionSession acquire(final List<Object> key) {
+        cancelIdleTask();
+        if (m_session != null && !m_discardRequested && m_key.equals(key)) {
+            m_inUse = true;
+            return m_session;
+        }
+        discard();
+        m_inUse = true;
+        return null;
+    }
+
+    /**
+     * Hands back a session that was used by an execution of the node.
+     *
+     * @param key the key that identifies the session
+     * @param session the session, may be <code>null</code> if creating the session failed
+     * @param keepAlive <code>true</code> if the session should be cached for subsequent executions, <code>false</code>
+     *            if it should be closed
+     */
+    synchronized void release(final List<Object> key, final DLNetworkExecutionSession session,
+        final boolean keepAlive) {
+        final boolean discardRequested = m_discardRequested;
+        m_inUse = false;
+        if (session != m_session) {
+            discard();
+            m_session = session;
+            m_key = key;
+        }
+        if (!keepAlive || discardRequested || m_session == null) {
+            discard();
+            return;
+        }
+        if (m_memoryAlertListener == null) {
+            m_memoryAlertListener = new MemoryAlertListener() {
+
+                @Override
+                protected boolean memoryAlert(final MemoryAlert alert) {
+                    onMemoryAlert();
+                    return true;
+                }
+            };
+            MemoryAlertSystem.getInstance().addListener(m_memoryAlertListener);
+        }
+        cancelIdleTask();
+        final TimerTask idleTask = new TimerTask() {
+
+            @Override
+            public void run() {
+                onIdleTimeout(this);
+            }
+        };
+        m_idleTask = idleTask;
+        getTimer().schedule(idleTask, getIdleTimeout());
+    }
+
+    /**
+     * Closes the cached session unless it is currently in use. A session in use is closed once it is released.
+     */
+    synchronized void close() {
+        if (m_inUse) {
+            m_discardRequested = true;
+        } else {
+            discard();
+        }
+    }
+
+    private synchronized void onMemoryAlert() {
+        // the alert system removes the listener since we return true
+        m_memoryAlertListener = null;
+        LOGGER.debug("Low memory. Closing the cached deep learning execution session.");
+        close();
+    }
+
+    private synchronized void onIdleTimeout(final TimerTask idleTask) {
+        // the session may have been acquired again in the meantime
+        if (m_idleTask == idleTask) {
+            m_idleTask = null;
+            LOGGER.debug("Closing the cached deep learning execution session as it was not used within "
+                + getIdleTimeout() + " ms.");
+            close();
+        }
+    }
+
+    private void cancelIdleTask() {
+        if (m_idleTask != null) {
+            m_idleTask.cancel();
+            m_idleTask = null;
+        }
+    }
+
+    private void discard() {
+        cancelIdleTask();
+        if (m_memoryAlertListener != null) {
+            MemoryAlertSystem.getInstance().removeListener(m_memoryAlertListener);
+            m_memoryAlertListener = null;
+        }
+        if (m_session != null) {
+            try {
+                m_session.close();
+            } catch (final Exception e) {
+                LOGGER.debug("Failed to close the cached deep learning execution session.", e);
+            }
+        }
+        m_session = null;
+        m_key = null;
+        m_discardRequested = false;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.base.portobjects;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+import org.knime.core.data.filestore.FileStore;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Content-addressed deduplication of network files that are stored in {@link FileStore file stores}.
+ * <P>
+ * Network files are identified by a hash of their bytes (and their size). If a file store receives a network file
+ * whose content equals the content of another network file store that was written during this session and that still
+ * exists, the file store's file is replaced by a hard link to the existing file. Identical networks therefore share
+ * one physical file, whose reference count is maintained by the file system: the bytes are released once the last file
+ * store that links them is deleted. If the file system does not support hard links, the file store simply keeps its
+ * own copy.
+ * <P>
+ * Network files in file stores must not be modified once they were written and deduplicated.
+ * <P>
+ * Deduplication only saves space in the temporary file store area of the running session. When a workflow is saved,
+ * KNIME copies the file stores of its port objects into the workflow directory, which turns each link into an
+ * independent regular file with the same content. The saved workflow is therefore complete and unaffected by
+ * deleting other file stores, but it does not share the bytes of identical networks. Loaded file stores are not
+ * deduplicated since they are part of the workflow directory.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLNetworkFileStoreDeduplicator {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLNetworkFileStoreDeduplicator.class);
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The maximum number of distinct contents that are remembered. Beyond that, the least recently used content is
+     * forgotten, i.e. new files with that content are no longer linked to the existing ones.
+     */
+    static final int MAX_INDEX_SIZE = 1024;
+
+    /**
+     * Content key (hash and size) to the files that are known to have that content, in access order. Files whose file
+     * stores were disposed in the meantime are evicted before each deduplication.
+     */
+    private static final Map<String, List<Path>> INDEX = new LinkedHashMap<String, List<Path>>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Entry<String, List<Path>> eldest) {
+            return size() > MAX_INDEX_SIZE;
+        }
+    };
+
+    private DLNetworkFileStoreDeduplicator() {
+    }
+
+    /**
+     * Copies a single file (no directory) from a source URL to a destination file store. The content hash is computed
+     * while copying. If the destination's content turns out to be already present in another network file store, the
+     * destination is linked to that file store's file instead of keeping a second copy.
+     *
+     * @param fileSource the source URL
+     * @param destination the file store
+     * @throws IOException if copying to file store failed
+     */
+    public static void copyToFileStore(final URI fileSource, final FileStore destination) throws IOException {
+        final File file = destination.getFile();
+        final URL fileSourceURL = fileSource.toURL();
+        if (file.toURI().toURL().equals(fileSourceURL)) {
+            return;
+        }
+        final MessageDigest digest = createDigest();
+        long size = 0;
+        try (InputStream in = fileSourceURL.openStream(); OutputStream out = Files.newOutputStream(file.toPath())) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                size += read;
+            }
+        }
+        deduplicate(file.toPath(), toContentKey(digest, size));
+    }
+
+    /**
+     * Deduplicates the network file of the given file store that was just written, e.g. by a Python back end. The
+     * content hash is computed by streaming over the file.
+     *
+     * @param fileStore the file store that contains the network file
+     * @throws IOException if reading the file failed
+     */
+    public static void deduplicate(final FileStore fileStore) throws IOException {
+        deduplicate(fileStore.getFile().toPath());
+    }
+
+    static void deduplicate(final Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            // Directories (e.g. saved models of some back ends) are not deduplicated.
+            return;
+        }
+        final MessageDigest digest = createDigest();
+        long size = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        deduplicate(file, toContentKey(digest, size));
+    }
+
+    private static void deduplicate(final Path file, final String contentKey) {
+        synchronized (INDEX) {
+            evictDeletedFiles();
+            final List<Path> candidates = INDEX.computeIfAbsent(contentKey, k -> new ArrayList<>(1));
+            if (candidates.contains(file)) {
+                return;
+            }
+            for (final Path candidate : candidates) {
+                try {
+                    if (Files.isSameFile(candidate, file) || replaceByLink(file, candidate)) {
+                        // Remember the link as well, the content stays available as long as any of its files exists.
+                        candidates.add(file);
+                        return;
+                    }
+                } catch (final IOException e) {
+                    LOGGER.debug("Failed to compare network file '" + file + "' to '" + candidate + "'.", e);
+                }
+            }
+            candidates.add(file);
+        }
+    }
+
+    /**
+     * Removes the files whose file stores were disposed (i.e. deleted) from the index, and contents without any
+     * remaining files. Must be called while holding the lock on {@link #INDEX}.
+     */
+    private static void evictDeletedFiles() {
+        for (final Iterator<List<Path>> it = INDEX.values().iterator(); it.hasNext();) {
+            final List<Path> files = it.next();
+            files.removeIf(f -> !Files.isRegularFile(f));
+            if (files.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of distinct contents that are currently indexed, after evicting deleted files
+     */
+    static int getIndexSize() {
+        synchronized (INDEX) {
+            evictDeletedFiles();
+            return INDEX.size();
+        }
+    }
+
+    private static boolean replaceByLink(final Path file, final Path existing) {
+        final Path link = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createLink(link, existing);
+            Files.move(link, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (final IOException | UnsupportedOperationException | SecurityException e) {
+            LOGGER.debug("Failed to link network file '" + file + "' to identical file '" + existing
+                + "'. Keeping a separate copy.", e);
+            try {
+                Files.deleteIfExists(link);
+            } catch (final IOException e1) {
+                LOGGER.debug(e1.getMessage(), e1);
+            }
+            return false;
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toContentKey(final MessageDigest digest, final long size) {
+        final StringBuilder key = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.append(':').append(size).toString();
+    }
+}
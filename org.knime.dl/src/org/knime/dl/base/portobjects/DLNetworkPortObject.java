@@ -48,12 +48,8 @@
  */
 package org.knime.dl.base.portobjects;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
-import java.net.URL;
 import java.util.UUID;
 
 import javax.swing.JComponent;
@@ -67,7 +63,6 @@
 import org.knime.core.node.port.PortTypeRegistry;
 import org.knime.core.node.workflow.ModelContentOutPortView;
 import org.knime.core.util.DuplicateKeyException;
-import org.knime.core.util.FileUtil;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.DLTensorSpec;
@@ -128,20 +123,15 @@ public static FileStore createFileStoreForSaving(final String ext, final Executi
 	}
 
 	/**
-	 * Copies a single file (no directory) from a source URL to a destination file store.
+	 * Copies a single file (no directory) from a source URL to a destination file store. Identical network files share
+	 * their physical storage, see {@link DLNetworkFileStoreDeduplicator}.
 	 *
 	 * @param fileSource the source URL
 	 * @param destination the file store
 	 * @throws IOException if copying to file store failed
 	 */
     public static void copyFileToFileStore(final URI fileSource, final FileStore destination) throws IOException {
-		final File file = destination.getFile();
-        final URL fileSourceURL = fileSource.toURL();
-        if (!file.toURI().toURL().equals(fileSourceURL)) {
-            try (InputStream in = fileSourceURL.openStream(); FileOutputStream out = new FileOutputStream(file)) {
-				FileUtil.copy(in, out);
-			}
-		}
+        DLNetworkFileStoreDeduplicator.copyToFileStore(fileSource, destination);
 	}
 
 	/**
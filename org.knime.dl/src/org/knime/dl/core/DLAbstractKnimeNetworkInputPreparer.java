@@ -53,11 +53,15 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 
 import org.knime.core.data.DataValue;
+import org.knime.dl.core.data.DLDimensionOrderTransposer;
+import org.knime.dl.core.data.DLWrappingDataBuffer;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverter;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.util.DLUtils;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -71,6 +75,16 @@ public abstract class DLAbstractKnimeNetworkInputPreparer implements DLNetworkIn
 
 	protected final Map<DLTensorId, DLDataValueToTensorConverter<?, ?>> m_converters;
 
+	/**
+	 * The dimension orders in which the converters write their data. Only contains known orders.
+	 */
+	private final Map<DLTensorId, DLDimensionOrder> m_sourceDimensionOrders;
+
+	/**
+	 * Lazily created per tensor on first write. An empty optional means that no transposition is required.
+	 */
+	private final Map<DLTensorId, Optional<DLDimensionOrderTransposer>> m_transposers;
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
 	 *            fed to {@link #prepare(Map, long)}.
@@ -83,8 +97,14 @@ public DLAbstractKnimeNetworkInputPreparer(final DLRowIterator iterator, final i
 		m_iterator = checkNotNull(iterator);
 		m_batchSize = batchSize;
 		m_converters = new HashMap<>(checkNotNull(converters).size());
+		m_sourceDimensionOrders = new HashMap<>(converters.size());
+		m_transposers = new HashMap<>(converters.size());
 		for (final Entry<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converter : converters.entrySet()) {
 			m_converters.put(converter.getKey(), converter.getValue().createConverter());
+			final DLDimensionOrder sourceOrder = converter.getValue().getSourceDimensionOrder();
+			if (sourceOrder != null && sourceOrder != DLDimensionOrder.Unknown) {
+				m_sourceDimensionOrders.put(converter.getKey(), sourceOrder);
+			}
 		}
 	}
 
@@ -94,6 +114,10 @@ public void close() throws Exception {
 	}
 
 	/**
+	 * Writes the data values of a single row in the tensors. If a converter writes its data in a
+	 * {@link DLDataValueToTensorConverterFactory#getSourceDimensionOrder() dimension order} that differs from the one
+	 * of its tensor, the written example is transposed into the tensor's order.
+	 *
 	 * @param dataValues the data values which to write in the tensors
 	 * @param tensors the tensors in which to write the data values
 	 * @throws DLBufferOverflowExceptionForTensor if writing in a tensor exceeds its buffer's capacity. The affected
@@ -106,12 +130,41 @@ protected final void writeDataValuesInTensors(final Map<DLTensorId, List<DataVal
 			final DLTensorId identifier = entry.getKey();
 			final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
 			final DLDataValueToTensorConverter converter = m_converters.get(identifier);
+			final DLDimensionOrderTransposer transposer = getTransposer(identifier, tensor);
+			final long startPos = tensor.getBuffer().size();
 			try {
 				converter.convert(dataValues.get(identifier), tensor);
 			} catch (final BufferOverflowException ex) {
 				throw new DLBufferOverflowExceptionForTensor(ex, tensor);
 			}
+			// Incompletely written examples are left as they are and reported by the callers' size checks.
+			if (transposer != null && tensor.getBuffer().size() - startPos == transposer.getExampleSize()) {
+				transposer.transpose((DLWrappingDataBuffer<?>) tensor.getBuffer(), startPos);
+			}
+		}
+	}
+
+	private DLDimensionOrderTransposer getTransposer(final DLTensorId identifier,
+			final DLTensor<? extends DLWritableBuffer> tensor) {
+		final DLDimensionOrder sourceOrder = m_sourceDimensionOrders.get(identifier);
+		if (sourceOrder == null || !(tensor.getBuffer() instanceof DLWrappingDataBuffer)) {
+			return null;
+		}
+		final Optional<long[]> shape = DLUtils.Shapes.getFixedShape(tensor.getSpec().getShape());
+		if (!shape.isPresent()) {
+			return null;
+		}
+		Optional<DLDimensionOrderTransposer> transposer = m_transposers.get(identifier);
+		if (transposer == null || (transposer.isPresent() && !transposer.get().isApplicableTo(shape.get()))) {
+			transposer = DLDimensionOrderTransposer.create(sourceOrder, tensor.getSpec().getDimensionOrder(),
+					shape.get());
+			// Bit buffers and the like pack several elements into one buffer element, leave them untouched.
+			if (transposer.isPresent() && transposer.get().getExampleSize() != tensor.getExampleSize()) {
+				transposer = Optional.empty();
+			}
+			m_transposers.put(identifier, transposer);
 		}
+		return transposer.orElse(null);
 	}
 
 	/**
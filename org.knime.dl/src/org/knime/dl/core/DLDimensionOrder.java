@@ -99,6 +99,36 @@ public DLDimension[] getDimensions() {
         return m_dimensionOrder.clone();
     }
 
+    /**
+     * Returns the dimensions of a tensor of the given rank (excluding the batch dimension) that is laid out in this
+     * order. Each such tensor has a channel dimension and up to three spatial dimensions (trailing ones first, i.e.
+     * width, height, depth). Only a tensor of rank five additionally has a time dimension.
+     *
+     * @param rank the rank of the tensor, must be between one and five
+     * @return the dimensions of the tensor in this order
+     */
+    public DLDimension[] getDimensionsForRank(final int rank) {
+        if (this == Unknown) {
+            throw new UnsupportedOperationException("The dimension order is unknown.");
+        }
+        if (rank < 1 || rank > m_dimensionOrder.length) {
+            throw new IllegalArgumentException("Tensor rank must be between 1 and " + m_dimensionOrder.length
+                + " to be expressed in terms of dimension order " + this + ", but was " + rank + ".");
+        }
+        final DLDimension[] spatial = new DLDimension[]{DLDimension.Depth, DLDimension.Height, DLDimension.Width};
+        final DLDimension[] dimensions = new DLDimension[rank];
+        int counter = 0;
+        for (final DLDimension dimension : m_dimensionOrder) {
+            if (dimension == DLDimension.Channel || (dimension == DLDimension.Time && rank == 5)) {
+                dimensions[counter++] = dimension;
+            } else if (dimension != DLDimension.Time
+                && Arrays.asList(spatial).indexOf(dimension) >= spatial.length - Math.min(rank - 1, 3)) {
+                dimensions[counter++] = dimension;
+            }
+        }
+        return dimensions;
+    }
+
     public int[] inferMappingFor(DLDimension[] dimensions) {
         if (this == Unknown) {
             throw new UnsupportedOperationException("Can't infer mapping from unknown dimension.");
@@ -0,0 +1,339 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Describes how a back end may use the CPU of the local machine: the sizes of its thread pools and, optionally, the
+ * cores it is bound to. Setting these limits allows several deep learning nodes to run concurrently on a shared
+ * machine without oversubscribing its cores.
+ * <P>
+ * A profile is expressed as a semicolon separated list of <code>key=value</code> pairs, e.g.
+ * <code>intra=4; inter=2; omp=4; mkl=4; affinity=0-3,8</code>. Omitted keys are left to the back end. A global
+ * profile can be specified via VM option {@link #EXECUTION_PROFILE_VM_OPT}, profiles configured in a node override it
+ * key by key.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLExecutionProfile {
+
+	/**
+	 * @see #getGlobalProfile()
+	 */
+	public static final String EXECUTION_PROFILE_VM_OPT = "knime.dl.executionprofile";
+
+	/**
+	 * The profile that leaves all settings to the back end.
+	 */
+	public static final DLExecutionProfile DEFAULT = new DLExecutionProfile(0, 0, 0, 0, "");
+
+	private static final String KEY_INTRA_OP_THREADS = "intra";
+
+	private static final String KEY_INTER_OP_THREADS = "inter";
+
+	private static final String KEY_OMP_THREADS = "omp";
+
+	private static final String KEY_MKL_THREADS = "mkl";
+
+	private static final String KEY_CPU_AFFINITY = "affinity";
+
+	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLExecutionProfile.class);
+
+	private static DLExecutionProfile globalProfile;
+
+	/**
+	 * @return the global profile that can be specified by the user via VM option {@link #EXECUTION_PROFILE_VM_OPT},
+	 *         {@link #DEFAULT} if the option is not set or invalid
+	 */
+	public static synchronized DLExecutionProfile getGlobalProfile() {
+		if (globalProfile == null) {
+			try {
+				globalProfile = parse(System.getProperty(EXECUTION_PROFILE_VM_OPT, ""));
+			} catch (final IllegalArgumentException ex) {
+				globalProfile = DEFAULT;
+				LOGGER.warn("The VM option -D" + EXECUTION_PROFILE_VM_OPT + " is invalid and will be ignored. "
+						+ ex.getMessage());
+			}
+		}
+		return globalProfile;
+	}
+
+	/**
+	 * Parses a profile from its string representation (see the class description).
+	 *
+	 * @param profile the string representation, may be empty or <code>null</code>
+	 * @return the parsed profile
+	 * @throws IllegalArgumentException if the string representation is invalid
+	 */
+	public static DLExecutionProfile parse(final String profile) throws IllegalArgumentException {
+		if (profile == null || profile.trim().isEmpty()) {
+			return DEFAULT;
+		}
+		int intraOpThreads = 0;
+		int interOpThreads = 0;
+		int ompThreads = 0;
+		int mklThreads = 0;
+		String cpuAffinity = "";
+		for (final String entry : profile.split(";")) {
+			if (entry.trim().isEmpty()) {
+				continue;
+			}
+			final int separator = entry.indexOf('=');
+			if (separator == -1) {
+				throw new IllegalArgumentException(
+						"Execution profile entry '" + entry.trim() + "' is not of the form <key>=<value>.");
+			}
+			final String key = entry.substring(0, separator).trim();
+			final String value = entry.substring(separator + 1).trim();
+			switch (key) {
+				case KEY_INTRA_OP_THREADS:
+					intraOpThreads = parseThreadCount(key, value);
+					break;
+				case KEY_INTER_OP_THREADS:
+					interOpThreads = parseThreadCount(key, value);
+					break;
+				case KEY_OMP_THREADS:
+					ompThreads = parseThreadCount(key, value);
+					break;
+				case KEY_MKL_THREADS:
+					mklThreads = parseThreadCount(key, value);
+					break;
+				case KEY_CPU_AFFINITY:
+					cpuAffinity = value.replaceAll("\\s", "");
+					parseCpuAffinity(cpuAffinity);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown execution profile key '" + key + "'. Valid keys are '"
+							+ KEY_INTRA_OP_THREADS + "', '" + KEY_INTER_OP_THREADS + "', '" + KEY_OMP_THREADS + "', '"
+							+ KEY_MKL_THREADS + "' and '" + KEY_CPU_AFFINITY + "'.");
+			}
+		}
+		return new DLExecutionProfile(intraOpThreads, interOpThreads, ompThreads, mklThreads, cpuAffinity);
+	}
+
+	private static int parseThreadCount(final String key, final String value) {
+		try {
+			final int threads = Integer.parseInt(value);
+			if (threads >= 0) {
+				return threads;
+			}
+		} catch (final NumberFormatException ex) {
+			// Handled below.
+		}
+		throw new IllegalArgumentException("Value of execution profile key '" + key
+				+ "' must be a non-negative integer (zero meaning 'back end default'), but was '" + value + "'.");
+	}
+
+	/**
+	 * @param cpuAffinity a comma separated list of core indices and index ranges, e.g. <code>0-3,8</code>
+	 * @return the core indices
+	 */
+	private static List<Integer> parseCpuAffinity(final String cpuAffinity) {
+		final List<Integer> cores = new ArrayList<>();
+		if (cpuAffinity.isEmpty()) {
+			return cores;
+		}
+		try {
+			for (final String range : cpuAffinity.split(",")) {
+				final int separator = range.indexOf('-');
+				final int first = Integer.parseInt(separator == -1 ? range : range.substring(0, separator));
+				final int last = separator == -1 ? first : Integer.parseInt(range.substring(separator + 1));
+				if (first < 0 || last < first) {
+					throw new NumberFormatException();
+				}
+				for (int i = first; i <= last; i++) {
+					cores.add(i);
+				}
+			}
+		} catch (final NumberFormatException ex) {
+			throw new IllegalArgumentException("Value of execution profile key '" + KEY_CPU_AFFINITY
+					+ "' must be a comma separated list of core indices or index ranges (e.g. '0-3,8'), but was '"
+					+ cpuAffinity + "'.");
+		}
+		return cores;
+	}
+
+	private final int m_intraOpThreads;
+
+	private final int m_interOpThreads;
+
+	private final int m_ompThreads;
+
+	private final int m_mklThreads;
+
+	private final String m_cpuAffinity;
+
+	/**
+	 * @param intraOpThreads the number of threads used within a single operation, zero for the back end default
+	 * @param interOpThreads the number of threads used to run independent operations in parallel, zero for the back
+	 *            end default
+	 * @param ompThreads the number of OpenMP threads, zero for the back end default
+	 * @param mklThreads the number of MKL threads, zero for the back end default
+	 * @param cpuAffinity a comma separated list of core indices and index ranges the back end process is bound to,
+	 *            empty for no binding
+	 */
+	public DLExecutionProfile(final int intraOpThreads, final int interOpThreads, final int ompThreads,
+			final int mklThreads, final String cpuAffinity) {
+		if (intraOpThreads < 0 || interOpThreads < 0 || ompThreads < 0 || mklThreads < 0) {
+			throw new IllegalArgumentException("Thread counts of an execution profile must be non-negative.");
+		}
+		m_intraOpThreads = intraOpThreads;
+		m_interOpThreads = interOpThreads;
+		m_ompThreads = ompThreads;
+		m_mklThreads = mklThreads;
+		m_cpuAffinity = cpuAffinity != null ? cpuAffinity : "";
+		parseCpuAffinity(m_cpuAffinity);
+	}
+
+	/**
+	 * @return the number of threads used within a single operation, zero for the back end default
+	 */
+	public int getIntraOpThreads() {
+		return m_intraOpThreads;
+	}
+
+	/**
+	 * @return the number of threads used to run independent operations in parallel, zero for the back end default
+	 */
+	public int getInterOpThreads() {
+		return m_interOpThreads;
+	}
+
+	/**
+	 * @return the number of OpenMP threads, zero for the back end default
+	 */
+	public int getOmpThreads() {
+		return m_ompThreads;
+	}
+
+	/**
+	 * @return the number of MKL threads, zero for the back end default
+	 */
+	public int getMklThreads() {
+		return m_mklThreads;
+	}
+
+	/**
+	 * @return the indices of the cores the back end process is bound to, empty for no binding
+	 */
+	public List<Integer> getCpuAffinity() {
+		return parseCpuAffinity(m_cpuAffinity);
+	}
+
+	/**
+	 * @return true if this profile leaves all settings to the back end
+	 */
+	public boolean isDefault() {
+		return equals(DEFAULT);
+	}
+
+	/**
+	 * Returns a profile that takes all settings from this profile that are not left to the back end, and all others
+	 * from the given profile.
+	 *
+	 * @param defaults the profile that provides the settings this profile does not specify
+	 * @return the combined profile
+	 */
+	public DLExecutionProfile withDefaults(final DLExecutionProfile defaults) {
+		return new DLExecutionProfile( //
+				m_intraOpThreads != 0 ? m_intraOpThreads : defaults.m_intraOpThreads,
+				m_interOpThreads != 0 ? m_interOpThreads : defaults.m_interOpThreads,
+				m_ompThreads != 0 ? m_ompThreads : defaults.m_ompThreads,
+				m_mklThreads != 0 ? m_mklThreads : defaults.m_mklThreads,
+				!m_cpuAffinity.isEmpty() ? m_cpuAffinity : defaults.m_cpuAffinity);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(m_intraOpThreads, m_interOpThreads, m_ompThreads, m_mklThreads, m_cpuAffinity);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		final DLExecutionProfile other = (DLExecutionProfile) obj;
+		return other.m_intraOpThreads == m_intraOpThreads //
+				&& other.m_interOpThreads == m_interOpThreads //
+				&& other.m_ompThreads == m_ompThreads //
+				&& other.m_mklThreads == m_mklThreads //
+				&& other.m_cpuAffinity.equals(m_cpuAffinity);
+	}
+
+	/**
+	 * @return the string representation of this profile, can be {@link #parse(String) parsed} again
+	 */
+	@Override
+	public String toString() {
+		final List<String> entries = new ArrayList<>(5);
+		if (m_intraOpThreads != 0) {
+			entries.add(KEY_INTRA_OP_THREADS + "=" + m_intraOpThreads);
+		}
+		if (m_interOpThreads != 0) {
+			entries.add(KEY_INTER_OP_THREADS + "=" + m_interOpThreads);
+		}
+		if (m_ompThreads != 0) {
+			entries.add(KEY_OMP_THREADS + "=" + m_ompThreads);
+		}
+		if (m_mklThreads != 0) {
+			entries.add(KEY_MKL_THREADS + "=" + m_mklThreads);
+		}
+		if (!m_cpuAffinity.isEmpty()) {
+			entries.add(KEY_CPU_AFFINITY + "=" + m_cpuAffinity);
+		}
+		return String.join("; ", entries);
+	}
+}
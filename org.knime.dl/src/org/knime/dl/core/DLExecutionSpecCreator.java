@@ -56,6 +56,7 @@
 
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataValue;
+import org.knime.dl.core.data.DLDimensionOrderTransposer;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.util.DLUtils;
 
@@ -92,8 +93,12 @@ private DLExecutionSpecCreator(final DLTensorFactory tensorFactory, final long b
 
 	public DLTensorSpec createExecutionTensorSpec(final DLTensorSpec configureSpec,
 			final DLDataValueToTensorConverterFactory<?, ?> converterFactory) throws DLMissingExtensionException {
-		final long[] dataShape = converterFactory.getDataShape(getValuesForIndices(m_row,
+		final long[] sourceDataShape = converterFactory.getDataShape(getValuesForIndices(m_row,
 				m_filterIndicesProvider.getFilterIndicesForTensor(configureSpec.getIdentifier())), configureSpec);
+		// The converter's data is transposed into the tensor's dimension order while writing (see
+		// DLAbstractKnimeNetworkInputPreparer), its shape must be as well.
+		final long[] dataShape = DLDimensionOrderTransposer.transposeShape(converterFactory.getSourceDimensionOrder(),
+				configureSpec.getDimensionOrder(), sourceDataShape);
 		final long[] executionShape = DLUtils.Shapes.calculateExecutionShape(configureSpec.getShape(), dataShape);
 		return m_tensorFactory.createExecutionTensorSpec(configureSpec, m_batchSize, executionShape);
 	}
@@ -53,4 +53,15 @@
 public interface DLNetworkSession extends AutoCloseable {
 
 	DLNetwork getNetwork();
+
+	/**
+	 * Sets the profile that limits the CPU resources the back end uses in this session. Must be called before the
+	 * session is run for the first time, later calls may be ignored. Back ends that cannot be configured accordingly
+	 * may ignore this setting.
+	 *
+	 * @param profile the execution profile
+	 */
+	default void setExecutionProfile(final DLExecutionProfile profile) {
+		// no op
+	}
 }
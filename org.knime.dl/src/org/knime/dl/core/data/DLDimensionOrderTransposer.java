@@ -0,0 +1,332 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.knime.dl.core.DLDimensionOrder;
+
+/**
+ * Converts the elements of a single example (i.e. one row of a batch) from a source {@link DLDimensionOrder dimension
+ * order} into a target dimension order, in place within the storage of a {@link DLWrappingDataBuffer}. This allows
+ * to feed, for instance, image data that is stored channels last into a network that expects its input channels
+ * first without an extra pass over the input data.
+ * <P>
+ * The permutation is precomputed once per shape. Elements are moved in square tiles spanning the innermost dimension
+ * of the source and the target layout, which keeps both the reads and the writes of a tile within the cache even for
+ * large examples.
+ *
+ * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLDimensionOrderTransposer {
+
+	private static final int BLOCK_SIZE = 32;
+
+	/**
+	 * Creates a transposer that converts examples of the given shape from the source into the target dimension order
+	 * if such a conversion is actually required.
+	 *
+	 * @param sourceOrder the dimension order in which the examples are written, may be <code>null</code>
+	 * @param targetOrder the dimension order that is expected by the network, may be <code>null</code>
+	 * @param targetShape the shape of an example (excluding the batch dimension) in the target dimension order
+	 * @return the transposer, or an empty optional if either order is unknown, the orders are equal, or if they do not
+	 *         differ for the given shape
+	 */
+	public static Optional<DLDimensionOrderTransposer> create(final DLDimensionOrder sourceOrder,
+			final DLDimensionOrder targetOrder, final long[] targetShape) {
+		checkNotNull(targetShape);
+		if (sourceOrder == null || targetOrder == null || sourceOrder == DLDimensionOrder.Unknown
+				|| targetOrder == DLDimensionOrder.Unknown || sourceOrder == targetOrder || targetShape.length < 2
+				|| targetShape.length > DLDimensionOrder.TDHWC.getDimensions().length) {
+			return Optional.empty();
+		}
+		final int[] mapping = targetOrder.inferMappingFor(sourceOrder.getDimensionsForRank(targetShape.length));
+		// Axes of extent one can be moved freely without changing the memory layout. The layouts are equal if the
+		// remaining axes keep their relative order.
+		boolean isIdentity = true;
+		int previousSourceAxis = -1;
+		for (int i = 0; i < mapping.length; i++) {
+			if (targetShape[i] != 1) {
+				if (mapping[i] < previousSourceAxis) {
+					isIdentity = false;
+					break;
+				}
+				previousSourceAxis = mapping[i];
+			}
+		}
+		return isIdentity ? Optional.empty() : Optional.of(new DLDimensionOrderTransposer(targetShape, mapping));
+	}
+
+	/**
+	 * Converts the shape of an example from the source into the target dimension order, e.g. to merge the shape of
+	 * data written by a converter into the shape of the tensor spec that the data is written into.
+	 *
+	 * @param sourceOrder the dimension order of the given shape, may be <code>null</code>
+	 * @param targetOrder the dimension order of the returned shape, may be <code>null</code>
+	 * @param sourceShape the shape of an example (excluding the batch dimension) in the source dimension order
+	 * @return the shape in the target dimension order, or the given shape if either order is unknown, the orders are
+	 *         equal, or if the shape's rank cannot be expressed in terms of dimension orders
+	 */
+	public static long[] transposeShape(final DLDimensionOrder sourceOrder, final DLDimensionOrder targetOrder,
+			final long[] sourceShape) {
+		checkNotNull(sourceShape);
+		if (sourceOrder == null || targetOrder == null || sourceOrder == DLDimensionOrder.Unknown
+				|| targetOrder == DLDimensionOrder.Unknown || sourceOrder == targetOrder || sourceShape.length < 2
+				|| sourceShape.length > DLDimensionOrder.TDHWC.getDimensions().length) {
+			return sourceShape;
+		}
+		final int[] mapping = targetOrder.inferMappingFor(sourceOrder.getDimensionsForRank(sourceShape.length));
+		final long[] targetShape = new long[sourceShape.length];
+		for (int t = 0; t < targetShape.length; t++) {
+			targetShape[t] = sourceShape[mapping[t]];
+		}
+		return targetShape;
+	}
+
+	private final long[] m_shape;
+
+	private final int m_size;
+
+	/**
+	 * The target index of the i-th moved element.
+	 */
+	private final int[] m_destIndices;
+
+	/**
+	 * The source index of the i-th moved element.
+	 */
+	private final int[] m_srcIndices;
+
+	private Object m_scratch;
+
+	/**
+	 * @param targetShape the shape of an example in the target order
+	 * @param mapping the source axis of each target axis
+	 */
+	private DLDimensionOrderTransposer(final long[] targetShape, final int[] mapping) {
+		final int rank = targetShape.length;
+		long size = 1;
+		for (final long extent : targetShape) {
+			checkArgument(extent > 0, "Invalid example shape: %s.", Arrays.toString(targetShape));
+			size *= extent;
+		}
+		checkArgument(size <= Integer.MAX_VALUE,
+				"Invalid example shape. Transposition only supports examples of up to " + Integer.MAX_VALUE
+						+ " elements.");
+		m_shape = targetShape.clone();
+		m_size = (int) size;
+
+		final long[] sourceShape = new long[rank];
+		for (int t = 0; t < rank; t++) {
+			sourceShape[mapping[t]] = targetShape[t];
+		}
+		final int[] sourceStrides = computeStrides(sourceShape);
+		final int[] destStrides = computeStrides(targetShape);
+		// the source strides expressed in terms of the target axes
+		final int[] srcStrides = new int[rank];
+		int srcInnermost = -1;
+		for (int t = 0; t < rank; t++) {
+			srcStrides[t] = sourceStrides[mapping[t]];
+			if (mapping[t] == rank - 1) {
+				srcInnermost = t;
+			}
+		}
+		final int destInnermost = rank - 1;
+
+		m_destIndices = new int[m_size];
+		m_srcIndices = new int[m_size];
+		final int extentA = (int) targetShape[destInnermost];
+		final int extentB = srcInnermost == destInnermost ? 1 : (int) targetShape[srcInnermost];
+		final int[] outerIndex = new int[rank];
+		int counter = 0;
+		boolean hasNextOuter = true;
+		while (hasNextOuter) {
+			int destBase = 0;
+			int srcBase = 0;
+			for (int t = 0; t < rank; t++) {
+				destBase += outerIndex[t] * destStrides[t];
+				srcBase += outerIndex[t] * srcStrides[t];
+			}
+			for (int b0 = 0; b0 < extentB; b0 += BLOCK_SIZE) {
+				final int b1 = Math.min(b0 + BLOCK_SIZE, extentB);
+				for (int a0 = 0; a0 < extentA; a0 += BLOCK_SIZE) {
+					final int a1 = Math.min(a0 + BLOCK_SIZE, extentA);
+					for (int b = b0; b < b1; b++) {
+						final int destRow = destBase + (extentB == 1 ? 0 : b * destStrides[srcInnermost]);
+						final int srcRow = srcBase + (extentB == 1 ? 0 : b * srcStrides[srcInnermost]);
+						for (int a = a0; a < a1; a++) {
+							m_destIndices[counter] = destRow + a * destStrides[destInnermost];
+							m_srcIndices[counter] = srcRow + a * srcStrides[destInnermost];
+							counter++;
+						}
+					}
+				}
+			}
+			// advance the odometer over all axes that are not tiled
+			hasNextOuter = false;
+			for (int t = rank - 1; t >= 0; t--) {
+				if (t == destInnermost || t == srcInnermost) {
+					continue;
+				}
+				if (++outerIndex[t] < targetShape[t]) {
+					hasNextOuter = true;
+					break;
+				}
+				outerIndex[t] = 0;
+			}
+		}
+	}
+
+	private static int[] computeStrides(final long[] shape) {
+		final int[] strides = new int[shape.length];
+		int stride = 1;
+		for (int i = shape.length - 1; i >= 0; i--) {
+			strides[i] = stride;
+			stride *= shape[i];
+		}
+		return strides;
+	}
+
+	/**
+	 * @param targetShape the shape of an example in the target order
+	 * @return true if this transposer was created for the given shape
+	 */
+	public boolean isApplicableTo(final long[] targetShape) {
+		return Arrays.equals(m_shape, targetShape);
+	}
+
+	/**
+	 * @return the number of elements of an example
+	 */
+	public int getExampleSize() {
+		return m_size;
+	}
+
+	/**
+	 * Converts the example that starts at the given position of the buffer from the source into the target dimension
+	 * order. The example must have been completely written into the buffer.
+	 *
+	 * @param buffer the buffer that holds the example
+	 * @param startPos the position of the first element of the example in the buffer
+	 * @throws IllegalArgumentException if the buffer's storage is not an array
+	 */
+	public void transpose(final DLWrappingDataBuffer<?> buffer, final long startPos) throws IllegalArgumentException {
+		final long size = buffer.size();
+		final Object storage = buffer.getStorageForWriting(startPos, m_size);
+		// getStorageForWriting moved the write position to the end of the example, restore it
+		buffer.getStorageForWriting(0, size);
+		transpose(storage, (int) startPos);
+	}
+
+	private void transpose(final Object storage, final int offset) {
+		checkArgument(storage != null && storage.getClass().isArray(),
+				"Buffer storage must be an array in order to be transposed.");
+		if (m_scratch == null || m_scratch.getClass() != storage.getClass()) {
+			m_scratch = Array.newInstance(storage.getClass().getComponentType(), m_size);
+		}
+		System.arraycopy(storage, offset, m_scratch, 0, m_size);
+		final int[] dest = m_destIndices;
+		final int[] src = m_srcIndices;
+		if (storage instanceof float[]) {
+			final float[] s = (float[]) storage;
+			final float[] tmp = (float[]) m_scratch;
+			for (int i = 0; i < m_size; i++) {
+				s[offset + dest[i]] = tmp[src[i]];
+			}
+		} else if (storage instanceof double[]) {
+			final double[] s = (double[]) storage;
+			final double[] tmp = (double[]) m_scratch;
+			for (int i = 0; i < m_size; i++) {
+				s[offset + dest[i]] = tmp[src[i]];
+			}
+		} else if (storage instanceof int[]) {
+			final int[] s = (int[]) storage;
+			final int[] tmp = (int[]) m_scratch;
+			for (int i = 0; i < m_size; i++) {
+				s[offset + dest[i]] = tmp[src[i]];
+			}
+		} else if (storage instanceof long[]) {
+			final long[] s = (long[]) storage;
+			final long[] tmp = (long[]) m_scratch;
+			for (int i = 0; i < m_size; i++) {
+				s[offset + dest[i]] = tmp[src[i]];
+			}
+		} else if (storage instanceof short[]) {
+			final short[] s = (short[]) storage;
+			final short[] tmp = (short[]) m_scratch;
+			for (int i = 0; i < m_size; i++) {
+				s[offset + dest[i]] = tmp[src[i]];
+			}
+		} else if (storage instanceof byte[]) {
+			final byte[] s = (byte[]) storage;
+			final byte[] tmp = (byte[]) m_scratch;
+			for (int i = 0; i < m_size; i++) {
+				s[offset + dest[i]] = tmp[src[i]];
+			}
+		} else if (storage instanceof boolean[]) {
+			final boolean[] s = (boolean[]) storage;
+			final boolean[] tmp = (boolean[]) m_scratch;
+			for (int i = 0; i < m_size; i++) {
+				s[offset + dest[i]] = tmp[src[i]];
+			}
+		} else if (storage instanceof Object[]) {
+			final Object[] s = (Object[]) storage;
+			final Object[] tmp = (Object[]) m_scratch;
+			for (int i = 0; i < m_size; i++) {
+				s[offset + dest[i]] = tmp[src[i]];
+			}
+		} else {
+			throw new IllegalArgumentException(
+					"Buffer storage of type '" + storage.getClass().getSimpleName() + "' cannot be transposed.");
+		}
+	}
+}
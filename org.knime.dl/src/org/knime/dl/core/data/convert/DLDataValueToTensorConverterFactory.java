@@ -53,6 +53,7 @@
 
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataValue;
+import org.knime.dl.core.DLDimensionOrder;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLWritableBuffer;
@@ -123,6 +124,19 @@ default String getIdentifier() {
 	 */
 	long[] getDataShape(List<? extends DataValue> input, DLTensorSpec tensorSpec);
 
+	/**
+	 * Returns the dimension order in which converters created by this factory write the elements of a data value
+	 * (e.g. channels last for interleaved image data). If it differs from the
+	 * {@link DLTensorSpec#getDimensionOrder() dimension order of the tensor} that is filled, the written data is
+	 * transposed into the tensor's order. The default implementation returns {@link DLDimensionOrder#Unknown} which
+	 * means that the data is written as it is.
+	 *
+	 * @return the dimension order of the written data
+	 */
+	default DLDimensionOrder getSourceDimensionOrder() {
+		return DLDimensionOrder.Unknown;
+	}
+
 	/**
 	 * Creates a new converter instance.
 	 *
@@ -47,6 +47,7 @@
 package org.knime.dl.core.execution;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -106,11 +107,23 @@ private static boolean areOutputSpecsValid(final DLNetwork network, final Set<DL
 	 */
 	protected final long m_expectedBatchSize;
 
+	/**
+	 * The number of examples the back end processes at once. Equals {@link #m_expectedBatchSize} unless set via
+	 * {@link #setPredictionBatchSize(long)}.
+	 */
+	protected long m_predictionBatchSize;
+
 	protected final Set<DLTensorId> m_requestedOutputs;
 
-	protected final DLNetworkInputPreparer m_inputPreparer;
+	/**
+	 * Can be replaced via {@link #rebind(DLNetworkInputPreparer, DLNetworkOutputConsumer)} between two runs.
+	 */
+	protected DLNetworkInputPreparer m_inputPreparer;
 
-	protected final DLNetworkOutputConsumer m_outputConsumer;
+	/**
+	 * Can be replaced via {@link #rebind(DLNetworkInputPreparer, DLNetworkOutputConsumer)} between two runs.
+	 */
+	protected DLNetworkOutputConsumer m_outputConsumer;
 
 	protected final DLTensorFactory m_tensorFactory;
 
@@ -137,6 +150,7 @@ protected DLAbstractNetworkExecutionSession(final N network, final Set<DLTensorS
 				.orElseThrow(() -> new IllegalArgumentException("The network must have at least one input."))
 				.getBatchSize().orElseThrow(() -> new IllegalArgumentException(
 						"The spec of an input tensor must contain a batch size at execution time."));
+		m_predictionBatchSize = m_expectedBatchSize;
 		m_requestedOutputs = new HashSet<>(requestedOutputs);
 		m_inputPreparer = inputPreparer;
 		m_outputConsumer = outputConsumer;
@@ -150,6 +164,19 @@ public N getNetwork() {
 		return m_network;
 	}
 
+	@Override
+	public void setPredictionBatchSize(final long predictionBatchSize) {
+		checkArgument(predictionBatchSize > 0 && m_expectedBatchSize % predictionBatchSize == 0,
+				"Prediction batch size must be a positive divisor of the input batch size.");
+		m_predictionBatchSize = predictionBatchSize;
+	}
+
+	@Override
+	public void rebind(final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer) {
+		m_inputPreparer = checkNotNull(inputPreparer);
+		m_outputConsumer = checkNotNull(outputConsumer);
+	}
+
 	@Override
 	public void run(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
 		// lazily preallocate input tensors
@@ -49,6 +49,7 @@
 package org.knime.dl.core.execution;
 
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLNetworkInputPreparer;
 import org.knime.dl.core.DLNetworkSession;
 
 /**
@@ -60,4 +61,28 @@
 public interface DLNetworkExecutionSession extends DLNetworkSession {
 
 	void run(DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception;
+
+	/**
+	 * Sets the number of examples the back end processes at once. By default, this equals the batch size of the
+	 * execution input specs. A smaller value allows transferring several batches at once which reduces the
+	 * communication overhead of back ends that run in a separate process. Back ends that do not distinguish between
+	 * both sizes may ignore this setting.
+	 *
+	 * @param predictionBatchSize the number of examples the back end processes at once, must be positive and a divisor
+	 *            of the batch size of the execution input specs
+	 */
+	default void setPredictionBatchSize(final long predictionBatchSize) {
+		// no op
+	}
+
+	/**
+	 * Replaces the input preparer and the output consumer of this session. This allows to {@link #run(DLExecutionMonitor)
+	 * run} the session on new data while keeping the resources it already acquired (e.g. a loaded network or
+	 * preallocated tensors). The new input must match the execution input specs the session was created with. The
+	 * caller remains responsible for closing both the previous and the new preparer and consumer.
+	 *
+	 * @param inputPreparer the new input preparer
+	 * @param outputConsumer the new output consumer
+	 */
+	void rebind(DLNetworkInputPreparer inputPreparer, DLNetworkOutputConsumer outputConsumer);
 }
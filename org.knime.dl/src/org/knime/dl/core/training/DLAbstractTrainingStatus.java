@@ -73,6 +73,8 @@ public abstract class DLAbstractTrainingStatus implements DLTrainingStatus {
 
 	private LocalDateTime m_endDateTime;
 
+	private int m_initialEpoch = 0;
+
 	private int m_currentEpoch = -1;
 
 	private int m_currentBatchInEpoch = -1;
@@ -85,10 +87,28 @@ public abstract class DLAbstractTrainingStatus implements DLTrainingStatus {
 
 	private final DLEvent<Map<String, DLReportedMetric>> m_epochEnded = new DLDefaultEvent<>();
 
-	private final DLEvent<Void> m_batchStarted = new DLDefaultEvent<>();
+	private final DLEvent<Void> m_batchStarted = new DLDefaultEvent<Void>() {
+
+		@Override
+		public void raise(final Void eventData) {
+			// advance before notifying the listeners, they read the current batch
+			m_currentBatchInEpoch++;
+			super.raise(eventData);
+		}
+	};
 
 	private final DLEvent<Map<String, DLReportedMetric>> m_batchEnded = new DLDefaultEvent<>();
 
+	private final DLEvent<Map<String, float[]>> m_batchesEnded = new DLDefaultEvent<Map<String, float[]>>() {
+
+		@Override
+		public void raise(final Map<String, float[]> eventData) {
+			// advance before notifying the listeners, they read the current batch
+			m_currentBatchInEpoch += eventData.values().iterator().next().length;
+			super.raise(eventData);
+		}
+	};
+
 	private final DLEvent<Void> m_validationStarted = new DLDefaultEvent<>();
 
 	private final DLEvent<Map<String, DLReportedMetric>> m_validationEnded = new DLDefaultEvent<>();
@@ -112,7 +132,7 @@ protected DLAbstractTrainingStatus() {
 		m_trainingStarted.addListener((src, v) -> {
 			m_startDateTime = LocalDateTime.now();
 			m_status = Status.RUNNING;
-			m_currentEpoch = -1;
+			m_currentEpoch = m_initialEpoch - 1;
 			m_currentBatchInEpoch = -1;
 		});
 		m_trainingEnded.addListener((src, v) -> {
@@ -123,7 +143,6 @@ protected DLAbstractTrainingStatus() {
 			m_currentBatchInEpoch = -1;
 			m_currentEpoch++;
 		});
-		m_batchStarted.addListener((src, v) -> m_currentBatchInEpoch++);
 	}
 
 	@Override
@@ -156,6 +175,17 @@ public LocalDateTime getEndDateTime() {
 		return m_endDateTime;
 	}
 
+	@Override
+	public int getInitialEpoch() {
+		return m_initialEpoch;
+	}
+
+	@Override
+	public void setInitialEpoch(final int initialEpoch) {
+		checkArgument(initialEpoch >= 0);
+		m_initialEpoch = initialEpoch;
+	}
+
 	@Override
 	public int getCurrentEpoch() {
 		return m_currentEpoch;
@@ -198,6 +228,11 @@ public DLEvent<Map<String, DLReportedMetric>> batchEnded() {
 		return m_batchEnded;
 	}
 
+	@Override
+	public DLEvent<Map<String, float[]>> batchesEnded() {
+		return m_batchesEnded;
+	}
+
 	@Override
 	public DLEvent<Void> validationStarted() {
 		return m_validationStarted;
@@ -0,0 +1,130 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.training;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidNetworkInputException;
+import org.knime.dl.core.DLNetworkFixedSizeInputPreparer;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLWritableBuffer;
+
+/**
+ * Prepares validation batches from a fixed sample of the validation data as well as from the complete validation data.
+ * Both share a single batch index space: the first {@link #getNumSampleBatches()} batches are prepared from the
+ * sample, the remaining ones from the complete data. This allows a training back end to validate on the (cheap) sample
+ * in intermediate validation phases and on the complete data at the end of training.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKnimeNetworkSampledValidationInputPreparer implements DLNetworkFixedSizeInputPreparer {
+
+	private final DLKnimeNetworkValidationInputPreparer m_sample;
+
+	private final DLKnimeNetworkValidationInputPreparer m_complete;
+
+	private long m_currentBatch;
+
+	/**
+	 * @param sample prepares the batches of the validation data sample
+	 * @param complete prepares the batches of the complete validation data
+	 */
+	public DLKnimeNetworkSampledValidationInputPreparer(final DLKnimeNetworkValidationInputPreparer sample,
+			final DLKnimeNetworkValidationInputPreparer complete) {
+		m_sample = checkNotNull(sample);
+		m_complete = checkNotNull(complete);
+		m_currentBatch = 0;
+	}
+
+	/**
+	 * @return the number of batches of the validation data sample, batch indices below this number refer to the sample
+	 */
+	public long getNumSampleBatches() {
+		return m_sample.getNumBatches();
+	}
+
+	@Override
+	public long getNumBatches() {
+		return m_sample.getNumBatches() + m_complete.getNumBatches();
+	}
+
+	@Override
+	public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final long batchIndex)
+			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+		final long numSampleBatches = getNumSampleBatches();
+		if (batchIndex < numSampleBatches) {
+			m_sample.prepare(input, batchIndex);
+		} else {
+			m_complete.prepare(input, batchIndex - numSampleBatches);
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return m_currentBatch < getNumBatches();
+	}
+
+	@Override
+	public void prepareNext(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input)
+			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+		prepare(input, m_currentBatch);
+		m_currentBatch++;
+	}
+
+	@Override
+	public void close() throws Exception {
+		try {
+			m_sample.close();
+		} finally {
+			m_complete.close();
+		}
+	}
+}
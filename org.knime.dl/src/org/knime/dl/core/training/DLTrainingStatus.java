@@ -79,6 +79,20 @@ public enum Status {
 
 	LocalDateTime getEndDateTime();
 
+	/**
+	 * @return the zero-based index of the epoch with which training starts, <code>0</code> unless training resumes a
+	 *         previous, interrupted run
+	 */
+	int getInitialEpoch();
+
+	/**
+	 * Sets the zero-based index of the epoch with which training starts. Must be set before training starts. The
+	 * current epoch is reset to the epoch before the initial epoch once training starts.
+	 *
+	 * @param initialEpoch the initial epoch, must not be negative
+	 */
+	void setInitialEpoch(int initialEpoch);
+
 	/**
 	 * @return <code>-1</code> if the first epoch did not yet start. Note that this especially the case between
 	 *         <code>trainingStarted</code> and <code>epochStarted</code>.
@@ -105,6 +119,15 @@ public enum Status {
 
 	DLEvent<Map<String, DLReportedMetric>> batchEnded();
 
+	/**
+	 * Alternative to <code>batchStarted</code> and <code>batchEnded</code> for back ends that coalesce the progress
+	 * of several consecutive batches into a single update. The event data maps each reported metric's name to its
+	 * values for the coalesced batches, in the order in which the batches were processed. All arrays have the same,
+	 * non-zero length which equals the number of batches covered by the update. The current batch in epoch is
+	 * advanced by that number before any other listener is notified.
+	 */
+	DLEvent<Map<String, float[]>> batchesEnded();
+
 	DLEvent<Void> validationStarted();
 
 	DLEvent<Map<String, DLReportedMetric>> valdationEnded();